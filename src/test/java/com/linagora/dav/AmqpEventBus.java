@@ -0,0 +1,150 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+
+/**
+ * Long-lived AMQP consumers shared by the tests of a {@link DockerTwakeCalendarSetup}: one exclusive queue per
+ * exchange, bound on the first subscription to it and kept until the bus is closed.
+ *
+ * <p>Each delivery is parsed once and handed only to the subscriptions of the principals it concerns (see
+ * {@link AmqpEventIndex} for the routing keys read from the payload). Tests running concurrently thus only see their
+ * own events, without binding and unbinding queues.
+ */
+public class AmqpEventBus implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AmqpEventBus.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public interface Subscription extends AutoCloseable {
+        Set<String> exchanges();
+
+        /**
+         * Messages of the exchanges matching at least one key of the subscription, in delivery order.
+         */
+        BlockingQueue<JsonNode> messages();
+
+        @Override
+        void close();
+    }
+
+    @FunctionalInterface
+    public interface DeliveryListener {
+        /**
+         * Called on the consumer thread of the exchange as soon as a matching message is received: must not block.
+         */
+        void onDelivery(String exchange, JsonNode message);
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final AmqpEventIndex index = new AmqpEventIndex();
+    private final Map<String, Channel> consumers = new ConcurrentHashMap<>();
+    private Connection connection;
+
+    public AmqpEventBus(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Events of the exchanges concerning one of the given users: as owner of the DAV resource, as principal, or by
+     * email.
+     */
+    public Subscription subscribe(Collection<String> exchanges, OpenPaasUser... users) {
+        return subscribe(exchanges, Arrays.stream(users)
+            .flatMap(user -> Stream.of(user.id(), user.email().toLowerCase(Locale.US)))
+            .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Events of the exchanges having one of the given routing keys: DAV paths, user ids, lower case emails or event
+     * UIDs.
+     */
+    public Subscription subscribe(Collection<String> exchanges, Collection<String> keys) {
+        return subscribe(exchanges, keys, (exchange, message) -> { });
+    }
+
+    public Subscription subscribe(Collection<String> exchanges, Collection<String> keys, DeliveryListener listener) {
+        Subscription subscription = index.register(Set.copyOf(exchanges), Set.copyOf(keys), listener);
+        try {
+            subscription.exchanges().forEach(exchange -> consumers.computeIfAbsent(exchange, this::startConsumer));
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        return subscription;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        consumers.clear();
+        if (connection != null && connection.isOpen()) {
+            connection.close();
+        }
+    }
+
+    private Channel startConsumer(String exchange) {
+        try {
+            Channel channel = connection().createChannel();
+            String queue = channel.queueDeclare().getQueue();
+            channel.queueBind(queue, exchange, "");
+            channel.basicConsume(queue, true, (consumerTag, delivery) -> {
+                JsonNode message;
+                try {
+                    message = MAPPER.readTree(delivery.getBody());
+                } catch (IOException e) {
+                    LOGGER.warn("Dropping a message of {} which is not JSON", exchange, e);
+                    return;
+                }
+                index.dispatch(exchange, message);
+            }, consumerTag -> { });
+            return channel;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to consume exchange " + exchange, e);
+        }
+    }
+
+    private synchronized Connection connection() {
+        if (connection == null || !connection.isOpen()) {
+            try {
+                connection = connectionFactory.newConnection();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to connect to RabbitMQ", e);
+            }
+        }
+        return connection;
+    }
+}
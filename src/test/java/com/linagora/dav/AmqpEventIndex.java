@@ -0,0 +1,183 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Routes the messages of an exchange to the subscriptions of the principals they concern, see {@link AmqpEventBus}.
+ *
+ * <p>The routing keys of a message are read from its payload:
+ * <ul>
+ *     <li>DAV paths such as {@code eventPath} or {@code calendarPath}: the path itself, its calendar (or address book)
+ *     path and its owner id,</li>
+ *     <li>principal URIs: the user id,</li>
+ *     <li>{@code mailto:} values and {@code *Email} fields (organizer, attendees, sender, recipient): the lower case
+ *     email,</li>
+ *     <li>event UIDs, from jCal {@code uid} properties and {@code UID:} lines of iCalendar text: the UID.</li>
+ * </ul>
+ */
+class AmqpEventIndex {
+    private static final Set<String> DAV_ROOTS = Set.of("calendars", "addressbooks");
+    private static final String PRINCIPAL_PREFIX = "principals/users/";
+    private static final String MAILTO = "mailto:";
+    private static final Pattern ICALENDAR_UID = Pattern.compile("^UID:(.+?)\\r?$", Pattern.MULTILINE);
+
+    static Set<String> routingKeys(JsonNode message) {
+        Set<String> keys = new HashSet<>();
+        collectRoutingKeys(null, message, keys);
+        return keys;
+    }
+
+    private static void collectRoutingKeys(String fieldName, JsonNode node, Set<String> keys) {
+        if (node.isTextual()) {
+            addRoutingKeys(fieldName, node.asText(), keys);
+        } else if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                collectRoutingKeys(field.getKey(), field.getValue(), keys);
+            }
+        } else if (node.isArray()) {
+            // jCal property: ["uid", {}, "text", "<uid>"]
+            if (node.size() == 4 && node.get(0).asText().equals("uid") && node.get(3).isTextual()) {
+                keys.add(node.get(3).asText());
+            }
+            node.forEach(element -> collectRoutingKeys(fieldName, element, keys));
+        }
+    }
+
+    private static void addRoutingKeys(String fieldName, String value, Set<String> keys) {
+        if (StringUtils.startsWithIgnoreCase(value, MAILTO)) {
+            keys.add(value.substring(MAILTO.length()).toLowerCase(Locale.US));
+        } else if (fieldName != null && StringUtils.endsWithIgnoreCase(fieldName, "email") && value.contains("@")) {
+            keys.add(value.toLowerCase(Locale.US));
+        } else if (StringUtils.removeStart(value, "/").startsWith(PRINCIPAL_PREFIX)) {
+            keys.add(StringUtils.substringBefore(StringUtils.removeStart(value, "/").substring(PRINCIPAL_PREFIX.length()), "/"));
+        } else if (value.startsWith("BEGIN:VCALENDAR")) {
+            Matcher uid = ICALENDAR_UID.matcher(value);
+            while (uid.find()) {
+                keys.add(uid.group(1));
+            }
+        } else if (value.indexOf('/') > 0 || value.startsWith("/")) {
+            // /calendars/{ownerId}/{calendarId}/{uid}.ics, contact messages omit the leading slash
+            String path = StringUtils.prependIfMissing(value, "/");
+            String[] segments = path.substring(1).split("/");
+            if (segments.length >= 2 && DAV_ROOTS.contains(segments[0])) {
+                keys.add(path);
+                keys.add(segments[1]);
+                if (segments.length >= 3) {
+                    keys.add("/" + segments[0] + "/" + segments[1] + "/" + StringUtils.removeEnd(segments[2], ".json"));
+                }
+            }
+        }
+    }
+
+    final class Subscription implements AmqpEventBus.Subscription {
+        private final Set<String> exchanges;
+        private final Set<String> keys;
+        private final AmqpEventBus.DeliveryListener listener;
+        private final BlockingQueue<JsonNode> messages = new LinkedBlockingQueue<>();
+
+        private Subscription(Set<String> exchanges, Set<String> keys, AmqpEventBus.DeliveryListener listener) {
+            this.exchanges = exchanges;
+            this.keys = keys;
+            this.listener = listener;
+        }
+
+        @Override
+        public Set<String> exchanges() {
+            return exchanges;
+        }
+
+        @Override
+        public BlockingQueue<JsonNode> messages() {
+            return messages;
+        }
+
+        @Override
+        public void close() {
+            unregister(this);
+        }
+
+        private void deliver(String exchange, JsonNode message) {
+            messages.add(message);
+            listener.onDelivery(exchange, message);
+        }
+    }
+
+    // exchange -> routing key -> subscriptions
+    private final Map<String, Map<String, Set<Subscription>>> subscriptions = new ConcurrentHashMap<>();
+
+    Subscription register(Set<String> exchanges, Set<String> keys) {
+        return register(exchanges, keys, (exchange, message) -> { });
+    }
+
+    Subscription register(Set<String> exchanges, Set<String> keys, AmqpEventBus.DeliveryListener listener) {
+        Subscription subscription = new Subscription(Set.copyOf(exchanges), Set.copyOf(keys), listener);
+        for (String exchange : subscription.exchanges) {
+            Map<String, Set<Subscription>> exchangeSubscriptions = subscriptions.computeIfAbsent(exchange, any -> new ConcurrentHashMap<>());
+            // Adding within compute: a concurrent unregister could otherwise drop the set before our add
+            subscription.keys.forEach(key -> exchangeSubscriptions.compute(key, (any, keySubscriptions) -> {
+                Set<Subscription> updated = keySubscriptions == null ? ConcurrentHashMap.<Subscription>newKeySet() : keySubscriptions;
+                updated.add(subscription);
+                return updated;
+            }));
+        }
+        return subscription;
+    }
+
+    void unregister(Subscription subscription) {
+        for (String exchange : subscription.exchanges) {
+            Map<String, Set<Subscription>> exchangeSubscriptions = subscriptions.getOrDefault(exchange, Map.of());
+            subscription.keys.forEach(key -> exchangeSubscriptions.computeIfPresent(key, (any, keySubscriptions) -> {
+                keySubscriptions.remove(subscription);
+                return keySubscriptions.isEmpty() ? null : keySubscriptions;
+            }));
+        }
+    }
+
+    /**
+     * Hands the message to every subscription having one of its routing keys, once.
+     */
+    void dispatch(String exchange, JsonNode message) {
+        Map<String, Set<Subscription>> exchangeSubscriptions = subscriptions.get(exchange);
+        if (exchangeSubscriptions == null || exchangeSubscriptions.isEmpty()) {
+            return;
+        }
+        Set<Subscription> recipients = new HashSet<>();
+        for (String key : routingKeys(message)) {
+            recipients.addAll(exchangeSubscriptions.getOrDefault(key, Set.of()));
+        }
+        recipients.forEach(subscription -> subscription.deliver(exchange, message));
+    }
+}
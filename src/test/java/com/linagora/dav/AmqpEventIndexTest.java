@@ -0,0 +1,201 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class AmqpEventIndexTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String EXCHANGE = "calendar:event:created";
+
+    private static final String EVENT_MESSAGE = """
+        {
+          "eventPath": "/calendars/owner1/calendar1/event-1.ics",
+          "event": [
+            "vcalendar",
+            [],
+            [
+              [
+                "vevent",
+                [
+                  ["organizer", {"cn": "Owner"}, "cal-address", "mailto:Owner1@open-paas.org"],
+                  ["attendee", {"partstat": "NEEDS-ACTION"}, "cal-address", "mailto:attendee1@open-paas.org"]
+                ],
+                []
+              ]
+            ]
+          ]
+        }
+        """;
+
+    private static JsonNode json(String json) throws Exception {
+        return MAPPER.readTree(json);
+    }
+
+    @Test
+    void routingKeysShouldContainEventPathCalendarAndOwner() throws Exception {
+        assertThat(AmqpEventIndex.routingKeys(json(EVENT_MESSAGE)))
+            .contains("/calendars/owner1/calendar1/event-1.ics", "/calendars/owner1/calendar1", "owner1");
+    }
+
+    @Test
+    void routingKeysShouldContainLowerCaseMailtoAddresses() throws Exception {
+        assertThat(AmqpEventIndex.routingKeys(json(EVENT_MESSAGE)))
+            .contains("owner1@open-paas.org", "attendee1@open-paas.org");
+    }
+
+    @Test
+    void routingKeysShouldContainEmailFields() throws Exception {
+        JsonNode message = json("""
+            {"senderEmail": "Sender@open-paas.org", "recipientEmail": "recipient@open-paas.org", "method": "REQUEST"}
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message))
+            .containsExactlyInAnyOrder("sender@open-paas.org", "recipient@open-paas.org");
+    }
+
+    @Test
+    void routingKeysShouldContainPrincipalIds() throws Exception {
+        JsonNode message = json("""
+            {
+              "calendarPath": "/calendars/owner1/calendar1.json",
+              "invite": [{"principal": "principals/users/delegate1", "access": 2}]
+            }
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message))
+            .contains("owner1", "delegate1", "/calendars/owner1/calendar1");
+    }
+
+    @Test
+    void routingKeysShouldContainContactPathsWithoutLeadingSlash() throws Exception {
+        JsonNode message = json("""
+            {"path": "addressbooks/owner1/collected/contact-1.vcf", "owner": "principals/users/owner1"}
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message))
+            .contains("/addressbooks/owner1/collected/contact-1.vcf", "/addressbooks/owner1/collected", "owner1");
+    }
+
+    @Test
+    void routingKeysShouldContainJCalEventUids() throws Exception {
+        JsonNode message = json("""
+            {"event": ["vcalendar", [], [["vevent", [["uid", {}, "text", "event-1"]], []]]]}
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message)).contains("event-1");
+    }
+
+    @Test
+    void routingKeysShouldContainICalendarEventUids() throws Exception {
+        JsonNode message = json("""
+            {"ics": "BEGIN:VCALENDAR\\r\\nBEGIN:VEVENT\\r\\nUID:event-1\\r\\nEND:VEVENT\\r\\nEND:VCALENDAR\\r\\n"}
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message)).containsExactly("event-1");
+    }
+
+    @Test
+    void routingKeysShouldIgnoreOtherValues() throws Exception {
+        JsonNode message = json("""
+            {"method": "REQUEST", "date": "2025-10-03", "path": "/unrelated/path", "privilege": "{DAV:}read"}
+            """);
+
+        assertThat(AmqpEventIndex.routingKeys(message)).isEmpty();
+    }
+
+    @Test
+    void dispatchShouldOnlyDeliverToMatchingSubscriptions() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+        AmqpEventIndex.Subscription owner = index.register(Set.of(EXCHANGE), Set.of("owner1"));
+        AmqpEventIndex.Subscription stranger = index.register(Set.of(EXCHANGE), Set.of("stranger"));
+
+        index.dispatch(EXCHANGE, json(EVENT_MESSAGE));
+
+        assertThat(owner.messages()).hasSize(1);
+        assertThat(stranger.messages()).isEmpty();
+    }
+
+    @Test
+    void dispatchShouldDeliverOnceWhenSeveralKeysMatch() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+        AmqpEventIndex.Subscription subscription = index.register(Set.of(EXCHANGE), Set.of("owner1", "attendee1@open-paas.org"));
+
+        index.dispatch(EXCHANGE, json(EVENT_MESSAGE));
+
+        assertThat(subscription.messages()).hasSize(1);
+    }
+
+    @Test
+    void dispatchShouldIgnoreOtherExchanges() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+        AmqpEventIndex.Subscription subscription = index.register(Set.of(EXCHANGE), Set.of("owner1"));
+
+        index.dispatch("calendar:event:deleted", json(EVENT_MESSAGE));
+
+        assertThat(subscription.messages()).isEmpty();
+    }
+
+    @Test
+    void dispatchShouldMergeSeveralExchanges() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+        AmqpEventIndex.Subscription subscription = index.register(Set.of(EXCHANGE, "calendar:event:updated"), Set.of("owner1"));
+
+        index.dispatch(EXCHANGE, json(EVENT_MESSAGE));
+        index.dispatch("calendar:event:updated", json(EVENT_MESSAGE));
+
+        assertThat(subscription.messages()).hasSize(2);
+    }
+
+    @Test
+    void closedSubscriptionShouldNotReceiveMessages() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+        AmqpEventIndex.Subscription subscription = index.register(Set.of(EXCHANGE), Set.of("owner1"));
+
+        subscription.close();
+        index.dispatch(EXCHANGE, json(EVENT_MESSAGE));
+
+        assertThat(subscription.messages()).isEmpty();
+    }
+
+    @Test
+    void registerShouldNotBeLostWhenConcurrentlyClosingTheLastSubscriptionOfAKey() throws Exception {
+        AmqpEventIndex index = new AmqpEventIndex();
+
+        for (int i = 0; i < 10_000; i++) {
+            AmqpEventIndex.Subscription previous = index.register(Set.of(EXCHANGE), Set.of("owner1"));
+            CompletableFuture<Void> closing = CompletableFuture.runAsync(previous::close);
+            AmqpEventIndex.Subscription subscription = index.register(Set.of(EXCHANGE), Set.of("owner1"));
+            closing.join();
+
+            index.dispatch(EXCHANGE, json(EVENT_MESSAGE));
+
+            assertThat(subscription.messages()).hasSize(1);
+            subscription.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.shaded.org.awaitility.core.ConditionEvaluationListener;
+import org.testcontainers.shaded.org.awaitility.core.EvaluatedCondition;
+import org.testcontainers.shaded.org.awaitility.core.TimeoutEvent;
+
+/**
+ * Time spent by each test waiting for a condition, through {@link DavAwait} or {@link TestUtil#awaitAtMost()}.
+ *
+ * <p>{@link DockerTwakeCalendarExtension} starts the accounting before each test and stops it after, on the test thread.
+ * Awaitility evaluating conditions on its own thread, each condition gets its own {@link #awaitilityListener()},
+ * created on the test thread.
+ */
+public class AwaitTimes {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AwaitTimes.class);
+    private static final ThreadLocal<Recorder> CURRENT = new ThreadLocal<>();
+    private static final Queue<TestWaits> FINISHED = new ConcurrentLinkedQueue<>();
+    private static final ConditionEvaluationListener<Object> NO_RECORDER_LISTENER = condition -> { };
+
+    public record TestWaits(String test, Duration waited, int awaits, Duration testDuration) {
+        public double waitedShare() {
+            if (testDuration.isZero()) {
+                return 0;
+            }
+            return Math.min(1, (double) waited.toNanos() / testDuration.toNanos());
+        }
+    }
+
+    private static final class Recorder {
+        private final String test;
+        private final long startNanos = System.nanoTime();
+        private final List<AwaitilityWait> awaitilityWaits = new ArrayList<>();
+        private long waitedMillis;
+        private int awaits;
+
+        private Recorder(String test) {
+            this.test = test;
+        }
+
+        synchronized void record(Duration waited) {
+            waitedMillis += waited.toMillis();
+            awaits++;
+        }
+
+        synchronized void started(AwaitilityWait wait) {
+            awaitilityWaits.add(wait);
+        }
+
+        synchronized TestWaits finish() {
+            long awaitilityMillis = awaitilityWaits.stream().mapToLong(AwaitilityWait::elapsedMillis).sum();
+            return new TestWaits(test, Duration.ofMillis(waitedMillis + awaitilityMillis), awaits + awaitilityWaits.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Awaitility only reports the time elapsed since the start of the condition it evaluates: the listener of a single
+     * condition keeps the latest value.
+     */
+    private static final class AwaitilityWait implements ConditionEvaluationListener<Object> {
+        private final Recorder recorder;
+        private long elapsedMillis = -1;
+
+        private AwaitilityWait(Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void conditionEvaluated(EvaluatedCondition<Object> condition) {
+            elapsed(condition.getElapsedTimeInMS());
+        }
+
+        @Override
+        public void onTimeout(TimeoutEvent timeoutEvent) {
+            elapsed(timeoutEvent.getElapsedTimeInMS());
+        }
+
+        private void elapsed(long millis) {
+            boolean started;
+            synchronized (this) {
+                started = elapsedMillis < 0;
+                elapsedMillis = Math.max(elapsedMillis, millis);
+            }
+            if (started) {
+                recorder.started(this);
+            }
+        }
+
+        synchronized long elapsedMillis() {
+            return Math.max(elapsedMillis, 0);
+        }
+    }
+
+    /**
+     * Records the time Awaitility spends on a single condition of the running test: every condition needs its own
+     * listener, as a listener can not tell two consecutive conditions apart.
+     */
+    public static ConditionEvaluationListener<Object> awaitilityListener() {
+        return current()
+            .<ConditionEvaluationListener<Object>>map(AwaitilityWait::new)
+            .orElse(NO_RECORDER_LISTENER);
+    }
+
+    public static void start(String test) {
+        CURRENT.set(new Recorder(test));
+    }
+
+    public static Optional<TestWaits> finish() {
+        Optional<TestWaits> waits = current().map(Recorder::finish);
+        CURRENT.remove();
+        waits.ifPresent(testWaits -> {
+            FINISHED.add(testWaits);
+            LOGGER.debug("{} waited {} ms over {} awaits ({} ms total)", testWaits.test(), testWaits.waited().toMillis(),
+                testWaits.awaits(), testWaits.testDuration().toMillis());
+        });
+        return waits;
+    }
+
+    static void record(Duration waited) {
+        current().ifPresent(recorder -> recorder.record(waited));
+    }
+
+    /**
+     * Tests finished so far in this JVM, longest waits first.
+     */
+    public static List<TestWaits> finished() {
+        return FINISHED.stream()
+            .sorted(Comparator.comparing(TestWaits::waited).reversed())
+            .toList();
+    }
+
+    private static Optional<Recorder> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+}
@@ -0,0 +1,55 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the share of the run spent waiting for conditions, and the tests waiting the most, once all tests are done.
+ * Registered through {@code META-INF/services}.
+ */
+public class AwaitTimesReport implements TestExecutionListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AwaitTimesReport.class);
+    private static final int SLOWEST_TESTS = 20;
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        List<AwaitTimes.TestWaits> finished = AwaitTimes.finished();
+        if (finished.isEmpty()) {
+            return;
+        }
+        Duration waited = finished.stream().map(AwaitTimes.TestWaits::waited).reduce(Duration.ZERO, Duration::plus);
+        Duration tests = finished.stream().map(AwaitTimes.TestWaits::testDuration).reduce(Duration.ZERO, Duration::plus);
+        StringBuilder report = new StringBuilder()
+            .append(String.format("%d tests waited %d s out of %d s (%.0f%%), longest waits:",
+                finished.size(), waited.toSeconds(), tests.toSeconds(),
+                tests.isZero() ? 0 : 100.0 * waited.toMillis() / tests.toMillis()));
+        finished.stream()
+            .limit(SLOWEST_TESTS)
+            .forEach(testWaits -> report.append(String.format("%n  %-100s %7d ms over %3d awaits (%.0f%% of the test)",
+                testWaits.test(), testWaits.waited().toMillis(), testWaits.awaits(), 100 * testWaits.waitedShare())));
+        LOGGER.info("{}", report);
+    }
+}
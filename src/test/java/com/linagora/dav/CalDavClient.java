@@ -21,8 +21,11 @@ package com.linagora.dav;
 import static com.linagora.dav.TestUtil.TWAKE_CALENDAR_TOKEN_HEADER;
 import static com.linagora.dav.TestUtil.body;
 
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -101,6 +104,27 @@ public class CalDavClient {
         }
     }
 
+    public record ITIPDelivery(OpenPaasUser requester, URI recipientCalendarUri, ITIPJsonBodyRequest body) {
+    }
+
+    /**
+     * @param etag to send as {@code If-Match} when updating the object, so that concurrent updates fail with a 412
+     */
+    public record CalendarObject(String calendarData, String etag) {
+    }
+
+    /**
+     * @param status {@link #NO_RESPONSE} when the request failed before getting a response
+     * @param error response body or failure of an undelivered message
+     */
+    public record ITIPDeliveryResult(ITIPDelivery delivery, int status, Duration latency, Optional<String> error) {
+        public static final int NO_RESPONSE = 0;
+
+        public boolean isDelivered() {
+            return status == 204;
+        }
+    }
+
     private static final String CONTENT_TYPE_JSON = "application/json";
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -122,21 +146,39 @@ public class CalDavClient {
     }
 
     public void upsertCalendarEvent(OpenPaasUser userRequest, URI calendarURI, String initialCalendarData) {
-        httpClient.headers(headers -> userRequest.impersonatedBasicAuth(headers).add("Content-Type", "text/calendar ; charset=utf-8"))
+        upsertCalendarEventReactive(userRequest, calendarURI, initialCalendarData).block();
+    }
+
+    public Mono<Void> upsertCalendarEventReactive(OpenPaasUser userRequest, URI calendarURI, String initialCalendarData) {
+        return upsertCalendarEventReactive(userRequest, calendarURI, initialCalendarData, Optional.empty());
+    }
+
+    /**
+     * Updates the object only if it did not change since it was read with {@link #getCalendarObjectReactive(OpenPaasUser, URI)}.
+     */
+    public Mono<Void> updateCalendarEventReactive(OpenPaasUser userRequest, URI calendarURI, String calendarData, String etag) {
+        return upsertCalendarEventReactive(userRequest, calendarURI, calendarData, Optional.of(etag));
+    }
+
+    private Mono<Void> upsertCalendarEventReactive(OpenPaasUser userRequest, URI calendarURI, String initialCalendarData, Optional<String> ifMatch) {
+        return httpClient.headers(headers -> {
+                userRequest.impersonatedBasicAuth(headers).add("Content-Type", "text/calendar ; charset=utf-8");
+                ifMatch.ifPresent(etag -> headers.add("If-Match", etag));
+            })
             .put()
             .uri(calendarURI.toString())
             .send(TestUtil.body(initialCalendarData))
             .responseSingle((response, responseContent) -> {
                 if (response.status().code() == 201 || response.status().code() == 204) {
-                    return Mono.empty();
+                    return Mono.<Void>empty();
                 }
                 return responseContent.asString(StandardCharsets.UTF_8)
                     .switchIfEmpty(Mono.just(StringUtils.EMPTY))
-                    .flatMap(responseBody -> Mono.error(new RuntimeException("""
+                    .flatMap(responseBody -> Mono.<Void>error(new RuntimeException("""
                         Unexpected status code: %d when create/update calendar object
                         %s
                         """.formatted(response.status().code(), responseBody))));
-            }).block();
+            });
     }
 
     public void importCalendarEvent(OpenPaasUser user, String eventUid, String calendarData) {
@@ -221,12 +263,21 @@ public class CalDavClient {
     }
 
     public String getCalendarEvent(OpenPaasUser userRequest, URI calendarURI) {
+        return getCalendarEventReactive(userRequest, calendarURI).block();
+    }
+
+    public Mono<String> getCalendarEventReactive(OpenPaasUser userRequest, URI calendarURI) {
+        return getCalendarObjectReactive(userRequest, calendarURI).map(CalendarObject::calendarData);
+    }
+
+    public Mono<CalendarObject> getCalendarObjectReactive(OpenPaasUser userRequest, URI calendarURI) {
         return httpClient.headers(headers -> userRequest.impersonatedBasicAuth(headers).add("Content-Type", "text/calendar ; charset=utf-8"))
             .get()
             .uri(calendarURI.toASCIIString())
             .responseSingle((response, responseContent) -> {
                 if (response.status().code() == 200) {
-                    return responseContent.asByteArray().map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+                    String etag = response.responseHeaders().get("ETag");
+                    return responseContent.asByteArray().map(bytes -> new CalendarObject(new String(bytes, StandardCharsets.UTF_8), etag));
                 }
                 return responseContent.asString(StandardCharsets.UTF_8)
                     .switchIfEmpty(Mono.just(StringUtils.EMPTY))
@@ -234,7 +285,7 @@ public class CalDavClient {
                         Unexpected status code: %d when create/update calendar object
                         %s
                         """.formatted(response.status().code(), responseBody))));
-            }).block();
+            });
     }
 
     public void deleteCalendarEvent(OpenPaasUser user, String eventUid) {
@@ -248,20 +299,24 @@ public class CalDavClient {
     }
 
     public void deleteCalendarEvent(OpenPaasUser user, URI calendarURI) {
-        httpClient.headers(headers -> user.impersonatedBasicAuth(headers).add("Content-Type", "text/calendar ; charset=utf-8"))
+        deleteCalendarEventReactive(user, calendarURI).block();
+    }
+
+    public Mono<Void> deleteCalendarEventReactive(OpenPaasUser user, URI calendarURI) {
+        return httpClient.headers(headers -> user.impersonatedBasicAuth(headers).add("Content-Type", "text/calendar ; charset=utf-8"))
             .delete()
             .uri(calendarURI.toString())
             .responseSingle((response, responseContent) -> {
                 if (response.status().code() == 204) {
-                    return Mono.empty();
+                    return Mono.<Void>empty();
                 }
                 return responseContent.asString(StandardCharsets.UTF_8)
                     .switchIfEmpty(Mono.just(StringUtils.EMPTY))
-                    .flatMap(responseBody -> Mono.error(new RuntimeException("""
+                    .flatMap(responseBody -> Mono.<Void>error(new RuntimeException("""
                         Unexpected status code: %d when delete calendar object
                         %s
                         """.formatted(response.status().code(), responseBody))));
-            }).block();
+            });
     }
 
     public Optional<String> findFirstEventId(OpenPaasUser openPaaSUser) {
@@ -769,6 +824,33 @@ public class CalDavClient {
     }
 
     public Flux<JsonNode> reportCalendarEvents(OpenPaasUser user, String calendarURI, Instant start, Instant end) {
+        return reportCalendarEventsBody(user, calendarURI, start, end)
+            .flatMapMany(body -> {
+                try (InputStream stream = body) {
+                    ObjectMapper mapper = new ObjectMapper();
+                    JsonNode root = mapper.readTree(stream);
+                    ArrayNode items = (ArrayNode) root.path("_embedded").path("dav:item");
+                    return Flux.fromIterable(items);
+                } catch (Exception e) {
+                    return Flux.error(new RuntimeException("Failed to parse REPORT response for calendar " + calendarURI, e));
+                }
+            });
+    }
+
+    /**
+     * Same REPORT as {@link #reportCalendarEvents(OpenPaasUser, String, Instant, Instant)}, read with {@link JsonCalendarReader}
+     * so that items are emitted one at a time without building the JSON tree of the whole response.
+     */
+    public Flux<JsonCalendarData.DavItem> reportCalendarItems(OpenPaasUser user, String calendarURI, Instant start, Instant end) {
+        return reportCalendarEventsBody(user, calendarURI, start, end)
+            .flatMapMany(JsonCalendarReader::items)
+            .onErrorMap(UncheckedIOException.class, e -> new RuntimeException("Failed to parse REPORT response for calendar " + calendarURI, e));
+    }
+
+    /**
+     * The body is aggregated as received, without being copied into an array: closing the stream releases it.
+     */
+    private Mono<InputStream> reportCalendarEventsBody(OpenPaasUser user, String calendarURI, Instant start, Instant end) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss").withZone(ZoneOffset.UTC);
         String payload = """
             {
@@ -787,23 +869,13 @@ public class CalDavClient {
             .send(Mono.just(Unpooled.wrappedBuffer(payload.getBytes(StandardCharsets.UTF_8))))
             .responseSingle((response, responseContent) -> {
                 if (response.status().code() == 200) {
-                    return responseContent.asString(StandardCharsets.UTF_8);
+                    return responseContent.asInputStream();
                 }
                 return responseContent.asString(StandardCharsets.UTF_8)
                     .switchIfEmpty(Mono.just(""))
                     .flatMap(errorBody -> Mono.error(new RuntimeException(
                         "Unexpected status code: %d when reporting events for calendar '%s'%n%s"
                             .formatted(response.status().code(), calendarURI, errorBody))));
-            })
-            .flatMapMany(body -> {
-                try {
-                    ObjectMapper mapper = new ObjectMapper();
-                    JsonNode root = mapper.readTree(body);
-                    ArrayNode items = (ArrayNode) root.path("_embedded").path("dav:item");
-                    return Flux.fromIterable(items);
-                } catch (Exception e) {
-                    return Flux.error(new RuntimeException("Failed to parse REPORT response for calendar " + calendarURI, e));
-                }
             });
     }
 
@@ -1107,4 +1179,31 @@ public class CalDavClient {
                         """.formatted(response.status().code(), recipientCalendarUri, body))));
             });
     }
+
+    /**
+     * Sends each iTIP message with at most {@code concurrency} requests in flight, as the side service does for mass
+     * invitations. Bodies are serialized as they are sent. A failed delivery does not stop the others: each message
+     * gets its own result, emitted in completion order.
+     */
+    public Flux<ITIPDeliveryResult> sendITIPRequests(Flux<ITIPDelivery> deliveries, int concurrency) {
+        return deliveries.flatMap(this::deliverITIPRequest, concurrency);
+    }
+
+    private Mono<ITIPDeliveryResult> deliverITIPRequest(ITIPDelivery delivery) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return httpClient.headers(headers -> delivery.requester().impersonatedBasicAuth(headers)
+                    .add(HttpHeaderNames.ACCEPT, "application/json")
+                    .add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .request(HttpMethod.valueOf("ITIP"))
+                .uri(delivery.recipientCalendarUri().toString())
+                .send(Mono.fromCallable(() -> Unpooled.wrappedBuffer(delivery.body().toJsonBytes())))
+                .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
+                    .switchIfEmpty(Mono.just(StringUtils.EMPTY))
+                    .map(body -> new ITIPDeliveryResult(delivery, response.status().code(), Duration.ofNanos(System.nanoTime() - startNanos),
+                        Optional.of(body).filter(any -> response.status().code() != 204))))
+                .onErrorResume(e -> Mono.just(new ITIPDeliveryResult(delivery, ITIPDeliveryResult.NO_RESPONSE,
+                    Duration.ofNanos(System.nanoTime() - startNanos), Optional.of(e.toString()))));
+        });
+    }
 }
@@ -91,7 +91,11 @@ public class CardDavClient {
     }
 
     public void upsertContact(OpenPaasUser openPaasUser, String baseId, String addressBook, String vcardUid, byte[] vcardPayload) {
-        client.headers(headers -> openPaasUser.impersonatedBasicAuth(headers)
+        upsertContactReactive(openPaasUser, baseId, addressBook, vcardUid, vcardPayload).block();
+    }
+
+    public Mono<Void> upsertContactReactive(OpenPaasUser openPaasUser, String baseId, String addressBook, String vcardUid, byte[] vcardPayload) {
+        return client.headers(headers -> openPaasUser.impersonatedBasicAuth(headers)
                 .add(HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE_VCARD)
                 .add(HttpHeaderNames.ACCEPT, ACCEPT_VCARD_JSON))
             .put()
@@ -99,7 +103,7 @@ public class CardDavClient {
             .send(Mono.just(Unpooled.wrappedBuffer(vcardPayload)))
             .responseSingle((response, byteBufMono) ->
                 handleContactUpsertResponse(response, byteBufMono, openPaasUser, addressBook, vcardUid))
-            .block();
+            .then();
     }
 
     public void deleteContact(OpenPaasUser openPaasUser, String addressBookId, String vcardUid) {
@@ -107,8 +111,12 @@ public class CardDavClient {
     }
 
     public void deleteContact(OpenPaasUser openPaasUser, String baseId, String addressBookId, String vcardUid) {
+        deleteContactReactive(openPaasUser, baseId, addressBookId, vcardUid).block();
+    }
+
+    public Mono<Void> deleteContactReactive(OpenPaasUser openPaasUser, String baseId, String addressBookId, String vcardUid) {
         String uri = String.format("/addressbooks/%s/%s/%s.vcf", baseId, addressBookId, vcardUid);
-        client.headers(headers -> openPaasUser.impersonatedBasicAuth(headers)
+        return client.headers(headers -> openPaasUser.impersonatedBasicAuth(headers)
                 .add(HttpHeaderNames.ACCEPT, "application/vcard+json"))
             .delete()
             .uri(uri)
@@ -121,7 +129,8 @@ public class CardDavClient {
                     .flatMap(errorBody -> Mono.error(new RuntimeException(
                         "Unexpected status code: %d when deleting contact %s in address book %s for user %s\n%s"
                             .formatted(response.status().code(), vcardUid, addressBookId, openPaasUser.id(), errorBody))));
-            }).block();
+            })
+            .then();
     }
 
     public String getContacts(OpenPaasUser openPaasUser, String baseId, String addressBookId) {
@@ -0,0 +1,65 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.model.Container;
+
+/**
+ * The docker compose services of a {@link DockerTwakeCalendarSetup}, either managed by Testcontainers for the
+ * duration of the JVM or kept running across JVM runs (see {@link ReusableComposeStack}).
+ */
+interface ComposeStack {
+    String COMPOSE_PROJECT_LABEL = "com.docker.compose.project";
+    String COMPOSE_SERVICE_LABEL = "com.docker.compose.service";
+
+    void start();
+
+    void stop();
+
+    String getServiceHost(String serviceName, Integer port);
+
+    Integer getServicePort(String serviceName, Integer port);
+
+    /**
+     * Running containers of the stack, by compose service name.
+     */
+    Map<String, String> containerIds();
+
+    /**
+     * Whether {@link #start()} attached to services left running by a previous run, whose state has to be reset.
+     */
+    default boolean isReused() {
+        return false;
+    }
+
+    static Map<String, String> runningContainerIds(Predicate<String> projectName) {
+        return DockerClientFactory.instance().client().listContainersCmd()
+            .withLabelFilter(Map.of(COMPOSE_PROJECT_LABEL, ""))
+            .exec()
+            .stream()
+            .filter(container -> projectName.test(container.getLabels().get(COMPOSE_PROJECT_LABEL)))
+            .collect(Collectors.toMap(container -> container.getLabels().get(COMPOSE_SERVICE_LABEL), Container::getId, (a, b) -> a));
+    }
+}
@@ -0,0 +1,289 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.BlkioStatsConfig;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.StatisticNetworksConfig;
+import com.github.dockerjava.api.model.Statistics;
+
+/**
+ * Streams the docker stats of every container of the stack (sabre, side service, mongo, rabbitmq, opensearch, redis,
+ * ldap) for the whole run, and sums them up over the time windows of the tests.
+ *
+ * <p>Docker sends one sample per second and per container. CPU usage is relative to a single core (200% means two
+ * busy cores); network and block I/O counters are cumulative, so a window reports their increase. Windows shorter
+ * than the sampling period get the sample following them: usage is computed once that sample arrived, when the report
+ * is written or through {@link #awaitUsage(Instant, Instant)}. Tests running concurrently share the containers: their
+ * windows overlap and each one sees the load of all of them.
+ *
+ * <p>After the last test of a class, a {@code DOCKER-<test class>.json} report is written next to the
+ * {@link DavRequestMetrics} one. Disabled with {@code -Ddav.stats.enabled=false}.
+ */
+public class ContainerStatsSampler implements AutoCloseable {
+    public static final String ENABLED_PROPERTY = "dav.stats.enabled";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerStatsSampler.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    // Docker samples every second: past that, a container stopped streaming
+    private static final Duration NEXT_SAMPLE_TIMEOUT = Duration.ofSeconds(3);
+
+    public record Sample(Instant at, double cpuPercent, long memoryBytes, long memoryLimitBytes, long networkRxBytes,
+                         long networkTxBytes, long blockReadBytes, long blockWriteBytes) {
+        static Sample from(Instant at, Statistics statistics) {
+            Optional<Map<String, StatisticNetworksConfig>> networks = Optional.ofNullable(statistics.getNetworks());
+            Optional<BlkioStatsConfig> blkio = Optional.ofNullable(statistics.getBlkioStats());
+            return new Sample(at,
+                cpuPercent(statistics.getCpuStats(), statistics.getPreCpuStats()),
+                Optional.ofNullable(statistics.getMemoryStats()).map(memory -> orZero(memory.getUsage())).orElse(0L),
+                Optional.ofNullable(statistics.getMemoryStats()).map(memory -> orZero(memory.getLimit())).orElse(0L),
+                networks.map(map -> sum(map.values(), StatisticNetworksConfig::getRxBytes)).orElse(0L),
+                networks.map(map -> sum(map.values(), StatisticNetworksConfig::getTxBytes)).orElse(0L),
+                blkio.map(stats -> blockBytes(stats, "read")).orElse(0L),
+                blkio.map(stats -> blockBytes(stats, "write")).orElse(0L));
+        }
+
+        private static double cpuPercent(CpuStatsConfig cpu, CpuStatsConfig preCpu) {
+            if (cpu == null || preCpu == null || cpu.getCpuUsage() == null || preCpu.getCpuUsage() == null) {
+                return 0;
+            }
+            long cpuDelta = orZero(cpu.getCpuUsage().getTotalUsage()) - orZero(preCpu.getCpuUsage().getTotalUsage());
+            long systemDelta = orZero(cpu.getSystemCpuUsage()) - orZero(preCpu.getSystemCpuUsage());
+            if (cpuDelta <= 0 || systemDelta <= 0) {
+                return 0;
+            }
+            long cpus = Optional.ofNullable(cpu.getOnlineCpus())
+                .filter(online -> online > 0)
+                .orElseGet(() -> Optional.ofNullable(cpu.getCpuUsage().getPercpuUsage()).map(perCpu -> (long) perCpu.size()).orElse(1L));
+            return 100.0 * cpuDelta / systemDelta * cpus;
+        }
+
+        private static long blockBytes(BlkioStatsConfig blkio, String operation) {
+            return Optional.ofNullable(blkio.getIoServiceBytesRecursive())
+                .map(entries -> entries.stream()
+                    .filter(entry -> operation.equalsIgnoreCase(entry.getOp()))
+                    .mapToLong(entry -> orZero(entry.getValue()))
+                    .sum())
+                .orElse(0L);
+        }
+
+        private static <T> long sum(Collection<T> values, Function<T, Long> counter) {
+            return values.stream().mapToLong(value -> orZero(counter.apply(value))).sum();
+        }
+
+        private static long orZero(Long value) {
+            return value == null ? 0 : value;
+        }
+    }
+
+    public record ServiceUsage(int samples, double averageCpuPercent, double maxCpuPercent, long maxMemoryBytes,
+                               long networkRxBytes, long networkTxBytes, long blockReadBytes, long blockWriteBytes) {
+        /**
+         * @param before last sample preceding the window, if any, as the base of the cumulative counters
+         */
+        static Optional<ServiceUsage> of(Optional<Sample> before, List<Sample> window) {
+            if (window.isEmpty()) {
+                return Optional.empty();
+            }
+            Sample base = before.orElse(window.getFirst());
+            Sample last = window.getLast();
+            return Optional.of(new ServiceUsage(window.size(),
+                window.stream().mapToDouble(Sample::cpuPercent).average().orElse(0),
+                window.stream().mapToDouble(Sample::cpuPercent).max().orElse(0),
+                window.stream().mapToLong(Sample::memoryBytes).max().orElse(0),
+                increase(base, last, Sample::networkRxBytes),
+                increase(base, last, Sample::networkTxBytes),
+                increase(base, last, Sample::blockReadBytes),
+                increase(base, last, Sample::blockWriteBytes)));
+        }
+
+        private static long increase(Sample base, Sample last, ToLongFunction<Sample> counter) {
+            // Counters restart along with their container
+            return Math.max(0, counter.applyAsLong(last) - counter.applyAsLong(base));
+        }
+    }
+
+    public record TestUsage(String test,
+                            @JsonSerialize(using = ToStringSerializer.class) Instant start,
+                            @JsonSerialize(using = ToStringSerializer.class) Instant end,
+                            Map<String, ServiceUsage> services) {
+    }
+
+    public record Report(String testClass, List<TestUsage> tests) {
+    }
+
+    private record TestWindow(String test, Instant start, Instant end) {
+    }
+
+    public static Optional<ContainerStatsSampler> fromSystemProperties(DockerClient dockerClient, Map<String, String> containerIds) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return Optional.empty();
+        }
+        ContainerStatsSampler sampler = new ContainerStatsSampler();
+        sampler.start(dockerClient, containerIds);
+        return Optional.of(sampler);
+    }
+
+    private final Map<String, NavigableMap<Instant, Sample>> samples = new ConcurrentHashMap<>();
+    private final Map<String, Queue<TestWindow>> testsByClass = new ConcurrentHashMap<>();
+    private final Object newSample = new Object();
+    private final List<Closeable> streams = new ArrayList<>();
+
+    private void start(DockerClient dockerClient, Map<String, String> containerIds) {
+        containerIds.forEach((service, containerId) -> streams.add(dockerClient.statsCmd(containerId)
+                .exec(new ResultCallback.Adapter<Statistics>() {
+                    @Override
+                    public void onNext(Statistics statistics) {
+                        record(service, Sample.from(Instant.now(), statistics));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        LOGGER.debug("Stopped sampling the docker stats of {}", service, throwable);
+                    }
+                })));
+    }
+
+    void record(String service, Sample sample) {
+        samples.computeIfAbsent(service, key -> new ConcurrentSkipListMap<>()).put(sample.at(), sample);
+        synchronized (newSample) {
+            newSample.notifyAll();
+        }
+    }
+
+    /**
+     * Same as {@link #usage(Instant, Instant)}, once every container sent a sample following the window, or after a
+     * few seconds.
+     */
+    public Map<String, ServiceUsage> awaitUsage(Instant start, Instant end) {
+        awaitSamplesAfter(end);
+        return usage(start, end);
+    }
+
+    private void awaitSamplesAfter(Instant end) {
+        long deadline = System.nanoTime() + NEXT_SAMPLE_TIMEOUT.toNanos();
+        synchronized (newSample) {
+            while (!sampledAfter(end)) {
+                long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+                if (remainingMillis <= 0) {
+                    LOGGER.debug("No docker stats following {} for some containers, their usage may be missing", end);
+                    return;
+                }
+                try {
+                    newSample.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean sampledAfter(Instant end) {
+        return samples.values().stream()
+            .allMatch(serviceSamples -> serviceSamples.isEmpty() || serviceSamples.lastKey().isAfter(end));
+    }
+
+    public Map<String, ServiceUsage> usage(Instant start, Instant end) {
+        Map<String, ServiceUsage> usage = new TreeMap<>();
+        samples.forEach((service, serviceSamples) -> {
+            Optional<Sample> before = Optional.ofNullable(serviceSamples.lowerEntry(start)).map(Map.Entry::getValue);
+            List<Sample> window = new ArrayList<>(serviceSamples.subMap(start, true, end, true).values());
+            if (window.isEmpty()) {
+                Optional.ofNullable(serviceSamples.higherEntry(end)).ifPresent(next -> window.add(next.getValue()));
+            }
+            ServiceUsage.of(before, window).ifPresent(serviceUsage -> usage.put(service, serviceUsage));
+        });
+        return usage;
+    }
+
+    /**
+     * Usage of the test window is computed when the report of its class is written: the sample following a short
+     * window is usually not there yet.
+     */
+    public void testFinished(String testClass, String test, Instant start, Instant end) {
+        testsByClass.computeIfAbsent(testClass, key -> new ConcurrentLinkedQueue<>()).add(new TestWindow(test, start, end));
+    }
+
+    public Optional<Path> writeReport(String testClass, Path directory) {
+        Queue<TestWindow> tests = testsByClass.remove(testClass);
+        if (tests == null) {
+            return Optional.empty();
+        }
+        tests.stream()
+            .map(TestWindow::end)
+            .max(Comparator.naturalOrder())
+            .ifPresent(this::awaitSamplesAfter);
+        List<TestUsage> testUsages = tests.stream()
+            .map(window -> new TestUsage(window.test(), window.start(), window.end(), usage(window.start(), window.end())))
+            .toList();
+        Path file = directory.resolve("DOCKER-" + testClass + ".json");
+        try {
+            Files.createDirectories(directory);
+            MAPPER.writeValue(file.toFile(), new Report(testClass, testUsages));
+            return Optional.of(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the docker stats report of " + testClass, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        streams.forEach(stream -> {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to stop sampling docker stats", e);
+            }
+        });
+        streams.clear();
+    }
+}
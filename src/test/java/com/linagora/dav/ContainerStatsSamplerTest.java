@@ -0,0 +1,128 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.model.Statistics;
+
+public class ContainerStatsSamplerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static final String DOCKER_STATS = """
+        {
+          "read": "2026-01-01T00:00:01.000000000Z",
+          "cpu_stats": {
+            "cpu_usage": {"total_usage": 3000000000},
+            "system_cpu_usage": 20000000000,
+            "online_cpus": 4
+          },
+          "precpu_stats": {
+            "cpu_usage": {"total_usage": 2000000000},
+            "system_cpu_usage": 16000000000,
+            "online_cpus": 4
+          },
+          "memory_stats": {"usage": 104857600, "limit": 2147483648},
+          "networks": {
+            "eth0": {"rx_bytes": 1000, "tx_bytes": 2000},
+            "eth1": {"rx_bytes": 10, "tx_bytes": 20}
+          },
+          "blkio_stats": {
+            "io_service_bytes_recursive": [
+              {"major": 8, "minor": 0, "op": "read", "value": 4096},
+              {"major": 8, "minor": 0, "op": "write", "value": 8192}
+            ]
+          }
+        }
+        """;
+
+    private static ContainerStatsSampler.Sample sample(long seconds, double cpu, long memory, long networkRx) {
+        return new ContainerStatsSampler.Sample(T0.plusSeconds(seconds), cpu, memory, 0, networkRx, 0, 0, 0);
+    }
+
+    @Test
+    void sampleShouldBeReadFromDockerStats() throws Exception {
+        Statistics statistics = MAPPER.readValue(DOCKER_STATS, Statistics.class);
+
+        assertThat(ContainerStatsSampler.Sample.from(T0, statistics))
+            .isEqualTo(new ContainerStatsSampler.Sample(T0, 100.0, 104857600, 2147483648L, 1010, 2020, 4096, 8192));
+    }
+
+    @Test
+    void usageShouldCoverTheSamplesOfTheWindow() {
+        ContainerStatsSampler sampler = new ContainerStatsSampler();
+        sampler.record("mongo", sample(0, 10, 100, 1000));
+        sampler.record("mongo", sample(1, 50, 300, 1500));
+        sampler.record("mongo", sample(2, 30, 200, 1800));
+        sampler.record("mongo", sample(3, 5, 100, 5000));
+
+        assertThat(sampler.usage(T0.plusMillis(500), T0.plusMillis(2000)))
+            .containsOnlyKeys("mongo")
+            .extractingByKey("mongo")
+            .satisfies(usage -> {
+                assertThat(usage.samples()).isEqualTo(2);
+                assertThat(usage.maxCpuPercent()).isEqualTo(50);
+                assertThat(usage.averageCpuPercent()).isEqualTo(40);
+                assertThat(usage.maxMemoryBytes()).isEqualTo(300);
+                assertThat(usage.networkRxBytes()).isEqualTo(800);
+            });
+    }
+
+    @Test
+    void shortWindowsShouldGetTheFollowingSample(@TempDir Path directory) throws Exception {
+        ContainerStatsSampler sampler = new ContainerStatsSampler();
+        sampler.record("sabre_dav", sample(0, 10, 100, 1000));
+        sampler.testFinished("com.linagora.dav.SomeContract", "someTest", T0.plusMillis(100), T0.plusMillis(300));
+        // Arrives after the end of the test
+        sampler.record("sabre_dav", sample(1, 80, 100, 1600));
+
+        assertThat(sampler.writeReport("com.linagora.dav.SomeContract", directory))
+            .hasValue(directory.resolve("DOCKER-com.linagora.dav.SomeContract.json"));
+        assertThat(Files.readString(directory.resolve("DOCKER-com.linagora.dav.SomeContract.json")))
+            .contains("\"start\" : \"2026-01-01T00:00:00.100Z\"")
+            .contains("\"maxCpuPercent\" : 80.0")
+            .contains("\"networkRxBytes\" : 600");
+        assertThat(sampler.writeReport("com.linagora.dav.SomeContract", directory)).isEmpty();
+    }
+
+    @Test
+    void awaitUsageShouldWaitForTheSampleFollowingTheWindow() {
+        ContainerStatsSampler sampler = new ContainerStatsSampler();
+        sampler.record("sabre_dav", sample(0, 10, 100, 1000));
+
+        CompletableFuture.runAsync(() -> sampler.record("sabre_dav", sample(1, 80, 100, 1600)),
+            CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+
+        assertThat(sampler.awaitUsage(T0.plusMillis(100), T0.plusMillis(300)))
+            .extractingByKey("sabre_dav")
+            .satisfies(usage -> assertThat(usage.maxCpuPercent()).isEqualTo(80));
+    }
+}
@@ -0,0 +1,152 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Waits for an assertion to pass, re-evaluating it with an exponential backoff starting at a few milliseconds, and
+ * right away when an AMQP message signals a change of the awaited resource.
+ *
+ * <pre>{@code
+ * DavAwait.atMost(Duration.ofSeconds(30))
+ *     .wakingOn(amqpEventBus, List.of("calendar:event:created"), List.of("/calendars/" + user.id() + "/" + user.id()))
+ *     .untilAsserted(() -> assertThat(listEvents(user)).hasSize(1));
+ * }</pre>
+ *
+ * <p>The time spent waiting is accounted to the running test, see {@link AwaitTimes}.
+ */
+public class DavAwait {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    static final Duration INITIAL_BACKOFF = Duration.ofMillis(5);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(1);
+
+    @FunctionalInterface
+    public interface Assertion {
+        void run() throws Exception;
+    }
+
+    private record Wakeup(AmqpEventBus bus, Collection<String> exchanges, Collection<String> keys) {
+    }
+
+    public static DavAwait atMost(Duration timeout) {
+        Preconditions.checkArgument(!timeout.isNegative() && !timeout.isZero(), "Timeout must be strictly positive");
+        return new DavAwait(timeout, Optional.empty());
+    }
+
+    static Duration nextBackoff(Duration backoff) {
+        Duration doubled = backoff.multipliedBy(2);
+        if (doubled.compareTo(MAX_BACKOFF) > 0) {
+            return MAX_BACKOFF;
+        }
+        return doubled;
+    }
+
+    private final Duration timeout;
+    private final Optional<Wakeup> wakeup;
+    private final Semaphore signals = new Semaphore(0);
+
+    private DavAwait(Duration timeout, Optional<Wakeup> wakeup) {
+        this.timeout = timeout;
+        this.wakeup = wakeup;
+    }
+
+    /**
+     * Re-evaluates the assertion as soon as a message of one of the exchanges carries one of the keys (DAV paths, user
+     * ids, lower case emails or event UIDs, see {@link AmqpEventBus#subscribe(Collection, Collection)}).
+     */
+    public DavAwait wakingOn(AmqpEventBus bus, Collection<String> exchanges, Collection<String> keys) {
+        return new DavAwait(timeout, Optional.of(new Wakeup(bus, exchanges, keys)));
+    }
+
+    public void untilAsserted(Assertion assertion) {
+        untilAsserted(() -> {
+            assertion.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return the value computed by the first successful evaluation. Only {@link AssertionError}s are retried, other
+     * failures are thrown right away.
+     */
+    public <T> T untilAsserted(Callable<T> assertion) {
+        Optional<AmqpEventBus.Subscription> subscription = wakeup.map(target -> target.bus()
+            .subscribe(target.exchanges(), target.keys(), (exchange, message) -> signal()));
+        long startNanos = System.nanoTime();
+        try {
+            return evaluate(assertion, startNanos);
+        } finally {
+            subscription.ifPresent(AmqpEventBus.Subscription::close);
+            AwaitTimes.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Wakes up the pending evaluation, if any.
+     */
+    void signal() {
+        signals.release();
+    }
+
+    private <T> T evaluate(Callable<T> assertion, long startNanos) {
+        long deadline = startNanos + timeout.toNanos();
+        Duration backoff = INITIAL_BACKOFF;
+        int attempts = 0;
+        while (true) {
+            // Signals received up to now are covered by this evaluation
+            signals.drainPermits();
+            attempts++;
+            AssertionError failure;
+            try {
+                return assertion.call();
+            } catch (AssertionError e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                throw timeout(failure, attempts);
+            }
+            try {
+                signals.tryAcquire(Math.min(backoff.toNanos(), remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while awaiting a condition", e);
+            }
+            backoff = nextBackoff(backoff);
+        }
+    }
+
+    private AssertionError timeout(AssertionError lastFailure, int attempts) {
+        return new AssertionError("Condition not met within %d ms after %d attempts: %s"
+            .formatted(timeout.toMillis(), attempts, lastFailure.getMessage()), lastFailure);
+    }
+}
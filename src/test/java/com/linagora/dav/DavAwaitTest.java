@@ -0,0 +1,94 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class DavAwaitTest {
+    @Test
+    void backoffShouldDoubleUpToTheMaximum() {
+        assertThat(DavAwait.nextBackoff(DavAwait.INITIAL_BACKOFF)).isEqualTo(Duration.ofMillis(10));
+        assertThat(DavAwait.nextBackoff(Duration.ofMillis(800))).isEqualTo(DavAwait.MAX_BACKOFF);
+        assertThat(DavAwait.nextBackoff(DavAwait.MAX_BACKOFF)).isEqualTo(DavAwait.MAX_BACKOFF);
+    }
+
+    @Test
+    void untilAssertedShouldRetryUntilTheAssertionPasses() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = DavAwait.atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(attempts.incrementAndGet()).isGreaterThanOrEqualTo(4);
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(4);
+    }
+
+    @Test
+    void untilAssertedShouldFailWithTheLastAssertionErrorOnTimeout() {
+        assertThatThrownBy(() -> DavAwait.atMost(Duration.ofMillis(50))
+            .untilAsserted(() -> assertThat(1).as("never equal").isEqualTo(2)))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageStartingWith("Condition not met within 50 ms")
+            .hasMessageContaining("never equal")
+            .hasCauseInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    void untilAssertedShouldNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> DavAwait.atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void waitsShouldBeAccountedToTheRunningTest() {
+        AwaitTimes.start("DavAwaitTest#waits");
+        DavAwait.atMost(Duration.ofSeconds(5)).untilAsserted(() -> { });
+        DavAwait.atMost(Duration.ofSeconds(5)).untilAsserted(() -> { });
+
+        assertThat(AwaitTimes.finish())
+            .hasValueSatisfying(waits -> {
+                assertThat(waits.test()).isEqualTo("DavAwaitTest#waits");
+                assertThat(waits.awaits()).isEqualTo(2);
+            });
+    }
+
+    @Test
+    void consecutiveAwaitilityConditionsShouldBeAccountedSeparately() {
+        AwaitTimes.start("DavAwaitTest#awaitility");
+        TestUtil.awaitAtMost().until(() -> true);
+        TestUtil.awaitAtMost().until(() -> true);
+
+        assertThat(AwaitTimes.finish())
+            .hasValueSatisfying(waits -> assertThat(waits.awaits()).isEqualTo(2));
+    }
+}
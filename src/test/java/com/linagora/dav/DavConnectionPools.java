@@ -0,0 +1,215 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import io.netty.resolver.AddressResolverGroup;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+/**
+ * One named connection pool per service of the docker stack, shared by all the HTTP clients targeting it.
+ *
+ * <p>Pools are sized with the {@code dav.pool.*} system properties, which can be overridden per service with
+ * {@code dav.pool.<service>.*}, the service being the lower case {@link DockerTwakeCalendarSetup.DockerService} name:
+ * <ul>
+ *     <li>{@code maxConnections} (default 500)</li>
+ *     <li>{@code pendingAcquireMaxCount}, acquisitions allowed to wait for a connection (default 1000)</li>
+ *     <li>{@code pendingAcquireTimeoutMillis} (default 45000)</li>
+ *     <li>{@code maxIdleTimeMillis}, after which idle connections are closed (default 30000)</li>
+ *     <li>{@code evictionIntervalMillis}, period of the background eviction of idle connections (default 30000)</li>
+ * </ul>
+ *
+ * <p>The gauges reactor-netty publishes for each pool (acquired, idle, allocated and pending connections) are kept
+ * along with the time taken to acquire a connection, so that load runs can tell a starved client pool from a slow
+ * server.
+ */
+public class DavConnectionPools implements AutoCloseable {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    public record PoolSettings(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+                               Duration maxIdleTime, Duration evictionInterval) {
+        public static PoolSettings fromSystemProperties(String service) {
+            return new PoolSettings(
+                intProperty(service, "maxConnections", 500),
+                intProperty(service, "pendingAcquireMaxCount", 1000),
+                Duration.ofMillis(intProperty(service, "pendingAcquireTimeoutMillis", 45000)),
+                Duration.ofMillis(intProperty(service, "maxIdleTimeMillis", 30000)),
+                Duration.ofMillis(intProperty(service, "evictionIntervalMillis", 30000)));
+        }
+
+        private static int intProperty(String service, String name, int defaultValue) {
+            return Integer.getInteger("dav.pool." + service + "." + name, Integer.getInteger("dav.pool." + name, defaultValue));
+        }
+    }
+
+    public record PoolStats(String name, int acquired, int idle, int allocated, int pending, int maxConnections,
+                            int peakPending, long acquisitions, double acquireP50Millis, double acquireP99Millis,
+                            double acquireMaxMillis) {
+        @Override
+        public String toString() {
+            return "%s: acquired=%d idle=%d allocated=%d/%d pending=%d (peak %d) acquisitions=%d acquire p50=%.2fms p99=%.2fms max=%.2fms"
+                .formatted(name, acquired, idle, allocated, maxConnections, pending, peakPending, acquisitions,
+                    acquireP50Millis, acquireP99Millis, acquireMaxMillis);
+        }
+    }
+
+    private final Map<DockerTwakeCalendarSetup.DockerService, InstrumentedPool> pools = new ConcurrentHashMap<>();
+
+    public ConnectionProvider provider(DockerTwakeCalendarSetup.DockerService service) {
+        return pools.computeIfAbsent(service, InstrumentedPool::new);
+    }
+
+    public HttpClient httpClient(DockerTwakeCalendarSetup.DockerService service, String baseUrl) {
+        return HttpClient.create(provider(service))
+            .baseUrl(baseUrl);
+    }
+
+    public List<PoolStats> stats() {
+        return pools.values().stream()
+            .map(InstrumentedPool::stats)
+            .toList();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(ConnectionProvider::dispose);
+        pools.clear();
+    }
+
+    /**
+     * Delegates to a reactor-netty pool, timing each acquisition and keeping the pool gauges it registers.
+     */
+    private static class InstrumentedPool implements ConnectionProvider, ConnectionProvider.MeterRegistrar {
+        private final ConnectionProvider delegate;
+        private final int maxConnections;
+        // Gauges of the pool of each remote address, by pool id and address
+        private final Map<String, ConnectionPoolMetrics> metrics = new ConcurrentHashMap<>();
+        private final Histogram acquireMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicInteger peakPending = new AtomicInteger();
+
+        InstrumentedPool(DockerTwakeCalendarSetup.DockerService service) {
+            String name = service.name().toLowerCase(Locale.US);
+            PoolSettings settings = PoolSettings.fromSystemProperties(name);
+            this.maxConnections = settings.maxConnections();
+            this.delegate = ConnectionProvider.builder("dav-" + name)
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+                .maxIdleTime(settings.maxIdleTime())
+                .evictInBackground(settings.evictionInterval())
+                .metrics(true, () -> this)
+                .build();
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver connectionObserver,
+                                                  Supplier<? extends SocketAddress> remoteAddress,
+                                                  AddressResolverGroup<?> resolverGroup) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                peakPending.accumulateAndGet(sum(ConnectionPoolMetrics::pendingAcquireSize), Math::max);
+                return delegate.acquire(config, connectionObserver, remoteAddress, resolverGroup)
+                    .doOnSuccess(connection -> acquireMicros.recordValue(Math.min(
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS)));
+            });
+        }
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            this.metrics.put(id + remoteAddress, metrics);
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            metrics.remove(id + remoteAddress);
+        }
+
+        PoolStats stats() {
+            return new PoolStats(delegate.name(),
+                sum(ConnectionPoolMetrics::acquiredSize),
+                sum(ConnectionPoolMetrics::idleSize),
+                sum(ConnectionPoolMetrics::allocatedSize),
+                sum(ConnectionPoolMetrics::pendingAcquireSize),
+                maxConnections,
+                peakPending.get(),
+                acquireMicros.getTotalCount(),
+                acquireMicros.getValueAtPercentile(50) / 1000.0,
+                acquireMicros.getValueAtPercentile(99) / 1000.0,
+                acquireMicros.getMaxValue() / 1000.0);
+        }
+
+        private int sum(ToIntFunction<ConnectionPoolMetrics> gauge) {
+            return metrics.values().stream().mapToInt(gauge).sum();
+        }
+
+        @Override
+        public void disposeWhen(SocketAddress address) {
+            delegate.disposeWhen(address);
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        @Override
+        public int maxConnections() {
+            return delegate.maxConnections();
+        }
+
+        @Override
+        public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+            return delegate.maxConnectionsPerHost();
+        }
+
+        @Override
+        public Builder mutate() {
+            return delegate.mutate();
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+    }
+}
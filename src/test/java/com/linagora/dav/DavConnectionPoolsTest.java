@@ -0,0 +1,77 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+public class DavConnectionPoolsTest {
+    private DisposableServer server;
+    private DavConnectionPools pools;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/", (request, response) -> response.sendString(Mono.just("ok"))))
+            .bindNow();
+        pools = new DavConnectionPools();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.close();
+        server.disposeNow();
+    }
+
+    @Test
+    void clientsOfTheSameServiceShouldShareTheirPool() {
+        assertThat(pools.provider(DockerTwakeCalendarSetup.DockerService.SABRE_DAV))
+            .isSameAs(pools.provider(DockerTwakeCalendarSetup.DockerService.SABRE_DAV))
+            .isNotSameAs(pools.provider(DockerTwakeCalendarSetup.DockerService.CALENDAR_SIDE_ADMIN));
+    }
+
+    @Test
+    void statsShouldCountAcquisitions() {
+        HttpClient client = pools.httpClient(DockerTwakeCalendarSetup.DockerService.SABRE_DAV, "http://localhost:" + server.port());
+
+        Flux.range(0, 10)
+            .concatMap(i -> client.get().uri("/").responseContent().aggregate().asString())
+            .blockLast();
+
+        assertThat(pools.stats())
+            .singleElement()
+            .satisfies(stats -> {
+                assertThat(stats.name()).isEqualTo("dav-sabre_dav");
+                assertThat(stats.acquisitions()).isEqualTo(10);
+                // Connections are released asynchronously: the next request may allocate another one
+                assertThat(stats.allocated()).isPositive();
+                assertThat(stats.maxConnections()).isEqualTo(500);
+            });
+    }
+}
@@ -0,0 +1,280 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * Method, URI template, status, wire bytes, time to first byte and latency of the DAV requests of a test class.
+ *
+ * <p>{@link DockerTwakeCalendarExtension#davHttpClient()} instruments the clients created while a test runs, which
+ * covers {@link CalDavClient}, {@link CardDavClient} and the raw requests of the contracts. After the last test of the
+ * class, a {@code DAV-<test class>.json} report is written to {@code -Ddav.http.reportDirectory} (default
+ * {@code target/surefire-reports}, next to the surefire XML reports).
+ *
+ * <p>Only requests whose response was fully received are recorded.
+ */
+public class DavRequestMetrics {
+    public static final String REPORT_DIRECTORY_PROPERTY = "dav.http.reportDirectory";
+    private static final String DEFAULT_REPORT_DIRECTORY = "target/surefire-reports";
+
+    private static final Map<String, DavRequestMetrics> BY_TEST_CLASS = new ConcurrentHashMap<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final String BYTE_COUNTER = "dav-request-metrics-bytes";
+    private static final AttributeKey<PendingRequest> PENDING_REQUEST = AttributeKey.valueOf(DavRequestMetrics.class.getName());
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{24}");
+    private static final Pattern NUMBER = Pattern.compile("[0-9]+");
+    private static final Pattern RESOURCE_FILE = Pattern.compile(".+\\.(ics|vcf)");
+
+    public record Operation(String method, String uriTemplate, int status) {
+    }
+
+    public record Percentiles(double p50, double p90, double p99, double max, double total) {
+        static Percentiles of(Histogram micros) {
+            return new Percentiles(millis(micros.getValueAtPercentile(50)), millis(micros.getValueAtPercentile(90)),
+                millis(micros.getValueAtPercentile(99)), millis(micros.getMaxValue()),
+                millis(Math.round(micros.getMean() * micros.getTotalCount())));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public record OperationReport(String method, String uriTemplate, int status, long count, long requestBytes,
+                                  long responseBytes, Percentiles timeToFirstByteMillis, Percentiles latencyMillis) {
+    }
+
+    public record Report(String testClass, long requests, long requestBytes, long responseBytes, double latencyMillis,
+                         List<OperationReport> operations) {
+    }
+
+    private static final class Aggregate {
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final Histogram timeToFirstByteMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        OperationReport report(Operation operation) {
+            return new OperationReport(operation.method(), operation.uriTemplate(), operation.status(),
+                latencyMicros.getTotalCount(), requestBytes.sum(), responseBytes.sum(),
+                Percentiles.of(timeToFirstByteMicros), Percentiles.of(latencyMicros));
+        }
+    }
+
+    /**
+     * Bytes written and read on a connection, reset at the start of each request: HTTP/1.1 connections carry one
+     * request at a time.
+     */
+    private static final class ByteCounter extends ChannelDuplexHandler {
+        private long written;
+        private long read;
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            read += size(msg);
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            written += size(msg);
+            super.write(ctx, msg, promise);
+        }
+
+        private static long size(Object msg) {
+            if (msg instanceof ByteBuf byteBuf) {
+                return byteBuf.readableBytes();
+            }
+            if (msg instanceof ByteBufHolder holder) {
+                return holder.content().readableBytes();
+            }
+            return 0;
+        }
+    }
+
+    private static final class PendingRequest {
+        private final long startNanos = System.nanoTime();
+        private long firstByteNanos;
+    }
+
+    public static DavRequestMetrics forTestClass(String testClass) {
+        return BY_TEST_CLASS.computeIfAbsent(testClass, DavRequestMetrics::new);
+    }
+
+    public static Optional<DavRequestMetrics> remove(String testClass) {
+        return Optional.ofNullable(BY_TEST_CLASS.remove(testClass));
+    }
+
+    /**
+     * Collapses the identifiers of a request URI: user, domain and resource ids, UUIDs, emails and file names.
+     */
+    static String uriTemplate(String uri) {
+        String path = StringUtils.substringBefore(uri.contains("://") ? URI.create(uri).getRawPath() : uri, "?");
+        return Stream.of(StringUtils.splitPreserveAllTokens(path, '/'))
+            .map(DavRequestMetrics::segmentTemplate)
+            .collect(Collectors.joining("/"));
+    }
+
+    private static String segmentTemplate(String segment) {
+        if (OBJECT_ID.matcher(segment).matches()) {
+            return "{id}";
+        }
+        if (NUMBER.matcher(segment).matches()) {
+            return "{number}";
+        }
+        if (segment.contains("@") || segment.contains("%40")) {
+            return "{email}";
+        }
+        if (RESOURCE_FILE.matcher(segment).matches()) {
+            return "{name}." + StringUtils.substringAfterLast(segment, ".");
+        }
+        if (segment.endsWith(".json")) {
+            // JSON variant of a collection: /calendars/{id}/{id}.json
+            return segmentTemplate(StringUtils.removeEnd(segment, ".json")) + ".json";
+        }
+        return UUID.matcher(segment).replaceAll("{uuid}");
+    }
+
+    private final String testClass;
+    private final Map<Operation, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    private DavRequestMetrics(String testClass) {
+        this.testClass = testClass;
+    }
+
+    public HttpClient instrument(HttpClient client) {
+        return client
+            .doOnRequest((request, connection) -> {
+                Channel channel = connection.channel();
+                if (channel.pipeline().get(BYTE_COUNTER) == null) {
+                    channel.pipeline().addFirst(BYTE_COUNTER, new ByteCounter());
+                }
+                ByteCounter counter = (ByteCounter) channel.pipeline().get(BYTE_COUNTER);
+                counter.written = 0;
+                counter.read = 0;
+                channel.attr(PENDING_REQUEST).set(new PendingRequest());
+            })
+            .doOnResponse((response, connection) -> {
+                PendingRequest pending = connection.channel().attr(PENDING_REQUEST).get();
+                if (pending != null) {
+                    pending.firstByteNanos = System.nanoTime();
+                }
+            })
+            .doAfterResponseSuccess(this::record);
+    }
+
+    private void record(HttpClientResponse response, Connection connection) {
+        long endNanos = System.nanoTime();
+        Channel channel = connection.channel();
+        PendingRequest pending = channel.attr(PENDING_REQUEST).getAndSet(null);
+        ByteCounter counter = (ByteCounter) channel.pipeline().get(BYTE_COUNTER);
+        if (pending == null || counter == null) {
+            return;
+        }
+        long firstByteNanos = pending.firstByteNanos == 0 ? endNanos : pending.firstByteNanos;
+        record(new Operation(response.method().name(), uriTemplate(response.uri()), response.status().code()),
+            counter.written, counter.read,
+            Duration.ofNanos(firstByteNanos - pending.startNanos), Duration.ofNanos(endNanos - pending.startNanos));
+    }
+
+    void record(Operation operation, long requestBytes, long responseBytes, Duration timeToFirstByte, Duration latency) {
+        Aggregate aggregate = aggregates.computeIfAbsent(operation, key -> new Aggregate());
+        aggregate.requestBytes.add(requestBytes);
+        aggregate.responseBytes.add(responseBytes);
+        aggregate.timeToFirstByteMicros.recordValue(micros(timeToFirstByte));
+        aggregate.latencyMicros.recordValue(micros(latency));
+    }
+
+    /**
+     * Operations taking the most time overall first.
+     */
+    public Report report() {
+        List<OperationReport> operations = aggregates.entrySet().stream()
+            .map(entry -> entry.getValue().report(entry.getKey()))
+            .sorted(Comparator.comparingDouble((OperationReport operation) -> operation.latencyMillis().total()).reversed())
+            .toList();
+        return new Report(testClass,
+            operations.stream().mapToLong(OperationReport::count).sum(),
+            operations.stream().mapToLong(OperationReport::requestBytes).sum(),
+            operations.stream().mapToLong(OperationReport::responseBytes).sum(),
+            operations.stream().mapToDouble(operation -> operation.latencyMillis().total()).sum(),
+            operations);
+    }
+
+    public static Path reportDirectory() {
+        return Path.of(System.getProperty(REPORT_DIRECTORY_PROPERTY, DEFAULT_REPORT_DIRECTORY));
+    }
+
+    public Path writeReport() {
+        return writeReport(reportDirectory());
+    }
+
+    public Path writeReport(Path directory) {
+        Path file = directory.resolve("DAV-" + testClass + ".json");
+        try {
+            Files.createDirectories(directory);
+            MAPPER.writeValue(file.toFile(), report());
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the DAV request report of " + testClass, e);
+        }
+    }
+
+    private static long micros(Duration duration) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(duration.toNanos()), 0), HIGHEST_TRACKABLE_MICROS);
+    }
+}
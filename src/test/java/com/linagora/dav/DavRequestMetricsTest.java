@@ -0,0 +1,89 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+public class DavRequestMetricsTest {
+    @Test
+    void uriTemplateShouldCollapseIdentifiers() {
+        assertThat(DavRequestMetrics.uriTemplate("/calendars/65a1b2c3d4e5f6a7b8c9d0e1/65a1b2c3d4e5f6a7b8c9d0e1/event-1.ics"))
+            .isEqualTo("/calendars/{id}/{id}/{name}.ics");
+        assertThat(DavRequestMetrics.uriTemplate("/calendars/65a1b2c3d4e5f6a7b8c9d0e1/cal-0b5d7d3e-9a9f-4d7b-8e3a-2f1c4b6a8d90.json?withRights=true"))
+            .isEqualTo("/calendars/{id}/cal-{uuid}.json");
+        assertThat(DavRequestMetrics.uriTemplate("http://localhost:8001/principals/users/bob%40open-paas.org/"))
+            .isEqualTo("/principals/users/{email}/");
+        assertThat(DavRequestMetrics.uriTemplate("/calendars/65a1b2c3d4e5f6a7b8c9d0e1/65a1b2c3d4e5f6a7b8c9d0e1.json"))
+            .isEqualTo("/calendars/{id}/{id}.json");
+        assertThat(DavRequestMetrics.uriTemplate("/addressbooks/65a1b2c3d4e5f6a7b8c9d0e1/contacts/12345.vcf"))
+            .isEqualTo("/addressbooks/{id}/contacts/{name}.vcf");
+    }
+
+    @Test
+    void instrumentedClientShouldRecordOperations(@TempDir Path directory) throws Exception {
+        DisposableServer server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.put("/calendars/{owner}/{calendar}/{event}", (request, response) -> response.status(201)
+                .sendString(Mono.just("created"))))
+            .bindNow();
+        DavRequestMetrics metrics = DavRequestMetrics.forTestClass("com.linagora.dav.SomeContract");
+        try {
+            HttpClient client = metrics.instrument(HttpClient.create().baseUrl("http://localhost:" + server.port()));
+            for (int i = 0; i < 3; i++) {
+                client.put()
+                    .uri("/calendars/65a1b2c3d4e5f6a7b8c9d0e1/65a1b2c3d4e5f6a7b8c9d0e1/event-" + i + ".ics")
+                    .send(TestUtil.body("BEGIN:VCALENDAR"))
+                    .responseContent().aggregate().asString()
+                    .block();
+            }
+
+            // The last response is recorded once its connection is done with it, possibly after the call returned
+            DavAwait.atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(metrics.report().requests()).isEqualTo(3));
+            assertThat(metrics.report().operations())
+                .singleElement()
+                .satisfies(operation -> {
+                    assertThat(operation.method()).isEqualTo("PUT");
+                    assertThat(operation.uriTemplate()).isEqualTo("/calendars/{id}/{id}/{name}.ics");
+                    assertThat(operation.status()).isEqualTo(201);
+                    assertThat(operation.count()).isEqualTo(3);
+                    assertThat(operation.requestBytes()).isGreaterThan(3 * "BEGIN:VCALENDAR".length());
+                    assertThat(operation.responseBytes()).isGreaterThan(3 * "created".length());
+                });
+            assertThat(metrics.writeReport(directory))
+                .isEqualTo(directory.resolve("DAV-com.linagora.dav.SomeContract.json"));
+            assertThat(Files.readString(directory.resolve("DAV-com.linagora.dav.SomeContract.json")))
+                .contains("\"uriTemplate\" : \"/calendars/{id}/{id}/{name}.ics\"");
+        } finally {
+            DavRequestMetrics.remove("com.linagora.dav.SomeContract");
+            server.disposeNow();
+        }
+    }
+}
@@ -18,52 +18,132 @@
 
 package com.linagora.dav;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import org.bson.types.ObjectId;
+import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.util.Preconditions;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
-import com.rabbitmq.client.ConnectionFactory;
 
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import reactor.netty.http.client.HttpClient;
 
-public abstract class DockerTwakeCalendarExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+public abstract class DockerTwakeCalendarExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback,
+    ParameterResolver {
+
+    /**
+     * Key for {@link org.junit.jupiter.api.parallel.ResourceLock} on test classes relying on the static RestAssured
+     * configuration, so that they do not run concurrently with one another.
+     */
+    public static final String REST_ASSURED = "io.restassured.RestAssured";
+
+    private static final String QUEUE_NAME_PREFIX = "tcalendar:event:test:";
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DockerTwakeCalendarExtension.class);
+    private static final String AMQP_RESOURCES = "amqpResources";
+    private static final String REQUEST_METRICS = "requestMetrics";
+    private static final String TEST_START = "testStart";
+    private static final String CLASS_START = "classStart";
 
-    public static final String QUEUE_NAME = "tcalendar:event:test";
+    /**
+     * AMQP connection, channel, exclusive queue and event bus subscriptions of a single test, closed by JUnit along
+     * with the test context.
+     */
+    private record AmqpResources(Connection connection, Channel channel, String queueName,
+                                 Queue<AmqpEventBus.Subscription> subscriptions) implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() throws Exception {
+            subscriptions.forEach(AmqpEventBus.Subscription::close);
+            if (channel.isOpen()) {
+                channel.close();
+            }
+            if (connection.isOpen()) {
+                connection.close();
+            }
+        }
+    }
 
-    private Channel channel;
-    private Connection connection;
+    // Tests reach their resources without the extension context: the context of the running test is bound to its
+    // thread only. Pooled threads (Awaitility polling, Reactor schedulers) are shared between tests and never see it.
+    private final ThreadLocal<ExtensionContext> currentTest = new ThreadLocal<>();
 
     abstract DockerTwakeCalendarSetup setup();
 
+    @Override
+    public void beforeAll(ExtensionContext extensionContext) {
+        extensionContext.getStore(NAMESPACE).put(CLASS_START, Instant.now());
+    }
+
     @Override
     public void beforeEach(ExtensionContext extensionContext) throws Exception {
-        ConnectionFactory factory = new ConnectionFactory();
-        factory.setHost(getDockerTwakeCalendarSetupSingleton().getHost(DockerTwakeCalendarSetup.DockerService.RABBITMQ));
-        factory.setPort(getDockerTwakeCalendarSetupSingleton().getPort(DockerTwakeCalendarSetup.DockerService.RABBITMQ));
-        factory.setUsername("guest");
-        factory.setPassword("guest");
+        AwaitTimes.start(extensionContext.getRequiredTestClass().getSimpleName() + "#" + extensionContext.getDisplayName());
+        extensionContext.getStore(NAMESPACE).put(TEST_START, Instant.now());
+        Connection connection = getDockerTwakeCalendarSetupSingleton().amqpConnectionFactory().newConnection();
+        Channel channel = connection.createChannel();
+        String queueName = QUEUE_NAME_PREFIX + UUID.randomUUID();
+        channel.queueDeclare(queueName, false, true, true, null);
 
-        connection = factory.newConnection();
-        channel = connection.createChannel();
-        channel.queueDeclare(QUEUE_NAME, false, true, true, null);
+        AmqpResources amqpResources = new AmqpResources(connection, channel, queueName, new ConcurrentLinkedQueue<>());
+        extensionContext.getStore(NAMESPACE).put(AMQP_RESOURCES, amqpResources);
+        extensionContext.getStore(NAMESPACE).put(REQUEST_METRICS, DavRequestMetrics.forTestClass(extensionContext.getRequiredTestClass().getName()));
+        currentTest.set(extensionContext);
     }
 
     @Override
     public void afterEach(ExtensionContext extensionContext) throws Exception {
-        if (channel != null && channel.isOpen()) {
-            channel.close();
+        AwaitTimes.finish();
+        currentTest.remove();
+        extensionContext.getStore(NAMESPACE).remove(REQUEST_METRICS);
+        Instant testStart = extensionContext.getStore(NAMESPACE).remove(TEST_START, Instant.class);
+        if (testStart != null) {
+            setup().getContainerStatsSampler().ifPresent(sampler -> sampler.testFinished(
+                extensionContext.getRequiredTestClass().getName(), testName(extensionContext), testStart, Instant.now()));
+        }
+        AmqpResources amqpResources = extensionContext.getStore(NAMESPACE).remove(AMQP_RESOURCES, AmqpResources.class);
+        if (amqpResources != null) {
+            amqpResources.close();
         }
-        if (connection != null && connection.isOpen()) {
-            connection.close();
+    }
+
+    private static String testName(ExtensionContext extensionContext) {
+        String method = extensionContext.getRequiredTestMethod().getName();
+        String displayName = extensionContext.getDisplayName();
+        if (displayName.startsWith(method)) {
+            return method;
+        }
+        // Parameterized and repeated tests
+        return method + " " + displayName;
+    }
+
+    @Override
+    public void afterAll(ExtensionContext extensionContext) {
+        String testClass = extensionContext.getRequiredTestClass().getName();
+        DavRequestMetrics.remove(testClass)
+            .ifPresent(DavRequestMetrics::writeReport);
+        setup().getContainerStatsSampler()
+            .ifPresent(sampler -> sampler.writeReport(testClass, DavRequestMetrics.reportDirectory()));
+        Instant classStart = extensionContext.getStore(NAMESPACE).remove(CLASS_START, Instant.class);
+        if (classStart != null) {
+            // Classes running concurrently get the queries of one another
+            setup().getMongoProfiler()
+                .ifPresent(profiler -> profiler.writeReport(profiler.report(testClass, classStart, Instant.now()), DavRequestMetrics.reportDirectory()));
         }
     }
 
@@ -82,12 +162,24 @@ public abstract class DockerTwakeCalendarExtension implements BeforeEachCallback
     }
 
     public OpenPaasUser newTestUser() {
+        TestUserPool testUserPool = setup().getTestUserPool();
+        if (testUserPool.isEnabled()) {
+            return testUserPool.take();
+        }
         return setup()
             .getTwakeCalendarProvisioningService()
             .createUser()
             .block();
     }
 
+    public List<OpenPaasUser> newTestUsers(int count) {
+        return setup()
+            .getTwakeCalendarProvisioningService()
+            .createUsers(count)
+            .collectList()
+            .block();
+    }
+
     public OpenPaasUser newTestUser(String localPart) {
         return setup()
             .getTwakeCalendarProvisioningService()
@@ -106,9 +198,17 @@ public abstract class DockerTwakeCalendarExtension implements BeforeEachCallback
             .get("_id")).toString();
     }
 
+    /**
+     * Requests of the clients created while a test runs are recorded in the {@link DavRequestMetrics} of its class.
+     */
     public HttpClient davHttpClient() {
-        return HttpClient.create()
-            .baseUrl(getDockerTwakeCalendarSetupSingleton().getServiceUri(DockerTwakeCalendarSetup.DockerService.SABRE_DAV, "http").toString());
+        HttpClient client = getDockerTwakeCalendarSetupSingleton().httpClient(DockerTwakeCalendarSetup.DockerService.SABRE_DAV);
+        ExtensionContext test = currentTest.get();
+        DavRequestMetrics requestMetrics = test == null ? null : test.getStore(NAMESPACE).get(REQUEST_METRICS, DavRequestMetrics.class);
+        if (requestMetrics == null) {
+            return client;
+        }
+        return requestMetrics.instrument(client);
     }
 
     public RequestSpecification webAdminRequestSpecification() {
@@ -122,6 +222,47 @@ public abstract class DockerTwakeCalendarExtension implements BeforeEachCallback
     }
 
     public Channel getChannel() {
-        return channel;
+        return amqpResources().channel();
+    }
+
+    /**
+     * Exclusive queue declared for the running test, to be bound to the exchanges it listens to.
+     */
+    public String queueName() {
+        return amqpResources().queueName();
+    }
+
+    public AmqpEventBus amqpEventBus() {
+        return setup().getAmqpEventBus();
+    }
+
+    public BlockingQueue<JsonNode> subscribeToEvents(String exchange, OpenPaasUser... users) {
+        return subscribeToEvents(List.of(exchange), users);
+    }
+
+    /**
+     * Messages of the exchanges concerning the given users, from now until the end of the test. Unlike binding
+     * {@link #queueName()}, events of other tests are not received.
+     */
+    public BlockingQueue<JsonNode> subscribeToEvents(List<String> exchanges, OpenPaasUser... users) {
+        return register(amqpEventBus().subscribe(exchanges, users));
+    }
+
+    /**
+     * Same as {@link #subscribeToEvents(List, OpenPaasUser...)} for principals which are not users, such as team
+     * calendars and resources: see {@link AmqpEventBus#subscribe(Collection, Collection)} for the keys.
+     */
+    public BlockingQueue<JsonNode> subscribeToEvents(List<String> exchanges, Collection<String> keys) {
+        return register(amqpEventBus().subscribe(exchanges, keys));
+    }
+
+    private BlockingQueue<JsonNode> register(AmqpEventBus.Subscription subscription) {
+        amqpResources().subscriptions().add(subscription);
+        return subscription.messages();
+    }
+
+    private AmqpResources amqpResources() {
+        ExtensionContext test = Preconditions.notNull(currentTest.get(), "AMQP resources are only available from the thread of a running test");
+        return test.getStore(NAMESPACE).get(AMQP_RESOURCES, AmqpResources.class);
     }
 }
\ No newline at end of file
@@ -19,16 +19,29 @@
 package com.linagora.dav;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.http.client.utils.URIBuilder;
 import org.junit.platform.commons.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.ComposeContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.Base58;
+
+import com.rabbitmq.client.ConnectionFactory;
+
+import reactor.netty.http.client.HttpClient;
 
 public class DockerTwakeCalendarSetup {
     private static final Logger LOGGER = LoggerFactory.getLogger(DockerTwakeCalendarSetup.class);
@@ -63,8 +76,30 @@ public class DockerTwakeCalendarSetup {
 
     public static final String SABRE_V4_7 = "sabre-v4-7-it";
 
-    private final ComposeContainer environment;
+    /**
+     * Set per surefire fork by the {@code sharded} profile: each fork runs its own stack, under its own compose project.
+     */
+    public static final String STACK_INDEX_PROPERTY = "dav.stack.index";
+
+    /**
+     * Attach to a compose stack left running by a previous run and reset its state, instead of starting a new one.
+     */
+    public static final String REUSE_PROPERTY = "dav.stack.reuse";
+
+    private static final String COMPOSE_FILE = "/docker-twake-calendar-setup.yml";
+    private static final String REUSABLE_COMPOSE_OVERRIDE_FILE = "/docker-twake-calendar-setup.reusable.yml";
+    private static final String READY_LOG_MESSAGE = "StartUpChecks all succeeded";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(10);
+
+    private final String configurationName;
+    private final ComposeStack environment;
     private TwakeCalendarProvisioningService twakeCalendarProvisioningService;
+    private TestUserPool testUserPool;
+    private AmqpEventBus amqpEventBus;
+    private DavConnectionPools connectionPools;
+    private Optional<ContainerStatsSampler> containerStatsSampler = Optional.empty();
+    private Optional<MongoProfiler> mongoProfiler = Optional.empty();
+    private Instant startedAt;
 
     public DockerTwakeCalendarSetup(String sabreVersion) {
         this(sabreVersion, false, false);
@@ -81,47 +116,213 @@ public class DockerTwakeCalendarSetup {
     private DockerTwakeCalendarSetup(String sabreVersion, String principalPrivacy, String organizerValidation) {
         LOGGER.info("Test config: PRINCIPAL_PRIVACY={}", principalPrivacy);
         LOGGER.info("Test config: CALDAV_ORGANIZER_VALIDATION={}", organizerValidation);
+        configurationName = configurationName(sabreVersion, principalPrivacy, organizerValidation);
+        if (Boolean.getBoolean(REUSE_PROPERTY)) {
+            environment = reusableStack(sabreVersion, principalPrivacy, organizerValidation);
+        } else {
+            environment = testcontainersStack(sabreVersion, principalPrivacy, organizerValidation);
+        }
+    }
+
+    private static ComposeStack testcontainersStack(String sabreVersion, String principalPrivacy, String organizerValidation) {
+        String composeIdentifier = composeIdentifier();
+        LOGGER.info("Test config: COMPOSE_PROJECT={}", composeIdentifier);
+        String logPrefix = stackIndex().map(index -> "[stack-" + index + "]").orElse("");
+        ComposeContainer composeContainer = new ComposeContainer(composeIdentifier, composeFile(COMPOSE_FILE))
+            .withExposedService(DockerService.CALENDAR_SIDE.serviceName(), DockerService.CALENDAR_SIDE.port())
+            .withExposedService(DockerService.CALENDAR_SIDE_ADMIN.serviceName(), DockerService.CALENDAR_SIDE_ADMIN.port())
+            .withExposedService(DockerService.RABBITMQ.serviceName(), DockerService.RABBITMQ.port())
+            .withExposedService(DockerService.RABBITMQ_ADMIN.serviceName(), DockerService.RABBITMQ_ADMIN.port())
+            .withExposedService(DockerService.SABRE_DAV.serviceName(), DockerService.SABRE_DAV.port())
+            .withExposedService(DockerService.MONGO.serviceName(), DockerService.MONGO.port())
+            .withExposedService(DockerService.OPENSEARCH.serviceName(), DockerService.OPENSEARCH.port())
+            .withExposedService(DockerService.REDIS.serviceName(), DockerService.REDIS.port())
+            .withExposedService(DockerService.LDAP.serviceName(), DockerService.LDAP.port())
+            .withEnv("SABRE_DAV_IMAGE", sabreVersion)
+            .withEnv("PRINCIPAL_PRIVACY", principalPrivacy)
+            .withEnv("CALDAV_ORGANIZER_VALIDATION", organizerValidation)
+            .withLogConsumer(DockerService.SABRE_DAV.serviceName(), log -> System.out.print(logPrefix + "[esn-sabre] " + log.getUtf8String()))
+            .withLogConsumer(DockerService.CALENDAR_SIDE.serviceName(), log -> System.out.print(logPrefix + "[twake-calendar-side-service] " + log.getUtf8String()));
+
+        return new ComposeStack() {
+            @Override
+            public void start() {
+                composeContainer.start();
+            }
+
+            @Override
+            public void stop() {
+                composeContainer.stop();
+            }
+
+            @Override
+            public String getServiceHost(String serviceName, Integer port) {
+                return composeContainer.getServiceHost(serviceName, port);
+            }
+
+            @Override
+            public Integer getServicePort(String serviceName, Integer port) {
+                return composeContainer.getServicePort(serviceName, port);
+            }
+
+            @Override
+            public Map<String, String> containerIds() {
+                // Testcontainers appends its own suffix to the identifier to name the compose project
+                return ComposeStack.runningContainerIds(projectName -> projectName.startsWith(composeIdentifier));
+            }
+        };
+    }
+
+    private static ComposeStack reusableStack(String sabreVersion, String principalPrivacy, String organizerValidation) {
+        // Stable name, distinct per configuration, so that the next run finds the same stack
+        String projectName = "twake-calendar-reusable-" + stackIndex().orElse("0") + "-"
+            + configurationName(sabreVersion, principalPrivacy, organizerValidation);
+        LOGGER.info("Test config: COMPOSE_PROJECT={} (reused)", projectName);
+        return new ReusableComposeStack(projectName,
+            List.of(composeFile(COMPOSE_FILE), composeFile(REUSABLE_COMPOSE_OVERRIDE_FILE)),
+            Map.of("SABRE_DAV_IMAGE", sabreVersion,
+                "PRINCIPAL_PRIVACY", principalPrivacy,
+                "CALDAV_ORGANIZER_VALIDATION", organizerValidation),
+            Arrays.stream(DockerService.values()).map(DockerService::serviceName).collect(Collectors.toUnmodifiableSet()));
+    }
+
+    private static String configurationName(String sabreVersion, String principalPrivacy, String organizerValidation) {
+        return sabreVersion
+            + (Boolean.parseBoolean(principalPrivacy) ? "-privacy" : "")
+            + (Boolean.parseBoolean(organizerValidation) ? "-organizer-validation" : "");
+    }
+
+    private static File composeFile(String resource) {
         try {
-            environment = new ComposeContainer(
-                new File(DockerTwakeCalendarSetup.class.getResource("/docker-twake-calendar-setup.yml").toURI()))
-                .withExposedService(DockerService.CALENDAR_SIDE.serviceName(), DockerService.CALENDAR_SIDE.port())
-                .withExposedService(DockerService.CALENDAR_SIDE_ADMIN.serviceName(), DockerService.CALENDAR_SIDE_ADMIN.port())
-                .withExposedService(DockerService.RABBITMQ.serviceName(), DockerService.RABBITMQ.port())
-                .withExposedService(DockerService.RABBITMQ_ADMIN.serviceName(), DockerService.RABBITMQ_ADMIN.port())
-                .withExposedService(DockerService.SABRE_DAV.serviceName(), DockerService.SABRE_DAV.port())
-                .withExposedService(DockerService.MONGO.serviceName(), DockerService.MONGO.port())
-                .withExposedService(DockerService.OPENSEARCH.serviceName(), DockerService.OPENSEARCH.port())
-                .withExposedService(DockerService.REDIS.serviceName(), DockerService.REDIS.port())
-                .withExposedService(DockerService.LDAP.serviceName(), DockerService.LDAP.port())
-                .waitingFor(DockerService.CALENDAR_SIDE.serviceName(), Wait.forLogMessage(".*StartUpChecks all succeeded.*", 1)
-                    .withStartupTimeout(Duration.ofMinutes(10)))
-                .withEnv("SABRE_DAV_IMAGE", sabreVersion)
-                .withEnv("PRINCIPAL_PRIVACY", principalPrivacy)
-                .withEnv("CALDAV_ORGANIZER_VALIDATION", organizerValidation)
-                .withLogConsumer(DockerService.SABRE_DAV.serviceName(), log -> System.out.print("[esn-sabre] " + log.getUtf8String()))
-                .withLogConsumer(DockerService.CALENDAR_SIDE.serviceName(), log -> System.out.print("[twake-calendar-side-service] " + log.getUtf8String()));
+            return new File(DockerTwakeCalendarSetup.class.getResource(resource).toURI());
         } catch (URISyntaxException e) {
             throw new RuntimeException("Failed to initialize Twake Calendar Setup from docker compose.", e);
         }
     }
 
+    private static Optional<String> stackIndex() {
+        return Optional.ofNullable(System.getProperty(STACK_INDEX_PROPERTY))
+            .filter(index -> !index.isBlank());
+    }
+
+    private static String composeIdentifier() {
+        // Random suffix: several stacks of the same index may run on one docker host (concurrent CI jobs, setups with
+        // other options)
+        String suffix = Base58.randomString(6).toLowerCase(Locale.US);
+        return stackIndex()
+            .map(index -> "twake-calendar-stack" + index + "-" + suffix)
+            .orElse("twake-calendar-" + suffix);
+    }
+
     public void start() {
         environment.start();
+        awaitReady();
+        containerStatsSampler = ContainerStatsSampler.fromSystemProperties(DockerClientFactory.instance().client(), environment.containerIds());
+        connectionPools = new DavConnectionPools();
         twakeCalendarProvisioningService = new TwakeCalendarProvisioningService(
             getServiceUri(DockerService.MONGO, "mongodb").toString(),
-            getServiceUri(DockerService.CALENDAR_SIDE_ADMIN, "http").toString(),
-            getServiceUri(DockerService.SABRE_DAV, "http").toString());
+            httpClient(DockerService.CALENDAR_SIDE_ADMIN),
+            httpClient(DockerService.SABRE_DAV));
+        if (environment.isReused()) {
+            new StackReset(this).reset();
+        }
+        mongoProfiler = MongoProfiler.fromSystemProperties(getServiceUri(DockerService.MONGO, "mongodb").toString());
+        startedAt = Instant.now();
+        testUserPool = TestUserPool.fromSystemProperties(twakeCalendarProvisioningService);
+        testUserPool.refillIfNeeded();
+        amqpEventBus = new AmqpEventBus(amqpConnectionFactory());
+    }
+
+    private void awaitReady() {
+        StackReadiness readiness = new StackReadiness(this, environment.containerIds(), READY_LOG_MESSAGE);
+        Map<String, Instant> readyAt = readiness.await(STARTUP_TIMEOUT);
+        LOGGER.info("Startup timeline:\n{}", StackReadiness.format(readiness.timeline(readyAt)));
     }
 
     public void stop() {
+        if (testUserPool != null && testUserPool.isEnabled()) {
+            LOGGER.info("Test user pool: {}", testUserPool.stats());
+        }
+        if (amqpEventBus != null) {
+            try {
+                amqpEventBus.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close the AMQP event bus", e);
+            }
+        }
+        if (connectionPools != null) {
+            connectionPools.stats().forEach(stats -> LOGGER.info("HTTP connection pool {}", stats));
+            connectionPools.close();
+        }
+        containerStatsSampler.ifPresent(ContainerStatsSampler::close);
+        mongoProfiler.ifPresent(profiler -> {
+            LOGGER.info("{}", profiler.report("the run", startedAt, Instant.now()).format(20));
+            profiler.close();
+        });
         environment.stop();
     }
 
+    /**
+     * Sabre image and feature flags the stack runs with, such as {@code sabre-v4-7-it-privacy}.
+     */
+    public String getConfigurationName() {
+        return configurationName;
+    }
+
     public TwakeCalendarProvisioningService getTwakeCalendarProvisioningService() {
         Preconditions.notNull(twakeCalendarProvisioningService, "Twake Calendar Provisioning Service not initialized");
         return twakeCalendarProvisioningService;
     }
 
+    public TestUserPool getTestUserPool() {
+        Preconditions.notNull(testUserPool, "Test user pool not initialized");
+        return testUserPool;
+    }
+
+    public AmqpEventBus getAmqpEventBus() {
+        Preconditions.notNull(amqpEventBus, "AMQP event bus not initialized");
+        return amqpEventBus;
+    }
+
+    /**
+     * Empty when disabled with {@code -Ddav.stats.enabled=false}.
+     */
+    public Optional<ContainerStatsSampler> getContainerStatsSampler() {
+        return containerStatsSampler;
+    }
+
+    /**
+     * Present when enabled with {@code -Ddav.mongo.profile=true}.
+     */
+    public Optional<MongoProfiler> getMongoProfiler() {
+        return mongoProfiler;
+    }
+
+    public DavConnectionPools getConnectionPools() {
+        Preconditions.notNull(connectionPools, "HTTP connection pools not initialized");
+        return connectionPools;
+    }
+
+    /**
+     * Client of an HTTP service of the stack, sharing the connection pool of that service.
+     */
+    public HttpClient httpClient(DockerService service) {
+        return getConnectionPools().httpClient(service, getServiceUri(service, "http").toString());
+    }
+
+    public ConnectionFactory amqpConnectionFactory() {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(getHost(DockerService.RABBITMQ));
+        factory.setPort(getPort(DockerService.RABBITMQ));
+        factory.setUsername("guest");
+        factory.setPassword("guest");
+        return factory;
+    }
+
+    public Optional<String> getContainerId(DockerService service) {
+        return Optional.ofNullable(environment.containerIds().get(service.serviceName()));
+    }
+
     public String getHost(DockerService service) {
         return environment.getServiceHost(service.serviceName(), service.port());
     }
@@ -25,9 +25,12 @@ import java.time.format.DateTimeFormatter;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 public class ITIPJsonBodyRequest {
     public static final ObjectMapper MAPPER = new ObjectMapper();
+    // Resolves the serializer once instead of on each message
+    public static final ObjectWriter WRITER = MAPPER.writerFor(ITIPJsonBodyRequest.class);
 
     public String ical;
     public String sender;
@@ -47,7 +50,15 @@ public class ITIPJsonBodyRequest {
 
     public String toJson() {
         try {
-            return MAPPER.writeValueAsString(this);
+            return WRITER.writeValueAsString(this);
+        } catch (Exception e) {
+            throw new RuntimeException("Cannot serialize ITIP JSON", e);
+        }
+    }
+
+    public byte[] toJsonBytes() {
+        try {
+            return WRITER.writeValueAsBytes(this);
         } catch (Exception e) {
             throw new RuntimeException("Cannot serialize ITIP JSON", e);
         }
@@ -0,0 +1,51 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+public class ITIPJsonBodyRequestTest {
+    private static final ITIPJsonBodyRequest REQUEST = ITIPJsonBodyRequest.builder()
+        .ical("BEGIN:VCALENDAR\nEND:VCALENDAR\n")
+        .sender("organizer@example.com")
+        .recipient("attendee@example.com")
+        .uid("event-1")
+        .dtstamp(Instant.parse("2035-10-03T08:00:00Z"))
+        .method("REQUEST")
+        .recurrenceId("20351005T090000Z")
+        .build();
+
+    @Test
+    void toJsonShouldDefaultReplyToAndSequence() {
+        assertThat(REQUEST.toJson()).isEqualTo("""
+            {"ical":"BEGIN:VCALENDAR\\nEND:VCALENDAR\\n","sender":"organizer@example.com","recipient":"attendee@example.com",\
+            "replyTo":"organizer@example.com","uid":"event-1","dtstamp":"20351003T080000Z","method":"REQUEST","sequence":"0",\
+            "recurrence-id":"20351005T090000Z"}""");
+    }
+
+    @Test
+    void toJsonBytesShouldMatchToJson() {
+        assertThat(new String(REQUEST.toJsonBytes(), StandardCharsets.UTF_8)).isEqualTo(REQUEST.toJson());
+    }
+}
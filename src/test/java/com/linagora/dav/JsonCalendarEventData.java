@@ -22,38 +22,18 @@ import java.util.List;
 import java.util.Optional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Streams;
 
 public record JsonCalendarEventData(Optional<String> method,
                                     String uid,
                                     Optional<String> summary,
                                     String dtstart,
                                     String dtend,
-                                    Optional<String> recurrenceId) {
-
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+                                    Optional<String> recurrenceId,
+                                    Optional<String> status) {
 
     public static List<JsonCalendarEventData> from(String json) throws JsonProcessingException {
-        JsonNode root = OBJECT_MAPPER.readTree(json);
-        JsonNode items = root.at("/_embedded/dav:item");
-        return Streams.stream(items.elements()).flatMap(jsonNode -> {
-            Optional<String> method = getFieldValue(jsonNode.at("/data/1"), "method");
-            return Streams.stream(jsonNode.at("/data/2").elements()).map(vevent -> {
-                String uid = getFieldValue(vevent.get(1), "uid").get();
-                Optional<String> summary = getFieldValue(vevent.get(1), "summary");
-                String dtstart = getFieldValue(vevent.get(1), "dtstart").get();
-                String dtend = getFieldValue(vevent.get(1), "dtend").get();
-                Optional<String> recurrenceId = getFieldValue(vevent.get(1), "recurrence-id");
-                return new JsonCalendarEventData(method, uid, summary, dtstart, dtend, recurrenceId);
-            });
-        }).toList();
-    }
-
-    private static Optional<String> getFieldValue(JsonNode element, String fieldName) {
-        return Streams.stream(element.elements())
-            .filter(jsonNode -> jsonNode.get(0).asText().equals(fieldName))
-            .map(jsonNode -> jsonNode.get(3).asText()).findAny();
+        return JsonCalendarReader.readAll(json).items().stream()
+            .flatMap(item -> item.events().stream())
+            .toList();
     }
 }
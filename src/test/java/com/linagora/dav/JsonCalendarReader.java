@@ -0,0 +1,354 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Pulls the {@code _embedded/dav:item} entries of a JSON (jCal) calendar REPORT one at a time.
+ *
+ * <p>Each item is read in a single pass: only its href, its status, the calendar method and the uid, summary,
+ * dtstart, dtend, recurrence-id and status of its VEVENTs are kept. The calendar href and sync token are available once
+ * the reader is exhausted, as they may come after the items in the body.
+ */
+public class JsonCalendarReader implements Iterator<JsonCalendarData.DavItem>, AutoCloseable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Set<String> CALENDAR_PROPERTIES = Set.of("method");
+    private static final Set<String> EVENT_PROPERTIES = Set.of("uid", "summary", "dtstart", "dtend", "recurrence-id", "status");
+
+    private enum State {
+        ROOT,
+        ITEMS,
+        DONE
+    }
+
+    public static JsonCalendarData readAll(String json) throws JsonProcessingException {
+        try (JsonCalendarReader reader = new JsonCalendarReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            List<JsonCalendarData.DavItem> items = ImmutableList.copyOf(reader);
+            return new JsonCalendarData(reader.calendarHref(), reader.syncToken(), items);
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof JsonProcessingException jsonProcessingException) {
+                throw jsonProcessingException;
+            }
+            throw e;
+        }
+    }
+
+    public static Flux<JsonCalendarData.DavItem> items(String json) {
+        return items(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Flux<JsonCalendarData.DavItem> items(byte[] json) {
+        return items(new ByteArrayInputStream(json));
+    }
+
+    /**
+     * Items are read as they are requested. The stream is closed once the flux terminates or is cancelled.
+     */
+    public static Flux<JsonCalendarData.DavItem> items(InputStream json) {
+        return Flux.using(() -> open(json),
+            reader -> Flux.fromIterable(() -> reader),
+            JsonCalendarReader::close);
+    }
+
+    private static JsonCalendarReader open(InputStream json) throws IOException {
+        try {
+            return new JsonCalendarReader(json);
+        } catch (RuntimeException e) {
+            json.close();
+            throw e;
+        }
+    }
+
+    public static Flux<JsonCalendarEventData> events(byte[] json) {
+        return items(json).concatMapIterable(JsonCalendarData.DavItem::events);
+    }
+
+    private final JsonParser parser;
+    private State state = State.ROOT;
+    private String calendarHref = "";
+    private String syncToken = "";
+    private JsonCalendarData.DavItem next;
+
+    public JsonCalendarReader(InputStream json) {
+        try {
+            this.parser = JSON_FACTORY.createParser(json);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expecting a JSON object as calendar REPORT response");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read calendar REPORT response", e);
+        }
+    }
+
+    public String calendarHref() {
+        return calendarHref;
+    }
+
+    public String syncToken() {
+        return syncToken;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNextItem();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read calendar REPORT response", e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public JsonCalendarData.DavItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonCalendarData.DavItem item = next;
+        next = null;
+        return item;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close calendar REPORT reader", e);
+        }
+    }
+
+    private JsonCalendarData.DavItem readNextItem() throws IOException {
+        while (state != State.DONE) {
+            if (state == State.ITEMS) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT) {
+                    return readItem();
+                }
+                if (token != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                // Rest of the _embedded object, then back to the root one
+                skipRemainingFields();
+                state = State.ROOT;
+            } else {
+                state = advanceToItems() ? State.ITEMS : State.DONE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the root fields up to the start of the {@code _embedded/dav:item} array, or to the end of the root object.
+     */
+    private boolean advanceToItems() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "_links" -> calendarHref = readSelfHref(value).orElse("");
+                case "sync-token" -> syncToken = scalarText(value);
+                case "_embedded" -> {
+                    if (value != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                    } else if (enterItems()) {
+                        return true;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private boolean enterItems() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && field.equals("dav:item")) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private void skipRemainingFields() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private JsonCalendarData.DavItem readItem() throws IOException {
+        String href = "";
+        int status = 0;
+        List<JsonCalendarEventData> events = List.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "_links" -> href = readSelfHref(value).orElse("");
+                case "status" -> status = parser.getValueAsInt();
+                case "data" -> events = readVCalendar(value);
+                default -> parser.skipChildren();
+            }
+        }
+        return new JsonCalendarData.DavItem(href, status, events);
+    }
+
+    private Optional<String> readSelfHref(JsonToken links) throws IOException {
+        if (links != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Optional.empty();
+        }
+        String href = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && field.equals("self")) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String selfField = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (selfField.equals("href")) {
+                        href = scalarText(value);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return Optional.ofNullable(href);
+    }
+
+    /**
+     * jCal component: {@code ["vcalendar", [properties], [components]]}.
+     */
+    private List<JsonCalendarEventData> readVCalendar(JsonToken data) throws IOException {
+        if (data != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        Optional<String> method = Optional.empty();
+        List<JsonCalendarEventData> events = new ArrayList<>();
+        int index = 0;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+            if (index == 1 && token == JsonToken.START_ARRAY) {
+                method = Optional.ofNullable(readProperties(CALENDAR_PROPERTIES).get("method"));
+            } else if (index == 2 && token == JsonToken.START_ARRAY) {
+                readEvents(method, events);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return events;
+    }
+
+    private void readEvents(Optional<String> method, List<JsonCalendarEventData> events) throws IOException {
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            String name = null;
+            Map<String, String> properties = Map.of();
+            int index = 0;
+            for (JsonToken componentToken = parser.nextToken(); componentToken != JsonToken.END_ARRAY; componentToken = parser.nextToken(), index++) {
+                if (index == 0) {
+                    name = parser.getValueAsString();
+                } else if (index == 1 && componentToken == JsonToken.START_ARRAY && "vevent".equals(name)) {
+                    properties = readProperties(EVENT_PROPERTIES);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if ("vevent".equals(name)) {
+                events.add(new JsonCalendarEventData(method,
+                    Optional.ofNullable(properties.get("uid")).orElseThrow(),
+                    Optional.ofNullable(properties.get("summary")),
+                    Optional.ofNullable(properties.get("dtstart")).orElseThrow(),
+                    Optional.ofNullable(properties.get("dtend")).orElseThrow(),
+                    Optional.ofNullable(properties.get("recurrence-id")),
+                    Optional.ofNullable(properties.get("status"))));
+            }
+        }
+    }
+
+    /**
+     * jCal properties: {@code [[name, {parameters}, type, value...], ...]}. Keeps the first value of each selected property.
+     */
+    private Map<String, String> readProperties(Set<String> selectedProperties) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            String name = null;
+            int index = 0;
+            for (JsonToken propertyToken = parser.nextToken(); propertyToken != JsonToken.END_ARRAY; propertyToken = parser.nextToken(), index++) {
+                if (index == 0) {
+                    name = parser.getValueAsString();
+                } else if (index == 3 && selectedProperties.contains(name) && !values.containsKey(name)) {
+                    values.put(name, scalarText(propertyToken));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Same as {@link com.fasterxml.jackson.databind.JsonNode#asText()}: structured values read as an empty string.
+     */
+    private String scalarText(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return "null";
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return "";
+    }
+}
@@ -0,0 +1,177 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static com.linagora.dav.TestUtil.generatedInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Streams;
+
+public class JsonCalendarReaderTest {
+    private static final String REPORT = """
+        {
+          "_links": { "self": { "href": "/calendars/user1/events.json" } },
+          "_embedded": {
+            "dav:item": [
+              {
+                "_links": { "self": { "href": "/calendars/user1/events/event-1.ics" } },
+                "etag": "\\"abc\\"",
+                "status": 200,
+                "data": [
+                  "vcalendar",
+                  [
+                    ["version", {}, "text", "2.0"],
+                    ["method", {}, "text", "REQUEST"]
+                  ],
+                  [
+                    ["vtimezone", [["tzid", {}, "text", "Europe/Paris"]], []],
+                    ["vevent",
+                      [
+                        ["uid", {}, "text", "event-1"],
+                        ["summary", {}, "text", "Standup"],
+                        ["dtstart", {"tzid": "Europe/Paris"}, "date-time", "2025-01-06T10:00:00"],
+                        ["dtend", {"tzid": "Europe/Paris"}, "date-time", "2025-01-06T10:15:00"],
+                        ["rrule", {}, "recur", {"freq": "DAILY", "count": 5}]
+                      ],
+                      [["valarm", [["uid", {}, "text", "alarm"], ["action", {}, "text", "DISPLAY"]], []]]
+                    ],
+                    ["vevent",
+                      [
+                        ["uid", {}, "text", "event-1"],
+                        ["recurrence-id", {}, "date-time", "2025-01-07T09:00:00Z"],
+                        ["dtstart", {}, "date-time", "2025-01-07T11:00:00Z"],
+                        ["dtend", {}, "date-time", "2025-01-07T11:15:00Z"],
+                        ["status", {}, "text", "CANCELLED"]
+                      ],
+                      []
+                    ]
+                  ]
+                ]
+              },
+              {
+                "_links": { "self": { "href": "/calendars/user1/events/event-2.ics" } },
+                "status": 404
+              }
+            ],
+            "dav:other": []
+          },
+          "sync-token": "http://sabre.io/ns/sync/12"
+        }
+        """;
+
+    @Test
+    void shouldReadItemsInASinglePass() throws Exception {
+        JsonCalendarData data = JsonCalendarData.from(REPORT);
+
+        assertThat(data.href()).isEqualTo("/calendars/user1/events.json");
+        assertThat(data.syncToken()).isEqualTo("http://sabre.io/ns/sync/12");
+        assertThat(data.items()).containsExactly(
+            new JsonCalendarData.DavItem("/calendars/user1/events/event-1.ics", 200, List.of(
+                new JsonCalendarEventData(Optional.of("REQUEST"), "event-1", Optional.of("Standup"),
+                    "2025-01-06T10:00:00", "2025-01-06T10:15:00", Optional.empty(), Optional.empty()),
+                new JsonCalendarEventData(Optional.of("REQUEST"), "event-1", Optional.empty(),
+                    "2025-01-07T11:00:00Z", "2025-01-07T11:15:00Z", Optional.of("2025-01-07T09:00:00Z"),
+                    Optional.of("CANCELLED")))),
+            new JsonCalendarData.DavItem("/calendars/user1/events/event-2.ics", 404, List.of()));
+    }
+
+    @Test
+    void jsonCalendarEventDataShouldFlattenEventsOfAllItems() throws Exception {
+        assertThat(JsonCalendarEventData.from(REPORT))
+            .extracting(JsonCalendarEventData::recurrenceId)
+            .containsExactly(Optional.empty(), Optional.of("2025-01-07T09:00:00Z"));
+    }
+
+    @Test
+    void itemsShouldBeEmittedAsAFlux() {
+        assertThat(JsonCalendarReader.items(REPORT).map(JsonCalendarData.DavItem::href).collectList().block())
+            .containsExactly("/calendars/user1/events/event-1.ics", "/calendars/user1/events/event-2.ics");
+    }
+
+    @Test
+    void itemsShouldCloseTheStreamOnceRead() {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream json = new FilterInputStream(new ByteArrayInputStream(REPORT.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        assertThat(JsonCalendarReader.items(json).count().block()).isEqualTo(2);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldHandleEmptyReport() throws Exception {
+        JsonCalendarData data = JsonCalendarData.from("{\"_links\":{\"self\":{\"href\":\"/calendars/user1/events.json\"}},\"_embedded\":{\"dav:item\":[]}}");
+
+        assertThat(data.items()).isEmpty();
+        assertThat(data.syncToken()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectMalformedJson() {
+        assertThatThrownBy(() -> JsonCalendarData.from("{\"_embedded\":{\"dav:item\":[{]}}"))
+            .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void shouldSkipNonObjectEmbeddedValue() throws Exception {
+        JsonCalendarData data = JsonCalendarData.from("{\"_embedded\":[{\"dav:item\":[]},1],\"sync-token\":\"token-1\"}");
+
+        assertThat(data.items()).isEmpty();
+        assertThat(data.syncToken()).isEqualTo("token-1");
+    }
+
+    @Test
+    void shouldStreamLargeReport() {
+        int count = 100_000;
+        Stream<String> parts = Stream.of(
+                Stream.of("{\"_embedded\":{\"dav:item\":["),
+                IntStream.range(0, count).mapToObj(i -> (i > 0 ? "," : "")
+                    + "{\"_links\":{\"self\":{\"href\":\"/calendars/user1/events/" + i + ".ics\"}},\"status\":200,"
+                    + "\"data\":[\"vcalendar\",[],[[\"vevent\",[[\"uid\",{},\"text\",\"" + i + "\"],"
+                    + "[\"dtstart\",{},\"date-time\",\"2025-01-06T10:00:00Z\"],[\"dtend\",{},\"date-time\",\"2025-01-06T11:00:00Z\"]],[]]]]}"),
+                Stream.of("]}}"))
+            .flatMap(Function.identity());
+
+        try (JsonCalendarReader reader = new JsonCalendarReader(generatedInputStream(parts))) {
+            assertThat(Streams.stream(reader).mapToInt(item -> item.events().size()).sum())
+                .isEqualTo(count);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the Mongo profiler (level 1) on the sabre and {@code esn_docker} databases, then groups the profiled
+ * operations by query shape: namespace, operation and filter / sort / pipeline with their values replaced by
+ * {@code "?"}.
+ *
+ * <p>Enabled with {@code -Ddav.mongo.profile=true}. Operations slower than {@code -Ddav.mongo.slowms} (default 0, every
+ * operation) are profiled into a {@code system.profile} collection of {@code -Ddav.mongo.profileSizeMb} (default 256)
+ * instead of the default 1MB, so that the start of the run is not overwritten.
+ *
+ * <p>Shapes come with their plan summaries, flagging collection scans and sorts done in memory.
+ */
+public class MongoProfiler implements AutoCloseable {
+    public static final String ENABLED_PROPERTY = "dav.mongo.profile";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoProfiler.class);
+    private static final List<String> DATABASES = List.of("sabredav", "esn_docker");
+    private static final String PROFILE_COLLECTION = "system.profile";
+    private static final String ANY_VALUE = "?";
+    private static final Set<String> LOGICAL_OPERATORS = Set.of("$and", "$or", "$nor");
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public record ShapeStats(String namespace, String operation, String shape, long count, long totalMillis,
+                             long maxMillis, long docsExamined, long keysExamined, long returned,
+                             Set<String> planSummaries, boolean collectionScan, boolean inMemorySort) {
+    }
+
+    public record Report(String workload, long operations, long totalMillis, List<ShapeStats> shapes) {
+        public String format(int top) {
+            StringBuilder builder = new StringBuilder("Mongo query shapes of %s: %d operations, %d ms"
+                .formatted(workload, operations, totalMillis));
+            shapes.stream()
+                .limit(top)
+                .forEach(shape -> builder.append("%n  %7d ms %6d x %-40s %s %s%s%s".formatted(
+                    shape.totalMillis(), shape.count(), shape.namespace(), shape.operation(), shape.shape(),
+                    shape.collectionScan() ? " COLLSCAN" : "",
+                    shape.inMemorySort() ? " IN-MEMORY SORT" : "")));
+            return builder.toString();
+        }
+    }
+
+    private record ProfiledOperation(String namespace, String operation, String shape, long millis, long docsExamined,
+                                     long keysExamined, long returned, String planSummary, boolean inMemorySort) {
+        static ProfiledOperation from(Document profile) {
+            String operation = profile.getString("op");
+            Document command = Optional.ofNullable(profile.get("command", Document.class)).orElseGet(Document::new);
+            return new ProfiledOperation(
+                profile.getString("ns"),
+                operation,
+                MongoProfiler.shape(operation, command, Optional.ofNullable(profile.get("originatingCommand", Document.class))).toJson(),
+                longValue(profile, "millis"),
+                longValue(profile, "docsExamined"),
+                longValue(profile, "keysExamined"),
+                longValue(profile, "nreturned"),
+                Optional.ofNullable(profile.getString("planSummary")).orElse(""),
+                profile.getBoolean("hasSortStage", false));
+        }
+
+        private static long longValue(Document document, String field) {
+            Object value = document.get(field);
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+            return 0;
+        }
+    }
+
+    public static Optional<MongoProfiler> fromSystemProperties(String mongoUri) {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return Optional.empty();
+        }
+        MongoProfiler profiler = new MongoProfiler(MongoClients.create(mongoUri));
+        profiler.start(Integer.getInteger("dav.mongo.slowms", 0), Integer.getInteger("dav.mongo.profileSizeMb", 256));
+        return Optional.of(profiler);
+    }
+
+    /**
+     * Query shape of a profiled operation. {@code getMore} operations take the shape of the command that opened the
+     * cursor.
+     */
+    static Document shape(String operation, Document command, Optional<Document> originatingCommand) {
+        if (operation.equals("getmore") && originatingCommand.isPresent()) {
+            return shape("query", originatingCommand.get(), Optional.empty());
+        }
+        Document shape = new Document();
+        if (command.isEmpty()) {
+            return shape;
+        }
+        shape.append("command", command.keySet().iterator().next());
+        copyShape(command, shape, "filter", MongoProfiler::valuesReplaced);
+        copyShape(command, shape, "query", MongoProfiler::valuesReplaced);
+        copyShape(command, shape, "q", MongoProfiler::valuesReplaced);
+        copyShape(command, shape, "sort", Function.identity());
+        copyShape(command, shape, "key", Function.identity());
+        copyShape(command, shape, "pipeline", MongoProfiler::valuesReplaced);
+        return shape;
+    }
+
+    private static void copyShape(Document command, Document shape, String field, Function<Object, Object> normalization) {
+        Object value = command.get(field);
+        if (value != null) {
+            shape.append(field, normalization.apply(value));
+        }
+    }
+
+    /**
+     * Keeps field names and operators, replaces values. Logical operators and pipelines keep their structure, sort
+     * stages are kept as is.
+     */
+    private static Object valuesReplaced(Object value) {
+        if (value instanceof Document document) {
+            Document replaced = new Document();
+            document.forEach((key, fieldValue) -> {
+                if (key.equals("$sort")) {
+                    replaced.append(key, fieldValue);
+                } else if (LOGICAL_OPERATORS.contains(key) && fieldValue instanceof List<?> conditions) {
+                    replaced.append(key, conditions.stream().map(MongoProfiler::valuesReplaced).toList());
+                } else {
+                    replaced.append(key, valuesReplaced(fieldValue));
+                }
+            });
+            return replaced;
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(Document.class::isInstance)) {
+            // Aggregation pipeline
+            return list.stream().map(MongoProfiler::valuesReplaced).toList();
+        }
+        return ANY_VALUE;
+    }
+
+    /**
+     * @param profiles documents of {@code system.profile}
+     */
+    static List<ShapeStats> shapes(List<Document> profiles) {
+        Map<List<String>, List<ProfiledOperation>> byShape = profiles.stream()
+            .filter(profile -> profile.getString("ns") != null && profile.getString("op") != null)
+            .map(ProfiledOperation::from)
+            .collect(Collectors.groupingBy(operation -> List.of(operation.namespace(), operation.operation(), operation.shape())));
+        return byShape.values().stream()
+            .map(MongoProfiler::stats)
+            .sorted(Comparator.comparingLong(ShapeStats::totalMillis).reversed()
+                .thenComparing(Comparator.comparingLong(ShapeStats::count).reversed()))
+            .toList();
+    }
+
+    private static ShapeStats stats(List<ProfiledOperation> operations) {
+        ProfiledOperation first = operations.getFirst();
+        Set<String> planSummaries = operations.stream()
+            .map(ProfiledOperation::planSummary)
+            .filter(planSummary -> !planSummary.isEmpty())
+            .collect(Collectors.toCollection(TreeSet::new));
+        return new ShapeStats(first.namespace(), first.operation(), first.shape(),
+            operations.size(),
+            operations.stream().mapToLong(ProfiledOperation::millis).sum(),
+            operations.stream().mapToLong(ProfiledOperation::millis).max().orElse(0),
+            operations.stream().mapToLong(ProfiledOperation::docsExamined).sum(),
+            operations.stream().mapToLong(ProfiledOperation::keysExamined).sum(),
+            operations.stream().mapToLong(ProfiledOperation::returned).sum(),
+            planSummaries,
+            planSummaries.stream().anyMatch(planSummary -> planSummary.contains("COLLSCAN")),
+            operations.stream().anyMatch(ProfiledOperation::inMemorySort));
+    }
+
+    private final MongoClient mongoClient;
+
+    private MongoProfiler(MongoClient mongoClient) {
+        this.mongoClient = mongoClient;
+    }
+
+    private void start(int slowMillis, int profileSizeMb) {
+        Flux.fromIterable(DATABASES)
+            .map(mongoClient::getDatabase)
+            .concatMap(database -> Mono.from(database.runCommand(new Document("profile", 0)))
+                .then(Mono.from(database.getCollection(PROFILE_COLLECTION).drop()))
+                .then(Mono.from(database.createCollection(PROFILE_COLLECTION, new CreateCollectionOptions()
+                    .capped(true)
+                    .sizeInBytes(profileSizeMb * 1024L * 1024L))))
+                .then(Mono.from(database.runCommand(new Document("profile", 1).append("slowms", slowMillis)))))
+            .then()
+            .block();
+        LOGGER.info("Mongo profiler enabled on {} with slowms={}", DATABASES, slowMillis);
+    }
+
+    /**
+     * Operations profiled between {@code from} and {@code to}, the slowest shapes first.
+     */
+    public Report report(String workload, Instant from, Instant to) {
+        Bson window = Filters.and(Filters.gte("ts", Date.from(from)), Filters.lte("ts", Date.from(to)),
+            Filters.not(Filters.regex("ns", "\\.system\\.profile$")));
+        List<Document> profiles = Flux.fromIterable(DATABASES)
+            .map(mongoClient::getDatabase)
+            .concatMap(database -> Flux.from(database.getCollection(PROFILE_COLLECTION).find(window)))
+            .collectList()
+            .block();
+        List<ShapeStats> shapes = shapes(profiles);
+        return new Report(workload, shapes.stream().mapToLong(ShapeStats::count).sum(),
+            shapes.stream().mapToLong(ShapeStats::totalMillis).sum(),
+            shapes);
+    }
+
+    public Path writeReport(Report report, Path directory) {
+        Path file = directory.resolve("MONGO-" + report.workload() + ".json");
+        try {
+            Files.createDirectories(directory);
+            MAPPER.writeValue(file.toFile(), report);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the Mongo profile of " + report.workload(), e);
+        }
+    }
+
+    /**
+     * Turns the profiler off. Profiled operations are kept until the next start.
+     */
+    @Override
+    public void close() {
+        Flux.fromIterable(DATABASES)
+            .map(mongoClient::getDatabase)
+            .concatMap(database -> Mono.from(database.runCommand(new Document("profile", 0))))
+            .then()
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to turn the Mongo profiler off", e);
+                return Mono.empty();
+            })
+            .block();
+        mongoClient.close();
+    }
+}
@@ -0,0 +1,95 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+public class MongoProfilerTest {
+    private static Document findProfile(String uri, long millis, String planSummary) {
+        return Document.parse("""
+            {
+              "op": "query",
+              "ns": "sabredav.calendarobjects",
+              "command": {
+                "find": "calendarobjects",
+                "filter": {"calendarid": {"$oid": "65a1b2c3d4e5f6a7b8c9d0e1"}, "uri": {"$in": ["%s", "other.ics"]}},
+                "sort": {"lastmodified": -1}
+              },
+              "millis": %d,
+              "docsExamined": 10,
+              "keysExamined": 0,
+              "nreturned": 1,
+              "planSummary": "%s",
+              "hasSortStage": true
+            }
+            """.formatted(uri, millis, planSummary));
+    }
+
+    @Test
+    void shapeShouldReplaceValuesAndKeepOperators() {
+        Document command = Document.parse("""
+            {"find": "calendarobjects", "filter": {"$or": [{"uid": "a"}, {"uid": "b", "lastoccurence": {"$gte": 3}}]}, "limit": 1}
+            """);
+
+        assertThat(MongoProfiler.shape("query", command, Optional.empty()).toJson())
+            .isEqualTo("""
+                {"command": "find", "filter": {"$or": [{"uid": "?"}, {"uid": "?", "lastoccurence": {"$gte": "?"}}]}}""");
+    }
+
+    @Test
+    void getMoreShouldTakeTheShapeOfTheOriginatingCommand() {
+        Document originatingCommand = Document.parse("""
+            {"aggregate": "calendarchanges", "pipeline": [{"$match": {"calendarid": "x", "synctoken": {"$gt": 12}}}, {"$sort": {"synctoken": 1}}]}
+            """);
+
+        assertThat(MongoProfiler.shape("getmore", new Document("getMore", 42), Optional.of(originatingCommand)).toJson())
+            .isEqualTo("""
+                {"command": "aggregate", "pipeline": [{"$match": {"calendarid": "?", "synctoken": {"$gt": "?"}}}, {"$sort": {"synctoken": 1}}]}""");
+    }
+
+    @Test
+    void shapesShouldGroupOperationsAndFlagCollectionScans() {
+        List<MongoProfiler.ShapeStats> shapes = MongoProfiler.shapes(List.of(
+            findProfile("a.ics", 5, "COLLSCAN"),
+            findProfile("b.ics", 7, "IXSCAN { calendarid: 1 }"),
+            Document.parse("""
+                {"op": "insert", "ns": "sabredav.calendarchanges", "command": {"insert": "calendarchanges"}, "millis": 1}
+                """)));
+
+        assertThat(shapes).hasSize(2);
+        assertThat(shapes.getFirst())
+            .satisfies(find -> {
+                assertThat(find.namespace()).isEqualTo("sabredav.calendarobjects");
+                assertThat(find.count()).isEqualTo(2);
+                assertThat(find.totalMillis()).isEqualTo(12);
+                assertThat(find.maxMillis()).isEqualTo(7);
+                assertThat(find.docsExamined()).isEqualTo(20);
+                assertThat(find.planSummaries()).containsExactly("COLLSCAN", "IXSCAN { calendarid: 1 }");
+                assertThat(find.collectionScan()).isTrue();
+                assertThat(find.inMemorySort()).isTrue();
+            });
+        assertThat(shapes.getLast().operation()).isEqualTo("insert");
+    }
+}
@@ -0,0 +1,237 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.model.Frame;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Large pre-populated datasets, generated once then restored from a {@code mongodump} archive.
+ *
+ * <p>{@link #load(String, long, DatasetGenerator)} looks for the archive of the given dataset name and generator seed,
+ * for the configuration of the stack.
+ * When missing, the generator runs against the stack through the {@link TwakeCalendarProvisioningService} and the
+ * databases are dumped. Otherwise the {@code esn_docker} and {@code sabredav} databases are restored from the archive
+ * with {@code mongorestore --drop}, replacing them. Both tools run inside the Mongo container.
+ *
+ * <p>Archives are kept under {@code -Ddav.snapshots.directory} (default {@code target/mongo-snapshots}). Changing a
+ * generator requires a new dataset name, or deleting its archives.
+ *
+ * <p>Restoring replaces every user and domain: it is meant to run right after the stack started, before anything is
+ * provisioned. Background refills of the {@link TestUserPool} are suspended meanwhile. The side service users repository
+ * is not part of the dump, restored users are registered again.
+ */
+public class MongoSnapshotFixtures {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoSnapshotFixtures.class);
+
+    public static final String DIRECTORY_PROPERTY = "dav.snapshots.directory";
+
+    private static final String DEFAULT_DIRECTORY = "target/mongo-snapshots";
+    private static final List<String> DATABASES = List.of("esn_docker", "sabredav");
+    private static final String CONTAINER_ARCHIVE_DIRECTORY = "/tmp";
+    private static final int REGISTRATION_CONCURRENCY = 32;
+    private static final Duration REFILL_TIMEOUT = Duration.ofMinutes(1);
+
+    @FunctionalInterface
+    public interface DatasetGenerator {
+        /**
+         * Populates the stack. Everything generated should derive from the given random, so that a seed always
+         * describes the same dataset.
+         */
+        Mono<Void> generate(DockerTwakeCalendarSetup setup, Random random);
+    }
+
+    public enum Origin {
+        GENERATED,
+        RESTORED
+    }
+
+    public record Snapshot(Path archive, Origin origin, Duration duration) {
+    }
+
+    public static MongoSnapshotFixtures fromSystemProperties(DockerTwakeCalendarSetup setup) {
+        return new MongoSnapshotFixtures(setup, Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)));
+    }
+
+    private final DockerTwakeCalendarSetup setup;
+    private final Path directory;
+    private final DockerClient dockerClient;
+
+    public MongoSnapshotFixtures(DockerTwakeCalendarSetup setup, Path directory) {
+        this.setup = setup;
+        this.directory = directory;
+        this.dockerClient = DockerClientFactory.instance().client();
+    }
+
+    /**
+     * Restores the dataset when its archive exists, generates and dumps it otherwise.
+     */
+    public Snapshot load(String name, long seed, DatasetGenerator generator) {
+        Path archive = archive(name, seed);
+        long start = System.nanoTime();
+        if (Files.exists(archive)) {
+            restore(archive);
+            Snapshot snapshot = new Snapshot(archive, Origin.RESTORED, Duration.ofNanos(System.nanoTime() - start));
+            LOGGER.info("Restored dataset {} (seed {}) from {} in {} ms", name, seed, archive, snapshot.duration().toMillis());
+            return snapshot;
+        }
+
+        generator.generate(setup, new Random(seed)).block();
+        long generated = System.nanoTime();
+        dump(archive);
+        Snapshot snapshot = new Snapshot(archive, Origin.GENERATED, Duration.ofNanos(System.nanoTime() - start));
+        LOGGER.info("Generated dataset {} (seed {}) in {} ms, dumped to {} ({} bytes) in {} ms", name, seed,
+            Duration.ofNanos(generated - start).toMillis(), archive, size(archive), Duration.ofNanos(System.nanoTime() - generated).toMillis());
+        return snapshot;
+    }
+
+    /**
+     * Archives are specific to the stack configuration: data generated by another Sabre image, or with other feature
+     * flags, could differ.
+     */
+    public Path archive(String name, long seed) {
+        String configuration = setup.getConfigurationName().replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.resolve(name + "-" + configuration + "-" + seed + ".archive.gz");
+    }
+
+    public void dump(Path archive) {
+        // mongodump only selects a single database, databases are filtered when restoring instead
+        List<String> command = List.of("mongodump", "--archive", "--gzip", "--quiet");
+
+        try {
+            Files.createDirectories(archive.toAbsolutePath().getParent());
+            // Written next to the archive then moved, so that an interrupted dump is never restored
+            Path partial = archive.resolveSibling(archive.getFileName() + ".partial");
+            try (OutputStream output = Files.newOutputStream(partial)) {
+                exec(command, output);
+            }
+            Files.move(partial, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write Mongo snapshot " + archive, e);
+        }
+    }
+
+    public void restore(Path archive) {
+        // Users provisioned while the databases are dropped would be lost or half provisioned
+        TestUserPool testUserPool = setup.getTestUserPool();
+        try {
+            testUserPool.suspendRefills(REFILL_TIMEOUT);
+            restoreDatabases(archive);
+        } finally {
+            // Pooled users were dropped along with the databases
+            testUserPool.clear();
+            testUserPool.resumeRefills();
+        }
+    }
+
+    private void restoreDatabases(Path archive) {
+        String containerArchive = CONTAINER_ARCHIVE_DIRECTORY + "/" + archive.getFileName();
+        dockerClient.copyArchiveToContainerCmd(mongoContainerId())
+            .withHostResource(archive.toAbsolutePath().toString())
+            .withRemotePath(CONTAINER_ARCHIVE_DIRECTORY)
+            .exec();
+        try {
+            List<String> command = new ArrayList<>(List.of("mongorestore", "--archive=" + containerArchive, "--gzip", "--drop", "--quiet"));
+            DATABASES.forEach(database -> command.add("--nsInclude=" + database + ".*"));
+            exec(command, OutputStream.nullOutputStream());
+        } finally {
+            exec(List.of("rm", "-f", containerArchive), OutputStream.nullOutputStream());
+        }
+
+        // Domains and pooled users read before the restore are gone
+        TwakeCalendarProvisioningService provisioningService = setup.getTwakeCalendarProvisioningService();
+        provisioningService.invalidateDomains();
+        provisioningService.users()
+            .flatMap(user -> provisioningService.createUserInUsersRepository(user.email()), REGISTRATION_CONCURRENCY)
+            .then()
+            .block();
+    }
+
+    private String mongoContainerId() {
+        return setup.getContainerId(DockerTwakeCalendarSetup.DockerService.MONGO)
+            .orElseThrow(() -> new IllegalStateException("Mongo container is not running"));
+    }
+
+    private void exec(List<String> command, OutputStream stdout) {
+        ExecCreateCmdResponse exec = dockerClient.execCreateCmd(mongoContainerId())
+            .withCmd(command.toArray(String[]::new))
+            .withAttachStdout(true)
+            .withAttachStderr(true)
+            .exec();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        try {
+            dockerClient.execStartCmd(exec.getId())
+                .exec(new ResultCallback.Adapter<Frame>() {
+                    @Override
+                    public void onNext(Frame frame) {
+                        try {
+                            switch (frame.getStreamType()) {
+                                case STDOUT, RAW -> stdout.write(frame.getPayload());
+                                case STDERR -> stderr.write(frame.getPayload());
+                                default -> { }
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                })
+                .awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running " + command.getFirst(), e);
+        }
+
+        Long exitCode = dockerClient.inspectExecCmd(exec.getId()).exec().getExitCodeLong();
+        if (exitCode == null || exitCode != 0) {
+            throw new RuntimeException("""
+                Unexpected exit code: %s when running %s in the Mongo container
+                %s
+                """.formatted(exitCode, command.getFirst(), stderr.toString(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static long size(Path archive) {
+        try {
+            return Files.size(archive);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Pulls the {@code d:response} entries of a WebDAV multistatus body (PROPFIND, REPORT) one at a time.
+ *
+ * <p>Only the href, the statuses and the selected properties of the current entry are kept in memory, so
+ * that responses with hundreds of thousands of entries can be read without building a DOM.
+ */
+public class MultistatusReader implements Iterator<MultistatusReader.Response>, AutoCloseable {
+    public static final String DAV_NAMESPACE = "DAV:";
+    public static final QName GETCONTENTTYPE = new QName(DAV_NAMESPACE, "getcontenttype");
+
+    public record PropStat(int status, Map<QName, String> properties) {
+    }
+
+    public record Response(String href, OptionalInt status, List<PropStat> propStats) {
+        public Optional<String> property(QName name) {
+            return propStats.stream()
+                .filter(propStat -> propStat.status() / 100 == 2)
+                .map(propStat -> propStat.properties().get(name))
+                .filter(value -> value != null)
+                .findFirst();
+        }
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+
+    static {
+        XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // No DTD nor external entities, see XMLUtil for the DOM equivalent
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public static Stream<Response> stream(String xml, Set<QName> selectedProperties) {
+        return stream(xml.getBytes(StandardCharsets.UTF_8), selectedProperties);
+    }
+
+    public static Stream<Response> stream(byte[] xml, Set<QName> selectedProperties) {
+        return stream(new ByteArrayInputStream(xml), selectedProperties);
+    }
+
+    public static Stream<Response> stream(InputStream xml, Set<QName> selectedProperties) {
+        MultistatusReader reader = new MultistatusReader(xml, selectedProperties);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(reader::close);
+    }
+
+    private final XMLStreamReader reader;
+    private final Set<QName> selectedProperties;
+    private Response next;
+
+    public MultistatusReader(InputStream xml, Set<QName> selectedProperties) {
+        try {
+            this.reader = XML_INPUT_FACTORY.createXMLStreamReader(xml);
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Failed to read multistatus response", e);
+        }
+        this.selectedProperties = selectedProperties;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNextResponse();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Response next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Response response = next;
+        next = null;
+        return response;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Failed to close multistatus reader", e);
+        }
+    }
+
+    private Response readNextResponse() {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && isDavElement("response")) {
+                    return readResponse();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Failed to read multistatus response", e);
+        }
+    }
+
+    private Response readResponse() throws XMLStreamException {
+        String href = null;
+        OptionalInt status = OptionalInt.empty();
+        List<PropStat> propStats = new ArrayList<>();
+        while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if (isDavElement("href")) {
+                href = reader.getElementText();
+            } else if (isDavElement("status")) {
+                status = OptionalInt.of(parseStatus(reader.getElementText()));
+            } else if (isDavElement("propstat")) {
+                propStats.add(readPropStat());
+            } else {
+                skipElement();
+            }
+        }
+        return new Response(href, status, propStats);
+    }
+
+    private PropStat readPropStat() throws XMLStreamException {
+        int status = 0;
+        Map<QName, String> properties = new LinkedHashMap<>();
+        while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if (isDavElement("prop")) {
+                readProperties(properties);
+            } else if (isDavElement("status")) {
+                status = parseStatus(reader.getElementText());
+            } else {
+                skipElement();
+            }
+        }
+        return new PropStat(status, properties);
+    }
+
+    private void readProperties(Map<QName, String> properties) throws XMLStreamException {
+        while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if (selectedProperties.contains(reader.getName())) {
+                QName name = reader.getName();
+                properties.put(name, readTextContent());
+            } else {
+                skipElement();
+            }
+        }
+    }
+
+    /**
+     * Same as {@link org.w3c.dom.Node#getTextContent()}: the text of the element and of all its descendants.
+     */
+    private String readTextContent() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> text.append(reader.getText());
+                default -> {
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                default -> {
+                }
+            }
+        }
+    }
+
+    private boolean isDavElement(String localName) {
+        return DAV_NAMESPACE.equals(reader.getNamespaceURI()) && localName.equals(reader.getLocalName());
+    }
+
+    private static int parseStatus(String statusLine) {
+        // HTTP/1.1 200 OK
+        String[] parts = statusLine.trim().split(" ");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Invalid status line in multistatus response: " + statusLine);
+        }
+        return Integer.parseInt(parts[1]);
+    }
+}
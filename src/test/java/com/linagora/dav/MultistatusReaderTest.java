@@ -0,0 +1,130 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static com.linagora.dav.TestUtil.generatedInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class MultistatusReaderTest {
+    private static final String PROPFIND = """
+        <?xml version="1.0" encoding="utf-8"?>
+        <d:multistatus xmlns:d="DAV:" xmlns:cal="urn:ietf:params:xml:ns:caldav">
+            <d:response>
+                <d:href>/calendars/user1/events/</d:href>
+                <d:propstat>
+                    <d:prop>
+                        <d:getcontenttype/>
+                        <cal:calendar-timezone>BEGIN:VCALENDAR</cal:calendar-timezone>
+                    </d:prop>
+                    <d:status>HTTP/1.1 200 OK</d:status>
+                </d:propstat>
+            </d:response>
+            <d:response>
+                <d:href>/calendars/user1/events/event-1.ics</d:href>
+                <d:propstat>
+                    <d:prop>
+                        <d:getcontenttype>text/calendar; charset=utf-8</d:getcontenttype>
+                    </d:prop>
+                    <d:status>HTTP/1.1 200 OK</d:status>
+                </d:propstat>
+                <d:propstat>
+                    <d:prop>
+                        <d:getetag/>
+                    </d:prop>
+                    <d:status>HTTP/1.1 404 Not Found</d:status>
+                </d:propstat>
+            </d:response>
+            <d:response>
+                <d:href>/calendars/user1/events/event-2.ics</d:href>
+                <d:status>HTTP/1.1 404 Not Found</d:status>
+            </d:response>
+        </d:multistatus>
+        """;
+
+    @Test
+    void shouldReadHrefsStatusesAndSelectedProperties() {
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(PROPFIND, Set.of(MultistatusReader.GETCONTENTTYPE))) {
+            List<MultistatusReader.Response> list = responses.toList();
+
+            assertThat(list).extracting(MultistatusReader.Response::href)
+                .containsExactly("/calendars/user1/events/", "/calendars/user1/events/event-1.ics", "/calendars/user1/events/event-2.ics");
+            assertThat(list.get(1).property(MultistatusReader.GETCONTENTTYPE)).contains("text/calendar; charset=utf-8");
+            assertThat(list.get(1).propStats()).extracting(MultistatusReader.PropStat::status).containsExactly(200, 404);
+            assertThat(list.get(2).status()).hasValue(404);
+            assertThat(list.get(2).propStats()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreUnselectedProperties() {
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(PROPFIND, Set.of())) {
+            assertThat(responses.flatMap(response -> response.propStats().stream()))
+                .allSatisfy(propStat -> assertThat(propStat.properties()).isEmpty());
+        }
+    }
+
+    @Test
+    void extractCalendarHrefsFromPropfindShouldKeepCalendarObjectsOnly() {
+        assertThat(XMLUtil.extractCalendarHrefsFromPropfind(PROPFIND))
+            .containsExactly("/calendars/user1/events/event-1.ics");
+    }
+
+    @Test
+    void extractEventIdsFromXmlShouldStripPathAndExtension() {
+        assertThat(XMLUtil.extractEventIdsFromXml(PROPFIND.getBytes(StandardCharsets.UTF_8)))
+            .containsExactly("event-1", "event-2");
+    }
+
+    @Test
+    void extractEventUrisFromXmlShouldKeepIcsHrefs() {
+        assertThat(XMLUtil.extractEventUrisFromXml(PROPFIND.getBytes(StandardCharsets.UTF_8)))
+            .containsExactly(URI.create("/calendars/user1/events/event-1.ics"), URI.create("/calendars/user1/events/event-2.ics"));
+    }
+
+    @Test
+    void extractResponseHrefsShouldReturnEveryHref() {
+        assertThat(XMLUtil.extractResponseHrefs(PROPFIND)).hasSize(3);
+    }
+
+    @Test
+    void shouldStreamLargeMultistatus() {
+        int count = 100_000;
+        Stream<String> parts = Stream.of(
+                Stream.of("<d:multistatus xmlns:d=\"DAV:\">"),
+                IntStream.range(0, count).mapToObj(i -> "<d:response><d:href>/calendars/user1/events/" + i + ".ics</d:href>"
+                    + "<d:propstat><d:prop><d:getetag>\"" + i + "\"</d:getetag></d:prop>"
+                    + "<d:status>HTTP/1.1 200 OK</d:status></d:propstat></d:response>"),
+                Stream.of("</d:multistatus>"))
+            .flatMap(Function.identity());
+
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(generatedInputStream(parts), Set.of())) {
+            assertThat(responses.count()).isEqualTo(count);
+        }
+    }
+}
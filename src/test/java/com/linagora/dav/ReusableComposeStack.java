@@ -0,0 +1,168 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.Ports;
+
+/**
+ * Compose stack kept running across JVM runs, under a stable project name.
+ *
+ * <p>When every service of the project is already running, {@link #start()} attaches to it and {@link #isReused()}
+ * tells the caller to reset its state. Otherwise the project is brought up with the {@code docker compose} CLI, which
+ * has to be available on the {@code PATH}. Unlike Testcontainers, nothing reaps the containers when the JVM exits:
+ * {@code docker compose -p <project> down} removes them.
+ *
+ * <p>Services are published on ephemeral host ports by an override compose file, resolved from the running containers.
+ * Readiness is left to the caller, see {@link StackReadiness}.
+ */
+class ReusableComposeStack implements ComposeStack {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReusableComposeStack.class);
+
+    private static final Duration COMPOSE_UP_TIMEOUT = Duration.ofMinutes(10);
+
+    private final String projectName;
+    private final List<File> composeFiles;
+    private final Map<String, String> environment;
+    private final Set<String> serviceNames;
+    private final DockerClient dockerClient;
+    private final Map<String, String> containerIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> hostPorts = new ConcurrentHashMap<>();
+    private boolean reused;
+
+    ReusableComposeStack(String projectName, List<File> composeFiles, Map<String, String> environment, Set<String> serviceNames) {
+        this.projectName = projectName;
+        this.composeFiles = composeFiles;
+        this.environment = environment;
+        this.serviceNames = serviceNames;
+        this.dockerClient = DockerClientFactory.instance().client();
+    }
+
+    @Override
+    public void start() {
+        Map<String, Container> running = runningContainers();
+        if (running.keySet().containsAll(serviceNames)) {
+            LOGGER.info("Attaching to running compose project {}", projectName);
+            reused = true;
+        } else {
+            LOGGER.info("Starting compose project {}, it will be kept running after the tests", projectName);
+            composeUp();
+            running = runningContainers();
+        }
+        running.forEach((serviceName, container) -> containerIds.put(serviceName, container.getId()));
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Keeping compose project {} running for the next run", projectName);
+    }
+
+    @Override
+    public Map<String, String> containerIds() {
+        return Map.copyOf(containerIds);
+    }
+
+    @Override
+    public boolean isReused() {
+        return reused;
+    }
+
+    @Override
+    public String getServiceHost(String serviceName, Integer port) {
+        return DockerClientFactory.instance().dockerHostIpAddress();
+    }
+
+    @Override
+    public Integer getServicePort(String serviceName, Integer port) {
+        return hostPorts.computeIfAbsent(serviceName + ":" + port, key -> resolveHostPort(serviceName, port));
+    }
+
+    private Integer resolveHostPort(String serviceName, Integer port) {
+        String containerId = Optional.ofNullable(containerIds.get(serviceName))
+            .orElseThrow(() -> new IllegalStateException("Service " + serviceName + " of compose project " + projectName + " is not running"));
+        Ports.Binding[] bindings = dockerClient.inspectContainerCmd(containerId).exec()
+            .getNetworkSettings().getPorts().getBindings()
+            .get(ExposedPort.tcp(port));
+        if (bindings == null || bindings.length == 0) {
+            throw new IllegalStateException("Port %d of service %s is not published by compose project %s".formatted(port, serviceName, projectName));
+        }
+        return Integer.parseInt(bindings[0].getHostPortSpec());
+    }
+
+    private Map<String, Container> runningContainers() {
+        return dockerClient.listContainersCmd()
+            .withLabelFilter(Map.of(COMPOSE_PROJECT_LABEL, projectName))
+            .withStatusFilter(List.of("running"))
+            .exec()
+            .stream()
+            .collect(Collectors.toMap(container -> container.getLabels().get(COMPOSE_SERVICE_LABEL), Function.identity(), (a, b) -> a));
+    }
+
+    private void composeUp() {
+        List<String> command = new ArrayList<>(List.of("docker", "compose", "-p", projectName));
+        composeFiles.forEach(file -> command.addAll(List.of("-f", file.getAbsolutePath())));
+        command.addAll(List.of("up", "-d"));
+
+        try {
+            // Written to a file rather than read from a pipe, so that waitFor can time out
+            Path output = Files.createTempFile("compose-up-" + projectName, ".log");
+            ProcessBuilder processBuilder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile());
+            processBuilder.environment().putAll(environment);
+            Process process = processBuilder.start();
+            if (!process.waitFor(COMPOSE_UP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new RuntimeException("Compose project " + projectName + " did not start within " + COMPOSE_UP_TIMEOUT
+                    + ":\n" + Files.readString(output, StandardCharsets.UTF_8));
+            }
+            if (process.exitValue() != 0) {
+                throw new RuntimeException("Failed to start compose project " + projectName + ":\n" + Files.readString(output, StandardCharsets.UTF_8));
+            }
+            Files.deleteIfExists(output);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to run docker compose, is it installed?", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while starting compose project " + projectName, e);
+        }
+    }
+}
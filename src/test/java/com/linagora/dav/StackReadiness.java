@@ -0,0 +1,274 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import javax.naming.Context;
+import javax.naming.directory.InitialDirContext;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Frame;
+import com.linagora.dav.DockerTwakeCalendarSetup.DockerService;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+/**
+ * Waits for each service of a {@link DockerTwakeCalendarSetup} to answer its own readiness probe, all probes running
+ * in parallel, and reports when each container was created, started and became ready.
+ *
+ * <ul>
+ *     <li>mongo: {@code ping} command.</li>
+ *     <li>rabbitmq: management API aliveness test of the default virtual host.</li>
+ *     <li>opensearch: cluster health, at least yellow.</li>
+ *     <li>sabre_dav: {@code OPTIONS /} answered without a server error.</li>
+ *     <li>ldap: bind as the directory admin.</li>
+ *     <li>redis: {@code PING}.</li>
+ *     <li>twake-calendar-side-service: logs its start up checks succeeded.</li>
+ * </ul>
+ */
+public class StackReadiness {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StackReadiness.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private static final String RABBITMQ_CREDENTIALS = "guest";
+    private static final String LDAP_ADMIN_DN = "cn=admin,dc=open-paas.org,dc=lng";
+    private static final String LDAP_ADMIN_PASSWORD = "admin";
+
+    public record ServiceTimeline(String serviceName, Optional<Instant> created, Optional<Instant> started, Optional<Instant> ready) {
+    }
+
+    private record Probe(String serviceName, Mono<Void> check, Duration attemptTimeout) {
+        Probe(String serviceName, Mono<Void> check) {
+            this(serviceName, check, PROBE_TIMEOUT);
+        }
+    }
+
+    private final DockerTwakeCalendarSetup setup;
+    private final Map<String, String> containerIds;
+    private final String readyLogMessage;
+    private final DockerClient dockerClient;
+
+    public StackReadiness(DockerTwakeCalendarSetup setup, Map<String, String> containerIds, String readyLogMessage) {
+        this.setup = setup;
+        this.containerIds = containerIds;
+        this.readyLogMessage = readyLogMessage;
+        this.dockerClient = DockerClientFactory.instance().client();
+    }
+
+    /**
+     * Probes every service until it is ready, returns when each of them became ready.
+     */
+    public Map<String, Instant> await(Duration timeout) {
+        try (MongoClient mongoClient = MongoClients.create(setup.getServiceUri(DockerService.MONGO, "mongodb").toString())) {
+            return Flux.fromIterable(probes(mongoClient, timeout))
+                .flatMap(probe -> awaitReady(probe, timeout).map(readyAt -> Map.entry(probe.serviceName(), readyAt)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        }
+    }
+
+    /**
+     * Creation and start times of the containers, from {@code docker inspect}, along with the given ready times.
+     */
+    public List<ServiceTimeline> timeline(Map<String, Instant> readyAt) {
+        return containerIds.entrySet().stream()
+            .map(entry -> {
+                InspectContainerResponse container = dockerClient.inspectContainerCmd(entry.getValue()).exec();
+                return new ServiceTimeline(entry.getKey(),
+                    parseDockerTime(container.getCreated()),
+                    parseDockerTime(container.getState().getStartedAt()),
+                    Optional.ofNullable(readyAt.get(entry.getKey())));
+            })
+            .sorted(Comparator.comparing((ServiceTimeline service) -> service.ready().orElse(Instant.MAX))
+                .thenComparing(ServiceTimeline::serviceName))
+            .toList();
+    }
+
+    /**
+     * One line per service, times in milliseconds since the first container was created.
+     */
+    public static String format(List<ServiceTimeline> timeline) {
+        Instant origin = timeline.stream()
+            .flatMap(service -> service.created().stream())
+            .min(Comparator.naturalOrder())
+            .orElse(Instant.EPOCH);
+        String header = "%-30s %10s %10s %10s %10s".formatted("service", "created", "started", "ready", "start->ready");
+        return timeline.stream()
+            .map(service -> "%-30s %10s %10s %10s %10s".formatted(service.serviceName(),
+                sinceOrigin(origin, service.created()),
+                sinceOrigin(origin, service.started()),
+                sinceOrigin(origin, service.ready()),
+                service.started().flatMap(started -> service.ready().map(ready -> Duration.between(started, ready).toMillis() + " ms"))
+                    .orElse("-")))
+            .collect(Collectors.joining("\n", header + "\n", ""));
+    }
+
+    private static String sinceOrigin(Instant origin, Optional<Instant> instant) {
+        return instant.map(value -> Duration.between(origin, value).toMillis() + " ms").orElse("-");
+    }
+
+    private static Optional<Instant> parseDockerTime(String time) {
+        // Never started containers report 0001-01-01T00:00:00Z
+        return Optional.ofNullable(time)
+            .map(Instant::parse)
+            .filter(instant -> instant.isAfter(Instant.EPOCH));
+    }
+
+    private List<Probe> probes(MongoClient mongoClient, Duration timeout) {
+        return List.of(
+            new Probe(DockerService.MONGO.serviceName(), Mono.from(mongoClient.getDatabase("admin").runCommand(new Document("ping", 1))).then()),
+            new Probe(DockerService.RABBITMQ.serviceName(), httpProbe(rabbitMQAdminClient(), HttpMethod.GET, "/api/aliveness-test/%2F", status -> status == 200)),
+            new Probe(DockerService.OPENSEARCH.serviceName(), httpProbe(httpClient(DockerService.OPENSEARCH), HttpMethod.GET,
+                "/_cluster/health?wait_for_status=yellow&timeout=1s", status -> status == 200)),
+            new Probe(DockerService.SABRE_DAV.serviceName(), httpProbe(httpClient(DockerService.SABRE_DAV), HttpMethod.OPTIONS, "/", status -> status < 500)),
+            new Probe(DockerService.LDAP.serviceName(), Mono.fromRunnable(this::ldapBind).subscribeOn(Schedulers.boundedElastic()).then()),
+            new Probe(DockerService.REDIS.serviceName(), Mono.fromRunnable(this::redisPing).subscribeOn(Schedulers.boundedElastic()).then()),
+            // Following the logs is a single long attempt, only bounded by the overall timeout
+            new Probe(DockerService.CALENDAR_SIDE.serviceName(), readyLogMessage(DockerService.CALENDAR_SIDE.serviceName()), timeout));
+    }
+
+    private Mono<Instant> awaitReady(Probe probe, Duration timeout) {
+        AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+        return probe.check()
+            .timeout(probe.attemptTimeout())
+            .doOnError(lastFailure::set)
+            .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, POLL_INTERVAL))
+            .then(Mono.fromCallable(Instant::now))
+            .doOnNext(readyAt -> LOGGER.debug("Service {} is ready", probe.serviceName()))
+            .timeout(timeout, Mono.defer(() -> Mono.error(new IllegalStateException(
+                "Service " + probe.serviceName() + " is not ready after " + timeout, lastFailure.get()))));
+    }
+
+    private Mono<Void> httpProbe(HttpClient httpClient, HttpMethod method, String uri, IntPredicate acceptedStatus) {
+        return httpClient.request(method)
+            .uri(uri)
+            .responseSingle((response, responseContent) -> {
+                int status = response.status().code();
+                if (acceptedStatus.test(status)) {
+                    return Mono.empty();
+                }
+                return Mono.error(new IllegalStateException("Unexpected status code: %d when probing '%s'".formatted(status, uri)));
+            })
+            .then();
+    }
+
+    private HttpClient httpClient(DockerService service) {
+        return HttpClient.create()
+            .baseUrl(setup.getServiceUri(service, "http").toString());
+    }
+
+    private HttpClient rabbitMQAdminClient() {
+        String credentials = Base64.getEncoder().encodeToString((RABBITMQ_CREDENTIALS + ":" + RABBITMQ_CREDENTIALS).getBytes(StandardCharsets.UTF_8));
+        return httpClient(DockerService.RABBITMQ_ADMIN)
+            .headers(headers -> headers.add(HttpHeaderNames.AUTHORIZATION, "Basic " + credentials));
+    }
+
+    private void ldapBind() {
+        Hashtable<String, String> environment = new Hashtable<>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        environment.put(Context.PROVIDER_URL, setup.getServiceUri(DockerService.LDAP, "ldap").toString());
+        environment.put(Context.SECURITY_AUTHENTICATION, "simple");
+        environment.put(Context.SECURITY_PRINCIPAL, LDAP_ADMIN_DN);
+        environment.put(Context.SECURITY_CREDENTIALS, LDAP_ADMIN_PASSWORD);
+        environment.put("com.sun.jndi.ldap.connect.timeout", Long.toString(PROBE_TIMEOUT.toMillis()));
+        try {
+            new InitialDirContext(environment).close();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to bind to LDAP as " + LDAP_ADMIN_DN, e);
+        }
+    }
+
+    private void redisPing() {
+        String reply = StackReset.redisCommand(setup, "PING");
+        if (!reply.equals("+PONG")) {
+            throw new IllegalStateException("Unexpected Redis reply to PING: " + reply);
+        }
+    }
+
+    /**
+     * Follows the container logs from the start: completes on the first line containing the ready message, fails if
+     * the container exits before.
+     */
+    private Mono<Void> readyLogMessage(String serviceName) {
+        return Mono.<Void>create(sink -> {
+            String containerId = containerIds.get(serviceName);
+            if (containerId == null) {
+                sink.error(new IllegalStateException("Service " + serviceName + " is not running"));
+                return;
+            }
+            ResultCallback.Adapter<Frame> callback = dockerClient.logContainerCmd(containerId)
+                .withStdOut(true)
+                .withStdErr(true)
+                .withFollowStream(true)
+                .exec(new ResultCallback.Adapter<>() {
+                    @Override
+                    public void onNext(Frame frame) {
+                        if (new String(frame.getPayload(), StandardCharsets.UTF_8).contains(readyLogMessage)) {
+                            sink.success();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        sink.error(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        sink.error(new IllegalStateException("Service " + serviceName + " stopped before logging '" + readyLogMessage + "'"));
+                    }
+                });
+            sink.onDispose(() -> {
+                try {
+                    callback.close();
+                } catch (Exception e) {
+                    LOGGER.debug("Failed to stop following the logs of {}", serviceName, e);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,320 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Streams;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Brings a reused {@link DockerTwakeCalendarSetup} back to an empty state, then checks nothing was left behind.
+ *
+ * <ul>
+ *     <li>Mongo: documents of every collection are deleted, collections and their indexes are kept. Domains are kept
+ *     as well, as the side service may hold their ids, and so are configurations, which hold the domain settings
+ *     seeded with the stack.</li>
+ *     <li>RabbitMQ: queues are purged, the exchanges and queues declared by the services are kept.</li>
+ *     <li>OpenSearch: documents are deleted by query, indices and their mappings are kept.</li>
+ *     <li>Redis: FLUSHALL.</li>
+ * </ul>
+ *
+ * <p>LDAP is left untouched.
+ */
+public class StackReset {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StackReset.class);
+
+    private static final Set<String> MONGO_SYSTEM_DATABASES = Set.of("admin", "config", "local");
+    private static final Set<String> PRESERVED_COLLECTIONS = Set.of("domains", "configurations");
+    private static final String RABBITMQ_CREDENTIALS = "guest";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final DockerTwakeCalendarSetup setup;
+
+    public StackReset(DockerTwakeCalendarSetup setup) {
+        this.setup = setup;
+    }
+
+    public Duration reset() {
+        long start = System.nanoTime();
+        Map<String, Duration> stepDurations = new ConcurrentHashMap<>();
+        Mono.when(
+                timed("mongo", this::resetMongo, stepDurations),
+                timed("rabbitmq", this::resetRabbitMQ, stepDurations),
+                timed("opensearch", this::resetOpenSearch, stepDurations),
+                timed("redis", this::resetRedis, stepDurations))
+            .block();
+
+        List<String> leftovers = leftovers();
+        if (!leftovers.isEmpty()) {
+            throw new IllegalStateException("Stack is not clean after reset: " + String.join(", ", leftovers));
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        LOGGER.info("Reset reused stack in {} ms ({})", duration.toMillis(), stepDurations.entrySet().stream()
+            .map(entry -> entry.getKey() + " " + entry.getValue().toMillis() + " ms")
+            .sorted()
+            .collect(Collectors.joining(", ")));
+        return duration;
+    }
+
+    /**
+     * Data left in the stack, empty when it is clean.
+     */
+    public List<String> leftovers() {
+        List<String> leftovers = new ArrayList<>();
+        leftovers.addAll(mongoLeftovers());
+        leftovers.addAll(rabbitMQLeftovers());
+        leftovers.addAll(openSearchLeftovers());
+        leftovers.addAll(redisLeftovers());
+        return leftovers;
+    }
+
+    private Mono<Void> timed(String step, Runnable runnable, Map<String, Duration> stepDurations) {
+        return Mono.fromRunnable(() -> {
+                long start = System.nanoTime();
+                runnable.run();
+                stepDurations.put(step, Duration.ofNanos(System.nanoTime() - start));
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    private void resetMongo() {
+        try (MongoClient mongoClient = mongoClient()) {
+            userCollections(mongoClient)
+                .flatMap(collection -> Mono.from(mongoClient.getDatabase(collection.database()).getCollection(collection.name())
+                    .deleteMany(new Document())))
+                .then()
+                .block();
+        }
+    }
+
+    private List<String> mongoLeftovers() {
+        try (MongoClient mongoClient = mongoClient()) {
+            return userCollections(mongoClient)
+                .flatMap(collection -> Mono.from(mongoClient.getDatabase(collection.database()).getCollection(collection.name())
+                        .countDocuments())
+                    .filter(count -> count > 0)
+                    .map(count -> "mongo %s.%s has %d documents".formatted(collection.database(), collection.name(), count)))
+                .collectList()
+                .block();
+        }
+    }
+
+    private record MongoCollectionName(String database, String name) {
+    }
+
+    private Flux<MongoCollectionName> userCollections(MongoClient mongoClient) {
+        return Flux.from(mongoClient.listDatabaseNames())
+            .filter(database -> !MONGO_SYSTEM_DATABASES.contains(database))
+            .flatMap(database -> {
+                MongoDatabase mongoDatabase = mongoClient.getDatabase(database);
+                return Flux.from(mongoDatabase.listCollectionNames())
+                    .filter(collection -> !collection.startsWith("system.") && !PRESERVED_COLLECTIONS.contains(collection))
+                    .map(collection -> new MongoCollectionName(database, collection));
+            });
+    }
+
+    private MongoClient mongoClient() {
+        return MongoClients.create(setup.getServiceUri(DockerTwakeCalendarSetup.DockerService.MONGO, "mongodb").toString());
+    }
+
+    private void resetRabbitMQ() {
+        withRabbitMQChannel(channel -> {
+            for (String queue : durableQueues()) {
+                channel.queuePurge(queue);
+            }
+        });
+    }
+
+    private List<String> rabbitMQLeftovers() {
+        List<String> leftovers = new ArrayList<>();
+        withRabbitMQChannel(channel -> {
+            for (String queue : durableQueues()) {
+                long messageCount = channel.queueDeclarePassive(queue).getMessageCount();
+                if (messageCount > 0) {
+                    leftovers.add("rabbitmq queue %s has %d messages".formatted(queue, messageCount));
+                }
+            }
+        });
+        return leftovers;
+    }
+
+    /**
+     * Queues of the default virtual host, except exclusive ones: those are owned by live connections of other tests.
+     */
+    private List<String> durableQueues() {
+        JsonNode queues = getJson(rabbitMQAdminClient(), "/api/queues/" + URLEncoder.encode("/", StandardCharsets.UTF_8) + "?columns=name,exclusive");
+        return Streams.stream(queues.elements())
+            .filter(queue -> !queue.path("exclusive").asBoolean(false))
+            .map(queue -> queue.path("name").asText())
+            .toList();
+    }
+
+    private interface ChannelConsumer {
+        void accept(Channel channel) throws IOException;
+    }
+
+    private void withRabbitMQChannel(ChannelConsumer consumer) {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(setup.getHost(DockerTwakeCalendarSetup.DockerService.RABBITMQ));
+        factory.setPort(setup.getPort(DockerTwakeCalendarSetup.DockerService.RABBITMQ));
+        factory.setUsername(RABBITMQ_CREDENTIALS);
+        factory.setPassword(RABBITMQ_CREDENTIALS);
+        try (Connection connection = factory.newConnection();
+             Channel channel = connection.createChannel()) {
+            consumer.accept(channel);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to reset RabbitMQ", e);
+        }
+    }
+
+    private HttpClient rabbitMQAdminClient() {
+        String credentials = Base64.getEncoder().encodeToString((RABBITMQ_CREDENTIALS + ":" + RABBITMQ_CREDENTIALS).getBytes(StandardCharsets.UTF_8));
+        return HttpClient.create()
+            .baseUrl(setup.getServiceUri(DockerTwakeCalendarSetup.DockerService.RABBITMQ_ADMIN, "http").toString())
+            .headers(headers -> headers.add(HttpHeaderNames.AUTHORIZATION, "Basic " + credentials));
+    }
+
+    private void resetOpenSearch() {
+        HttpClient openSearchClient = openSearchClient();
+        Flux.fromIterable(openSearchIndices(openSearchClient))
+            .flatMap(index -> openSearchClient.headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .post()
+                .uri("/" + index + "/_delete_by_query?refresh=true&conflicts=proceed")
+                .send(Mono.just(Unpooled.wrappedBuffer("{\"query\":{\"match_all\":{}}}".getBytes(StandardCharsets.UTF_8))))
+                .responseSingle((response, responseContent) -> {
+                    if (response.status().code() == 200) {
+                        return Mono.empty();
+                    }
+                    return responseContent.asString(StandardCharsets.UTF_8)
+                        .switchIfEmpty(Mono.just(StringUtils.EMPTY))
+                        .flatMap(errorBody -> Mono.error(new RuntimeException("""
+                            Unexpected status code: %d when clearing OpenSearch index '%s'
+                            %s
+                            """.formatted(response.status().code(), index, errorBody))));
+                }))
+            .then()
+            .block();
+    }
+
+    private List<String> openSearchLeftovers() {
+        HttpClient openSearchClient = openSearchClient();
+        return openSearchIndices(openSearchClient).stream()
+            .map(index -> {
+                long count = getJson(openSearchClient, "/" + index + "/_count").path("count").asLong();
+                return count > 0 ? "opensearch index %s has %d documents".formatted(index, count) : null;
+            })
+            .filter(leftover -> leftover != null)
+            .toList();
+    }
+
+    private List<String> openSearchIndices(HttpClient openSearchClient) {
+        return Streams.stream(getJson(openSearchClient, "/_cat/indices?format=json&h=index").elements())
+            .map(index -> index.path("index").asText())
+            .filter(index -> !index.startsWith("."))
+            .toList();
+    }
+
+    private HttpClient openSearchClient() {
+        return HttpClient.create()
+            .baseUrl(setup.getServiceUri(DockerTwakeCalendarSetup.DockerService.OPENSEARCH, "http").toString());
+    }
+
+    private void resetRedis() {
+        String reply = redisCommand(setup, "FLUSHALL");
+        if (!reply.equals("+OK")) {
+            throw new RuntimeException("Unexpected Redis reply to FLUSHALL: " + reply);
+        }
+    }
+
+    private List<String> redisLeftovers() {
+        String reply = redisCommand(setup, "DBSIZE");
+        if (reply.equals(":0")) {
+            return List.of();
+        }
+        return List.of("redis has " + StringUtils.removeStart(reply, ":") + " keys");
+    }
+
+    /**
+     * Sends a command without arguments over RESP, returns the single line reply.
+     */
+    static String redisCommand(DockerTwakeCalendarSetup setup, String command) {
+        try (Socket socket = new Socket(setup.getHost(DockerTwakeCalendarSetup.DockerService.REDIS), setup.getPort(DockerTwakeCalendarSetup.DockerService.REDIS))) {
+            OutputStream output = socket.getOutputStream();
+            output.write("*1\r\n$%d\r\n%s\r\n".formatted(command.length(), command).getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to send " + command + " to Redis", e);
+        }
+    }
+
+    private JsonNode getJson(HttpClient httpClient, String uri) {
+        return httpClient.headers(headers -> headers.add(HttpHeaderNames.ACCEPT, "application/json"))
+            .get()
+            .uri(uri)
+            .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
+                .switchIfEmpty(Mono.just(StringUtils.EMPTY))
+                .flatMap(body -> {
+                    if (response.status().code() == 200) {
+                        return Mono.fromCallable(() -> OBJECT_MAPPER.readTree(body));
+                    }
+                    return Mono.error(new RuntimeException("""
+                        Unexpected status code: %d when getting '%s'
+                        %s
+                        """.formatted(response.status().code(), uri, body)));
+                }))
+            .block();
+    }
+}
@@ -0,0 +1,166 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.SignalType;
+
+/**
+ * Fully provisioned users, created in the background so that tests do not wait for webadmin, Mongo and sabre.
+ *
+ * <p>When fewer than {@code lowWaterMark} users are available, the pool is refilled up to {@code capacity} with
+ * {@link TwakeCalendarProvisioningService#createUsers(int)}. Taking from an empty pool falls back to provisioning
+ * the user synchronously, which is counted as a miss.
+ */
+public class TestUserPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestUserPool.class);
+
+    private static final long HIGHEST_TRACKABLE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Duration REFILL_POLL_INTERVAL = Duration.ofMillis(20);
+
+    public record Stats(long hits, long misses, long refills, int available, double refillP50Millis, double refillMaxMillis) {
+        @Override
+        public String toString() {
+            return "hits=%d misses=%d refills=%d available=%d refill p50=%.0fms max=%.0fms"
+                .formatted(hits, misses, refills, available, refillP50Millis, refillMaxMillis);
+        }
+    }
+
+    public static TestUserPool fromSystemProperties(TwakeCalendarProvisioningService provisioningService) {
+        return new TestUserPool(provisioningService,
+            Integer.getInteger("dav.userPool.capacity", 16),
+            Integer.getInteger("dav.userPool.lowWaterMark", 8));
+    }
+
+    private final TwakeCalendarProvisioningService provisioningService;
+    private final int capacity;
+    private final int lowWaterMark;
+    private final ConcurrentLinkedQueue<OpenPaasUser> available = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicBoolean suspended = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Histogram refillLatencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MILLIS, 2);
+
+    public TestUserPool(TwakeCalendarProvisioningService provisioningService, int capacity, int lowWaterMark) {
+        this.provisioningService = provisioningService;
+        this.capacity = capacity;
+        this.lowWaterMark = Math.min(lowWaterMark, capacity);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public OpenPaasUser take() {
+        OpenPaasUser user = available.poll();
+        if (user != null) {
+            availableCount.decrementAndGet();
+            hits.incrementAndGet();
+        }
+        refillIfNeeded();
+        if (user == null) {
+            misses.incrementAndGet();
+            return provisioningService.createUser().block();
+        }
+        return user;
+    }
+
+    public void refillIfNeeded() {
+        if (!isEnabled() || suspended.get() || availableCount.get() >= lowWaterMark || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        if (suspended.get()) {
+            // Suspended in between: the suspending thread may have seen no refill in progress
+            refilling.set(false);
+            return;
+        }
+        int missing = capacity - availableCount.get();
+        long start = System.nanoTime();
+        provisioningService.createUsers(missing)
+            .doOnNext(user -> {
+                available.offer(user);
+                availableCount.incrementAndGet();
+            })
+            .doFinally(signal -> {
+                long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                refillLatencies.recordValue(Math.min(elapsedMillis, HIGHEST_TRACKABLE_MILLIS));
+                refilling.set(false);
+                if (signal == SignalType.ON_COMPLETE) {
+                    // Users may have been taken while refilling
+                    refillIfNeeded();
+                }
+            })
+            .subscribe(
+                user -> { },
+                e -> LOGGER.warn("Failed to refill the test user pool", e));
+    }
+
+    /**
+     * Stops starting refills, then waits for the one in progress if any, for instance before dropping the databases.
+     * Taking a user still works meanwhile.
+     */
+    public void suspendRefills(Duration timeout) {
+        suspended.set(true);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (refilling.get()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Test user pool refill still running after " + timeout.toMillis() + " ms");
+            }
+            try {
+                Thread.sleep(REFILL_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the test user pool refill", e);
+            }
+        }
+    }
+
+    public void resumeRefills() {
+        suspended.set(false);
+        refillIfNeeded();
+    }
+
+    /**
+     * Drops the available users, for instance when they were removed from Mongo, then refills the pool.
+     */
+    public void clear() {
+        while (available.poll() != null) {
+            availableCount.decrementAndGet();
+        }
+        refillIfNeeded();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), refillLatencies.getTotalCount(), availableCount.get(),
+            refillLatencies.getValueAtPercentile(50), refillLatencies.getMaxValue());
+    }
+}
@@ -0,0 +1,100 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+public class TestUserPoolTest {
+    /**
+     * Refills only end when the test says so.
+     */
+    private static class ControlledProvisioningService extends TwakeCalendarProvisioningService {
+        private final List<Sinks.Many<OpenPaasUser>> refills = new CopyOnWriteArrayList<>();
+
+        ControlledProvisioningService() {
+            // Never connected to
+            super("mongodb://localhost:1", HttpClient.create(), HttpClient.create());
+        }
+
+        @Override
+        public Flux<OpenPaasUser> createUsers(int count) {
+            Sinks.Many<OpenPaasUser> refill = Sinks.many().unicast().onBackpressureBuffer();
+            refills.add(refill);
+            return refill.asFlux();
+        }
+
+        void completeRefill(int index, int count) {
+            Sinks.Many<OpenPaasUser> refill = refills.get(index);
+            for (int i = 0; i < count; i++) {
+                String id = UUID.randomUUID().toString();
+                refill.tryEmitNext(new OpenPaasUser(id, "first", "last", "user_" + id + "@open-paas.org", "secret"));
+            }
+            refill.tryEmitComplete();
+        }
+    }
+
+    private final ControlledProvisioningService provisioningService = new ControlledProvisioningService();
+    private final TestUserPool pool = new TestUserPool(provisioningService, 2, 1);
+
+    @Test
+    void suspendRefillsShouldWaitForTheRefillInProgress() throws Exception {
+        pool.refillIfNeeded();
+
+        CompletableFuture<Void> suspension = CompletableFuture.runAsync(() -> pool.suspendRefills(Duration.ofSeconds(10)));
+        Thread.sleep(100);
+        assertThat(suspension).isNotDone();
+
+        provisioningService.completeRefill(0, 2);
+        suspension.get(10, TimeUnit.SECONDS);
+        assertThat(pool.stats().available()).isEqualTo(2);
+    }
+
+    @Test
+    void suspendedPoolShouldNotRefillUntilResumed() {
+        pool.suspendRefills(Duration.ofSeconds(1));
+
+        pool.clear();
+        assertThat(provisioningService.refills).isEmpty();
+
+        pool.resumeRefills();
+        assertThat(provisioningService.refills).hasSize(1);
+    }
+
+    @Test
+    void suspendRefillsShouldFailWhenTheRefillDoesNotEnd() {
+        pool.refillIfNeeded();
+
+        assertThatThrownBy(() -> pool.suspendRefills(Duration.ofMillis(50)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -20,14 +20,21 @@ package com.linagora.dav;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
 import org.testcontainers.shaded.org.awaitility.Awaitility;
 import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
+import org.testcontainers.shaded.org.awaitility.pollinterval.IterativePollInterval;
+
+import com.google.common.collect.Iterators;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -36,12 +43,40 @@ import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
 public class TestUtil {
-    private static final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollDelay(Duration.ofSeconds(2))
-        .pollInterval(Duration.ofSeconds(1))
-        .await();
+    private static final Duration GRACE_PERIOD_POLL_INTERVAL = Duration.ofMillis(250);
+
+    /**
+     * Positive waits: the condition is evaluated right away, then with the exponential backoff of {@link DavAwait}.
+     * Prefer {@link DavAwait#wakingOn} when an AMQP message signals the awaited change.
+     */
+    public static ConditionFactory awaitAtMost() {
+        return Awaitility.with()
+            .pollDelay(Duration.ZERO)
+            .pollInterval(new IterativePollInterval(DavAwait::nextBackoff, DavAwait.INITIAL_BACKOFF))
+            .conditionEvaluationListener(AwaitTimes.awaitilityListener())
+            .await()
+            .atMost(DavAwait.DEFAULT_TIMEOUT);
+    }
 
-    public static final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
+    /**
+     * Assertions that something did not happen: the condition has to hold during the whole period, leaving time to the
+     * asynchronous change to land.
+     */
+    public static ConditionFactory awaitDuring(long period, TimeUnit unit) {
+        Duration during = Duration.of(period, unit.toChronoUnit());
+        return Awaitility.with()
+            .pollInterval(GRACE_PERIOD_POLL_INTERVAL)
+            .conditionEvaluationListener(AwaitTimes.awaitilityListener())
+            .await()
+            .during(during)
+            .atMost(during.plus(DavAwait.DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * Messages signalling a change of the calendar objects of a collection.
+     */
+    public static final List<String> CALENDAR_EVENT_EXCHANGES = List.of("calendar:event:created", "calendar:event:updated",
+        "calendar:event:deleted", "calendar:event:request", "calendar:event:cancel");
 
     public static final boolean DEBUG = Boolean.getBoolean("dav.http.debug");
     public static final String TWAKE_CALENDAR_TOKEN_HEADER = "TwakeCalendarToken";
@@ -50,6 +85,15 @@ public class TestUtil {
         return Mono.just(Unpooled.wrappedBuffer(body.getBytes(StandardCharsets.UTF_8)));
     }
 
+    /**
+     * Generates the content as it is read, so that large documents are never held in memory.
+     */
+    public static InputStream generatedInputStream(Stream<String> parts) {
+        return new SequenceInputStream(Iterators.asEnumeration(parts
+            .map(part -> (InputStream) new ByteArrayInputStream(part.getBytes(StandardCharsets.UTF_8)))
+            .iterator()));
+    }
+
     public static DavResponse execute(HttpClient.ResponseReceiver<?> client) {
         DavResponse block = client.responseSingle((response, content) -> content.asString()
                 .map(stringContent -> new DavResponse(response.status().code(), stringContent)))
@@ -73,8 +117,23 @@ public class TestUtil {
     }
 
     public static List<String> awaitCalendarEntries(HttpClient client, OpenPaasUser attendee, String collectionPath, int expectedCount) {
-        List<String> hrefsFromPropfind = new ArrayList<>();
-        awaitAtMost.untilAsserted(() -> {
+        return awaitCalendarEntries(client, DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT), attendee, collectionPath, expectedCount);
+    }
+
+    /**
+     * Same as {@link #awaitCalendarEntries(HttpClient, OpenPaasUser, String, int)}, the PROPFIND being run again as
+     * soon as a calendar message concerns the collection or the attendee (scheduling messages only carry the path of
+     * the calendar object, not the one of the inbox it is delivered to).
+     */
+    public static List<String> awaitCalendarEntries(HttpClient client, AmqpEventBus amqpEventBus, OpenPaasUser attendee,
+                                                    String collectionPath, int expectedCount) {
+        return awaitCalendarEntries(client, DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT)
+                .wakingOn(amqpEventBus, CALENDAR_EVENT_EXCHANGES, List.of(StringUtils.removeEnd(collectionPath, "/"), attendee.id())),
+            attendee, collectionPath, expectedCount);
+    }
+
+    private static List<String> awaitCalendarEntries(HttpClient client, DavAwait davAwait, OpenPaasUser attendee, String collectionPath, int expectedCount) {
+        return davAwait.untilAsserted(() -> {
             List<String> hrefs = XMLUtil.extractCalendarHrefsFromPropfind(
                 execute(client
                     .headers(attendee::impersonatedBasicAuth)
@@ -84,8 +143,7 @@ public class TestUtil {
             assertThat(hrefs)
                 .as("Expected number of messages in " + collectionPath + " for " + attendee.email())
                 .hasSize(expectedCount);
-            hrefsFromPropfind.addAll(hrefs);
+            return hrefs;
         });
-        return hrefsFromPropfind;
     }
 }
@@ -23,6 +23,8 @@ import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
@@ -30,6 +32,7 @@ import org.bson.types.ObjectId;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
@@ -39,6 +42,7 @@ import com.mongodb.reactivestreams.client.MongoDatabase;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
@@ -58,21 +62,28 @@ public class TwakeCalendarProvisioningService {
         }
     }
 
+    private static final int BULK_INSERT_BATCH_SIZE = 500;
+    private static final Duration BULK_INSERT_MAX_WAIT = Duration.ofMillis(200);
+    private static final int BULK_PROVISIONING_CONCURRENCY = 32;
+
     private static final TechnicalTokenService technicalTokenService = new TechnicalTokenService.Impl("technicalTokenSecret", Duration.ofSeconds(3600));
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private final MongoDatabase database;
+    private final ConcurrentHashMap<String, Mono<Document>> domains = new ConcurrentHashMap<>();
     private final HttpClient httpClient;
     private final HttpClient davHttpClient;
 
-    public TwakeCalendarProvisioningService(String mongoUri, String calendarSideServiceUri, String sabreDavUri) {
+    /**
+     * @param httpClient targeting the calendar side service admin API
+     * @param davHttpClient targeting sabre
+     */
+    public TwakeCalendarProvisioningService(String mongoUri, HttpClient httpClient, HttpClient davHttpClient) {
         MongoClient mongoClient = MongoClients.create(mongoUri);
         database = mongoClient.getDatabase("esn_docker");
 
-        httpClient = HttpClient.create()
-            .baseUrl(calendarSideServiceUri);
-        davHttpClient = HttpClient.create()
-            .baseUrl(sabreDavUri);
+        this.httpClient = httpClient;
+        this.davHttpClient = davHttpClient;
     }
 
     public Document openPaasDomain() {
@@ -80,11 +91,46 @@ public class TwakeCalendarProvisioningService {
     }
 
     public Document createDomainIfNotExists(String domainName) {
-        MongoCollection<Document> domains = database.getCollection("domains");
+        return createDomainIfNotExistsReactive(domainName).block();
+    }
+
+    /**
+     * Domain documents are looked up (or created) once per provisioning service then served from memory. Concurrent
+     * callers share the same lookup. Failed lookups are not cached.
+     *
+     * <p>Returned documents are shared: callers must not modify them.
+     */
+    public Mono<Document> createDomainIfNotExistsReactive(String domainName) {
+        return Mono.defer(() -> domains.computeIfAbsent(domainName, this::cachedDomain));
+    }
+
+    /**
+     * To be called when the domain documents are modified or removed behind the back of this service.
+     */
+    public void invalidateDomain(String domainName) {
+        domains.remove(domainName);
+    }
+
+    public void invalidateDomains() {
+        domains.clear();
+    }
+
+    private Mono<Document> cachedDomain(String domainName) {
+        AtomicReference<Mono<Document>> cached = new AtomicReference<>();
+        // Only evicts this lookup: the domain may have been invalidated and cached again meanwhile
+        Mono<Document> domain = findOrCreateDomain(domainName)
+            .doOnError(e -> domains.remove(domainName, cached.get()))
+            .cache();
+        cached.set(domain);
+        return domain;
+    }
+
+    Mono<Document> findOrCreateDomain(String domainName) {
+        MongoCollection<Document> domainsCollection = database.getCollection("domains");
 
         Document filter = new Document("name", domainName);
 
-        return Mono.from(domains.find(filter).first())
+        return Mono.from(domainsCollection.find(filter).first())
             .switchIfEmpty(Mono.defer(() -> {
                 Document newDomain = new Document()
                     .append("timestamp", new Document()
@@ -94,10 +140,10 @@ public class TwakeCalendarProvisioningService {
                     .append("company_name", domainName)
                     .append("administrators", List.of());
 
-                return Mono.from(domains.insertOne(newDomain))
-                    .then(Mono.from(domains.find(filter).first()));
-            }))
-            .block();
+                // The driver assigns the generated _id to the inserted document
+                return Mono.from(domainsCollection.insertOne(newDomain))
+                    .thenReturn(newDomain);
+            }));
     }
 
     public Mono<OpenPaasUser> createUser() {
@@ -107,6 +153,39 @@ public class TwakeCalendarProvisioningService {
             .flatMap(this::provisionPersonalDefaultCalendar);
     }
 
+    public Flux<OpenPaasUser> createUsers(int count) {
+        return createUsers(Flux.range(0, count)
+            .map(i -> "user_" + UUID.randomUUID()));
+    }
+
+    /**
+     * Bulk equivalent of {@link #createUser()}: users are created in the users repository concurrently, inserted in
+     * Mongo by batches and their default calendar is provisioned concurrently. Users are emitted as soon as they are
+     * ready, in no particular order.
+     */
+    public Flux<OpenPaasUser> createUsers(Flux<String> localParts) {
+        return createDomainIfNotExistsReactive(DEFAULT_DOMAIN)
+            .map(domain -> domain.getObjectId("_id"))
+            .flatMapMany(domainId -> localParts
+                .flatMap(localPart -> createUserInUsersRepository(localPart + "@" + DEFAULT_DOMAIN)
+                    .thenReturn(localPart), BULK_PROVISIONING_CONCURRENCY)
+                .bufferTimeout(BULK_INSERT_BATCH_SIZE, BULK_INSERT_MAX_WAIT, true)
+                .concatMap(batch -> createUsersInMongo(batch, domainId, DEFAULT_DOMAIN))
+                .flatMap(this::provisionPersonalDefaultCalendar, BULK_PROVISIONING_CONCURRENCY));
+    }
+
+    /**
+     * Every user stored in Mongo, for instance the ones of a restored dataset.
+     */
+    public Flux<OpenPaasUser> users() {
+        return Flux.from(database.getCollection("users").find())
+            .map(OpenPaasUser::fromDocument);
+    }
+
+    /**
+     * Unlike {@link #createUser()}, the user is not created in the users repository: the local part may name a user
+     * that the side service already knows, such as an LDAP user, and only its OpenPaaS account is then missing.
+     */
     public Mono<OpenPaasUser> createUser(String localPart) {
         return createUserInMongo(localPart, DEFAULT_DOMAIN)
             .flatMap(this::provisionPersonalDefaultCalendar);
@@ -122,30 +201,29 @@ public class TwakeCalendarProvisioningService {
     }
 
     public Mono<OpenPaaSResource> createResource(String name, String description, OpenPaasUser admin, String domainName) {
-        createDomainIfNotExists(domainName);
-
-        return httpClient.headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
-            .post()
-            .uri("/domains/" + domainName + "/resources")
-            .send(Mono.just(Unpooled.wrappedBuffer(OBJECT_MAPPER.createObjectNode()
-                .put("name", name)
-                .put("description", description)
-                .put("icon", "home")
-                .put("creator", admin.email())
-                .set("administrators", OBJECT_MAPPER.createArrayNode()
-                    .add(OBJECT_MAPPER.createObjectNode()
-                        .put("email", admin.email())))
-                .toString().getBytes(StandardCharsets.UTF_8))))
-            .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
-                .switchIfEmpty(Mono.just(StringUtils.EMPTY))
-                .flatMap(responseBody -> {
-                    if (response.status().code() == 201) {
-                        String resourceId = StringUtils.substringAfterLast(response.responseHeaders().get(HttpHeaderNames.LOCATION), "/");
-                        return getResource(domainName, resourceId);
-                    }
-                    return Mono.error(new RuntimeException("Failed to create resource through webadmin:"
-                        + response.status().code() + " " + responseBody));
-                }));
+        return createDomainIfNotExistsReactive(domainName)
+            .then(httpClient.headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .post()
+                .uri("/domains/" + domainName + "/resources")
+                .send(Mono.just(Unpooled.wrappedBuffer(OBJECT_MAPPER.createObjectNode()
+                    .put("name", name)
+                    .put("description", description)
+                    .put("icon", "home")
+                    .put("creator", admin.email())
+                    .set("administrators", OBJECT_MAPPER.createArrayNode()
+                        .add(OBJECT_MAPPER.createObjectNode()
+                            .put("email", admin.email())))
+                    .toString().getBytes(StandardCharsets.UTF_8))))
+                .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
+                    .switchIfEmpty(Mono.just(StringUtils.EMPTY))
+                    .flatMap(responseBody -> {
+                        if (response.status().code() == 201) {
+                            String resourceId = StringUtils.substringAfterLast(response.responseHeaders().get(HttpHeaderNames.LOCATION), "/");
+                            return getResource(domainName, resourceId);
+                        }
+                        return Mono.error(new RuntimeException("Failed to create resource through webadmin:"
+                            + response.status().code() + " " + responseBody));
+                    })));
     }
 
     public Mono<OpenPaaSTeamCalendar> createTeamCalendar(String name, String displayName) {
@@ -153,23 +231,23 @@ public class TwakeCalendarProvisioningService {
     }
 
     public Mono<OpenPaaSTeamCalendar> createTeamCalendar(String name, String displayName, String domainName) {
-        createDomainIfNotExists(domainName);
-        return httpClient.headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
-            .post()
-            .uri("/domains/" + domainName + "/team-calendars")
-            .send(Mono.just(Unpooled.wrappedBuffer(OBJECT_MAPPER.createObjectNode()
-                .put("name", name)
-                .put("displayName", displayName)
-                .toString().getBytes(StandardCharsets.UTF_8))))
-            .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
-                .switchIfEmpty(Mono.just(StringUtils.EMPTY))
-                .flatMap(responseBody -> {
-                    if (response.status().code() == 201) {
-                        return parseTeamCalendar(responseBody);
-                    }
-                    return Mono.error(new RuntimeException("Failed to create team calendar through webadmin:"
-                        + response.status().code() + " " + responseBody));
-                }));
+        return createDomainIfNotExistsReactive(domainName)
+            .then(httpClient.headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .post()
+                .uri("/domains/" + domainName + "/team-calendars")
+                .send(Mono.just(Unpooled.wrappedBuffer(OBJECT_MAPPER.createObjectNode()
+                    .put("name", name)
+                    .put("displayName", displayName)
+                    .toString().getBytes(StandardCharsets.UTF_8))))
+                .responseSingle((response, responseContent) -> responseContent.asString(StandardCharsets.UTF_8)
+                    .switchIfEmpty(Mono.just(StringUtils.EMPTY))
+                    .flatMap(responseBody -> {
+                        if (response.status().code() == 201) {
+                            return parseTeamCalendar(responseBody);
+                        }
+                        return Mono.error(new RuntimeException("Failed to create team calendar through webadmin:"
+                            + response.status().code() + " " + responseBody));
+                    })));
     }
 
     private Mono<OpenPaaSTeamCalendar> parseTeamCalendar(String responseBody) {
@@ -260,12 +338,10 @@ public class TwakeCalendarProvisioningService {
             });
     }
 
-    private Mono<OpenPaasUser> createUserInMongo(String localPart, String domainName) {
-        Document domainDoc = createDomainIfNotExists(domainName);
-        ObjectId domainId = domainDoc.getObjectId("_id");
+    private Document userDocument(String localPart, ObjectId domainId, String domainName) {
         String email = localPart + "@" + domainName;
 
-        Document userToSave = new Document()
+        return new Document()
             .append("firstname", "User_" + localPart)
             .append("lastname", "User_" + localPart)
             .append("password", PASSWORD)
@@ -273,14 +349,29 @@ public class TwakeCalendarProvisioningService {
             .append("accounts", List.of(new Document()
                 .append("type", "email")
                 .append("emails", List.of(email))));
+    }
 
-        return Mono.from(database.getCollection("users").insertOne(userToSave))
+    private Mono<OpenPaasUser> createUserInMongo(String localPart, String domainName) {
+        return createDomainIfNotExistsReactive(domainName)
+            .map(domainDoc -> userDocument(localPart, domainDoc.getObjectId("_id"), domainName))
+            .flatMap(userToSave -> Mono.from(database.getCollection("users").insertOne(userToSave)))
             .flatMap(success ->
                 Mono.from(database.getCollection("users").find(new Document("_id", success.getInsertedId())).first()))
             .map(OpenPaasUser::fromDocument);
     }
 
-    private Mono<OpenPaasUser> provisionPersonalDefaultCalendar(OpenPaasUser user) {
+    Flux<OpenPaasUser> createUsersInMongo(List<String> localParts, ObjectId domainId, String domainName) {
+        List<Document> usersToSave = localParts.stream()
+            .map(localPart -> userDocument(localPart, domainId, domainName))
+            .toList();
+
+        // The driver assigns the generated _id to each inserted document, no need to read them back
+        return Mono.from(database.getCollection("users").insertMany(usersToSave))
+            .thenMany(Flux.fromIterable(usersToSave))
+            .map(OpenPaasUser::fromDocument);
+    }
+
+    Mono<OpenPaasUser> provisionPersonalDefaultCalendar(OpenPaasUser user) {
         return davHttpClient.headers(user::impersonatedBasicAuth)
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/calendars/" + user.id())
@@ -317,7 +408,8 @@ public class TwakeCalendarProvisioningService {
                         Filters.and(
                             Filters.eq("domain_id", domainId),
                             Filters.eq("user_id", null)),
-                        Updates.push("modules", newModule)));
+                        Updates.push("modules", newModule),
+                        new UpdateOptions().upsert(true)));
                 } else {
                     return Mono.empty();
                 }
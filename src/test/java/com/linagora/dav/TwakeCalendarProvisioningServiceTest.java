@@ -0,0 +1,166 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+public class TwakeCalendarProvisioningServiceTest {
+    private static final String DOMAIN = "open-paas.org";
+
+    /**
+     * Domain lookups answer with the queued results instead of querying Mongo.
+     */
+    private static class StubbedDomainsProvisioningService extends TwakeCalendarProvisioningService {
+        final Queue<Mono<Document>> lookups = new ConcurrentLinkedQueue<>();
+        final AtomicInteger lookupCount = new AtomicInteger();
+
+        StubbedDomainsProvisioningService() {
+            // Never connected to
+            super("mongodb://localhost:1", HttpClient.create(), HttpClient.create());
+        }
+
+        @Override
+        Mono<Document> findOrCreateDomain(String domainName) {
+            lookupCount.incrementAndGet();
+            return Mono.defer(() -> lookups.remove());
+        }
+    }
+
+    /**
+     * Records the users created in the users repository, inserted in Mongo and given a default calendar, without any
+     * remote call.
+     */
+    private static class RecordingUsersProvisioningService extends StubbedDomainsProvisioningService {
+        private final Queue<String> registeredUsernames = new ConcurrentLinkedQueue<>();
+        private final Queue<List<String>> insertedBatches = new ConcurrentLinkedQueue<>();
+        private final Queue<OpenPaasUser> provisionedUsers = new ConcurrentLinkedQueue<>();
+
+        RecordingUsersProvisioningService() {
+            lookups.add(Mono.just(new Document("_id", new ObjectId()).append("name", DOMAIN)));
+        }
+
+        @Override
+        public Mono<Void> createUserInUsersRepository(String username) {
+            return Mono.fromRunnable(() -> registeredUsernames.add(username));
+        }
+
+        @Override
+        Flux<OpenPaasUser> createUsersInMongo(List<String> localParts, ObjectId domainId, String domainName) {
+            insertedBatches.add(localParts);
+            return Flux.fromIterable(localParts)
+                .map(localPart -> new OpenPaasUser(new ObjectId().toString(), localPart, localPart, localPart + "@" + domainName,
+                    TwakeCalendarProvisioningService.PASSWORD));
+        }
+
+        @Override
+        Mono<OpenPaasUser> provisionPersonalDefaultCalendar(OpenPaasUser user) {
+            return Mono.fromCallable(() -> {
+                provisionedUsers.add(user);
+                return user;
+            });
+        }
+    }
+
+    private final StubbedDomainsProvisioningService service = new StubbedDomainsProvisioningService();
+
+    @Test
+    void domainShouldBeLookedUpOnce() {
+        Document domain = new Document("name", DOMAIN);
+        service.lookups.add(Mono.just(domain));
+
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(domain);
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(domain);
+        assertThat(service.lookupCount).hasValue(1);
+    }
+
+    @Test
+    void failedLookupShouldNotBeCached() {
+        Document domain = new Document("name", DOMAIN);
+        service.lookups.add(Mono.error(new RuntimeException("Mongo is down")));
+        service.lookups.add(Mono.just(domain));
+
+        assertThatThrownBy(() -> service.createDomainIfNotExists(DOMAIN))
+            .hasMessage("Mongo is down");
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(domain);
+        assertThat(service.lookupCount).hasValue(2);
+    }
+
+    @Test
+    void invalidatedDomainShouldBeLookedUpAgain() {
+        Document domain = new Document("name", DOMAIN);
+        Document recreatedDomain = new Document("name", DOMAIN);
+        service.lookups.add(Mono.just(domain));
+        service.lookups.add(Mono.just(recreatedDomain));
+
+        service.createDomainIfNotExists(DOMAIN);
+        service.invalidateDomain(DOMAIN);
+
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(recreatedDomain);
+        assertThat(service.lookupCount).hasValue(2);
+    }
+
+    @Test
+    void failureOfAnInvalidatedLookupShouldNotEvictTheNewerOne() {
+        Sinks.One<Document> slowLookup = Sinks.one();
+        Document recreatedDomain = new Document("name", DOMAIN);
+        service.lookups.add(slowLookup.asMono());
+        service.lookups.add(Mono.just(recreatedDomain));
+
+        Mono<Document> pending = service.createDomainIfNotExistsReactive(DOMAIN).cache();
+        pending.subscribe(any -> { }, e -> { });
+        service.invalidateDomain(DOMAIN);
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(recreatedDomain);
+
+        slowLookup.tryEmitError(new RuntimeException("Mongo is down"));
+
+        assertThat(service.createDomainIfNotExists(DOMAIN)).isSameAs(recreatedDomain);
+        assertThat(service.lookupCount).hasValue(2);
+    }
+
+    @Test
+    void createUsersShouldProvisionEveryUserOnce() {
+        RecordingUsersProvisioningService recordingService = new RecordingUsersProvisioningService();
+        int count = 1200;
+
+        List<OpenPaasUser> users = recordingService.createUsers(count).collectList().block();
+
+        assertThat(users).hasSize(count);
+        assertThat(users).extracting(OpenPaasUser::email).doesNotHaveDuplicates();
+        assertThat(recordingService.registeredUsernames)
+            .containsExactlyInAnyOrderElementsOf(users.stream().map(OpenPaasUser::email).toList());
+        assertThat(recordingService.provisionedUsers).containsExactlyInAnyOrderElementsOf(users);
+        assertThat(recordingService.insertedBatches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(500));
+        assertThat(recordingService.lookupCount).hasValue(1);
+    }
+}
@@ -19,13 +19,16 @@
 package com.linagora.dav;
 
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
@@ -33,15 +36,13 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.google.common.collect.ImmutableList;
 
 public class XMLUtil {
@@ -66,8 +67,21 @@ public class XMLUtil {
         }
     }
 
+    private record XPathKey(String expression, Map<String, String> namespaces) {
+    }
+
     private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY;
-    private static final XmlMapper xmlMapper = new XmlMapper();
+    private static final ThreadLocal<XPathFactory> XPATH_FACTORY = ThreadLocal.withInitial(XPathFactory::newInstance);
+    private static final int COMPILED_XPATHS_PER_THREAD = 64;
+    private static final ThreadLocal<Map<XPathKey, XPathExpression>> COMPILED_XPATHS = ThreadLocal.withInitial(() ->
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<XPathKey, XPathExpression> eldest) {
+                return size() > COMPILED_XPATHS_PER_THREAD;
+            }
+        });
+    // Values of the $variables of the expression being evaluated by the thread
+    private static final ThreadLocal<Map<String, String>> XPATH_VARIABLES = ThreadLocal.withInitial(Map::of);
 
     static {
         try {
@@ -96,67 +110,58 @@ public class XMLUtil {
         }
     }
 
-    public static List<String> extractEventIdsFromXml(byte[] xml) throws ParserConfigurationException, IOException, SAXException, XPathExpressionException {
-        Document doc = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder()
-            .parse(new java.io.ByteArrayInputStream(xml));
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        xpath.setNamespaceContext(new DavNamespaceContext());
-        String expression = "/d:multistatus/d:response/d:href";
-        NodeList nodes = (NodeList) xpath.evaluate(expression, doc, XPathConstants.NODESET);
-        ImmutableList.Builder<String> eventIds = new ImmutableList.Builder<>();
-        for (int i = 0; i < nodes.getLength(); i++) {
-            String href = nodes.item(i).getTextContent();
-            if (href.endsWith(".ics")) {
-                String filename = href.substring(href.lastIndexOf('/') + 1, href.length() - 4);
-                eventIds.add(filename);
-            }
+    public static List<String> extractEventIdsFromXml(byte[] xml) {
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(xml, Set.of())) {
+            return responses.map(MultistatusReader.Response::href)
+                .filter(href -> href != null && href.endsWith(".ics"))
+                .map(href -> href.substring(href.lastIndexOf('/') + 1, href.length() - 4))
+                .collect(ImmutableList.toImmutableList());
         }
-        return eventIds.build();
     }
 
-    public static List<URI> extractEventUrisFromXml(byte[] xml) throws ParserConfigurationException, IOException, SAXException, XPathExpressionException {
-        Document doc = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder()
-            .parse(new java.io.ByteArrayInputStream(xml));
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        xpath.setNamespaceContext(new DavNamespaceContext());
-        String expression = "/d:multistatus/d:response/d:href";
-        NodeList nodes = (NodeList) xpath.evaluate(expression, doc, XPathConstants.NODESET);
-        ImmutableList.Builder<URI> eventUris = new ImmutableList.Builder<>();
-        for (int i = 0; i < nodes.getLength(); i++) {
-            String href = nodes.item(i).getTextContent();
-            if (href.endsWith(".ics")) {
-                eventUris.add(URI.create(href));
-            }
+    public static List<URI> extractEventUrisFromXml(byte[] xml) {
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(xml, Set.of())) {
+            return responses.map(MultistatusReader.Response::href)
+                .filter(href -> href != null && href.endsWith(".ics"))
+                .map(URI::create)
+                .collect(ImmutableList.toImmutableList());
+        }
+    }
+
+    /**
+     * Streaming equivalent of the {@code //d:multistatus/d:response/d:href} XPath expression.
+     */
+    public static List<String> extractResponseHrefs(String xml) {
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(xml, Set.of())) {
+            return responses.map(MultistatusReader.Response::href)
+                .filter(href -> href != null)
+                .collect(ImmutableList.toImmutableList());
         }
-        return eventUris.build();
     }
 
     public static String extractByXPath(String xml, String xpathExpr, Map<String, String> namespaces) throws Exception {
+        return extractByXPath(xml, xpathExpr, namespaces, Map.of());
+    }
+
+    /**
+     * Values varying between calls, such as ids, are better passed as {@code $variables} than concatenated: the
+     * expression is then compiled once.
+     */
+    public static String extractByXPath(String xml, String xpathExpr, Map<String, String> namespaces, Map<String, String> variables) throws Exception {
         Document doc = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder()
             .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        xpath.setNamespaceContext(new NamespaceContext() {
-            public String getNamespaceURI(String prefix) {
-                return namespaces.get(prefix);
-            }
-            public String getPrefix(String uri) { return null; }
-            public Iterator getPrefixes(String uri) { return null; }
-        });
-        return xpath.evaluate(xpathExpr, doc);
+        XPATH_VARIABLES.set(variables);
+        try {
+            return compiledXPath(xpathExpr, namespaces).evaluate(doc);
+        } finally {
+            XPATH_VARIABLES.remove();
+        }
     }
 
     public static List<String> extractMultipleValueByXPath(String xml, String xpathExpr, Map<String, String> namespaces) throws Exception {
         Document doc = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder()
             .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        xpath.setNamespaceContext(new NamespaceContext() {
-            public String getNamespaceURI(String prefix) {
-                return namespaces.get(prefix);
-            }
-            public String getPrefix(String uri) { return null; }
-            public Iterator getPrefixes(String uri) { return null; }
-        });
-        NodeList nodes = (NodeList) xpath.evaluate(xpathExpr, doc, XPathConstants.NODESET);
+        NodeList nodes = (NodeList) compiledXPath(xpathExpr, namespaces).evaluate(doc, XPathConstants.NODESET);
         List<String> results = new ArrayList<>();
         for (int i = 0; i < nodes.getLength(); i++) {
             results.add(nodes.item(i).getTextContent());
@@ -165,33 +170,38 @@ public class XMLUtil {
     }
 
     public static List<String> extractCalendarHrefsFromPropfind(String xml) {
-        List<String> hrefs = new ArrayList<>();
-        try {
-            JsonNode root = xmlMapper.readTree(xml);
-            JsonNode responses = root.get("response");
-            if (responses == null) return hrefs;
-
-            if (!responses.isArray()) responses = xmlMapper.createArrayNode().add(responses);
-
-            for (JsonNode resp : responses) {
-                String href = resp.path("href").asText(null);
-                if (href == null) continue;
-
-                JsonNode propstats = resp.get("propstat");
-                if (propstats == null) continue;
-                if (!propstats.isArray()) propstats = xmlMapper.createArrayNode().add(propstats);
-
-                for (JsonNode ps : propstats) {
-                    String contentType = ps.path("prop").path("getcontenttype").asText("");
-                    if (contentType.contains("text/calendar")) {
-                        hrefs.add(href);
-                        break;
-                    }
-                }
-            }
+        try (Stream<MultistatusReader.Response> responses = MultistatusReader.stream(xml, Set.of(MultistatusReader.GETCONTENTTYPE))) {
+            return responses
+                .filter(response -> response.href() != null)
+                .filter(response -> response.propStats().stream()
+                    .anyMatch(propStat -> propStat.properties().getOrDefault(MultistatusReader.GETCONTENTTYPE, "").contains("text/calendar")))
+                .map(MultistatusReader.Response::href)
+                .collect(Collectors.toCollection(ArrayList::new));
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse calendar hrefs", e);
         }
-        return hrefs;
+    }
+
+    /**
+     * XPath factories are costly to look up and compiled expressions are not thread safe: both are kept per thread, the
+     * most recently used expressions only.
+     */
+    private static XPathExpression compiledXPath(String xpathExpr, Map<String, String> namespaces) {
+        return COMPILED_XPATHS.get().computeIfAbsent(new XPathKey(xpathExpr, Map.copyOf(namespaces)), key -> {
+            XPath xpath = XPATH_FACTORY.get().newXPath();
+            xpath.setNamespaceContext(new NamespaceContext() {
+                public String getNamespaceURI(String prefix) {
+                    return key.namespaces().get(prefix);
+                }
+                public String getPrefix(String uri) { return null; }
+                public Iterator getPrefixes(String uri) { return null; }
+            });
+            xpath.setXPathVariableResolver(name -> XPATH_VARIABLES.get().get(name.getLocalPart()));
+            try {
+                return xpath.compile(key.expression());
+            } catch (XPathExpressionException e) {
+                throw new IllegalArgumentException("Invalid XPath expression " + key.expression(), e);
+            }
+        });
     }
 }
@@ -0,0 +1,128 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.linagora.dav.OpenPaasUser;
+
+/**
+ * iCalendar templates shared by the benchmarks. Date-times are UTC, written without their trailing {@code Z}
+ * by {@link #DAV_DATE_TIME}.
+ */
+class BenchmarkCalendars {
+    static final DateTimeFormatter DAV_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    /**
+     * Time ranges REPORTed by the benchmarks, over the calendars they fill from 2030 on.
+     */
+    enum TimeRange {
+        WEEK(LocalDateTime.of(2030, 3, 4, 0, 0), LocalDateTime.of(2030, 3, 11, 0, 0)),
+        MONTH(LocalDateTime.of(2030, 3, 1, 0, 0), LocalDateTime.of(2030, 4, 1, 0, 0)),
+        YEAR(LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2031, 1, 1, 0, 0)),
+        FIFTY_YEARS(LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2080, 1, 1, 0, 0));
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        TimeRange(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        LocalDateTime start() {
+            return start;
+        }
+
+        LocalDateTime end() {
+            return end;
+        }
+    }
+
+    static Instant instant(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * A 30 minutes event, {@code extraProperties} being inserted right after its UID, one per line.
+     */
+    static String vevent(OpenPaasUser organizer, String eventUid, LocalDateTime start, String extraProperties, String summary) {
+        return """
+            BEGIN:VEVENT
+            UID:%s
+            %sDTSTAMP:20300101T000000Z
+            DTSTART:%sZ
+            DTEND:%sZ
+            SUMMARY:%s
+            ORGANIZER;CN=%s:mailto:%s
+            END:VEVENT
+            """.formatted(eventUid, extraProperties, DAV_DATE_TIME.format(start), DAV_DATE_TIME.format(start.plusMinutes(30)),
+            summary, organizer.firstname(), organizer.email());
+    }
+
+    static String vcalendar(String vevents) {
+        return """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Benchmark//EN
+            %sEND:VCALENDAR
+            """.formatted(vevents);
+    }
+
+    /**
+     * A one hour meeting on 2035-10-05, organized by {@code organizer} who attends it as chair, inviting
+     * {@code attendees} to reply. {@code extraProperties} are inserted right after its UID, one per line.
+     */
+    static String invitation(OpenPaasUser organizer, List<OpenPaasUser> attendees, String eventUid, String extraProperties, String summary) {
+        return vcalendar("""
+            BEGIN:VEVENT
+            UID:%s
+            %sDTSTAMP:20351003T080000Z
+            DTSTART:20351005T090000Z
+            DTEND:20351005T100000Z
+            SUMMARY:%s
+            ORGANIZER:mailto:%s
+            ATTENDEE;PARTSTAT=ACCEPTED;RSVP=FALSE;ROLE=CHAIR;CUTYPE=INDIVIDUAL:mailto:%s
+            %sEND:VEVENT
+            """.formatted(eventUid, extraProperties, summary, organizer.email(), organizer.email(), invitedAttendees(attendees)));
+    }
+
+    /**
+     * iTIP messages carry their method, which calendar objects stored over CalDAV must not.
+     */
+    static String withMethod(String calendar, String method) {
+        return StringUtils.replaceOnce(calendar, "BEGIN:VEVENT", "METHOD:" + method + "\nBEGIN:VEVENT");
+    }
+
+    /**
+     * @return one ATTENDEE line per attendee, invited to reply
+     */
+    private static String invitedAttendees(List<OpenPaasUser> attendees) {
+        return attendees.stream()
+            .map(attendee -> "ATTENDEE;PARTSTAT=NEEDS-ACTION;RSVP=TRUE;ROLE=REQ-PARTICIPANT;CUTYPE=INDIVIDUAL:mailto:" + attendee.email() + "\n")
+            .collect(Collectors.joining());
+    }
+}
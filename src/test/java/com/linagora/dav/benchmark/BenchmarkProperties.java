@@ -0,0 +1,49 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Reads the comma separated lists with which benchmarks are parameterized, such as {@code -Ddav.sync.sizes=1000,10000}.
+ */
+class BenchmarkProperties {
+    private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    static List<Integer> integers(String property, String defaultValue) {
+        return list(property, defaultValue, Integer::parseInt);
+    }
+
+    /**
+     * Values are matched case insensitively with the constant names.
+     */
+    static <E extends Enum<E>> List<E> values(String property, String defaultValue, Class<E> type) {
+        return list(property, defaultValue, value -> Enum.valueOf(type, value.toUpperCase(Locale.US)));
+    }
+
+    private static <T> List<T> list(String property, String defaultValue, Function<String, T> parser) {
+        return COMMA.splitToStream(System.getProperty(property, defaultValue))
+            .map(parser)
+            .toList();
+    }
+}
@@ -0,0 +1,127 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static com.linagora.dav.benchmark.BenchmarkCalendars.invitation;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.withMethod;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalDavClient.ITIPDelivery;
+import com.linagora.dav.CalDavClient.ITIPDeliveryResult;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.ITIPJsonBodyRequest;
+import com.linagora.dav.OpenPaasUser;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput ceiling of the ITIP endpoint for mass invitations, delivered through
+ * {@link CalDavClient#sendITIPRequests(Flux, int)}.
+ *
+ * <p>An invitation to {@code dav.bulkItip.recipients} attendees (default 500) is delivered to each of them, once for
+ * each concurrency of {@code dav.bulkItip.concurrencies} (default {@code 1,8,32,128}), on a new event every time. Each
+ * run reports per-recipient latencies by status, the deliveries per second, and the first failures.
+ */
+public abstract class CalDavBulkITIPBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavBulkITIPBenchmark.class);
+
+    private static final int LOGGED_FAILURES = 5;
+
+    private record Run(int concurrency, int deliveries, long delivered, Duration elapsed, List<ITIPDeliveryResult> failures) {
+        String format() {
+            return "concurrency=%-4d delivered=%d/%d in %d ms (%.1f/s)%s".formatted(concurrency, delivered, deliveries,
+                elapsed.toMillis(), deliveries * 1000.0 / Math.max(elapsed.toMillis(), 1),
+                failures.stream()
+                    .limit(LOGGED_FAILURES)
+                    .map(failure -> "%n    %s: %d %s".formatted(failure.delivery().body().recipient, failure.status(), failure.error().orElse("")))
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private int recipientCount;
+    private List<Integer> concurrencies;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(dockerExtension().davHttpClient());
+        recipientCount = Integer.getInteger("dav.bulkItip.recipients", 500);
+        concurrencies = BenchmarkProperties.integers("dav.bulkItip.concurrencies", "1,8,32,128");
+    }
+
+    @Test
+    void massInvitationShouldBeDeliveredToEveryRecipient() {
+        OpenPaasUser organizer = dockerExtension().newTestUser();
+        List<OpenPaasUser> recipients = dockerExtension().newTestUsers(recipientCount);
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<Run> runs = new ArrayList<>();
+
+        for (int concurrency : concurrencies) {
+            runs.add(deliver(recorder, concurrency, organizer, recipients));
+        }
+
+        LOGGER.info("Bulk ITIP latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Bulk ITIP throughput:{}{}", System.lineSeparator(), runs.stream()
+            .map(Run::format)
+            .collect(Collectors.joining(System.lineSeparator())));
+
+        assertThat(runs.getFirst().delivered()).isEqualTo(recipients.size());
+    }
+
+    private Run deliver(LatencyRecorder recorder, int concurrency, OpenPaasUser organizer, List<OpenPaasUser> recipients) {
+        String label = "ITIP concurrency=" + concurrency;
+        String eventUid = "bulk-itip-" + UUID.randomUUID();
+        String invitation = withMethod(invitation(organizer, recipients, eventUid, "", "Company announcement"), "REQUEST");
+        Flux<ITIPDelivery> deliveries = Flux.fromIterable(recipients)
+            .map(recipient -> new ITIPDelivery(recipient, URI.create("/calendars/" + recipient.id()), ITIPJsonBodyRequest.builder()
+                .ical(invitation)
+                .sender(organizer.email())
+                .recipient(recipient.email())
+                .uid(eventUid)
+                .method("REQUEST")
+                .build()));
+
+        long startNanos = System.nanoTime();
+        List<ITIPDeliveryResult> results = calDavClient.sendITIPRequests(deliveries, concurrency)
+            .doOnNext(result -> recorder.record(label, result.status(), result.latency()))
+            .collectList()
+            .block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        List<ITIPDeliveryResult> failures = results.stream()
+            .filter(result -> !result.isDelivered())
+            .toList();
+        return new Run(concurrency, results.size(), results.size() - failures.size(), elapsed, failures);
+    }
+}
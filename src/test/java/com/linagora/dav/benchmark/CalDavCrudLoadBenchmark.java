@@ -0,0 +1,186 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.OpenPaasUser;
+import com.linagora.dav.benchmark.OpenLoopLoadGenerator.LoadOperation;
+import com.linagora.dav.benchmark.OpenLoopLoadGenerator.LoadProfile;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Open loop CRUD load on calendar objects, to size esn-sabre against a given arrival rate.
+ *
+ * <p>Tuned with the {@code dav.load.*} system properties, see {@link LoadProfile#fromSystemProperties()}.
+ * The operation mix is given by {@code dav.load.mix}, for instance {@code PUT:50,GET:40,DELETE:10}. A GET or DELETE
+ * drawn while no event is known is replaced by a PUT: the count of such draws is logged, as they skew the actual mix.
+ */
+public abstract class CalDavCrudLoadBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavCrudLoadBenchmark.class);
+
+    private static final String PUT = "PUT";
+    private static final String GET = "GET";
+    private static final String DELETE = "DELETE";
+
+    private record EventRef(OpenPaasUser owner, URI uri) {
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private final ConcurrentLinkedQueue<EventRef> knownEvents = new ConcurrentLinkedQueue<>();
+    // Drawn verb -> draws replaced by a PUT, for lack of a known event
+    private final Map<String, LongAdder> substitutedDraws = new ConcurrentHashMap<>();
+    private final LongAdder draws = new LongAdder();
+
+    private CalDavClient calDavClient;
+    private List<OpenPaasUser> users;
+    private Map<String, Integer> mix;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient()));
+        users = dockerExtension().newTestUsers(Integer.getInteger("dav.load.users", 10));
+        mix = Splitter.on(',').trimResults().withKeyValueSeparator(':')
+            .split(System.getProperty("dav.load.mix", "PUT:50,GET:40,DELETE:10"))
+            .entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> Integer.parseInt(entry.getValue())));
+    }
+
+    @Test
+    void crudLoadAtConstantArrivalRate() {
+        Instant start = Instant.now();
+        LatencyRecorder recorder = new OpenLoopLoadGenerator(LoadProfile.fromSystemProperties())
+            .run(this::nextOperation);
+        Instant end = Instant.now();
+
+        LOGGER.info("CalDAV CRUD open loop latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Of {} drawn operations, replaced by a PUT for lack of a known event: {}", draws.sum(),
+            substitutedDraws.isEmpty() ? "none" : substitutedDraws.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue().sum())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        // Acquire times and pending acquisitions tell a starved client pool apart from a slow server
+        dockerExtension().getDockerTwakeCalendarSetupSingleton().getConnectionPools().stats()
+            .forEach(stats -> LOGGER.info("HTTP connection pool {}", stats));
+        dockerExtension().getDockerTwakeCalendarSetupSingleton().getContainerStatsSampler()
+            .ifPresent(sampler -> sampler.awaitUsage(start, end)
+                .forEach((service, usage) -> LOGGER.info("Container {} during the load: {}", service, usage)));
+
+        assertThat(recorder.count(PUT, 201)).isPositive();
+    }
+
+    private LoadOperation nextOperation() {
+        String verb = pickVerb();
+        draws.increment();
+        if (verb.equals(GET)) {
+            EventRef event = knownEvents.poll();
+            if (event != null) {
+                return operation(GET, calDavClient.getCalendarEventReactive(event.owner(), event.uri()),
+                    status -> status == 200, event);
+            }
+        }
+        if (verb.equals(DELETE)) {
+            EventRef event = knownEvents.poll();
+            if (event != null) {
+                return operation(DELETE, calDavClient.deleteCalendarEventReactive(event.owner(), event.uri()),
+                    status -> false, event);
+            }
+        }
+        if (!verb.equals(PUT)) {
+            substitutedDraws.computeIfAbsent(verb, any -> new LongAdder()).increment();
+        }
+        OpenPaasUser owner = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        String eventUid = UUID.randomUUID().toString();
+        EventRef event = new EventRef(owner, CalendarURL.from(owner.id()).eventHref(eventUid));
+        return operation(PUT, calDavClient.upsertCalendarEventReactive(owner, event.uri(), calendarData(owner, eventUid)),
+            status -> status == 201 || status == 204, event);
+    }
+
+    private LoadOperation operation(String verb, Mono<?> call, IntPredicate keepEvent, EventRef event) {
+        return new LoadOperation() {
+            @Override
+            public String verb() {
+                return verb;
+            }
+
+            @Override
+            public Mono<Integer> execute() {
+                return ResponseStatusCapture.statusOf(call)
+                    .doOnNext(status -> {
+                        if (keepEvent.test(status)) {
+                            knownEvents.offer(event);
+                        }
+                    });
+            }
+        };
+    }
+
+    private String pickVerb() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int draw = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            draw -= entry.getValue();
+            if (draw < 0) {
+                return entry.getKey();
+            }
+        }
+        return PUT;
+    }
+
+    private String calendarData(OpenPaasUser organizer, String eventUid) {
+        int day = ThreadLocalRandom.current().nextInt(1, 29);
+        return """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Load//EN
+            BEGIN:VEVENT
+            UID:%s
+            DTSTAMP:20300101T000000Z
+            DTSTART:203004%02dT100000Z
+            DTEND:203004%02dT110000Z
+            SUMMARY:Load test event
+            ORGANIZER;CN=%s:mailto:%s
+            END:VEVENT
+            END:VCALENDAR
+            """.formatted(eventUid, day, day, organizer.firstname(), organizer.email());
+    }
+}
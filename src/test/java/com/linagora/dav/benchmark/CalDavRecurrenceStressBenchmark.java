@@ -0,0 +1,187 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static com.linagora.dav.benchmark.BenchmarkCalendars.DAV_DATE_TIME;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.instant;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.vcalendar;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.vevent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.ContainerStatsSampler;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.DockerTwakeCalendarSetup.DockerService;
+import com.linagora.dav.OpenPaasUser;
+import com.linagora.dav.benchmark.BenchmarkCalendars.TimeRange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Server cost of recurrence rules that are expensive to expand: latency of their PUT and of time-range REPORTs on the
+ * calendar holding them, along with the CPU used by the sabre container meanwhile.
+ *
+ * <p>Each {@link Rule} is PUT {@code dav.recurrence.iterations} times (default 3) in a calendar of its own, then each
+ * range of {@code dav.recurrence.ranges} (default {@code WEEK,YEAR}) is REPORTed as many times. A valid weekly series
+ * and an invalid rule (COUNT and UNTIL together) give the cost of a cheap accept and of a cheap reject to compare with.
+ * A rule rejected only after a long PUT, or accepted and then slow to REPORT, can tie up a PHP worker.
+ *
+ * <p>Requests are abandoned after {@code dav.recurrence.timeout} seconds (default 60) and recorded as
+ * {@code NO_RESPONSE}; the server may keep expanding after that, and its CPU spills over the next phases. CPU comes
+ * from docker stats sampled every second, so phases shorter than that are given the next sample.
+ */
+public abstract class CalDavRecurrenceStressBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavRecurrenceStressBenchmark.class);
+
+    private static final LocalDateTime FIRST_OCCURRENCE = LocalDateTime.of(2030, 1, 1, 9, 0);
+    private static final String PUT = "PUT";
+    private static final String REPORT = "REPORT";
+
+    enum Rule {
+        WEEKLY_COUNT_10("FREQ=WEEKLY;COUNT=10", 0, 0),
+        INVALID_COUNT_AND_UNTIL("FREQ=MINUTELY;COUNT=1000000;UNTIL=20800101T000000Z", 0, 0),
+        MINUTELY_UNBOUNDED("FREQ=MINUTELY", 0, 0),
+        SECONDLY_UNBOUNDED("FREQ=SECONDLY", 0, 0),
+        BYHOUR_BYMINUTE_BYSECOND_PRODUCT("FREQ=DAILY;BYHOUR=%s;BYMINUTE=%s;BYSECOND=%s"
+            .formatted(sequence(24), sequence(60), sequence(60)), 0, 0),
+        DAILY_50_YEARS("FREQ=DAILY;UNTIL=20800101T000000Z", 0, 0),
+        DAILY_2000_EXDATES("FREQ=DAILY;COUNT=5000", 2000, 0),
+        DAILY_2000_EXDATES_500_OVERRIDES("FREQ=DAILY;COUNT=5000", 2000, 500);
+
+        private final String rrule;
+        private final int exdates;
+        private final int overrides;
+
+        Rule(String rrule, int exdates, int overrides) {
+            this.rrule = rrule;
+            this.exdates = exdates;
+            this.overrides = overrides;
+        }
+
+        private static String sequence(int size) {
+            return IntStream.range(0, size)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(","));
+        }
+    }
+
+    private record Phase(String label, int lastStatus, Duration elapsed, Optional<ContainerStatsSampler.ServiceUsage> sabreUsage) {
+        String format() {
+            return "%-55s status=%-4d total=%-8d ms sabre %s".formatted(label, lastStatus, elapsed.toMillis(),
+                sabreUsage.map(usage -> "cpu avg=%.0f%% max=%.0f%% (%d samples)"
+                        .formatted(usage.averageCpuPercent(), usage.maxCpuPercent(), usage.samples()))
+                    .orElse("cpu unknown"));
+        }
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private int iterations;
+    private List<TimeRange> ranges;
+
+    @BeforeEach
+    void setUp() {
+        Duration timeout = Duration.ofSeconds(Integer.getInteger("dav.recurrence.timeout", 60));
+        calDavClient = new CalDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient().responseTimeout(timeout)));
+        iterations = Integer.getInteger("dav.recurrence.iterations", 3);
+        ranges = BenchmarkProperties.values("dav.recurrence.ranges", "WEEK,YEAR", TimeRange.class);
+    }
+
+    @Test
+    void pathologicalRecurrencesShouldNotTieUpTheServer() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<Phase> phases = new ArrayList<>();
+
+        for (Rule rule : Rule.values()) {
+            OpenPaasUser owner = dockerExtension().newTestUser();
+            CalendarURL calendarURL = CalendarURL.from(owner.id());
+            String eventUid = "recurrence-stress-" + rule.name().toLowerCase(Locale.US);
+            URI eventHref = calendarURL.eventHref(eventUid);
+            String calendarData = calendarData(owner, eventUid, rule);
+
+            phases.add(measure(recorder, PUT + " " + rule,
+                () -> calDavClient.upsertCalendarEventReactive(owner, eventHref, calendarData)));
+            for (TimeRange range : ranges) {
+                phases.add(measure(recorder, REPORT + " " + range + " " + rule,
+                    () -> calDavClient.reportCalendarItems(owner, calendarURL.asUri() + ".json", instant(range.start()), instant(range.end()))
+                        .then()));
+            }
+        }
+
+        LOGGER.info("Pathological recurrence latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Pathological recurrence server cost:{}{}", System.lineSeparator(), phases.stream()
+            .map(Phase::format)
+            .collect(Collectors.joining(System.lineSeparator())));
+
+        assertThat(recorder.count(PUT + " " + Rule.WEEKLY_COUNT_10, 201)).isPositive();
+        assertThat(recorder.count(PUT + " " + Rule.INVALID_COUNT_AND_UNTIL, 400)).isEqualTo((long) iterations);
+    }
+
+    private Phase measure(LatencyRecorder recorder, String label, Supplier<Mono<?>> call) {
+        Instant start = Instant.now();
+        long startNanos = System.nanoTime();
+        int status = LatencyRecorder.NO_RESPONSE;
+        for (int i = 0; i < iterations; i++) {
+            long callStartNanos = System.nanoTime();
+            status = ResponseStatusCapture.statusOf(call.get()).block();
+            recorder.record(label, status, Duration.ofNanos(System.nanoTime() - callStartNanos));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        Instant end = Instant.now();
+        return new Phase(label, status, elapsed, dockerExtension().getDockerTwakeCalendarSetupSingleton().getContainerStatsSampler()
+            .flatMap(sampler -> Optional.ofNullable(sampler.awaitUsage(start, end).get(DockerService.SABRE_DAV.serviceName()))));
+    }
+
+    /**
+     * EXDATEs remove every other day from the first occurrence on, overrides move the occurrences in between by an hour.
+     */
+    private String calendarData(OpenPaasUser organizer, String eventUid, Rule rule) {
+        String exdates = IntStream.range(0, rule.exdates)
+            .mapToObj(i -> "EXDATE:" + DAV_DATE_TIME.format(FIRST_OCCURRENCE.plusDays(2L * i)) + "Z\n")
+            .collect(Collectors.joining());
+        String master = vevent(organizer, eventUid, FIRST_OCCURRENCE, "RRULE:" + rule.rrule + "\n" + exdates, "Recurrence stress " + rule);
+        String overrides = IntStream.range(0, rule.overrides)
+            .mapToObj(i -> {
+                LocalDateTime recurrenceId = FIRST_OCCURRENCE.plusDays(2L * i + 1);
+                return vevent(organizer, eventUid, recurrenceId.plusHours(1),
+                    "RECURRENCE-ID:" + DAV_DATE_TIME.format(recurrenceId) + "Z\n", "Recurrence stress " + rule + " moved");
+            })
+            .collect(Collectors.joining());
+        return vcalendar(master + overrides);
+    }
+}
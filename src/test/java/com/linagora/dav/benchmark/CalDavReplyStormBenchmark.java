@@ -0,0 +1,214 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static com.linagora.dav.benchmark.BenchmarkCalendars.invitation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.CalendarUtil;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.ITIPJsonBodyRequest;
+import com.linagora.dav.OpenPaasUser;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.parameter.PartStat;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Attendees of a single event all accepting it at the same moment, which makes the organizer object a write hotspot.
+ *
+ * <p>An organizer invites {@code dav.replyStorm.attendees} attendees (default 200). Once every attendee holds a copy,
+ * all of them accept at once, with at most {@code dav.replyStorm.concurrency} requests in flight (default: all of
+ * them), in two ways on two distinct events: a PUT of their own copy, as CalDAV clients do, and an iTIP REPLY
+ * delivered to the organizer calendar, as the mail side does.
+ *
+ * <p>Each storm reports the latency and status of the replies, their throughput, the delay until the organizer object
+ * shows every attendee as accepted, and the replies lost in the organizer object when it has not settled after
+ * {@code dav.replyStorm.timeout} seconds (default 120). Conflicts show up as 409 or 412 statuses.
+ */
+public abstract class CalDavReplyStormBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavReplyStormBenchmark.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+    private static final int PREPARE_CONCURRENCY = 16;
+    private static final String SUMMARY = "All hands";
+
+    enum ReplyPath {
+        ATTENDEE_PUT,
+        ITIP_REPLY
+    }
+
+    private record Reply(OpenPaasUser attendee, Mono<?> call) {
+    }
+
+    private record Storm(ReplyPath path, int replies, Duration elapsed, Optional<Duration> settledAfter, long lostUpdates,
+                         long conflicts) {
+        double throughput() {
+            return replies * 1000.0 / Math.max(elapsed.toMillis(), 1);
+        }
+
+        String format() {
+            return "%-12s replies=%d in %d ms (%.1f/s) conflicts=%d organizer copy %s".formatted(path, replies,
+                elapsed.toMillis(), throughput(), conflicts,
+                settledAfter.map(delay -> "settled after " + delay.toMillis() + " ms")
+                    .orElse("not settled, lost updates=" + lostUpdates));
+        }
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private int attendeeCount;
+    private int concurrency;
+    private Duration timeout;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient()));
+        attendeeCount = Integer.getInteger("dav.replyStorm.attendees", 200);
+        concurrency = Integer.getInteger("dav.replyStorm.concurrency", attendeeCount);
+        timeout = Duration.ofSeconds(Integer.getInteger("dav.replyStorm.timeout", 120));
+    }
+
+    @Test
+    void simultaneousRepliesShouldAllBeAppliedToTheOrganizerEvent() {
+        OpenPaasUser organizer = dockerExtension().newTestUser();
+        List<OpenPaasUser> attendees = dockerExtension().newTestUsers(attendeeCount);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        List<Storm> storms = Stream.of(ReplyPath.values())
+            .map(path -> storm(recorder, path, organizer, attendees))
+            .toList();
+
+        LOGGER.info("Reply storm latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Reply storm summary:{}{}", System.lineSeparator(), storms.stream()
+            .map(Storm::format)
+            .collect(Collectors.joining(System.lineSeparator())));
+
+        assertThat(recorder.count(ReplyPath.ITIP_REPLY.name(), 204) + recorder.count(ReplyPath.ATTENDEE_PUT.name(), 204)).isPositive();
+    }
+
+    private Storm storm(LatencyRecorder recorder, ReplyPath path, OpenPaasUser organizer, List<OpenPaasUser> attendees) {
+        String eventUid = "reply-storm-" + UUID.randomUUID();
+        URI organizerEventHref = CalendarURL.from(organizer.id()).eventHref(eventUid);
+        String invitation = invitation(organizer, attendees, eventUid, "", SUMMARY);
+        calDavClient.upsertCalendarEvent(organizer, organizerEventHref, invitation);
+
+        // Every reply is ready before the first one is sent, so that they all hit the organizer object together, and only
+        // once the invitation reached every attendee, so that replies do not race with its fan-out
+        Function<OpenPaasUser, Mono<Reply>> prepare = switch (path) {
+            case ATTENDEE_PUT -> attendee -> acceptingPut(attendee, eventUid);
+            case ITIP_REPLY -> attendee -> awaitCopy(attendee, eventUid)
+                .map(any -> new Reply(attendee, calDavClient.sendITIPRequest(organizer, URI.create("/calendars/" + organizer.id()),
+                    acceptingReply(organizer, attendee, eventUid))));
+        };
+        List<Reply> replies = Flux.fromIterable(attendees)
+            .flatMap(prepare, PREPARE_CONCURRENCY)
+            .collectList()
+            .block();
+
+        long startNanos = System.nanoTime();
+        List<Integer> statuses = Flux.fromIterable(replies)
+            .flatMap(reply -> {
+                long replyStartNanos = System.nanoTime();
+                return ResponseStatusCapture.statusOf(reply.call())
+                    .doOnNext(status -> recorder.record(path.name(), status, Duration.ofNanos(System.nanoTime() - replyStartNanos)));
+            }, concurrency)
+            .collectList()
+            .block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        long lostUpdates = attendees.size();
+        long deadline = startNanos + timeout.toNanos();
+        Optional<Duration> settledAfter = Optional.empty();
+        while (System.nanoTime() < deadline) {
+            Calendar organizerCopy = CalendarUtil.parseIcs(calDavClient.getCalendarEvent(organizer, organizerEventHref));
+            lostUpdates = attendees.stream()
+                .filter(attendee -> !PartStat.ACCEPTED.equals(CalendarUtil.getAttendeePartStat(organizerCopy, attendee.email())))
+                .count();
+            if (lostUpdates == 0) {
+                settledAfter = Optional.of(Duration.ofNanos(System.nanoTime() - startNanos));
+                break;
+            }
+            Mono.delay(POLL_INTERVAL).block();
+        }
+
+        long conflicts = statuses.stream()
+            .filter(status -> status == 409 || status == 412)
+            .count();
+        return new Storm(path, replies.size(), elapsed, settledAfter, lostUpdates, conflicts);
+    }
+
+    private Mono<Reply> acceptingPut(OpenPaasUser attendee, String eventUid) {
+        return awaitCopy(attendee, eventUid)
+            .flatMap(copyUri -> calDavClient.getCalendarObjectReactive(attendee, copyUri)
+                // The copy fetched beforehand is sent as If-Match: a concurrent update of the copy is reported as a 412
+                .map(copy -> new Reply(attendee, calDavClient.updateCalendarEventReactive(attendee, copyUri,
+                    CalendarUtil.withAttendeePartStat(copy.calendarData(), attendee.email(), PartStat.ACCEPTED), copy.etag()))));
+    }
+
+    private Mono<URI> awaitCopy(OpenPaasUser attendee, String eventUid) {
+        return Mono.defer(() -> calDavClient.findUserCalendarObjectUrisByEventUid(attendee, CalendarURL.from(attendee.id()), eventUid).next())
+            .repeatWhenEmpty(attempts -> attempts.delayElements(POLL_INTERVAL))
+            .timeout(timeout);
+    }
+
+    private String acceptingReply(OpenPaasUser organizer, OpenPaasUser attendee, String eventUid) {
+        String reply = """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Benchmark//EN
+            METHOD:REPLY
+            BEGIN:VEVENT
+            UID:%s
+            DTSTAMP:20351003T080500Z
+            DTSTART:20351005T090000Z
+            DTEND:20351005T100000Z
+            SUMMARY:%s
+            ORGANIZER:mailto:%s
+            ATTENDEE;PARTSTAT=ACCEPTED:mailto:%s
+            END:VEVENT
+            END:VCALENDAR
+            """.formatted(eventUid, SUMMARY, organizer.email(), attendee.email());
+        return ITIPJsonBodyRequest.builder()
+            .ical(reply)
+            .sender(attendee.email())
+            .recipient(organizer.email())
+            .uid(eventUid)
+            .method("REPLY")
+            .buildJson();
+    }
+}
@@ -0,0 +1,188 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static com.linagora.dav.benchmark.BenchmarkCalendars.invitation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.JsonCalendarData;
+import com.linagora.dav.JsonCalendarEventData;
+import com.linagora.dav.OpenPaasUser;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * iTIP fan-out of an organizer change to internal attendees, as a function of the number of attendees.
+ *
+ * <p>For each size of {@code dav.fanout.sizes} (default {@code 10,100,500,2000}), an organizer creates an event
+ * inviting that many attendees, updates its summary, then deletes it. Each change reports the latency of the organizer
+ * request, then the time from the start of that request until each attendee calendar holds the right copy: the event,
+ * the new summary, then the event with a {@code CANCELLED} status.
+ *
+ * <p>Attendee calendars are checked with time-range REPORTs, {@code dav.fanout.checkConcurrency} at a time (default 32),
+ * every {@code dav.fanout.pollInterval} milliseconds (default 200) until all copies are up to date. Checks add load to
+ * the server being measured: keep the concurrency low for the large sizes. Copies still stale after
+ * {@code dav.fanout.timeout} seconds (default 300) are reported as {@code NO_RESPONSE}.
+ */
+public abstract class CalDavSchedulingFanOutBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavSchedulingFanOutBenchmark.class);
+
+    private static final Instant EVENT_DAY_START = Instant.parse("2035-10-05T00:00:00Z");
+    private static final Instant EVENT_DAY_END = Instant.parse("2035-10-06T00:00:00Z");
+    private static final String SUMMARY = "Department meeting";
+    private static final String UPDATED_SUMMARY = "Department meeting, new agenda";
+    private static final String CANCELLED = "CANCELLED";
+
+    enum Change {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private record Propagation(String label, int organizerStatus, Duration organizerLatency, Duration lastCopy, int missingCopies) {
+        String format() {
+            return "%-16s organizer status=%-4d latency=%-7d ms last attendee copy after %-8d ms missing=%d".formatted(label,
+                organizerStatus, organizerLatency.toMillis(), lastCopy.toMillis(), missingCopies);
+        }
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private List<Integer> sizes;
+    private int checkConcurrency;
+    private Duration pollInterval;
+    private Duration timeout;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient()));
+        sizes = BenchmarkProperties.integers("dav.fanout.sizes", "10,100,500,2000");
+        checkConcurrency = Integer.getInteger("dav.fanout.checkConcurrency", 32);
+        pollInterval = Duration.ofMillis(Integer.getInteger("dav.fanout.pollInterval", 200));
+        timeout = Duration.ofSeconds(Integer.getInteger("dav.fanout.timeout", 300));
+    }
+
+    @Test
+    void organizerChangesShouldReachEveryAttendee() {
+        // Attendees are shared by all sizes: copies are told apart by the event UID
+        List<OpenPaasUser> invitees = dockerExtension().newTestUsers(Collections.max(sizes));
+        LatencyRecorder organizerLatencies = new LatencyRecorder();
+        LatencyRecorder copyLatencies = new LatencyRecorder();
+        List<Propagation> propagations = new ArrayList<>();
+
+        for (int size : sizes) {
+            OpenPaasUser organizer = dockerExtension().newTestUser();
+            List<OpenPaasUser> attendees = invitees.subList(0, size);
+            String eventUid = "fan-out-" + UUID.randomUUID();
+            URI eventHref = CalendarURL.from(organizer.id()).eventHref(eventUid);
+
+            propagations.add(propagate(Change.CREATE, attendees, eventUid, organizerLatencies, copyLatencies,
+                () -> calDavClient.upsertCalendarEventReactive(organizer, eventHref, calendarData(organizer, attendees, eventUid, 0, SUMMARY)),
+                copy -> true));
+            propagations.add(propagate(Change.UPDATE, attendees, eventUid, organizerLatencies, copyLatencies,
+                () -> calDavClient.upsertCalendarEventReactive(organizer, eventHref, calendarData(organizer, attendees, eventUid, 1, UPDATED_SUMMARY)),
+                copy -> copy.summary().filter(UPDATED_SUMMARY::equals).isPresent()));
+            propagations.add(propagate(Change.DELETE, attendees, eventUid, organizerLatencies, copyLatencies,
+                () -> calDavClient.deleteCalendarEventReactive(organizer, eventHref),
+                copy -> copy.status().filter(CANCELLED::equals).isPresent()));
+        }
+
+        LOGGER.info("Scheduling fan-out organizer latencies:{}{}", System.lineSeparator(), organizerLatencies.report());
+        LOGGER.info("Scheduling fan-out delay until each attendee copy is up to date:{}{}", System.lineSeparator(), copyLatencies.report());
+        LOGGER.info("Scheduling fan-out summary:{}{}", System.lineSeparator(), propagations.stream()
+            .map(Propagation::format)
+            .collect(Collectors.joining(System.lineSeparator())));
+
+        assertThat(organizerLatencies.count(label(Change.CREATE, sizes.getFirst()), 201)).isOne();
+    }
+
+    private Propagation propagate(Change change, List<OpenPaasUser> attendees, String eventUid,
+                                  LatencyRecorder organizerLatencies, LatencyRecorder copyLatencies,
+                                  Supplier<Mono<?>> organizerCall, Predicate<JsonCalendarEventData> isUpToDate) {
+        String label = label(change, attendees.size());
+        long startNanos = System.nanoTime();
+        int status = ResponseStatusCapture.statusOf(organizerCall.get()).block();
+        Duration organizerLatency = Duration.ofNanos(System.nanoTime() - startNanos);
+        organizerLatencies.record(label, status, organizerLatency);
+
+        Set<OpenPaasUser> pending = ConcurrentHashMap.newKeySet();
+        pending.addAll(attendees);
+        AtomicLong lastCopyNanos = new AtomicLong(startNanos);
+        long deadline = startNanos + timeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Flux.fromIterable(List.copyOf(pending))
+                .flatMap(attendee -> holdsUpToDateCopy(attendee, eventUid, isUpToDate)
+                    .filter(upToDate -> upToDate)
+                    .doOnNext(any -> {
+                        long nowNanos = System.nanoTime();
+                        pending.remove(attendee);
+                        lastCopyNanos.accumulateAndGet(nowNanos, Math::max);
+                        copyLatencies.record(label, 200, Duration.ofNanos(nowNanos - startNanos));
+                    }), checkConcurrency)
+                .then()
+                .block();
+            if (!pending.isEmpty()) {
+                Mono.delay(pollInterval).block();
+            }
+        }
+        pending.forEach(attendee -> copyLatencies.record(label, LatencyRecorder.NO_RESPONSE, timeout));
+        return new Propagation(label, status, organizerLatency, Duration.ofNanos(lastCopyNanos.get() - startNanos), pending.size());
+    }
+
+    private Mono<Boolean> holdsUpToDateCopy(OpenPaasUser attendee, String eventUid, Predicate<JsonCalendarEventData> isUpToDate) {
+        return calDavClient.reportCalendarItems(attendee, CalendarURL.from(attendee.id()).asUri() + ".json", EVENT_DAY_START, EVENT_DAY_END)
+            .concatMapIterable(JsonCalendarData.DavItem::events)
+            .filter(event -> event.uid().equals(eventUid))
+            .any(isUpToDate)
+            // Failed checks are retried on the next round
+            .onErrorReturn(false);
+    }
+
+    private static String label(Change change, int attendees) {
+        return change + " n=" + attendees;
+    }
+
+    private String calendarData(OpenPaasUser organizer, List<OpenPaasUser> attendees, String eventUid, int sequence, String summary) {
+        return invitation(organizer, attendees, eventUid, "SEQUENCE:" + sequence + "\n", summary);
+    }
+}
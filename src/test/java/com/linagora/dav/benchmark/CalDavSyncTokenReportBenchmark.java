@@ -0,0 +1,197 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.DavResponse;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.JsonCalendarData;
+import com.linagora.dav.OpenPaasUser;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Incremental sync REPORT ({@code sync-token}) latency and response size, as a function of the calendar size and
+ * of the number of changes since the token.
+ *
+ * <p>Calendar sizes are given by {@code dav.sync.sizes} (default {@code 1000,10000,100000}), the numbers of changes
+ * by {@code dav.sync.changes} (default {@code 0,1,10,100,1000}) and the number of REPORTs measured per combination by
+ * {@code dav.sync.iterations}. Calendars are filled with {@code dav.sync.fillConcurrency} concurrent PUTs.
+ */
+public abstract class CalDavSyncTokenReportBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavSyncTokenReportBenchmark.class);
+
+    // An empty token asks for every object of the calendar (RFC 6578 initial synchronization)
+    private static final String INITIAL_SYNC_TOKEN = "";
+
+    private record Scenario(int calendarSize, boolean initial, int changes) {
+        static Scenario initial(int calendarSize) {
+            return new Scenario(calendarSize, true, calendarSize);
+        }
+
+        static Scenario incremental(int calendarSize, int changes) {
+            return new Scenario(calendarSize, false, changes);
+        }
+
+        String label() {
+            if (initial) {
+                return "sync size=%d initial".formatted(calendarSize);
+            }
+            return "sync size=%d changes=%d".formatted(calendarSize, changes);
+        }
+    }
+
+    private record Measurement(int items, long responseBytes) {
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private List<Integer> calendarSizes;
+    private List<Integer> changeCounts;
+    private int iterations;
+    private int fillConcurrency;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(dockerExtension().davHttpClient());
+        calendarSizes = BenchmarkProperties.integers("dav.sync.sizes", "1000,10000,100000");
+        changeCounts = BenchmarkProperties.integers("dav.sync.changes", "0,1,10,100,1000");
+        iterations = Integer.getInteger("dav.sync.iterations", 20);
+        fillConcurrency = Integer.getInteger("dav.sync.fillConcurrency", 16);
+    }
+
+    @Test
+    void syncTokenReportShouldScaleWithCalendarSizeAndChanges() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Map<Scenario, Measurement> measurements = new LinkedHashMap<>();
+
+        for (int calendarSize : calendarSizes) {
+            OpenPaasUser owner = dockerExtension().newTestUser();
+            CalendarURL calendarURL = CalendarURL.from(owner.id());
+            List<URI> events = fill(owner, calendarURL, calendarSize);
+
+            // Initial sync, as done by a client discovering the calendar
+            DavResponse initialSync = measure(recorder, measurements, Scenario.initial(calendarSize), owner, calendarURL, INITIAL_SYNC_TOKEN, 1);
+            JsonCalendarData initialResult = parse(initialSync);
+            assertThat(initialResult.items()).hasSize(calendarSize);
+            String syncToken = initialResult.syncToken();
+
+            int revision = 0;
+            for (int changes : changeCounts) {
+                revision++;
+                update(owner, events, changes, revision);
+
+                DavResponse response = measure(recorder, measurements, Scenario.incremental(calendarSize, changes), owner, calendarURL, syncToken, iterations);
+                JsonCalendarData result = parse(response);
+                assertThat(result.items()).hasSize(Math.min(changes, calendarSize));
+                syncToken = result.syncToken();
+            }
+        }
+
+        LOGGER.info("Sync token REPORT latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Sync token REPORT response sizes:{}{}", System.lineSeparator(), measurements.entrySet().stream()
+            .map(entry -> "%-40s items=%-8d bytes=%d".formatted(entry.getKey().label(), entry.getValue().items(), entry.getValue().responseBytes()))
+            .collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    private DavResponse measure(LatencyRecorder recorder, Map<Scenario, Measurement> measurements, Scenario scenario,
+                                OpenPaasUser owner, CalendarURL calendarURL, String syncToken, int times) {
+        DavResponse response = null;
+        for (int i = 0; i < times; i++) {
+            long start = System.nanoTime();
+            response = calDavClient.findEventsBySyncToken(owner, calendarURL, syncToken);
+            recorder.record(scenario.label(), response.status(), Duration.ofNanos(System.nanoTime() - start));
+        }
+        assertThat(response.status()).isBetween(200, 299);
+        measurements.put(scenario, new Measurement(parse(response).items().size(), response.body().getBytes(StandardCharsets.UTF_8).length));
+        return response;
+    }
+
+    private List<URI> fill(OpenPaasUser owner, CalendarURL calendarURL, int calendarSize) {
+        long start = System.nanoTime();
+        List<URI> events = Flux.range(0, calendarSize)
+            .flatMapSequential(i -> {
+                String eventUid = "sync-benchmark-" + i;
+                URI eventUri = calendarURL.eventHref(eventUid);
+                return calDavClient.upsertCalendarEventReactive(owner, eventUri, calendarData(owner, eventUid, i, 0))
+                    .thenReturn(eventUri);
+            }, fillConcurrency)
+            .collect(Collectors.toCollection(ArrayList::new))
+            .block();
+        LOGGER.info("Filled calendar of {} with {} events in {} ms", owner.email(), calendarSize, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return events;
+    }
+
+    private void update(OpenPaasUser owner, List<URI> events, int changes, int revision) {
+        Flux.range(0, Math.min(changes, events.size()))
+            .flatMap(i -> {
+                URI eventUri = events.get(i);
+                String eventUid = "sync-benchmark-" + i;
+                return calDavClient.upsertCalendarEventReactive(owner, eventUri, calendarData(owner, eventUid, i, revision));
+            }, fillConcurrency)
+            .then()
+            .block();
+    }
+
+    private JsonCalendarData parse(DavResponse response) {
+        try {
+            return JsonCalendarData.from(response.body());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse sync REPORT response", e);
+        }
+    }
+
+    private String calendarData(OpenPaasUser organizer, String eventUid, int index, int revision) {
+        int day = index % 28 + 1;
+        int hour = index % 10 + 8;
+        return """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Benchmark//EN
+            BEGIN:VEVENT
+            UID:%s
+            DTSTAMP:20300101T000000Z
+            DTSTART:203004%02dT%02d0000Z
+            DTEND:203004%02dT%02d3000Z
+            SEQUENCE:%d
+            SUMMARY:Sync benchmark event %d revision %d
+            ORGANIZER;CN=%s:mailto:%s
+            END:VEVENT
+            END:VCALENDAR
+            """.formatted(eventUid, day, hour, day, hour, revision, index, revision, organizer.firstname(), organizer.email());
+    }
+}
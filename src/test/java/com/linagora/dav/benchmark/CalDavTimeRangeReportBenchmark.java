@@ -0,0 +1,241 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static com.linagora.dav.benchmark.BenchmarkCalendars.DAV_DATE_TIME;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.instant;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.vcalendar;
+import static com.linagora.dav.benchmark.BenchmarkCalendars.vevent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.DavResponse;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.DockerTwakeCalendarSetup;
+import com.linagora.dav.JsonCalendarData;
+import com.linagora.dav.MongoSnapshotFixtures;
+import com.linagora.dav.OpenPaasUser;
+import com.linagora.dav.TwakeCalendarProvisioningService;
+import com.linagora.dav.benchmark.BenchmarkCalendars.TimeRange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Time-range REPORT latency and response size, as done by every calendar view of the web client, as a function of the
+ * calendar size, of the share of recurring events and of the width of the range.
+ *
+ * <p>Calendars are filled with events spread over 2030, for each mix: single events only, 10% of weekly recurring
+ * events, and 50% of weekly recurring events with two overridden occurrences each. Week, month and year ranges are
+ * then each REPORTed {@code dav.timeRange.iterations} times (default 20).
+ *
+ * <p>Calendar sizes are given by {@code dav.timeRange.sizes} (default {@code 100,1000,10000}). Calendars are filled
+ * with {@code dav.timeRange.fillConcurrency} concurrent PUTs, then dumped with {@link MongoSnapshotFixtures}: later
+ * runs with the same sizes restore them instead, replacing every user and calendar of the stack.
+ */
+public abstract class CalDavTimeRangeReportBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalDavTimeRangeReportBenchmark.class);
+
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int OVERRIDDEN_WEEKS_1 = 1;
+    private static final int OVERRIDDEN_WEEKS_2 = 4;
+    // Calendar data derives from the event index only
+    private static final long DATASET_SEED = 0;
+    private static final List<TimeRange> RANGES = List.of(TimeRange.WEEK, TimeRange.MONTH, TimeRange.YEAR);
+
+    enum Mix {
+        SINGLE(0, false),
+        RECURRING_10(10, false),
+        RECURRING_50_WITH_OVERRIDES(50, true);
+
+        private final int recurringPercent;
+        private final boolean overrides;
+
+        Mix(int recurringPercent, boolean overrides) {
+            this.recurringPercent = recurringPercent;
+            this.overrides = overrides;
+        }
+
+        boolean isRecurring(int index) {
+            return index % 100 < recurringPercent;
+        }
+    }
+
+    private record Scenario(Mix mix, int calendarSize, TimeRange range) {
+        String label() {
+            return "range %s size=%d %s".formatted(range, calendarSize, mix);
+        }
+    }
+
+    private record Measurement(int items, long responseBytes) {
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private CalDavClient calDavClient;
+    private List<Integer> calendarSizes;
+    private int iterations;
+    private int fillConcurrency;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(dockerExtension().davHttpClient());
+        calendarSizes = BenchmarkProperties.integers("dav.timeRange.sizes", "100,1000,10000");
+        iterations = Integer.getInteger("dav.timeRange.iterations", 20);
+        fillConcurrency = Integer.getInteger("dav.timeRange.fillConcurrency", 16);
+    }
+
+    @Test
+    void timeRangeReportShouldScaleWithCalendarSizeAndRecurrences() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Map<Scenario, Measurement> measurements = new LinkedHashMap<>();
+        Map<String, OpenPaasUser> owners = loadCalendars();
+
+        for (Mix mix : Mix.values()) {
+            for (int calendarSize : calendarSizes) {
+                OpenPaasUser owner = owners.get(ownerLocalPart(mix, calendarSize));
+                CalendarURL calendarURL = CalendarURL.from(owner.id());
+
+                for (TimeRange range : RANGES) {
+                    Scenario scenario = new Scenario(mix, calendarSize, range);
+                    measurements.put(scenario, measure(recorder, scenario, owner, calendarURL));
+                }
+            }
+        }
+
+        LOGGER.info("Time-range REPORT latencies:{}{}", System.lineSeparator(), recorder.report());
+        LOGGER.info("Time-range REPORT response sizes:{}{}", System.lineSeparator(), measurements.entrySet().stream()
+            .map(entry -> "%-60s items=%-8d bytes=%d".formatted(entry.getKey().label(), entry.getValue().items(), entry.getValue().responseBytes()))
+            .collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    private Measurement measure(LatencyRecorder recorder, Scenario scenario, OpenPaasUser owner, CalendarURL calendarURL) {
+        String start = DAV_DATE_TIME.format(scenario.range().start());
+        String end = DAV_DATE_TIME.format(scenario.range().end());
+        DavResponse response = null;
+        for (int i = 0; i < iterations; i++) {
+            long startNanos = System.nanoTime();
+            response = calDavClient.findEventsByTime(owner, calendarURL, start, end);
+            recorder.record(scenario.label(), response.status(), Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+        assertThat(response.status()).isBetween(200, 299);
+
+        int items = parse(response).items().size();
+        // Same REPORT through the streaming client API
+        Long reportedItems = calDavClient.reportCalendarEvents(owner, calendarURL.asUri() + ".json",
+                instant(scenario.range().start()), instant(scenario.range().end()))
+            .count()
+            .block();
+        assertThat(reportedItems).isEqualTo(items);
+        return new Measurement(items, response.body().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * @return users of the stack by email local part, including the owners of the filled calendars
+     */
+    private Map<String, OpenPaasUser> loadCalendars() {
+        DockerTwakeCalendarSetup setup = dockerExtension().getDockerTwakeCalendarSetupSingleton();
+        String dataset = "time-range-" + calendarSizes.stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining("_"));
+        MongoSnapshotFixtures.Snapshot snapshot = MongoSnapshotFixtures.fromSystemProperties(setup)
+            .load(dataset, DATASET_SEED, (stack, random) -> Mono.fromRunnable(() -> fillCalendars(stack.getTwakeCalendarProvisioningService())));
+        // Compare the GENERATED and RESTORED durations of two runs to tell what the snapshot saves
+        LOGGER.info("Time-range calendars {} in {} ms", snapshot.origin(), snapshot.duration().toMillis());
+
+        return setup.getTwakeCalendarProvisioningService().users()
+            .collectMap(user -> StringUtils.substringBefore(user.email(), "@"))
+            .block();
+    }
+
+    private void fillCalendars(TwakeCalendarProvisioningService provisioningService) {
+        for (Mix mix : Mix.values()) {
+            for (int calendarSize : calendarSizes) {
+                OpenPaasUser owner = provisioningService.createUsers(Flux.just(ownerLocalPart(mix, calendarSize))).blockLast();
+                fill(owner, CalendarURL.from(owner.id()), mix, calendarSize);
+            }
+        }
+    }
+
+    private static String ownerLocalPart(Mix mix, int calendarSize) {
+        return "time_range_" + mix.name().toLowerCase(Locale.US) + "_" + calendarSize;
+    }
+
+    private void fill(OpenPaasUser owner, CalendarURL calendarURL, Mix mix, int calendarSize) {
+        long start = System.nanoTime();
+        Flux.range(0, calendarSize)
+            .flatMap(i -> {
+                String eventUid = "time-range-benchmark-" + i;
+                return calDavClient.upsertCalendarEventReactive(owner, calendarURL.eventHref(eventUid), calendarData(owner, eventUid, mix, i));
+            }, fillConcurrency)
+            .then()
+            .block();
+        LOGGER.info("Filled calendar of {} with {} events ({}) in {} ms", owner.email(), calendarSize, mix,
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private JsonCalendarData parse(DavResponse response) {
+        try {
+            return JsonCalendarData.from(response.body());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse time-range REPORT response", e);
+        }
+    }
+
+    /**
+     * Events start on each day of 2030 in turn, between 8:00 and 17:00. Recurring ones repeat weekly without end.
+     */
+    private String calendarData(OpenPaasUser organizer, String eventUid, Mix mix, int index) {
+        LocalDateTime start = FIRST_DAY.plusDays(index % 365).plusHours(8 + index % 10);
+        String master = vevent(organizer, eventUid, start, "", "Time range benchmark event " + index);
+        if (!mix.isRecurring(index)) {
+            return vcalendar(master);
+        }
+        String recurringMaster = master.replace("END:VEVENT", "RRULE:FREQ=WEEKLY\nEND:VEVENT");
+        if (!mix.overrides) {
+            return vcalendar(recurringMaster);
+        }
+        return vcalendar(recurringMaster
+            + override(organizer, eventUid, start, OVERRIDDEN_WEEKS_1, index)
+            + override(organizer, eventUid, start, OVERRIDDEN_WEEKS_2, index));
+    }
+
+    private String override(OpenPaasUser organizer, String eventUid, LocalDateTime masterStart, int weeks, int index) {
+        LocalDateTime recurrenceId = masterStart.plusWeeks(weeks);
+        return vevent(organizer, eventUid, recurrenceId.plusHours(1),
+            "RECURRENCE-ID:" + DAV_DATE_TIME.format(recurrenceId) + "Z\n",
+            "Time range benchmark event " + index + " moved");
+    }
+}
@@ -0,0 +1,439 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.linagora.dav.AmqpEventBus;
+import com.linagora.dav.CalDavClient;
+import com.linagora.dav.CalendarURL;
+import com.linagora.dav.CardDavClient;
+import com.linagora.dav.DockerTwakeCalendarExtension;
+import com.linagora.dav.ITIPJsonBodyRequest;
+import com.linagora.dav.OpenPaaSResource;
+import com.linagora.dav.OpenPaasUser;
+import com.linagora.dav.benchmark.OpenLoopLoadGenerator.LoadOperation;
+import com.linagora.dav.benchmark.OpenLoopLoadGenerator.LoadProfile;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Lag between the response to a DAV write and the delivery of each AMQP message it triggers, under increasing write
+ * load: search indexing, alarms, scheduling, resources and contacts all consume these messages.
+ *
+ * <p>Writes cycle through event creation (with an alarm, an attendee and a resource), update and deletion, iTIP
+ * REQUEST and CANCEL, and contact creation, update and deletion. Each write subscribes to the messages of its own
+ * event or contact on the {@link AmqpEventBus} before being sent; the lag of each expected exchange is recorded from
+ * the response, or as zero when the message came first. Messages not received within {@code dav.propagation.timeout}
+ * seconds (default 30) are reported as {@code NO_RESPONSE}.
+ *
+ * <p>Writes run at each rate of {@code dav.propagation.rates} (default {@code 5,20,50} writes per second) during
+ * {@code dav.propagation.duration} seconds (default 30), spread over {@code dav.propagation.users} organizers (default
+ * 10). Updates, deletions and cancellations drawn while no event or contact is available are replaced by a creation;
+ * their count is logged, as they skew the mix of writes.
+ */
+public abstract class DavAmqpPropagationBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DavAmqpPropagationBenchmark.class);
+
+    private static final String ADDRESS_BOOK = "collected";
+    private static final int MAX_IN_FLIGHT = 256;
+
+    enum WriteKind {
+        CREATE_EVENT("calendar:event:created", "calendar:event:alarm:created", "resource:calendar:event:created"),
+        UPDATE_EVENT("calendar:event:updated", "calendar:event:alarm:updated"),
+        DELETE_EVENT("calendar:event:deleted", "calendar:event:alarm:deleted"),
+        ITIP_REQUEST("calendar:event:request", "calendar:event:updated"),
+        ITIP_CANCEL("calendar:event:cancel", "calendar:event:deleted"),
+        CREATE_CONTACT("sabre:contact:created"),
+        UPDATE_CONTACT("sabre:contact:updated"),
+        DELETE_CONTACT("sabre:contact:deleted");
+
+        private final Set<String> exchanges;
+
+        WriteKind(String... exchanges) {
+            this.exchanges = Set.of(exchanges);
+        }
+    }
+
+    private record Organizer(OpenPaasUser user, OpenPaasUser attendee, OpenPaaSResource resource) {
+    }
+
+    private record EventRef(Organizer organizer, String uid, int sequence) {
+        URI uri() {
+            return CalendarURL.from(organizer.user().id()).eventHref(uid);
+        }
+
+        EventRef next() {
+            return new EventRef(organizer, uid, sequence + 1);
+        }
+    }
+
+    private record ContactRef(OpenPaasUser owner, String uid, int revision) {
+        String path() {
+            return "/addressbooks/%s/%s/%s.vcf".formatted(owner.id(), ADDRESS_BOOK, uid);
+        }
+
+        ContactRef next() {
+            return new ContactRef(owner, uid, revision + 1);
+        }
+    }
+
+    /**
+     * A write and the messages it is waiting for. Callbacks come from the HTTP client, the AMQP consumers and the
+     * timeout timer, hence the synchronization.
+     */
+    private final class PendingWrite implements AmqpEventBus.DeliveryListener {
+        private final int rate;
+        private final WriteKind kind;
+        private final Runnable onSuccess;
+        private final Map<String, Long> arrivals = new HashMap<>();
+        private AmqpEventBus.Subscription subscription;
+        private long respondedAt = -1;
+        private int recorded;
+        private boolean done;
+
+        private PendingWrite(int rate, WriteKind kind, Runnable onSuccess) {
+            this.rate = rate;
+            this.kind = kind;
+            this.onSuccess = onSuccess;
+            pendingWrites.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void onDelivery(String exchange, JsonNode message) {
+            if (done || !kind.exchanges.contains(exchange) || arrivals.containsKey(exchange)) {
+                return;
+            }
+            long now = System.nanoTime();
+            arrivals.put(exchange, now);
+            if (respondedAt >= 0) {
+                record(exchange, now);
+            }
+        }
+
+        synchronized void onResponse(int status) {
+            if (status < 200 || status >= 300) {
+                finish(false);
+                return;
+            }
+            respondedAt = System.nanoTime();
+            arrivals.forEach(this::record);
+            if (!done) {
+                Mono.delay(timeout).subscribe(any -> expire());
+            }
+        }
+
+        synchronized void expire() {
+            if (done) {
+                return;
+            }
+            kind.exchanges.stream()
+                .filter(exchange -> !arrivals.containsKey(exchange))
+                .forEach(exchange -> propagation.record(label(rate, exchange), LatencyRecorder.NO_RESPONSE, timeout));
+            finish(true);
+        }
+
+        private void record(String exchange, long arrivedAt) {
+            // Messages published before the response completed count as no lag
+            propagation.record(label(rate, exchange), 200, Duration.ofNanos(Math.max(arrivedAt - respondedAt, 0)));
+            recorded++;
+            if (recorded == kind.exchanges.size()) {
+                finish(true);
+            }
+        }
+
+        private void finish(boolean succeeded) {
+            done = true;
+            subscription.close();
+            if (succeeded) {
+                onSuccess.run();
+            }
+            pendingWrites.decrementAndGet();
+        }
+    }
+
+    public abstract DockerTwakeCalendarExtension dockerExtension();
+
+    private final ConcurrentLinkedQueue<EventRef> events = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<EventRef> invitations = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<ContactRef> contacts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    // Rate and write kind -> writes replaced by a creation, for lack of an existing event or contact
+    private final Map<String, LongAdder> substitutedWrites = new ConcurrentHashMap<>();
+    private final LatencyRecorder propagation = new LatencyRecorder();
+
+    private CalDavClient calDavClient;
+    private CardDavClient cardDavClient;
+    private AmqpEventBus eventBus;
+    private List<Organizer> organizers;
+    private List<Integer> rates;
+    private Duration duration;
+    private Duration timeout;
+
+    @BeforeEach
+    void setUp() {
+        calDavClient = new CalDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient()));
+        cardDavClient = new CardDavClient(ResponseStatusCapture.capturing(dockerExtension().davHttpClient()));
+        eventBus = dockerExtension().amqpEventBus();
+        rates = BenchmarkProperties.integers("dav.propagation.rates", "5,20,50");
+        duration = Duration.ofSeconds(Integer.getInteger("dav.propagation.duration", 30));
+        timeout = Duration.ofSeconds(Integer.getInteger("dav.propagation.timeout", 30));
+
+        List<OpenPaasUser> users = dockerExtension().newTestUsers(Integer.getInteger("dav.propagation.users", 10));
+        organizers = users.stream()
+            .map(user -> new Organizer(user,
+                users.get((users.indexOf(user) + 1) % users.size()),
+                dockerExtension().twakeCalendarProvisioningService().createResource("room-" + user.id(), "Propagation benchmark room", user).block()))
+            .toList();
+
+        // Start the exchange consumers ahead of the measures
+        eventBus.subscribe(Arrays.stream(WriteKind.values()).flatMap(kind -> kind.exchanges.stream()).toList(), Set.of()).close();
+    }
+
+    @Test
+    void amqpPropagationLagUnderIncreasingWriteLoad() {
+        for (int rate : rates) {
+            LatencyRecorder http = new OpenLoopLoadGenerator(new LoadProfile(rate, duration, Duration.ZERO, MAX_IN_FLIGHT))
+                .run(() -> nextWrite(rate));
+            LOGGER.info("DAV write latencies at {} writes/s:{}{}", rate, System.lineSeparator(), http.report());
+            awaitPendingWrites();
+        }
+
+        LOGGER.info("DAV to AMQP propagation lag:{}{}", System.lineSeparator(), propagation.report());
+        LOGGER.info("Writes replaced by a creation for lack of an existing event or contact: {}",
+            substitutedWrites.isEmpty() ? "none" : substitutedWrites.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue().sum())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+
+        assertThat(propagation.totalCount()).isPositive();
+    }
+
+    private void awaitPendingWrites() {
+        long deadline = System.nanoTime() + timeout.plusSeconds(10).toNanos();
+        while (pendingWrites.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private LoadOperation nextWrite(int rate) {
+        WriteKind[] kinds = WriteKind.values();
+        WriteKind kind = kinds[(int) (writeCount.getAndIncrement() % kinds.length)];
+        return switch (kind) {
+            case UPDATE_EVENT, DELETE_EVENT -> withEvent(events, kind, rate, () -> createEvent(rate));
+            case ITIP_CANCEL -> withEvent(invitations, kind, rate, () -> itipRequest(rate));
+            case UPDATE_CONTACT, DELETE_CONTACT -> {
+                ContactRef contact = contacts.poll();
+                if (contact == null) {
+                    substituted(rate, kind);
+                    yield createContact(rate);
+                }
+                yield contactWrite(rate, kind, contact);
+            }
+            case CREATE_EVENT -> createEvent(rate);
+            case ITIP_REQUEST -> itipRequest(rate);
+            case CREATE_CONTACT -> createContact(rate);
+        };
+    }
+
+    private LoadOperation withEvent(ConcurrentLinkedQueue<EventRef> available, WriteKind kind, int rate, Supplier<LoadOperation> fallback) {
+        EventRef event = available.poll();
+        if (event == null) {
+            substituted(rate, kind);
+            return fallback.get();
+        }
+        return switch (kind) {
+            case UPDATE_EVENT -> write(rate, kind, event.uid(), () -> events.offer(event.next()),
+                calDavClient.upsertCalendarEventReactive(event.organizer().user(), event.uri(), calendarData(event.next())));
+            case DELETE_EVENT -> write(rate, kind, event.uid(), () -> { },
+                calDavClient.deleteCalendarEventReactive(event.organizer().user(), event.uri()));
+            case ITIP_CANCEL -> write(rate, kind, event.uid(), () -> { },
+                itip(event.next(), "CANCEL"));
+            default -> throw new IllegalArgumentException("Unexpected write on an existing event: " + kind);
+        };
+    }
+
+    private void substituted(int rate, WriteKind kind) {
+        substitutedWrites.computeIfAbsent(label(rate, kind.name()), any -> new LongAdder()).increment();
+    }
+
+    private LoadOperation createEvent(int rate) {
+        EventRef event = new EventRef(organizer(), UUID.randomUUID().toString(), 0);
+        return write(rate, WriteKind.CREATE_EVENT, event.uid(), () -> events.offer(event),
+            calDavClient.upsertCalendarEventReactive(event.organizer().user(), event.uri(), calendarData(event)));
+    }
+
+    /**
+     * Invitation delivered by iTIP to the attendee, as done by the side service for external organizers.
+     */
+    private LoadOperation itipRequest(int rate) {
+        EventRef event = new EventRef(organizer(), UUID.randomUUID().toString(), 0);
+        return write(rate, WriteKind.ITIP_REQUEST, event.uid(), () -> invitations.offer(event), itip(event, "REQUEST"));
+    }
+
+    private Mono<Void> itip(EventRef event, String method) {
+        OpenPaasUser attendee = event.organizer().attendee();
+        String body = ITIPJsonBodyRequest.builder()
+            .ical(itipData(event, method))
+            .sender(event.organizer().user().email())
+            .recipient(attendee.email())
+            .uid(event.uid())
+            .method(method)
+            .buildJson();
+        return calDavClient.sendITIPRequest(attendee, URI.create("/calendars/" + attendee.id()), body);
+    }
+
+    private LoadOperation createContact(int rate) {
+        ContactRef contact = new ContactRef(organizer().user(), UUID.randomUUID().toString(), 0);
+        return contactWrite(rate, WriteKind.CREATE_CONTACT, contact);
+    }
+
+    private LoadOperation contactWrite(int rate, WriteKind kind, ContactRef contact) {
+        if (kind == WriteKind.DELETE_CONTACT) {
+            return write(rate, kind, contact.path(), () -> { },
+                cardDavClient.deleteContactReactive(contact.owner(), contact.owner().id(), ADDRESS_BOOK, contact.uid()));
+        }
+        ContactRef written = kind == WriteKind.CREATE_CONTACT ? contact : contact.next();
+        return write(rate, kind, contact.path(), () -> contacts.offer(written),
+            cardDavClient.upsertContactReactive(contact.owner(), contact.owner().id(), ADDRESS_BOOK, contact.uid(),
+                vcard(written).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Subscribes to the messages of the written item before sending the write, which may be published before the
+     * response.
+     */
+    private LoadOperation write(int rate, WriteKind kind, String key, Runnable onSuccess, Mono<Void> call) {
+        return new LoadOperation() {
+            @Override
+            public String verb() {
+                return kind.name();
+            }
+
+            @Override
+            public Mono<Integer> execute() {
+                return Mono.defer(() -> {
+                    PendingWrite pendingWrite = new PendingWrite(rate, kind, onSuccess);
+                    pendingWrite.subscription = eventBus.subscribe(kind.exchanges, Set.of(key), pendingWrite);
+                    return ResponseStatusCapture.statusOf(call)
+                        .doOnNext(pendingWrite::onResponse);
+                });
+            }
+        };
+    }
+
+    private Organizer organizer() {
+        return organizers.get((int) (writeCount.get() % organizers.size()));
+    }
+
+    private static String label(int rate, String exchange) {
+        return "%3d/s %s".formatted(rate, exchange);
+    }
+
+    private String calendarData(EventRef event) {
+        Organizer organizer = event.organizer();
+        return """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Benchmark//EN
+            BEGIN:VEVENT
+            UID:%s
+            DTSTAMP:20300101T000000Z
+            DTSTART:20300410T100000Z
+            DTEND:20300410T110000Z
+            SEQUENCE:%d
+            SUMMARY:Propagation benchmark event revision %d
+            ORGANIZER;CN=%s:mailto:%s
+            ATTENDEE;PARTSTAT=NEEDS-ACTION:mailto:%s
+            ATTENDEE;PARTSTAT=NEEDS-ACTION;CUTYPE=RESOURCE;CN=%s:mailto:%s@open-paas.org
+            BEGIN:VALARM
+            TRIGGER:-PT10M
+            ACTION:EMAIL
+            ATTENDEE:mailto:%s
+            SUMMARY:Propagation benchmark alarm
+            DESCRIPTION:Propagation benchmark alarm
+            END:VALARM
+            END:VEVENT
+            END:VCALENDAR
+            """.formatted(event.uid(), event.sequence(), event.sequence(), organizer.user().firstname(), organizer.user().email(),
+            organizer.attendee().email(), organizer.resource().name(), organizer.resource().id(), organizer.user().email());
+    }
+
+    private String itipData(EventRef event, String method) {
+        Organizer organizer = event.organizer();
+        return """
+            BEGIN:VCALENDAR
+            VERSION:2.0
+            PRODID:-//Twake//Benchmark//EN
+            METHOD:%s
+            BEGIN:VEVENT
+            UID:%s
+            DTSTAMP:20300101T000000Z
+            DTSTART:20300410T100000Z
+            DTEND:20300410T110000Z
+            SEQUENCE:%d
+            SUMMARY:Propagation benchmark invitation
+            ORGANIZER;CN=%s:mailto:%s
+            ATTENDEE;PARTSTAT=NEEDS-ACTION:mailto:%s
+            %sEND:VEVENT
+            END:VCALENDAR
+            """.formatted(method, event.uid(), event.sequence(), organizer.user().firstname(), organizer.user().email(),
+            organizer.attendee().email(), method.equals("CANCEL") ? "STATUS:CANCELLED\n" : "");
+    }
+
+    private String vcard(ContactRef contact) {
+        return """
+            BEGIN:VCARD
+            VERSION:3.0
+            UID:%s
+            FN:Propagation Benchmark %d
+            EMAIL;TYPE=Work:propagation-%s@example.com
+            END:VCARD
+            """.formatted(contact.uid(), contact.revision(), contact.uid());
+    }
+}
@@ -0,0 +1,100 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Records request latencies in HDR histograms, one histogram per DAV verb and HTTP status.
+ *
+ * <p>Latencies are expected to be measured from the intended start time of an operation, not
+ * from the time it was actually sent, so that queueing behind a slow server is accounted for
+ * (coordinated omission correction).
+ */
+public class LatencyRecorder {
+    public static final int NO_RESPONSE = 0;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    public record Key(String verb, int status) {
+        public String label() {
+            if (status == NO_RESPONSE) {
+                return verb + " NO_RESPONSE";
+            }
+            return verb + " " + status;
+        }
+    }
+
+    private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(String verb, int status, Duration latency) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latency.toNanos()), 0), HIGHEST_TRACKABLE_MICROS);
+        histograms.computeIfAbsent(new Key(verb, status), key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+            .recordValue(micros);
+    }
+
+    public Map<Key, Histogram> histograms() {
+        return Map.copyOf(histograms);
+    }
+
+    public long totalCount() {
+        return histograms.values().stream()
+            .mapToLong(Histogram::getTotalCount)
+            .sum();
+    }
+
+    public long count(String verb, int status) {
+        Histogram histogram = histograms.get(new Key(verb, status));
+        if (histogram == null) {
+            return 0;
+        }
+        return histogram.getTotalCount();
+    }
+
+    public String report() {
+        return histograms.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::verb).thenComparing(Key::status)))
+            .map(entry -> formatLine(entry.getKey(), entry.getValue()))
+            .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private static String formatLine(Key key, Histogram histogram) {
+        return "%-20s count=%-8d p50=%8.2fms p90=%8.2fms p99=%8.2fms p99.9=%8.2fms max=%8.2fms".formatted(
+            key.label(),
+            histogram.getTotalCount(),
+            toMillis(histogram.getValueAtPercentile(50)),
+            toMillis(histogram.getValueAtPercentile(90)),
+            toMillis(histogram.getValueAtPercentile(99)),
+            toMillis(histogram.getValueAtPercentile(99.9)),
+            toMillis(histogram.getMaxValue()));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
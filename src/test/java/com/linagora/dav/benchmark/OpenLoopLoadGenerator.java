@@ -0,0 +1,112 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Issues operations at a fixed arrival rate, whatever the server response time is.
+ *
+ * <p>Unlike a blocking loop, a slow response does not delay the next arrival: operations that cannot be
+ * started because {@link LoadProfile#maxInFlight()} is reached are queued locally, and their latency is
+ * measured from the time they should have started.
+ */
+public class OpenLoopLoadGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenLoopLoadGenerator.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+    public record LoadProfile(int ratePerSecond, Duration duration, Duration warmup, int maxInFlight) {
+        public static LoadProfile fromSystemProperties() {
+            return new LoadProfile(
+                Integer.getInteger("dav.load.rate", 20),
+                Duration.ofSeconds(Integer.getInteger("dav.load.duration", 60)),
+                Duration.ofSeconds(Integer.getInteger("dav.load.warmup", 10)),
+                Integer.getInteger("dav.load.maxInFlight", 256));
+        }
+
+        public LoadProfile {
+            if (ratePerSecond <= 0) {
+                throw new IllegalArgumentException("ratePerSecond must be strictly positive");
+            }
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("maxInFlight must be strictly positive");
+            }
+        }
+
+        Duration interArrival() {
+            return Duration.ofNanos(Duration.ofSeconds(1).toNanos() / ratePerSecond);
+        }
+
+        long arrivals(Duration period) {
+            return period.toNanos() / interArrival().toNanos();
+        }
+    }
+
+    public interface LoadOperation {
+        String verb();
+
+        /**
+         * @return the HTTP status of the operation, see {@link ResponseStatusCapture#statusOf(Mono)}
+         */
+        Mono<Integer> execute();
+    }
+
+    private final LoadProfile profile;
+
+    public OpenLoopLoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    public LatencyRecorder run(Supplier<LoadOperation> operations) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long warmupArrivals = profile.arrivals(profile.warmup());
+        long totalArrivals = warmupArrivals + profile.arrivals(profile.duration());
+        Duration interArrival = profile.interArrival();
+
+        LOGGER.info("Starting open loop load: {} ops/s for {} after a {} warmup, at most {} in flight",
+            profile.ratePerSecond(), profile.duration(), profile.warmup(), profile.maxInFlight());
+
+        long startNanos = System.nanoTime();
+        Flux.interval(Duration.ZERO, interArrival)
+            .take(totalArrivals)
+            .onBackpressureBuffer()
+            .flatMap(arrival -> {
+                long intendedStartNanos = startNanos + arrival * interArrival.toNanos();
+                LoadOperation operation = operations.get();
+                return operation.execute()
+                    .doOnNext(status -> {
+                        if (arrival >= warmupArrivals) {
+                            recorder.record(operation.verb(), status, Duration.ofNanos(System.nanoTime() - intendedStartNanos));
+                        }
+                    });
+            }, profile.maxInFlight())
+            .then()
+            .block(profile.warmup().plus(profile.duration()).plus(DRAIN_TIMEOUT));
+
+        LOGGER.info("Open loop load done in {}", Duration.ofNanos(System.nanoTime() - startNanos));
+        return recorder;
+    }
+}
@@ -0,0 +1,55 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.benchmark;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.Context;
+
+/**
+ * Exposes the HTTP status of a call made through a client API that only signals success or failure,
+ * such as {@link com.linagora.dav.CalDavClient}.
+ *
+ * <p>The HTTP client must be wrapped with {@link #capturing(HttpClient)}; the status is then carried
+ * back through the Reactor context of the call wrapped with {@link #statusOf(Mono)}.
+ */
+public class ResponseStatusCapture {
+    private static final String CONTEXT_KEY = ResponseStatusCapture.class.getName();
+
+    public static HttpClient capturing(HttpClient httpClient) {
+        return httpClient.doOnResponse((response, connection) -> response.currentContextView()
+            .<AtomicInteger>getOrEmpty(CONTEXT_KEY)
+            .ifPresent(holder -> holder.set(response.status().code())));
+    }
+
+    /**
+     * @return the status of the last response received by the call, or {@link LatencyRecorder#NO_RESPONSE}
+     * when the call failed before getting one. Errors of the call are swallowed.
+     */
+    public static Mono<Integer> statusOf(Mono<?> call) {
+        return Mono.defer(() -> {
+            AtomicInteger holder = new AtomicInteger(LatencyRecorder.NO_RESPONSE);
+            return call.then(Mono.fromCallable(holder::get))
+                .onErrorResume(e -> Mono.fromCallable(holder::get))
+                .contextWrite(Context.of(CONTEXT_KEY, holder));
+        });
+    }
+}
@@ -33,8 +33,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.linagora.dav.DavResponse;
+import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaasUser;
 import com.linagora.dav.contracts.cal.CalDavContract;
 
@@ -47,6 +49,7 @@ import io.restassured.http.ContentType;
 import net.javacrumbs.jsonunit.core.Option;
 import reactor.netty.http.client.HttpClient;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class OpenPaaSAPIContract {
 
     private HttpClient davHttpClient;
@@ -25,12 +25,12 @@ import static org.apache.http.HttpStatus.SC_OK;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.linagora.dav.DavResponse;
 import com.linagora.dav.DockerTwakeCalendarExtension;
@@ -42,6 +42,7 @@ import com.linagora.dav.XMLUtil;
 import io.netty.handler.codec.http.HttpMethod;
 import io.restassured.RestAssured;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class PrincipalMultitenancyContract {
 
     private static final String SECOND_DOMAIN = "second-domain.org";
@@ -286,7 +287,7 @@ public abstract class PrincipalMultitenancyContract {
     }
 
     private List<String> extractPrincipalHrefs(DavResponse response) throws Exception {
-        return XMLUtil.extractMultipleValueByXPath(response.body(), "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+        return XMLUtil.extractResponseHrefs(response.body());
     }
 
 }
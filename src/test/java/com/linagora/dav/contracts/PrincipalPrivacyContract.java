@@ -24,7 +24,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -442,6 +441,6 @@ public abstract class PrincipalPrivacyContract {
     }
 
     private List<String> extractPrincipalHrefs(DavResponse response) throws Exception {
-        return XMLUtil.extractMultipleValueByXPath(response.body(), "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+        return XMLUtil.extractResponseHrefs(response.body());
     }
 }
@@ -31,6 +31,7 @@ import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -51,6 +52,7 @@ import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.response.Response;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class TeamCalendarContract {
     private static final Map<String, String> DAV_NAMESPACES = Map.of(
         "d", "DAV:",
@@ -274,7 +276,7 @@ public abstract class TeamCalendarContract {
         updateTeamCalendarDisplayName(teamCalendar, renamedDisplayName);
 
         // Then the canonical and delegated calendar names follow the new source display name
-        TestUtil.awaitAtMost.untilAsserted(() -> {
+        TestUtil.awaitAtMost().untilAsserted(() -> {
             CalendarURL canonicalCalendar = CalendarURL.from(teamCalendar.id());
             assertDisplayName(propfind(teamCalendar, canonicalCalendar.asUri().toString(), 0, DISPLAY_NAME_PROPFIND_BODY),
                 canonicalCalendar, renamedDisplayName);
@@ -302,7 +304,7 @@ public abstract class TeamCalendarContract {
         updateTeamCalendarDisplayName(teamCalendar, renamedDisplayName);
 
         // Then Alice follows the source display name while Bob keeps his customized name
-        TestUtil.awaitAtMost.untilAsserted(() -> {
+        TestUtil.awaitAtMost().untilAsserted(() -> {
             CalendarURL canonicalCalendar = CalendarURL.from(teamCalendar.id());
             assertDisplayName(propfind(teamCalendar, canonicalCalendar.asUri().toString(), 0, DISPLAY_NAME_PROPFIND_BODY),
                 canonicalCalendar, renamedDisplayName);
@@ -476,7 +478,7 @@ public abstract class TeamCalendarContract {
             "Alice invites Bob", alice.email(), bob.email()));
 
         // And Bob receives the attendee copy in his personal calendar
-        URI bobEventUri = TestUtil.awaitAtMost.until(
+        URI bobEventUri = TestUtil.awaitAtMost().until(
                 () -> calDavClient.findFirstUserCalendarObjectUriByEventUid(bob, CalendarURL.from(bob.id()), eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected attendee copy for UID " + eventUid));
@@ -26,6 +26,7 @@ import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalDavClient.DelegationRight;
@@ -38,6 +39,7 @@ import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.response.Response;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class TeamCalendarMultitenancyContract {
     private static final String SECOND_DOMAIN = "second-domain.org";
 
@@ -19,37 +19,31 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 import java.io.IOException;
 import java.net.URI;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.assertj.core.api.AssertionsForClassTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Assumptions;
 
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalendarURL;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.ITIPJsonBodyRequest;
 import com.linagora.dav.OpenPaasUser;
-import com.rabbitmq.client.GetResponse;
 
 import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.Property;
@@ -57,14 +51,6 @@ import net.javacrumbs.jsonunit.core.Option;
 
 public abstract class AlarmAMQPMessageContract {
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(20, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
     
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -76,8 +62,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmCreatedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:created", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -92,7 +76,7 @@ public abstract class AlarmAMQPMessageContract {
             "30250411T100000",
             "30250411T110000",
             testUser2.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:created", testUser, testUser2);
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
         String expected = """
@@ -303,7 +287,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> {
                     assertThatJson(message.toString())
@@ -319,8 +303,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmUpdatedExchangeWhenUpdateEvent() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:updated", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -337,7 +319,7 @@ public abstract class AlarmAMQPMessageContract {
             testUser2.email());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -349,7 +331,7 @@ public abstract class AlarmAMQPMessageContract {
             "30250411T150000",
             "30250411T160000",
             testUser2.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:updated", testUser, testUser2);
         calDavClient.upsertCalendarEvent(testUser, eventUid, updatedCalendarData);
 
         String expected = """
@@ -760,7 +742,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -769,8 +751,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmUpdatedExchangeWhenAccept() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:updated", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -787,7 +767,7 @@ public abstract class AlarmAMQPMessageContract {
             testUser2.email());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -800,7 +780,7 @@ public abstract class AlarmAMQPMessageContract {
             "30250411T110000",
             testUser2.email(),
             "ACCEPTED");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:updated", testUser, testUser2);
 
         calDavClient.upsertCalendarEvent(testUser2, attendeeEventId, updatedCalendarData);
 
@@ -1211,7 +1191,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -1220,8 +1200,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmDeletedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:deleted", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -1236,7 +1214,7 @@ public abstract class AlarmAMQPMessageContract {
             "30250411T100000",
             "30250411T110000",
             testUser2.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:deleted", testUser, testUser2);
 
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
         calDavClient.deleteCalendarEvent(testUser, eventUid);
@@ -1449,7 +1427,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString()).when(Option.IGNORING_EXTRA_FIELDS)
                     .isEqualTo(expected)));
@@ -1457,8 +1435,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmCancelExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:cancel", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -1475,8 +1451,8 @@ public abstract class AlarmAMQPMessageContract {
             testUser2.email());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:cancel", testUser, testUser2);
         calDavClient.deleteCalendarEvent(testUser, eventUid);
 
         String expected = """
@@ -1694,7 +1670,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -1703,8 +1679,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventAlarmUpdatedExchangeInCaseOfITIPRequest() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:updated", "");
-
         OpenPaasUser bob = dockerExtension().newTestUser();
         OpenPaasUser alice = dockerExtension().newTestUser();
 
@@ -1745,7 +1719,7 @@ public abstract class AlarmAMQPMessageContract {
             .buildJson();
         calDavClient.sendITIPRequest(alice, URI.create("/calendars/" + alice.id()), itipRequest).block();
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
 
         // When Alice accepts the event
         String acceptIcs = """
@@ -1773,7 +1747,7 @@ public abstract class AlarmAMQPMessageContract {
             """.replace("{eventUid}", eventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{aliceEmail}", alice.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:updated", bob, alice);
         calDavClient.upsertCalendarEvent(alice, CalendarURL.from(alice.id()), attendeeEventId, acceptIcs);
 
         // Then a message should be present in the event alarm updated exchange
@@ -1912,7 +1886,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{attendeeEventId}", attendeeEventId)
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString()).when(Option.IGNORING_EXTRA_FIELDS)
                     .isEqualTo(expected)));
@@ -1920,8 +1894,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     public void shouldReceiveMessageFromEventAlarmCancelExchangeWhenSendingITIPRequestToCancelEvent() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:cancel", "");
-
         OpenPaasUser bob = dockerExtension().newTestUser();
         OpenPaasUser alice = dockerExtension().newTestUser();
 
@@ -1962,7 +1934,7 @@ public abstract class AlarmAMQPMessageContract {
             .buildJson();
         calDavClient.sendITIPRequest(alice, URI.create("/calendars/" + alice.id()), itipRequest).block();
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
 
         // When Alice accepts the event
         String acceptIcs = """
@@ -2026,7 +1998,7 @@ public abstract class AlarmAMQPMessageContract {
             .uid(eventUid)
             .method("CANCEL")
             .buildJson();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:cancel", bob, alice);
 
         calDavClient.sendITIPRequest(alice, URI.create("/calendars/" + alice.id()), itipRequest2).block();
 
@@ -2176,7 +2148,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{attendeeEventId}", attendeeEventId)
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -2185,8 +2157,6 @@ public abstract class AlarmAMQPMessageContract {
 
     @Test
     public void shouldReceiveMessageContainingRawEventFromEventAlarmCreatedExchangeWhenAddingNewCalendarEventWithJsonFormat() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:created", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -2325,7 +2295,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{attendeeEmail}", testUser2.email())
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:created", testUser, testUser2);
         calDavClient.upsertJsonCalendarEvent(testUser, eventUid, jsonCalendarData);
 
         String expectedEventIcs = """
@@ -2356,7 +2326,7 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{attendeeEmail}", testUser2.email())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message ->
                     assertThatCalendar(message.path("rawEvent").asText())
@@ -2365,8 +2335,8 @@ public abstract class AlarmAMQPMessageContract {
                         .isEqualTo(expectedEventIcs)));
     }
 
-    private BlockingQueue<JsonNode> listenToQueue() {
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
+    private BlockingQueue<JsonNode> listenToQueue(String exchange, OpenPaasUser... users) {
+        return dockerExtension().subscribeToEvents(exchange, users);
     }
 
     private String generateCalendarData(String eventUid, String organizerEmail, String attendeeEmail,
@@ -2484,8 +2454,8 @@ public abstract class AlarmAMQPMessageContract {
         calDavClient.upsertCalendarEvent(cedric, eventUid, calendarData);
 
         // Ensure attendee copies are created
-        awaitAtMost.until(() -> calDavClient.findFirstEventId(bob), Optional::isPresent);
-        awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent);
+        awaitAtMost().until(() -> calDavClient.findFirstEventId(bob), Optional::isPresent);
+        awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent);
 
         // WHEN Bob accepts the invitation
         String bobEventId = calDavClient.findFirstEventId(bob).get();
@@ -2530,21 +2500,15 @@ public abstract class AlarmAMQPMessageContract {
             .replace("{bobEmail}", bob.email())
             .replace("{aliceEmail}", alice.email());
 
-        String testQueue = "tcalendar:event:test" + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(testQueue, false, true, true, null);
-        dockerExtension().getChannel().queueBind(testQueue, "calendar:event:alarm:request", "");
+        BlockingQueue<JsonNode> messages = listenToQueue("calendar:event:alarm:request", alice);
 
         calDavClient.upsertCalendarEvent(bob, bobEventId, acceptedIcs);
 
         Thread.sleep(1000);
 
         // THEN  Alice should NOT receive alarm:request
-        GetResponse aliceMsg = dockerExtension()
-            .getChannel()
-            .basicGet(testQueue, true);
-
-        assertThat(aliceMsg)
+        assertThat(messages)
             .as("Unexpected alarm:request published for Alice")
-            .isNull();
+            .isEmpty();
     }
 }
\ No newline at end of file
@@ -18,10 +18,12 @@
 
 package com.linagora.dav.contracts.cal;
 
+import static com.linagora.dav.TestUtil.CALENDAR_EVENT_EXCHANGES;
+import static com.linagora.dav.TestUtil.awaitAtMost;
+import static com.linagora.dav.TestUtil.awaitDuring;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 import java.net.URI;
-import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,13 +33,12 @@ import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalendarURL;
 import com.linagora.dav.CalendarUtil;
 import com.linagora.dav.CalendarUtil.CalendarExtractor;
+import com.linagora.dav.DavAwait;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaasUser;
 
@@ -55,14 +56,6 @@ public abstract class AlarmSchedulingContract {
     private static final String ALARM_TRIGGER_20M = "-PT20M";
     private static final String ALARM_TRIGGER_20M_EXPLICIT = "-P0DT0H20M0S";
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     public abstract DockerTwakeCalendarExtension extension();
 
     private CalDavClient calDavClient;
@@ -121,7 +114,7 @@ public abstract class AlarmSchedulingContract {
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -137,12 +130,11 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects updated alarm
-        awaitAtMost.untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .isEqualTo(ALARM_TRIGGER_5M));
 
         // And Bob and Cedric calendars keep original alarm trigger
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
                     .isEqualTo(ALARM_TRIGGER_15M);
@@ -199,7 +191,7 @@ public abstract class AlarmSchedulingContract {
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
         // Then copied events keep only their owner while Bob's original event keeps every recipient
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
@@ -252,7 +244,7 @@ public abstract class AlarmSchedulingContract {
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
         // Then the generated UID is stored on Bob's source and propagated to Alice's copy
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<String> bobEmailAlarmUids = readEmailAlarmUids(calDavClient.getCalendarEvent(bob, bobCalendarEventUri));
             List<String> aliceEmailAlarmUids = readEmailAlarmUids(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri));
 
@@ -309,7 +301,7 @@ public abstract class AlarmSchedulingContract {
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
         // Then Alice copy keeps only Alice, while Bob source keeps Alice and the explicit alias
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -357,7 +349,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -378,7 +370,7 @@ public abstract class AlarmSchedulingContract {
         // Then Cedric receives the alarm, Alice keeps hers, and Bob retains all recipients
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
@@ -428,7 +420,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -446,7 +438,7 @@ public abstract class AlarmSchedulingContract {
         // Then Cedric receives no email VALARM while Bob and Alice keep theirs
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
                 .isEmpty();
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
@@ -497,8 +489,7 @@ public abstract class AlarmSchedulingContract {
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
 
         // Then Alice does not receive the email VALARM because she is not listed in the VALARM attendees
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEmpty());
     }
@@ -558,7 +549,7 @@ public abstract class AlarmSchedulingContract {
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
         // Then each copied event keeps its recipient-specific alarm and Bob's original keeps both alarms
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
@@ -620,7 +611,7 @@ public abstract class AlarmSchedulingContract {
 
         // Then both calendars keep both independent alarms targeting Alice
         Set<String> aliceAlarmRecipient = Set.of(alice.email());
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactlyInAnyOrder(
                     new EmailAlarm(ALARM_TRIGGER_10M, aliceAlarmRecipient),
@@ -673,7 +664,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email()))));
 
         // When Bob updates the organizer-managed email VALARM trigger
@@ -683,7 +674,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice receives the updated organizer-managed alarm projection
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_20M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -732,7 +723,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(alice.email()))));
 
         // When Bob updates non-alarm event fields
@@ -744,7 +735,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice receives the event update while keeping her projected email VALARM
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             assertThat(aliceEvent)
                 .contains("DTSTART:30250101T093000Z")
@@ -759,13 +750,12 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceAcceptedCalendarEventIcs);
 
         // Then Alice acceptance is propagated to Bob
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
             calDavClient.getCalendarEvent(bob, bobCalendarEventUri), alice.email()))
             .isEqualTo(PartStat.ACCEPTED));
 
         // And the email VALARM remains projected for Alice and unchanged in Bob's source event
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                     .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(alice.email())));
@@ -814,7 +804,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEmpty();
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -827,13 +817,12 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceAcceptedCalendarEventIcs);
 
         // Then Alice acceptance is propagated to Bob
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
             calDavClient.getCalendarEvent(bob, bobCalendarEventUri), alice.email()))
             .isEqualTo(PartStat.ACCEPTED));
 
         // And Bob's personal email VALARM remains on the organizer source event only
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                     .isEmpty();
@@ -891,7 +880,7 @@ public abstract class AlarmSchedulingContract {
                 .replace("{aliceAlias}", aliceAlias)
                 .replace("{alarmTrigger10m}", ALARM_TRIGGER_10M_EXPLICIT));
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
-        awaitAtMost.untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(aliceAlias))));
 
         // When Bob updates non-alarm event fields
@@ -903,7 +892,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice receives the event update and keeps her personal email VALARM local to her copy
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             assertThat(aliceEvent)
                 .contains("DTSTART:30250101T093000Z")
@@ -963,7 +952,7 @@ public abstract class AlarmSchedulingContract {
                 .replace("{aliceAlias}", aliceAlias)
                 .replace("{alarmTrigger10m}", ALARM_TRIGGER_10M_EXPLICIT));
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             assertThat(readEmailAlarms(aliceEvent))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(aliceAlias)));
@@ -989,7 +978,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice keeps her generated personal alarm and receives Bob's generated alarm as a separate VALARM
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             assertThat(readEmailAlarms(aliceEvent))
                 .containsExactlyInAnyOrder(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())),
@@ -1043,7 +1032,7 @@ public abstract class AlarmSchedulingContract {
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
@@ -1057,7 +1046,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice loses the organizer-managed email alarm projection and Cedric keeps his
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEmpty();
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
@@ -1122,7 +1111,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then only Alice's calendar contains that personal email alarm
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_10M, Set.of(aliceAlias)));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -1174,7 +1163,7 @@ public abstract class AlarmSchedulingContract {
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
-        awaitAtMost.untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(alice.email()))));
 
         // And Alice creates a separate personal email VALARM for her alias
@@ -1201,7 +1190,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, updatedOrganizerEventIcs);
 
         // Then Alice keeps her personal alarm and receives the updated organizer-managed alarm
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .containsExactlyInAnyOrder(
                     new EmailAlarm(ALARM_TRIGGER_20M, Set.of(alice.email())),
@@ -1247,7 +1236,7 @@ public abstract class AlarmSchedulingContract {
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .doesNotContain("BEGIN:VALARM");
             assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
@@ -1270,12 +1259,11 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the added alarm
-        awaitAtMost.untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .isEqualTo(ALARM_TRIGGER_5M));
 
         // And Bob and Cedric calendars keep no VALARM
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .doesNotContain("BEGIN:VALARM");
@@ -1326,7 +1314,7 @@ public abstract class AlarmSchedulingContract {
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
@@ -1341,12 +1329,11 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the removed alarm
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .doesNotContain("BEGIN:VALARM"));
 
         // And Bob and Cedric calendars keep original alarm trigger
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bob, bobCalendarEventUri)))
                     .isEqualTo(ALARM_TRIGGER_15M);
@@ -1400,7 +1387,7 @@ public abstract class AlarmSchedulingContract {
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
         URI bobCalendarEventUri = CalendarURL.from(bob.id()).eventHref(organizerEventUid);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(readEventSummary(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
@@ -1413,7 +1400,7 @@ public abstract class AlarmSchedulingContract {
             .replace("TRIGGER:" + ALARM_TRIGGER_15M, "TRIGGER:" + ALARM_TRIGGER_5M);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .isEqualTo(ALARM_TRIGGER_5M));
 
         // And Bob updates event summary
@@ -1423,15 +1410,14 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summary is synchronized, but Alice local alarm is not reset by Bob update
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEventSummary(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEqualTo(updatedSummary);
             assertThat(readEventSummary(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri)))
                 .isEqualTo(updatedSummary);
         });
 
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                     .isEqualTo(ALARM_TRIGGER_5M);
@@ -1487,7 +1473,7 @@ public abstract class AlarmSchedulingContract {
         URI aliceCalendarEventUri = CalendarURL.from(alice.id()).eventHref(aliceCalendarEventId);
         URI cedricCalendarEventUri = CalendarURL.from(cedric.id()).eventHref(cedricCalendarEventId);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri), cedric.email()))
@@ -1500,7 +1486,7 @@ public abstract class AlarmSchedulingContract {
             .replace("TRIGGER:" + ALARM_TRIGGER_15M, "TRIGGER:" + ALARM_TRIGGER_5M);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
             .isEqualTo(ALARM_TRIGGER_5M));
 
         // When Cedric accepts the event (updates his own PARTSTAT)
@@ -1509,7 +1495,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricCalendarEventUri, cedricAcceptedCalendarEventIcs);
 
         // Then Cedric PARTSTAT is synchronized to Alice
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
             calDavClient.getCalendarEvent(alice, aliceCalendarEventUri), cedric.email()))
             .isEqualTo(PartStat.ACCEPTED));
 
@@ -1578,7 +1564,7 @@ public abstract class AlarmSchedulingContract {
             .replace("TRIGGER:-PT30M", "TRIGGER:-PT10M");
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
             assertThat(aliceEventExtractor.extractEventPropertyValue(Optional.empty(), Property.TRIGGER))
@@ -1595,7 +1581,7 @@ public abstract class AlarmSchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summaries are synchronized, but each local alarm remains attached to its VEVENT
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
             assertThat(aliceEventExtractor.extractEventPropertyValue(Optional.empty(), Property.SUMMARY))
@@ -1658,9 +1644,10 @@ public abstract class AlarmSchedulingContract {
     }
 
     private String awaitFirstEventId(OpenPaasUser user) {
-        return awaitAtMost.until(() -> calDavClient.findFirstEventId(user),
-                Optional::isPresent)
-            .orElseThrow(() -> new AssertionError("Expected event id to be present"));
+        return DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT)
+            .wakingOn(extension().amqpEventBus(), CALENDAR_EVENT_EXCHANGES, List.of(user.id()))
+            .untilAsserted(() -> calDavClient.findFirstEventId(user)
+                .orElseThrow(() -> new AssertionError("Expected event id to be present")));
     }
 
     private String readEventSummary(String icsContent) {
@@ -19,6 +19,7 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static com.linagora.dav.TestUtil.body;
 import static com.linagora.dav.TestUtil.execute;
 import static com.linagora.dav.TestUtil.executeNoContent;
@@ -31,14 +32,12 @@ import static org.xmlunit.diff.ComparisonResult.SIMILAR;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -51,8 +50,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 import org.w3c.dom.Node;
 import org.xmlunit.assertj3.XmlAssert;
 import org.xmlunit.diff.ComparisonResult;
@@ -274,14 +271,6 @@ public abstract class CalDavContract {
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
 
     @BeforeEach
@@ -300,11 +289,7 @@ public abstract class CalDavContract {
 
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).containsExactlyInAnyOrder("/calendars/" + testUser.id() + "/",
             "/calendars/" + testUser.id() + "/" + testUser.id() + "/",
@@ -336,11 +321,7 @@ public abstract class CalDavContract {
         assertThat(status).isEqualTo(207);
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).containsExactlyInAnyOrder("/calendars/" + testUser.id() + "/",
             "/calendars/" + testUser.id() + "/" + testUser.id() + "/",
@@ -398,11 +379,7 @@ public abstract class CalDavContract {
         assertThat(status1).isEqualTo(201);
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).contains("/calendars/" + testUser.id() + "/testCalendar/");
     }
@@ -444,11 +421,7 @@ public abstract class CalDavContract {
         assertThat(status2).isEqualTo(204);
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).doesNotContain("/calendars/" + testUser.id() + "/testCalendar/");
     }
@@ -479,11 +452,7 @@ public abstract class CalDavContract {
         assertThat(createStatus).isEqualTo(201);
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).contains("/calendars/" + testUser.id() + "/testCalendar/");
     }
@@ -506,11 +475,7 @@ public abstract class CalDavContract {
         assertThat(status1).isEqualTo(201);
         assertThat(response.status()).isEqualTo(207);
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).contains("/calendars/" + testUser.id() + "/" + testUser.id() + "/abcd.ics");
     }
@@ -1206,15 +1171,14 @@ public abstract class CalDavContract {
                 "END:VCALENDAR\r\n")));
 
         assertThat(status1).isEqualTo(201);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = execute(dockerExtension().davHttpClient()
                 .headers(testUser2::impersonatedBasicAuth)
                 .request(HttpMethod.valueOf("PROPFIND"))
                 .uri("/calendars/" + testUser2.id() + "/inbox"));
 
             assertThat(response.status()).isEqualTo(207);
-            List<String> actual = XMLUtil.extractMultipleValueByXPath(response.body(),
-                "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+            List<String> actual = XMLUtil.extractResponseHrefs(response.body());
             assertThat(actual).hasSize(2);
             assertThat(actual.get(0)).isEqualTo("/calendars/" + testUser2.id() + "/inbox/");
             assertThat(actual.get(1)).startsWith("/calendars/" + testUser2.id() + "/inbox/sabredav-").endsWith(".ics");
@@ -1259,7 +1223,7 @@ public abstract class CalDavContract {
                 .block();
 
         String attendeeInboxUri = "/calendars/" + attendee.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> assertThat(findEvents.apply(attendeeInboxUri))
+        awaitAtMost().untilAsserted(() -> assertThat(findEvents.apply(attendeeInboxUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -1310,7 +1274,7 @@ public abstract class CalDavContract {
                 .collectList()
                 .block();
         String attendeeInboxUri = "/calendars/" + attendee.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> assertThat(findEvents.apply(attendeeInboxUri))
+        awaitAtMost().untilAsserted(() -> assertThat(findEvents.apply(attendeeInboxUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -1381,7 +1345,7 @@ public abstract class CalDavContract {
 
         // THEN: The attendee should receive a new ITIP REQUEST (update) in their inbox
         String attendeeInboxUri = "/calendars/" + attendee.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             var events = calDavClient.reportCalendarEvents(attendee, attendeeInboxUri,
                     Instant.parse("2024-09-01T00:00:00Z"),
                     Instant.parse("2026-11-01T00:00:00Z"))
@@ -1436,7 +1400,7 @@ public abstract class CalDavContract {
 
         // THEN: The attendee should receive an ITIP CANCEL message in their inbox
         String attendeeInboxUri = "/calendars/" + attendee.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             var events = calDavClient.reportCalendarEvents(attendee, attendeeInboxUri,
                     Instant.parse("2025-09-01T00:00:00Z"),
                     Instant.parse("2025-11-01T00:00:00Z"))
@@ -1489,7 +1453,7 @@ public abstract class CalDavContract {
         String organizerInboxUri = "/calendars/" + organizer.id() + "/inbox/";
 
         // Locate the attendee's resource href to upsert replies on their own copy
-        String attendeeEventHref = awaitAtMost.until(() ->
+        String attendeeEventHref = awaitAtMost().until(() ->
                 calDavClient.reportCalendarEvents(attendee, attendeeDefaultCalendarUri,
                         Instant.parse("2025-09-01T00:00:00Z"),
                         Instant.parse("2025-11-01T00:00:00Z"))
@@ -1530,7 +1494,7 @@ public abstract class CalDavContract {
                 .collectList()
                 .block();
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> organizerInbox = organizerEventsForUri.apply(organizerInboxUri);
             assertThat(organizerInbox).anySatisfy(item -> {
                 String json = item.toString();
@@ -1593,7 +1557,7 @@ public abstract class CalDavContract {
 
         // THEN: The event should exist in the organizer's calendar
         String organizerDefaultCalendarUri = "/calendars/" + organizer.id() + "/" + organizer.id();
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> organizerEvents = calDavClient.reportCalendarEvents(organizer, organizerDefaultCalendarUri,
                     Instant.parse("2024-09-01T00:00:00Z"),
                     Instant.parse("2026-11-01T00:00:00Z"))
@@ -1654,7 +1618,7 @@ public abstract class CalDavContract {
 
         // Check if event exist in the organizer's calendar
         String organizerDefaultCalendarUri = "/calendars/" + organizer.id() + "/" + organizer.id();
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> organizerEvents = calDavClient.reportCalendarEvents(organizer, organizerDefaultCalendarUri,
                     Instant.parse("2024-09-01T00:00:00Z"),
                     Instant.parse("2026-11-01T00:00:00Z"))
@@ -1693,7 +1657,7 @@ public abstract class CalDavContract {
         // THEN: Clone should be created in the attendee's default calendar
         String attendeeDefaultCalendarUri = "/calendars/" + attendee.id() + "/" + attendee.id();
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> attendeeEvents = calDavClient.reportCalendarEvents(attendee, attendeeDefaultCalendarUri,
                     Instant.parse("2024-09-01T00:00:00Z"),
                     Instant.parse("2026-11-01T00:00:00Z"))
@@ -1738,7 +1702,7 @@ public abstract class CalDavContract {
 
         // Check if event exist in the organizer's calendar
         String organizerDefaultCalendarUri = "/calendars/" + organizer.id() + "/" + organizer.id();
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> organizerEvents = calDavClient.reportCalendarEvents(organizer, organizerDefaultCalendarUri,
                     Instant.parse("2024-09-01T00:00:00Z"),
                     Instant.parse("2026-11-01T00:00:00Z"))
@@ -1951,7 +1915,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """.replace("{eventUid}", eventUid))));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(
                 response.body(),
@@ -2018,7 +1982,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """.replace("{eventUid}", eventUid))));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(
                 response.body(),
@@ -2047,7 +2011,7 @@ public abstract class CalDavContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -2085,7 +2049,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """.replace("{eventUid}", eventUid))));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(
                 response.body(),
@@ -2119,7 +2083,7 @@ public abstract class CalDavContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -2157,7 +2121,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """.replace("{eventUid}", eventUid))));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(
                 response.body(),
@@ -2188,7 +2152,7 @@ public abstract class CalDavContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(testUser2), Optional::isPresent).get();
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -2228,7 +2192,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """.replace("{eventUid}", eventUid))));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(
                 response.body(),
@@ -2294,7 +2258,7 @@ public abstract class CalDavContract {
             resource.id());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
 
         String token = dockerExtension().twakeCalendarProvisioningService().generateToken();
 
@@ -2393,7 +2357,7 @@ public abstract class CalDavContract {
             resource.id());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
 
         String token = dockerExtension().twakeCalendarProvisioningService().generateToken();
 
@@ -2435,7 +2399,7 @@ public abstract class CalDavContract {
             resource.id());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
 
         String token = dockerExtension().twakeCalendarProvisioningService().generateToken();
 
@@ -2534,7 +2498,7 @@ public abstract class CalDavContract {
                 </c:calendar-query>
                 """)));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = reportResponseSupplier.get();
             String actual = XMLUtil.extractByXPath(response.body(),
                 "//cal:calendar-data", Map.of("cal", "urn:ietf:params:xml:ns:caldav"));
@@ -2793,7 +2757,7 @@ public abstract class CalDavContract {
 
         // And Bob has the invited event in his default calendar
         CalendarURL bobDefaultCalendar = CalendarURL.from(bob.id());
-        URI bobDefaultEventUri = awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(bob, bobDefaultCalendar, eventUid),
+        URI bobDefaultEventUri = awaitAtMost().until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(bob, bobDefaultCalendar, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected calendar object URI to be present for UID " + eventUid));
         String bobDefaultEventIcs = calDavClient.getCalendarEvent(bob, bobDefaultEventUri);
@@ -19,12 +19,11 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static com.linagora.dav.TestUtil.awaitCalendarEntries;
 import static com.linagora.dav.TestUtil.body;
 import static com.linagora.dav.TestUtil.execute;
 import static com.linagora.dav.TestUtil.executeNoContent;
-import static com.linagora.dav.contracts.cal.ITIPRequestContract.awaitAtMost;
 import static io.restassured.RestAssured.given;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
@@ -49,6 +48,7 @@ import org.assertj.core.api.AssertionsForClassTypes;
 import org.assertj.core.api.AssertionsForInterfaceTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -57,7 +57,6 @@ import org.xmlunit.assertj3.XmlAssert;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalDavClient.DelegationRight;
 import com.linagora.dav.CalendarURL;
@@ -86,6 +85,7 @@ import net.fortuna.ical4j.model.parameter.PartStat;
 import net.javacrumbs.jsonunit.core.Option;
 import reactor.core.publisher.Mono;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CalDavDelegationContract {
     private static final Map<String, String> DAV_NAMESPACES = Map.of("d", "DAV:");
 
@@ -185,7 +185,7 @@ public abstract class CalDavDelegationContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/calendars/" + alice.id()));
         assertThat(response.status()).isEqualTo(207);
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(response.body(), "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
         AssertionsForInterfaceTypes.assertThat(actual).contains(calendarURL.asUri() + "/");
         // AND: the subscription do not contain event
         DavResponse response2 = execute(dockerExtension().davHttpClient()
@@ -846,12 +846,10 @@ public abstract class CalDavDelegationContract {
 
     @Test
     void amqpMessagesShouldBeEmittedForCopiedCalendar() throws Exception {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:created", "");
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:updated", "");
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:deleted", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(
+            List.of("calendar:event:created", "calendar:event:updated", "calendar:event:deleted"), testUser2);
 
         calDavClient.grantDelegation(testUser, testUser.id(), testUser2, DelegationRight.READ);
 
@@ -868,7 +866,6 @@ public abstract class CalDavDelegationContract {
             .toString();
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
         Thread.sleep(3000);
 
         assertThat(messages)
@@ -878,12 +875,10 @@ public abstract class CalDavDelegationContract {
 
     @Test
     void noAmqpAlarmMessagesEmittedForCopiedCalendar() throws Exception {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:created", "");
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:updated", "");
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:alarm:deleted", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(
+            List.of("calendar:event:alarm:created", "calendar:event:alarm:updated", "calendar:event:alarm:deleted"), testUser2);
 
         calDavClient.grantDelegation(testUser, testUser.id(), testUser2, DelegationRight.READ);
 
@@ -901,7 +896,6 @@ public abstract class CalDavDelegationContract {
             .toString();
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
         Thread.sleep(3000);
 
         assertThat(messages)
@@ -911,16 +905,12 @@ public abstract class CalDavDelegationContract {
 
     @Test
     protected void amqpShouldPublishDelegationUpdatedForSourceCalendarOnGrant() throws Exception {
-        String queueName = "delegation-source-grant-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
 
         String sourcePath = CalendarURL.from(bob.id()).asUri().toString();
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json -> assertThatJson(json.toString())
                 .when(Option.IGNORING_EXTRA_FIELDS)
                 .isEqualTo("""
@@ -937,16 +927,12 @@ public abstract class CalDavDelegationContract {
     protected void amqpShouldPublishDelegationUpdatedForSourceCalendarOnUpdateRight() throws Exception {
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
 
-        String queueName = "delegation-source-update-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ_WRITE);
 
         String sourcePath = CalendarURL.from(bob.id()).asUri().toString();
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json -> assertThatJson(json.toString())
                 .when(Option.IGNORING_EXTRA_FIELDS)
                 .isEqualTo("""
@@ -963,16 +949,12 @@ public abstract class CalDavDelegationContract {
     protected void amqpShouldPublishDelegationUpdatedForSourceCalendarOnRevoke() throws Exception {
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
 
-        String queueName = "delegation-source-revoke-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.revokeDelegation(bob, bob.id(), alice);
 
         String sourcePath = CalendarURL.from(bob.id()).asUri().toString();
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json -> assertThatJson(json.toString())
                 .when(Option.IGNORING_EXTRA_FIELDS)
                 .isEqualTo("""
@@ -989,10 +971,7 @@ public abstract class CalDavDelegationContract {
     protected void amqpShouldDedupDelegationUpdatedForSameSourceCalendarInSingleRequest() throws Exception {
         OpenPaasUser cedric = dockerExtension().newTestUser();
 
-        String queueName = "delegation-source-dedup-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.grantDelegations(bob, bob.id(), Map.of(
             alice, DelegationRight.READ,
@@ -1012,7 +991,7 @@ public abstract class CalDavDelegationContract {
                 && json.path("calendarProps").path("delegation_updated").asBoolean(false);
 
         // Wait until the *unique* delegation_updated notification for this source calendar is observed.
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> delegationUpdated = messages.stream()
                 .filter(isDelegationUpdated)
                 .toList();
@@ -1038,10 +1017,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
         calDavClient.grantDelegation(bob, bob.id(), cedric, DelegationRight.READ);
 
-        String queueName = "delegation-source-revoke-two-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.revokeDelegations(bob, bob.id(), List.of(alice, cedric));
 
@@ -1058,7 +1034,7 @@ public abstract class CalDavDelegationContract {
             sourcePath.equals(json.path("calendarPath").asText())
                 && json.path("calendarProps").path("delegation_updated").asBoolean(false);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> delegationUpdated = messages.stream()
                 .filter(isDelegationUpdated)
                 .toList();
@@ -1083,15 +1059,12 @@ public abstract class CalDavDelegationContract {
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
         calDavClient.grantDelegation(bob, bob.id(), cedric, DelegationRight.READ);
 
-        String queueName = "delegation-source-revoke-one-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         calDavClient.revokeDelegation(bob, bob.id(), alice);
 
         String sourcePath = CalendarURL.from(bob.id()).asUri().toString();
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json -> assertThatJson(json.toString())
                 .when(Option.IGNORING_EXTRA_FIELDS)
                 .isEqualTo("""
@@ -1106,18 +1079,14 @@ public abstract class CalDavDelegationContract {
 
     @Test
     protected void amqpDelegationUpdatedShouldCarryConnectedUserOfGranter() throws Exception {
-        String queueName = "delegation-connected-user-grant-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:calendar:updated", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:calendar:updated", bob);
 
         // WHEN: Bob grants a delegation on his own calendar to Alice
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ);
 
         // THEN: the emitted message reports Bob - who actually performed the action - as the connected user
         String sourcePath = CalendarURL.from(bob.id()).asUri().toString();
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json -> {
                 assertThat(json.path("calendarPath").asText()).isEqualTo(sourcePath);
                 assertThat(json.path("calendarProps").path("delegation_updated").asBoolean()).isTrue();
@@ -1127,18 +1096,13 @@ public abstract class CalDavDelegationContract {
 
     @Test
     protected void amqpEventMessageShouldCarryConnectedUserOfDelegateActingOnOwnerCalendar() throws Exception {
-        String queueName = "delegation-connected-user-write-" + bob.id();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, "calendar:event:created", "");
-        dockerExtension().getChannel().queueBind(queueName, "calendar:event:updated", "");
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(List.of("calendar:event:created", "calendar:event:updated"), bob);
 
         // GIVEN: Bob delegates his calendar to Alice with write rights
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.READ_WRITE);
 
         CalendarURL sharedCalendarURL = calDavClient.findDelegatedCalendar(alice, bob.id());
 
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
-
         // WHEN: Alice - the delegate - creates an event on Bob's calendar
         String eventUid = UUID.randomUUID().toString();
         String calendarData = TwakeCalendarEvent.builder()
@@ -1154,7 +1118,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.upsertCalendarEvent(alice, sharedCalendarURL, eventUid, calendarData);
 
         // THEN: the emitted message reports Alice - who actually performed the action - and not Bob (the owner) as the connected user
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages).anySatisfy(json ->
                 assertThat(json.path("connectedUser").asText()).isEqualTo("principals/users/" + alice.id())));
     }
@@ -1545,11 +1509,11 @@ public abstract class CalDavDelegationContract {
         CalendarURL aliceDefaultCalendarURL = CalendarURL.from(alice.id());
 
         // AND Alice receives the invited event in her own calendar
-        URI aliceEventUri = awaitAtMost.until(
+        URI aliceEventUri = awaitAtMost().until(
                 () -> calDavClient.findFirstUserCalendarObjectUriByEventUid(alice, aliceDefaultCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected invited event to be present in Alice calendar"));
-        awaitAtMost.untilAsserted(() -> assertSoftly(softly -> {
+        awaitAtMost().untilAsserted(() -> assertSoftly(softly -> {
             softly.assertThat(CalendarUtil.getAttendeePartStat(
                     calDavClient.getCalendarEvent(bob, organizerEventUri), alice.email()))
                 .as("Alice PARTSTAT on Bob organizer calendar before David delegated update")
@@ -1562,12 +1526,12 @@ public abstract class CalDavDelegationContract {
 
         // AND Alice delegates her calendar to David with READ only
         calDavClient.grantDelegation(alice, alice.id(), david, DelegationRight.READ);
-        CalendarURL delegatedCalendarURL = awaitAtMost
+        CalendarURL delegatedCalendarURL = awaitAtMost()
             .ignoreException(IllegalStateException.class)
             .until(() -> calDavClient.findDelegatedCalendar(david, alice.id()), calendarURL -> calendarURL != null);
 
         // AND David finds the event through his delegated calendar URI
-        URI delegatedEventUri = awaitAtMost.until(
+        URI delegatedEventUri = awaitAtMost().until(
                 () -> calDavClient.findFirstUserCalendarObjectUriByEventUid(david, delegatedCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event to be present in David delegated calendar"));
@@ -1712,7 +1676,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.upsertCalendarEvent(alice, calendarURL, eventUid, calendarData);
 
         // THEN an ITIP request is sent to Cedric
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = calDavClient.findEventsByTime(cedric,
                 cedric.id(),
                 "inbox",
@@ -1757,7 +1721,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.deleteCalendarEvent(alice, calendarURL, eventUid);
 
         // THEN an ITIP cancel is sent to Cedric
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = calDavClient.findEventsByTime(cedric,
                 cedric.id(),
                 "inbox",
@@ -1936,7 +1900,7 @@ public abstract class CalDavDelegationContract {
         // AND Alice has admin delegation on Bob's calendar
         calDavClient.createNewCalendar(bob, calendarId, "Calendar A", 2);
         calDavClient.grantDelegation(bob, calendarId, alice, DelegationRight.ADMIN);
-        CalendarURL delegatedCalendarURL = awaitAtMost
+        CalendarURL delegatedCalendarURL = awaitAtMost()
             .ignoreException(IllegalStateException.class)
             .until(() -> calDavClient.findDelegatedCalendar(alice, new CalendarURL(bob.id(), calendarId)), calendarURL -> calendarURL != null);
         String bobCalendarsBeforeSelfDelegation = calDavClient.getUserCalendarsJson(bob);
@@ -2220,7 +2184,7 @@ public abstract class CalDavDelegationContract {
 
         // GIVEN Bob delegates his calendar to Alice in admin mode
         calDavClient.grantDelegation(bob, bob.id(), alice, DelegationRight.ADMIN);
-        CalendarURL delegatedCalendarURL = awaitAtMost
+        CalendarURL delegatedCalendarURL = awaitAtMost()
             .ignoreException(IllegalStateException.class)
             .until(() -> calDavClient.findDelegatedCalendar(alice, bob.id()), calendarURL -> calendarURL != null);
 
@@ -2230,7 +2194,7 @@ public abstract class CalDavDelegationContract {
             cedric, DelegationRight.READ));
 
         // THEN Cedric receives the delegated calendar
-        awaitAtMost.until(
+        awaitAtMost().until(
             () -> {
                 try {
                     return Optional.of(calDavClient.findDelegatedCalendar(cedric, bob.id()));
@@ -2412,7 +2376,7 @@ public abstract class CalDavDelegationContract {
 
         calDavClient.updateCalendarSetting(bob, CalendarURL.from(bob.id()), "new name", "#009688");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = execute(dockerExtension().davHttpClient()
                 .headers(headers -> alice.impersonatedBasicAuth(headers)
                     .add("Depth", "0")
@@ -2448,7 +2412,7 @@ public abstract class CalDavDelegationContract {
 
         calDavClient.updateCalendarSetting(technicalToken, CalendarURL.from(resource.id()), "Renamed Resource Calendar", "#009688");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response = execute(dockerExtension().davHttpClient()
                 .headers(headers -> bob.impersonatedBasicAuth(headers)
                     .add("Depth", "0")
@@ -2508,7 +2472,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.upsertCalendarEvent(alice, eventUid, eventIcs);
 
         // WHEN: Bob locates the event in the resource calendar
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
         URI resourceEventUri = calDavClient.findDelegatedCalendar(bob, resource.id()).eventHref(resourceEventId);
 
         // THEN: Bob can retrieve the event via GET
@@ -2581,7 +2545,7 @@ public abstract class CalDavDelegationContract {
         calDavClient.upsertCalendarEvent(alice, eventUid, eventIcs);
 
         // WHEN: Bob updates the resource participation status to ACCEPTED
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
         URI resourceEventUri = calDavClient.findDelegatedCalendar(bob, resource.id()).eventHref(resourceEventId);
         DavResponse getResponse = execute(dockerExtension().davHttpClient()
             .headers(bob::impersonatedBasicAuth)
@@ -2597,7 +2561,7 @@ public abstract class CalDavDelegationContract {
             .send(body(updatedEventIcs)));
 
         // THEN: Verify that Alice sees the updated participation status of the resource
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse aliceViewResponse = execute(dockerExtension().davHttpClient()
                 .headers(alice::impersonatedBasicAuth)
                 .get()
@@ -2645,7 +2609,7 @@ public abstract class CalDavDelegationContract {
             """.formatted(eventUid, alice.email(), resource.id());
 
         calDavClient.upsertCalendarEvent(alice, eventUid, eventIcs);
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
         URI resourceEventUri = calDavClient.findDelegatedCalendar(bob, resource.id()).eventHref(resourceEventId);
 
         // WHEN: Bob (resource admin) sends an ITIP COUNTER on behalf of the resource
@@ -2749,7 +2713,7 @@ public abstract class CalDavDelegationContract {
         // GIVEN: Bob's delegated resource calendar URL and event href
         CalendarURL resourceCalendarUrl = calDavClient.findDelegatedCalendar(bob, resource.id());
         List<String> propfindHrefs = awaitCalendarEntries(
-            dockerExtension().davHttpClient(),
+            dockerExtension().davHttpClient(), dockerExtension().amqpEventBus(),
             bob, resourceCalendarUrl.asUri().toString(), 1);
 
         // WHEN: Bob (resource admin) sends ITIP COUNTER via delegated calendar event URI
@@ -2849,7 +2813,7 @@ public abstract class CalDavDelegationContract {
             """.formatted(eventUid, alice.email(), resource.id());
         calDavClient.upsertCalendarEvent(alice, eventUid, eventIcs);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
         URI resourceEventUri = calDavClient.findDelegatedCalendar(bob, resource.id()).eventHref(resourceEventId);
 
         // sanity check: PUT works before revocation
@@ -2875,7 +2839,7 @@ public abstract class CalDavDelegationContract {
         revokeResourceAdmin(resource, bob, technicalToken);
 
         // THEN: PUT on delegated resource event is no longer allowed
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             int putAfterRevokeStatus = putAsDelegatedResourceAdmin.get();
 
             assertThat(putAfterRevokeStatus)
@@ -2918,7 +2882,7 @@ public abstract class CalDavDelegationContract {
             """.formatted(eventUid, alice.email(), resource.id());
         calDavClient.upsertCalendarEvent(alice, eventUid, eventIcs);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent).get();
         URI resourceEventUri = calDavClient.findDelegatedCalendar(bob, resource.id()).eventHref(resourceEventId);
 
         String counterIcal = """
@@ -2967,7 +2931,7 @@ public abstract class CalDavDelegationContract {
         revokeResourceAdmin(resource, bob, technicalToken);
 
         // THEN: ITIP via delegated resource event URI is no longer allowed
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             int itipAfterRevokeStatus = sendItipAsDelegatedResourceAdmin.get();
 
             assertThat(itipAfterRevokeStatus)
@@ -3288,11 +3252,7 @@ public abstract class CalDavDelegationContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/calendars/" + user.id()));
 
-        List<String> xmlAliceCalendars = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> xmlAliceCalendars = XMLUtil.extractResponseHrefs(response.body());
         return xmlAliceCalendars;
     }
 }
@@ -33,6 +33,7 @@ import java.util.UUID;
 import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.DavResponse;
@@ -48,6 +49,7 @@ import io.restassured.config.EncoderConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CalDavResourceMultitenancyContract {
 
     private static final String SECOND_DOMAIN = "second-domain.org";
@@ -18,18 +18,15 @@
 
 package com.linagora.dav.contracts.cal;
 
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
 import java.net.URI;
-import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalDavClient.DelegationRight;
@@ -40,14 +37,6 @@ import com.linagora.dav.OpenPaasUser;
 
 public abstract class CalDavResourceParticipationContract {
 
-    private final ConditionFactory awaitAtMost = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await()
-        .atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -68,7 +57,7 @@ public abstract class CalDavResourceParticipationContract {
         String eventUid = UUID.randomUUID().toString();
         calDavClient.upsertCalendarEvent(organizer, eventUid, generateCalendarData(eventUid, organizer.email(), resource.id(), "NEEDS-ACTION"));
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), organizer), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), organizer), Optional::isPresent).get();
 
         URI resourceEventUri = URI.create("/calendars/" + resource.id() + "/" + resource.id() + "/" + resourceEventId + ".ics");
         String acceptedCalendarData = generateCalendarData(eventUid, organizer.email(), resource.id(), "ACCEPTED");
@@ -92,7 +81,7 @@ public abstract class CalDavResourceParticipationContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, generateCalendarData(eventUid, organizer.email(), resource.id(), "NEEDS-ACTION"));
 
         CalendarURL mirrorCalendarURL = calDavClient.findDelegatedCalendar(resourceAdmin, resource.id());
-        URI mirrorEventUri = awaitAtMost.until(
+        URI mirrorEventUri = awaitAtMost().until(
                 () -> calDavClient.findFirstUserCalendarObjectUriByEventUid(resourceAdmin, mirrorCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event to be present in delegated resource calendar"));
@@ -35,6 +35,7 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -56,6 +57,7 @@ import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import net.javacrumbs.jsonunit.core.Option;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CalJsonContract {
 
     public record EventData(String uid, String dtstart, String dtend, Optional<String> recurrenceId) {
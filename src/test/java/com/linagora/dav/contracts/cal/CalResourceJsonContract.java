@@ -27,6 +27,7 @@ import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.DockerTwakeCalendarSetup;
@@ -40,6 +41,7 @@ import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import net.javacrumbs.jsonunit.core.Option;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CalResourceJsonContract {
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
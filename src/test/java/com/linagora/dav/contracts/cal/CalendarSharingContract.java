@@ -19,6 +19,8 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
+import static com.linagora.dav.TestUtil.awaitAtMost;
+import static com.linagora.dav.TestUtil.awaitDuring;
 import static com.linagora.dav.TestUtil.body;
 import static com.linagora.dav.TestUtil.execute;
 import static com.linagora.dav.TestUtil.executeNoContent;
@@ -31,7 +33,6 @@ import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -47,12 +48,10 @@ import org.assertj.core.api.AssertionsForClassTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalendarURL;
 import com.linagora.dav.CalendarUtil;
@@ -64,7 +63,6 @@ import com.linagora.dav.OpenPaasUser;
 import com.linagora.dav.TwakeCalendarProvisioningService;
 import com.linagora.dav.XMLUtil;
 import com.linagora.dav.dto.share.SubscribedCalendarRequest;
-import com.rabbitmq.client.Channel;
 
 import io.netty.handler.codec.http.HttpMethod;
 import io.restassured.RestAssured;
@@ -75,18 +73,11 @@ import io.restassured.http.ContentType;
 import net.fortuna.ical4j.model.parameter.PartStat;
 import reactor.core.publisher.Mono;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CalendarSharingContract {
 
     public static final ObjectMapper MAPPER = new ObjectMapper();
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     public abstract DockerTwakeCalendarExtension extension();
 
     private CalDavClient calDavClient;
@@ -94,7 +85,6 @@ public abstract class CalendarSharingContract {
     private OpenPaasUser bob;
     private OpenPaasUser alice;
     private OpenPaasUser cedric;
-    private Channel channel;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -115,7 +105,6 @@ public abstract class CalendarSharingContract {
         bob = extension().newTestUser();
         alice = extension().newTestUser();
         cedric = extension().newTestUser();
-        channel = extension().getChannel();
     }
 
     @Test
@@ -403,7 +392,7 @@ public abstract class CalendarSharingContract {
             .uri("/calendars/" + alice.id()));
 
         assertThat(response.status()).isEqualTo(207);
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(response.body(), "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         assertThat(actual).containsExactlyInAnyOrder("/calendars/" + alice.id() + "/",
             "/calendars/" + alice.id() + "/" + alice.id() + "/",
@@ -463,7 +452,7 @@ public abstract class CalendarSharingContract {
             .uri("/calendars/" + alice.id()));
 
         assertThat(response.status()).isEqualTo(207);
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(response.body(), "//d:multistatus/d:response/d:href", Map.of("d", "DAV:"));
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
         assertThat(actual).containsExactlyInAnyOrder("/calendars/" + alice.id() + "/",
             "/calendars/" + alice.id() + "/" + alice.id() + "/",
             "/calendars/" + alice.id() + "/inbox/",
@@ -1235,11 +1224,8 @@ public abstract class CalendarSharingContract {
 
     @Test
     void amqpMessagesEmittedForSubscribedCopy() throws Exception {
-        String queueName = "sharing-test" + alice.id();
-        channel.queueDeclare(queueName, false, true, true, null);
-        channel.queueBind(queueName, "calendar:event:created", "");
-        channel.queueBind(queueName, "calendar:event:updated", "");
-        channel.queueBind(queueName, "calendar:event:deleted", "");
+        BlockingQueue<JsonNode> messages = extension().subscribeToEvents(
+            List.of("calendar:event:created", "calendar:event:updated", "calendar:event:deleted"), alice);
 
         // GIVEN: Bob sets his calendar as read-only
         calDavClient.updateCalendarAcl(bob, "{DAV:}read");
@@ -1256,8 +1242,6 @@ public abstract class CalendarSharingContract {
 
         calDavClient.subscribeToSharedCalendar(alice, subscribedCalendarRequest);
 
-        // AND: Listen to Alice's AMQP queue
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(channel, queueName);
 
         // WHEN: Bob adds an event in his own calendar
         String eventUid = "event-" + UUID.randomUUID();
@@ -1290,11 +1274,8 @@ public abstract class CalendarSharingContract {
 
     @Test
     void noAmqpAlarmMessagesEmittedForSubscribedCopy() throws Exception {
-        String queueName = "sharing-test-alarms-" + alice.id();
-        channel.queueDeclare(queueName, false, false, true, null);
-        channel.queueBind(queueName, "calendar:event:alarm:created", "");
-        channel.queueBind(queueName, "calendar:event:alarm:updated", "");
-        channel.queueBind(queueName, "calendar:event:alarm:deleted", "");
+        BlockingQueue<JsonNode> messages = extension().subscribeToEvents(
+            List.of("calendar:event:alarm:created", "calendar:event:alarm:updated", "calendar:event:alarm:deleted"), alice);
 
         // GIVEN: Bob sets his calendar as read-only
         calDavClient.updateCalendarAcl(bob, "{DAV:}read");
@@ -1311,8 +1292,6 @@ public abstract class CalendarSharingContract {
 
         calDavClient.subscribeToSharedCalendar(alice, subscribedCalendarRequest);
 
-        // AND: Listen to Alice's AMQP queue
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(channel, queueName);
 
         // WHEN: Bob adds an event in his own calendar WITH an alarm
         String eventUid = "event-" + UUID.randomUUID();
@@ -1637,7 +1616,7 @@ public abstract class CalendarSharingContract {
 
         // AND: Cedric should have an iTIP request in his inbox
         String cedricInboxUri = "/calendars/" + cedric.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> cedricInboxItems = calDavClient.reportCalendarEvents(cedric, cedricInboxUri,
                     Instant.parse("2025-09-01T00:00:00Z"),
                     Instant.parse("2025-11-01T00:00:00Z"))
@@ -1732,7 +1711,7 @@ public abstract class CalendarSharingContract {
 
         for (OpenPaasUser attendee : attendees) {
             String inboxUri = "/calendars/" + attendee.id() + "/inbox/";
-            awaitAtMost.untilAsserted(() -> {
+            awaitAtMost().untilAsserted(() -> {
                 List<JsonNode> inboxItems = calDavClient.reportCalendarEvents(
                         attendee,
                         inboxUri,
@@ -1813,7 +1792,7 @@ public abstract class CalendarSharingContract {
         // AND: Initial iTIP REQUEST deliveries are completed before deleting the event
         for (OpenPaasUser attendee : attendees) {
             String inboxUri = "/calendars/" + attendee.id() + "/inbox/";
-            awaitAtMost.untilAsserted(() -> {
+            awaitAtMost().untilAsserted(() -> {
                 List<JsonNode> inboxItems = calDavClient.reportCalendarEvents(
                         attendee,
                         inboxUri,
@@ -1852,7 +1831,7 @@ public abstract class CalendarSharingContract {
         // AND: Both Alice and Cedric should receive an iTIP CANCEL request
         for (OpenPaasUser attendee : attendees) {
             String inboxUri = "/calendars/" + attendee.id() + "/inbox/";
-            awaitAtMost.untilAsserted(() -> {
+            awaitAtMost().untilAsserted(() -> {
                 List<JsonNode> inboxItems = calDavClient.reportCalendarEvents(
                         attendee,
                         inboxUri,
@@ -1952,7 +1931,7 @@ public abstract class CalendarSharingContract {
 
         // AND: Cedric should receive an iTIP CANCEL request in his inbox
         String cedricInboxUri = "/calendars/" + cedric.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> cedricInboxItems = calDavClient.reportCalendarEvents(
                     cedric,
                     cedricInboxUri,
@@ -2152,7 +2131,7 @@ public abstract class CalendarSharingContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
         // CONFIRM: The resource actually received the event (its copy exists)
-        String resourceEventId = awaitAtMost
+        String resourceEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent)
             .get();
 
@@ -2223,7 +2202,7 @@ public abstract class CalendarSharingContract {
 
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent);
+        awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent);
 
         // AND: Alice subscribes to the resource calendar
         SubscribedCalendarRequest subscribedCalendarRequest = SubscribedCalendarRequest.builder()
@@ -2321,7 +2300,7 @@ public abstract class CalendarSharingContract {
             .orElseThrow();
 
         // THEN: the resource participation in the event should be updated successfully by alice
-        JsonNode aliceEvent = awaitAtMost.until(() -> calDavClient.reportCalendarEvents(alice, newCalendarUrl.asUri().toString(),
+        JsonNode aliceEvent = awaitAtMost().until(() -> calDavClient.reportCalendarEvents(alice, newCalendarUrl.asUri().toString(),
                     Instant.parse("2024-09-01T00:00:00Z"), Instant.parse("2026-11-01T00:00:00Z"))
                 .collectList().block()
                 .stream()
@@ -2380,12 +2359,8 @@ public abstract class CalendarSharingContract {
 
     @Test
     void amqpMessagesEmittedForSubscribedCopyOfResourceCalendarInEventRequestExchange() throws IOException, InterruptedException {
-        // GIVEN: an AMQP channel listening to calendar event request
-        String queueName = "sharing-test" + alice.id();
-        channel.queueDeclare(queueName, false, true, true, null);
-        channel.queueBind(queueName, "calendar:event:request", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(channel, queueName);
+        // GIVEN: Alice listening to calendar event request messages
+        BlockingQueue<JsonNode> messages = extension().subscribeToEvents("calendar:event:request", alice);
 
         // AND a resource "projector" in the same domain as Alice and Bob, administered by Alice so Bob's request is not auto-accepted
         OpenPaaSResource resource = extension().getDockerTwakeCalendarSetupSingleton()
@@ -2436,7 +2411,7 @@ public abstract class CalendarSharingContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
         // CONFIRM: The resource actually received the event (its copy exists)
-        String resourceEventId = awaitAtMost
+        String resourceEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent)
             .get();
 
@@ -2453,12 +2428,8 @@ public abstract class CalendarSharingContract {
 
     @Test
     void amqpMessagesEmittedForSubscribedCopyOfResourceCalendarInEventCancelExchange() throws IOException, InterruptedException {
-        // GIVEN: an AMQP channel listening to calendar event request
-        String queueName = "sharing-test" + alice.id();
-        channel.queueDeclare(queueName, false, true, true, null);
-        channel.queueBind(queueName, "calendar:event:cancel", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(channel, queueName);
+        // GIVEN: Alice listening to calendar event cancel messages
+        BlockingQueue<JsonNode> messages = extension().subscribeToEvents("calendar:event:cancel", alice);
 
         // AND a resource "projector" in the same domain as Alice and Bob, administered by Alice so Bob's request is not auto-accepted
         OpenPaaSResource resource = extension().getDockerTwakeCalendarSetupSingleton()
@@ -2509,7 +2480,7 @@ public abstract class CalendarSharingContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
         // CONFIRM: The resource actually received the event (its copy exists)
-        String resourceEventId = awaitAtMost
+        String resourceEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent)
             .get();
 
@@ -2529,12 +2500,8 @@ public abstract class CalendarSharingContract {
 
     @Test
     void amqpMessagesEmittedForSubscribedCopyOfResourceCalendarWhenResourceIsAccepted() throws IOException, InterruptedException {
-        // GIVEN: an AMQP channel listening to calendar event request
-        String queueName = "sharing-test" + alice.id();
-        channel.queueDeclare(queueName, false, true, true, null);
-        channel.queueBind(queueName, "calendar:event:updated", "");
-
-        BlockingQueue<JsonNode> messages = AmqpTestHelper.listenToQueue(channel, queueName);
+        // GIVEN: Alice listening to calendar event update messages
+        BlockingQueue<JsonNode> messages = extension().subscribeToEvents("calendar:event:updated", alice);
 
         // AND a resource "projector" in the same domain as Alice and Bob, administered by Alice so Bob's request is not auto-accepted
         OpenPaaSResource resource = extension().getDockerTwakeCalendarSetupSingleton()
@@ -2585,7 +2552,7 @@ public abstract class CalendarSharingContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
         // CONFIRM: The resource actually received the event (its copy exists)
-        String resourceEventId = awaitAtMost
+        String resourceEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(resource.id(), bob), Optional::isPresent)
             .get();
 
@@ -2700,10 +2667,10 @@ public abstract class CalendarSharingContract {
 
         // AND: Alice receives the invited event in her own calendar
         CalendarURL aliceDefaultCalendarURL = CalendarURL.from(alice.id());
-        URI aliceEventUri = awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(alice, aliceDefaultCalendarURL, eventUid),
+        URI aliceEventUri = awaitAtMost().until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(alice, aliceDefaultCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected invited event to be present in Alice calendar"));
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.getAttendeePartStat(
                     calDavClient.getCalendarEvent(bob, organizerEventUri), alice.email()))
                 .as("Alice PARTSTAT on Bob organizer calendar before David mirror update")
@@ -2732,7 +2699,7 @@ public abstract class CalendarSharingContract {
             .isEqualTo("/calendars/" + david.id() + "/" + subscribedCalendarId);
 
         // AND: David finds the event through his mirror calendar URI, not Alice's attendee calendar URI
-        URI mirrorEventUri = awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(david, mirrorCalendarURL, eventUid),
+        URI mirrorEventUri = awaitAtMost().until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(david, mirrorCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event to be present in David subscribed calendar"));
         assertThat(mirrorEventUri.toASCIIString()).startsWith(mirrorCalendarURL.asUri().toASCIIString() + "/");
@@ -2751,8 +2718,7 @@ public abstract class CalendarSharingContract {
             .send(body(acceptedMirrorEventIcs)));
 
         // THEN: Bob's organizer calendar keeps Alice participation untouched
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertSoftly(softly -> {
                 softly.assertThat(mirrorUpdateStatus)
                     .as("Read-only mirror PARTSTAT update should be rejected")
@@ -2971,7 +2937,7 @@ public abstract class CalendarSharingContract {
             .isEqualTo("/calendars/" + alice.id() + "/" + subscribedCalendarId);
 
         // AND: Alice finds the event through her mirror calendar URI, not Bob's origin calendar URI
-        URI mirrorEventUri = awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(alice, mirrorCalendarURL, eventUid),
+        URI mirrorEventUri = awaitAtMost().until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(alice, mirrorCalendarURL, eventUid),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event to be present in Alice subscribed calendar"));
         assertThat(mirrorEventUri.toASCIIString()).startsWith(mirrorCalendarURL.asUri().toASCIIString() + "/");
@@ -19,13 +19,13 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
+import static com.linagora.dav.TestUtil.awaitDuring;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.net.URI;
-import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
@@ -35,11 +35,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaasUser;
@@ -57,14 +54,6 @@ public abstract class EmailAMQPMessageContract {
         X-OPENPAAS-BOOKING-LINK:booking-link-id
         """;
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
     private OpenPaasUser bob;
     private OpenPaasUser alice;
@@ -72,16 +61,15 @@ public abstract class EmailAMQPMessageContract {
     public abstract DockerTwakeCalendarExtension dockerExtension();
 
     @BeforeEach
-    void setUp() throws IOException {
+    void setUp() {
         calDavClient = new CalDavClient(dockerExtension().davHttpClient());
         bob = dockerExtension().newTestUser();
         alice = dockerExtension().newTestUser();
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:notificationEmail:send", "");
     }
 
     @Test
     void shouldReceiveNotificationEmailMessageOnEventCreation() {
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String eventUid = UUID.randomUUID().toString();
         String calendarData = generateCalendarData(
@@ -95,7 +83,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
         String expectedEventIcs = """
             BEGIN:VCALENDAR
             VERSION:2.0
@@ -145,7 +133,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -159,7 +147,7 @@ public abstract class EmailAMQPMessageContract {
 
     @Test
     public void shouldReceiveNotificationEmailMessageOnEventCreationWith1DVALARM() {
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String eventUid = UUID.randomUUID().toString();
         String calendarData = """
@@ -203,7 +191,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{partStat}", "NEEDS-ACTION");
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> assertThat(message.path("event").asText()).contains("TRIGGER:-P1D")));
@@ -223,8 +211,8 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -326,7 +314,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -351,7 +339,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T100000",
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -364,7 +352,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> assertThatJson(message.toString())
@@ -393,7 +381,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T100000",
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -406,7 +394,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> assertThatJson(message.toString())
@@ -435,7 +423,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T100000",
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -448,7 +436,7 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> assertThatJson(message.toString())
@@ -478,8 +466,8 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         calDavClient.deleteCalendarEvent(bob, eventUid);
         String expectedEventIcs = """
@@ -528,7 +516,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -554,16 +542,16 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
         URI attendeeEventUri = URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + attendeeEventId + ".ics");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String cancelledCalendarData = calendarData
             .replace("SEQUENCE:1", "SEQUENCE:2")
             .replace("END:VEVENT", "STATUS:CANCELLED\nEND:VEVENT");
         calDavClient.upsertCalendarEvent(bob, eventUid, cancelledCalendarData);
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, attendeeEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, attendeeEventUri))
             .contains("STATUS:CANCELLED"));
 
         String expected = """
@@ -581,7 +569,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeId}", alice.id())
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -627,14 +615,14 @@ public abstract class EmailAMQPMessageContract {
             .contains("X-PUBLICLY-CREATED")
             .contains("X-PUBLICLY-CREATOR")
             .contains("X-OPENPAAS-BOOKING-LINK");
-        awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent);
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         // When: organizer deletes the public agenda event.
         calDavClient.deleteCalendarEvent(bob, eventUid);
 
         // Then: the CANCEL notification payload still carries public agenda metadata.
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText())
                     && "CANCEL".equals(message.path("method").asText()))
@@ -655,8 +643,8 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCalendarData(
             eventUid,
@@ -716,7 +704,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> bob.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -742,8 +730,8 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCounterCalendarData(
             eventUid,
@@ -842,7 +830,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> bob.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -878,8 +866,8 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String updatedCalendarData = generateCounterCalendarData(
             eventUid,
@@ -978,7 +966,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> bob.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1022,7 +1010,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{aliceEmail}", alice.email());
         calDavClient.upsertCalendarEvent(alice, eventUid, initialCalendarData);
 
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String counterCalendarData = """
             BEGIN:VCALENDAR
@@ -1072,7 +1060,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeId}", alice.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> externalBobEmail.equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1090,7 +1078,7 @@ public abstract class EmailAMQPMessageContract {
 
     @Test
     void shouldReceiveNotificationEmailMessageOnRecurringEventWithExdate() {
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         String eventUid = UUID.randomUUID().toString();
 
@@ -1119,7 +1107,7 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.upsertCalendarEvent(bob, eventUid, calendarData);
 
-        String attendeeEventId = awaitAtMost
+        String attendeeEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent)
             .get();
 
@@ -1164,7 +1152,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{organizerId}", bob.id())
             .replace("{attendeeId}", alice.id())
             .replace("{attendeeEventId}", attendeeEventId);
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1204,10 +1192,10 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost
+        String attendeeEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent)
             .get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
 
         // Update the event by adding an EXDATE (exclude one occurrence)
         String updatedCalendarData = initialCalendarData.replace("SUMMARY:Weekly meeting",
@@ -1253,7 +1241,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeId}", alice.id())
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1296,7 +1284,7 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
 
-        String attendeeEventId = awaitAtMost
+        String attendeeEventId = awaitAtMost()
             .until(() -> calDavClient.findFirstEventId(alice), Optional::isPresent)
             .get();
 
@@ -1335,7 +1323,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{organizerEmail}", bob.email())
             .replace("{attendeeEmail}", alice.email());
 
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedOccurrenceData);
 
         // --- Expected ICS for the updated occurrence ---
@@ -1408,7 +1396,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeId}", alice.id())
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1425,6 +1413,7 @@ public abstract class EmailAMQPMessageContract {
     void shouldNotSendNotificationEmailWhenImportSingleEvent() {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String futureDtStart = "30250411T100000";
         String futureDtEnd = "30250411T110000";
@@ -1441,15 +1430,15 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.importCalendarEvent(organizer, eventUid, calendarData);
 
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(2, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
     }
 
     @Test
     void shouldNotSendNotificationEmailWhenCreateSingleEventWithPastDtStart() {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String pastDtStart = "20200101T100000";
         String pastDtEnd = "20200101T110000";
@@ -1466,15 +1455,15 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.upsertCalendarEvent(organizer, eventUid, calendarData);
 
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(2, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
     }
 
     @Test
     void shouldNotSendNotificationEmailWhenCreateRecurringEventWithPastDtStartAndAllOccurrencesInPast() {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String pastDtStart = "20200101T100000";
         String pastDtEnd = "20200101T110000";
@@ -1515,15 +1504,15 @@ public abstract class EmailAMQPMessageContract {
 
         calDavClient.upsertCalendarEvent(organizer, eventUid, calendarData);
 
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(2, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
     }
 
     @Test
     protected void shouldNotSendNotificationEmailWhenOrganizerPartStatIsNeedsActionAndPubliclyCreatedWithInternalAttendee() throws IOException, InterruptedException {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String eventUid = UUID.randomUUID().toString();
         String calendarData = """
@@ -1564,14 +1553,14 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, calendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(2, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
     }
 
     @Test
     protected void shouldNotSendNotificationEmailWhenOrganizerPartStatIsNeedsActionAndPubliclyCreatedWithExternalAttendee() {
         OpenPaasUser organizer = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer);
         String externalAttendeeEmail = "external-attendee-" + UUID.randomUUID() + "@external-domain.com";
 
         String eventUid = UUID.randomUUID().toString();
@@ -1613,9 +1602,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, calendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(2, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
     }
 
     @Test
@@ -1664,7 +1652,7 @@ public abstract class EmailAMQPMessageContract {
 
         // Given: a public agenda booking exists but the organizer attendee is still NEEDS-ACTION.
         calDavClient.upsertCalendarEvent(organizer, eventUid, calendarData);
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, internalAttendee);
 
         // When: the organizer cancels the unaccepted booking.
         calDavClient.deleteCalendarEvent(organizer, eventUid);
@@ -1673,8 +1661,7 @@ public abstract class EmailAMQPMessageContract {
         // The booker is always kept informed: it is their booking.
         assertBookerNotified(messages, "CANCEL");
 
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> "CANCEL".equals(message.path("method").asText()))
                 .filteredOn(message -> internalAttendee.email().equals(message.path("recipientEmail").asText())
@@ -1688,6 +1675,7 @@ public abstract class EmailAMQPMessageContract {
     protected void shouldSendNotificationEmailWhenOrganizerPartStatUpdatedFromNeedsActionToAcceptedWithInternalAttendee(String partStat) {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String eventUid = UUID.randomUUID().toString();
 
@@ -1730,10 +1718,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         // WHEN: Organizer updates PARTSTAT to ACCEPTED or TENTATIVE
         String updatedCalendarData = """
@@ -1786,7 +1772,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeEmail}", attendee.email());
 
         // THEN: A notification email should be sent to the internal attendee
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> attendee.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1803,6 +1789,7 @@ public abstract class EmailAMQPMessageContract {
     @ValueSource(strings = {"ACCEPTED", "TENTATIVE"})
     protected void shouldSendNotificationEmailWhenOrganizerPartStatUpdatedFromNeedsActionToAcceptedWithExternalAttendee(String partStat) {
         OpenPaasUser organizer = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer);
         String externalAttendeeEmail = "external-attendee-" + UUID.randomUUID() + "@external-domain.com";
 
         String eventUid = UUID.randomUUID().toString();
@@ -1846,10 +1833,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         // WHEN: Organizer updates PARTSTAT to ACCEPTED or TENTATIVE
         String updatedCalendarData = """
@@ -1902,7 +1887,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeEmail}", externalAttendeeEmail);
 
         // THEN: A notification email should be sent to the external attendee
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> externalAttendeeEmail.equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> {
@@ -1919,6 +1904,7 @@ public abstract class EmailAMQPMessageContract {
     protected void shouldSendNotificationEmailWhenAcceptedAfterSetRecurringPubliclyCreated() {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
         String eventUid = UUID.randomUUID().toString();
         String recurrenceRule = "RRULE:FREQ=DAILY;COUNT=3";
 
@@ -1951,9 +1937,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         String recurringCalendarData = initialCalendarData
             .replace("SEQUENCE:1", "SEQUENCE:2")
@@ -1962,10 +1947,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, recurringCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         String acceptedCalendarData = recurringCalendarData
             .replace("SEQUENCE:2", "SEQUENCE:3")
@@ -1985,7 +1968,7 @@ public abstract class EmailAMQPMessageContract {
             """.replace("{organizerEmail}", organizer.email())
             .replace("{attendeeEmail}", attendee.email());
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> attendee.email().equals(message.path("recipientEmail").asText()))
                 .anySatisfy(message -> assertThatJson(message.toString())
@@ -1999,6 +1982,7 @@ public abstract class EmailAMQPMessageContract {
     protected void shouldOnlySendNotificationEmailToBookerWhenOrganizerPartStatUpdatedFromNeedsActionToDeclinedWithInternalAttendee() throws InterruptedException, IOException {
         OpenPaasUser organizer = dockerExtension().newTestUser();
         OpenPaasUser attendee = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String eventUid = UUID.randomUUID().toString();
 
@@ -2041,10 +2025,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         // WHEN: Organizer updates PARTSTAT to DECLINED
         String updatedCalendarData = """
@@ -2088,8 +2070,7 @@ public abstract class EmailAMQPMessageContract {
         assertBookerNotified(messages, "REQUEST");
 
         // ...while the invited attendee never heard about the booking in the first place.
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> attendee.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for an attendee of an unaccepted public agenda booking")
@@ -2099,6 +2080,7 @@ public abstract class EmailAMQPMessageContract {
     @Test
     protected void shouldOnlySendNotificationEmailToBookerWhenOrganizerPartStatUpdatedFromNeedsActionToDeclinedWithExternalAttendee() throws InterruptedException, IOException {
         OpenPaasUser organizer = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer);
         String externalAttendeeEmail = "external-attendee-" + UUID.randomUUID() + "@external-domain.com";
 
         String eventUid = UUID.randomUUID().toString();
@@ -2142,10 +2124,8 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
 
         // Nobody is told about a booking that is still awaiting the organizer's answer.
-        calmlyAwait
-            .during(1, TimeUnit.SECONDS)
-            .untilAsserted(() -> assertThat(dockerExtension().getChannel().basicGet(QUEUE_NAME, true)).isNull());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        awaitDuring(1, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(messages).isEmpty());
 
         // WHEN: Organizer updates PARTSTAT to DECLINED
         String updatedCalendarData = """
@@ -2189,8 +2169,7 @@ public abstract class EmailAMQPMessageContract {
         assertBookerNotified(messages, "REQUEST");
 
         // ...while the invited attendee never heard about the booking in the first place.
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> externalAttendeeEmail.equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for an attendee of an unaccepted public agenda booking")
@@ -2239,9 +2218,9 @@ public abstract class EmailAMQPMessageContract {
             """.replace("{eventUid}", eventUid)
             .replace("{organizerEmail}", bob.email())
             .replace("{attendeeEmail}", alice.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
             .hasSize(1));
         messages.clear();
@@ -2251,8 +2230,7 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
         // THEN: Alice should not receive any notification email
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for " + alice.email())
@@ -2302,9 +2280,9 @@ public abstract class EmailAMQPMessageContract {
             """.replace("{eventUid}", eventUid)
             .replace("{organizerEmail}", bob.email())
             .replace("{attendeeEmail}", alice.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
             .hasSize(1));
         messages.clear();
@@ -2314,8 +2292,7 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
         // THEN: Alice should not receive any notification email
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for " + alice.email())
@@ -2385,9 +2362,9 @@ public abstract class EmailAMQPMessageContract {
             """.replace("{eventUid}", eventUid)
             .replace("{organizerEmail}", bob.email())
             .replace("{attendeeEmail}", alice.email());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
             .hasSizeGreaterThan(1));
         messages.clear();
@@ -2416,8 +2393,7 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
         // THEN: Alice should not receive any notification email
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for " + alice.email())
@@ -2440,9 +2416,9 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000")
             .replace("DESCRIPTION:Visibility-only update.",
                 "DESCRIPTION:Visibility-only update.\nCLASS:PUBLIC\nTRANSP:OPAQUE");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
             .hasSize(1));
         messages.clear();
@@ -2452,8 +2428,7 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
         // THEN: Alice should not receive any notification email
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for " + alice.email())
@@ -2476,9 +2451,9 @@ public abstract class EmailAMQPMessageContract {
             "30250411T110000")
             .replace("DESCRIPTION:Visibility-only update.",
                 "DESCRIPTION:Visibility-only update.\nCLASS:PUBLIC\nTRANSP:OPAQUE");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue(bob, alice);
         calDavClient.upsertCalendarEvent(bob, eventUid, initialCalendarData);
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
             .hasSize(1));
         messages.clear();
@@ -2488,8 +2463,7 @@ public abstract class EmailAMQPMessageContract {
         calDavClient.upsertCalendarEvent(bob, eventUid, updatedCalendarData);
 
         // THEN: Alice should not receive any notification email
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(messages)
                 .filteredOn(message -> alice.email().equals(message.path("recipientEmail").asText()))
                 .as("Unexpected notification email for " + alice.email())
@@ -2535,8 +2509,8 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeEmail}", attendee.email());
 
         calDavClient.upsertCalendarEvent(organizer, eventUid, initialCalendarData);
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(attendee), Optional::isPresent).get();
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(attendee), Optional::isPresent).get();
+        BlockingQueue<JsonNode> messages = listenToQueue(organizer, attendee);
 
         String updatedCalendarData = """
             BEGIN:VCALENDAR
@@ -2662,7 +2636,7 @@ public abstract class EmailAMQPMessageContract {
             .replace("{attendeeId}", attendee.id())
             .replace("{attendeeEventId}", attendeeEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> attendee.email().equals(message.path("recipientEmail").asText()) && message.has("changes"))
                 .anySatisfy(message -> {
@@ -2674,12 +2648,12 @@ public abstract class EmailAMQPMessageContract {
                 }));
     }
 
-    private BlockingQueue<JsonNode> listenToQueue() {
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
+    private BlockingQueue<JsonNode> listenToQueue(OpenPaasUser... users) {
+        return dockerExtension().subscribeToEvents("calendar:event:notificationEmail:send", users);
     }
 
     private void assertBookerNotified(BlockingQueue<JsonNode> messages, String method) {
-        awaitAtMost.untilAsserted(() -> assertThat(messages)
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
             .filteredOn(message -> BOOKER_EMAIL.equals(message.path("recipientEmail").asText()))
             .as("Missing %s notification email for the booker of the public agenda booking", method)
             .anySatisfy(message -> assertThat(message.path("method").asText()).isEqualTo(method)));
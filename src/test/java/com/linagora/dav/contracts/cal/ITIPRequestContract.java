@@ -19,6 +19,7 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static com.linagora.dav.TestUtil.body;
 import static com.linagora.dav.TestUtil.execute;
 import static com.linagora.dav.TestUtil.executeNoContent;
@@ -28,13 +29,11 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 import java.net.URI;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -44,8 +43,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -70,12 +67,6 @@ import net.fortuna.ical4j.model.parameter.PartStat;
 import net.fortuna.ical4j.model.property.Attendee;
 
 public abstract class ITIPRequestContract {
-    private static final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollDelay(Duration.ofSeconds(2))
-        .pollInterval(Duration.ofSeconds(1))
-        .await();
-
-    public static final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
 
     public abstract DockerTwakeCalendarExtension extension();
 
@@ -148,7 +139,7 @@ public abstract class ITIPRequestContract {
         // THEN. Bob’s default calendar should have the event
         String bobDefaultCalendarUri = "/calendars/" + bob.id() + "/" + bob.id();
 
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -232,7 +223,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), updatedBody).block();
 
         // THEN Bob’s default calendar should be updated accordingly
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -304,7 +295,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), requestBody).block();
 
         // THEN Bob’s default calendar event should still be updated
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -378,7 +369,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(cedric, URI.create("/calendars/" + cedric.id()), replyBody).block();
 
         // THEN Cedric’s default calendar event should still be updated with Bob's ACCEPTED status
-        awaitAtMost.untilAsserted(() -> assertThat(cedricEventsForUri.apply(cedricDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(cedricEventsForUri.apply(cedricDefaultCalendarUri))
             .anySatisfy(item -> {
                 String json = item.toString();
                 assertThat(json).contains(eventUid);
@@ -465,7 +456,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), cancelBody).block();
 
         // THEN Bob’s default calendar event should still be cancelled
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .filteredOn(item -> item.toString().contains(eventUid))
             .allSatisfy(item -> {
                 String json = item.toString();
@@ -558,7 +549,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
         // THEN Bob’s default calendar should reflect cancellation
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .filteredOn(item -> item.toString().contains(eventUid))
             .allSatisfy(item -> {
                 String json = item.toString();
@@ -651,7 +642,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(cedric, URI.create(cedricCalendarUri), replyBody).block();
 
         // THEN Cedric’s calendar should reflect Bob’s partstat = ACCEPTED
-        awaitAtMost.untilAsserted(() -> assertThat(cedricEventsForUri.apply(cedricDefaultCalendarUri)).anySatisfy(item -> {
+        awaitAtMost().untilAsserted(() -> assertThat(cedricEventsForUri.apply(cedricDefaultCalendarUri)).anySatisfy(item -> {
             String json = item.toString();
             assertThat(json).contains(eventUid);
             assertThatJson(item)
@@ -765,7 +756,7 @@ public abstract class ITIPRequestContract {
                     Instant.parse("2025-11-01T00:00:00Z"))
                 .collectList()
                 .block();
-        awaitAtMost.untilAsserted(() -> assertThat(aliceEventsForUri.apply(aliceDefaultCalendarUri)).anySatisfy(item -> {
+        awaitAtMost().untilAsserted(() -> assertThat(aliceEventsForUri.apply(aliceDefaultCalendarUri)).anySatisfy(item -> {
             String json = item.toString();
             assertThat(json).contains(eventUid);
             assertThatJson(item)
@@ -811,7 +802,7 @@ public abstract class ITIPRequestContract {
 
         // Ensure Alice has the event before she sends COUNTER
         String aliceDefaultCalendarUri = "/calendars/" + alice.id() + "/" + alice.id();
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> aliceEvents = calDavClient.reportCalendarEvents(
                     alice,
                     aliceDefaultCalendarUri,
@@ -860,7 +851,7 @@ public abstract class ITIPRequestContract {
 
         // THEN Bob's inbox should contain the COUNTER sent by Alice
         String bobInboxUri = "/calendars/" + bob.id() + "/inbox/";
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> bobInboxItems = calDavClient.reportCalendarEvents(
                     bob,
                     bobInboxUri,
@@ -1171,7 +1162,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(cedric, URI.create("/calendars/" + bob.id()), counterBody).block();
 
         // THEN Bob receives delegated COUNTER in inbox
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<JsonNode> bobInboxItems = calDavClient.reportCalendarEvents(
                     bob,
                     "/calendars/" + bob.id() + "/inbox/",
@@ -1404,7 +1395,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
         // THEN Bob’s default calendar should reflect cancellation of the specific instance and keep the others
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response2 = calDavClient.findEventsByTime(bob,
                 CalendarURL.from(bob.id()),
                 "20250110T000000",
@@ -1526,7 +1517,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
         // THEN Bob’s default calendar should reflect cancellation of the specific instances and keep the others
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             DavResponse response2 = calDavClient.findEventsByTime(bob,
                 CalendarURL.from(bob.id()),
                 "20250110T000000",
@@ -2391,7 +2382,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
         // THEN Bob’s default calendar should reflect cancellation
-        awaitAtMost.untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
+        awaitAtMost().untilAsserted(() -> assertThat(bobEventsForUri.apply(bobDefaultCalendarUri))
             .filteredOn(item -> item.toString().contains(eventUid))
             .allSatisfy(item -> {
                 String json = item.toString();
@@ -2469,7 +2460,7 @@ public abstract class ITIPRequestContract {
     }
 
     private List<String> awaitCalendarEntries(OpenPaasUser attendee, String collectionPath, int expectedCount) {
-        return TestUtil.awaitCalendarEntries(extension().davHttpClient(), attendee, collectionPath, expectedCount);
+        return TestUtil.awaitCalendarEntries(extension().davHttpClient(), extension().amqpEventBus(), attendee, collectionPath, expectedCount);
     }
 
     @Test
@@ -2843,17 +2834,17 @@ public abstract class ITIPRequestContract {
             .method("REPLY")
             .buildJson();
 
-        String aliceCalendarEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(alice),
+        String aliceCalendarEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(alice),
                 Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event id to be present"));
         String aliceCalendarEventUri = "/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics";
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, URI.create(aliceCalendarEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, URI.create(aliceCalendarEventUri)))
             .contains("UID:" + eventUid));
 
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), overrideReplyBody).block();
 
         // THEN only the override PARTSTAT is updated
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<String> hrefs = awaitCalendarEntries(bob, bobDefaultCalendarUri, 1);
             String calendarIcs = calDavClient.getCalendarEvent(bob, URI.create(hrefs.getFirst()));
             Map<String, PartStat> partStats = CalendarUtil.getRecurringAttendeePartStats(calendarIcs, alice.email());
@@ -2897,7 +2888,7 @@ public abstract class ITIPRequestContract {
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), masterReplyBody).block();
 
         // THEN only the master PARTSTAT is updated
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             List<String> hrefs = awaitCalendarEntries(bob, bobDefaultCalendarUri, 1);
             String calendarIcs = calDavClient.getCalendarEvent(bob, URI.create(hrefs.getFirst()));
             Map<String, PartStat> partStats = CalendarUtil.getRecurringAttendeePartStats(calendarIcs, alice.email());
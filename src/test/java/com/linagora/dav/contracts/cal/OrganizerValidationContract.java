@@ -460,7 +460,7 @@ public abstract class OrganizerValidationContract {
             END:VCALENDAR\r
             """.formatted(uid, organizer.email(), organizer.email(), attendee.email()));
 
-        String attendeeEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(attendee), Optional::isPresent)
+        String attendeeEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(attendee), Optional::isPresent)
             .orElseThrow(() -> new AssertionError("Expected event to be propagated to attendee calendar"));
 
         // WHEN the attendee updates their PARTSTAT on their copy, where the ORGANIZER is someone else
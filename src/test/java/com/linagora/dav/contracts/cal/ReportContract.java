@@ -25,6 +25,7 @@ import java.util.UUID;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.linagora.dav.CalDavClient;
@@ -42,6 +43,7 @@ import io.restassured.config.EncoderConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class ReportContract {
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -19,24 +19,19 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.io.IOException;
-import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaaSResource;
@@ -46,14 +41,6 @@ import net.javacrumbs.jsonunit.core.Option;
 
 public abstract class ResourceAMQPMessageContract {
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
     
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -64,9 +51,7 @@ public abstract class ResourceAMQPMessageContract {
     }
 
     @Test
-    void shouldReceiveMessageFromEventResourceCreatedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "resource:calendar:event:created", "");
-
+    void shouldReceiveMessageFromEventResourceCreatedExchange() {
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
         OpenPaaSResource resource = dockerExtension().getDockerTwakeCalendarSetupSingleton()
@@ -85,10 +70,10 @@ public abstract class ResourceAMQPMessageContract {
             "30250411T100000",
             "30250411T110000",
             resource.id());
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("resource:calendar:event:created", resource);
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
         String expectedEventIcs = """
             BEGIN:VCALENDAR
             VERSION:2.0
@@ -135,7 +120,7 @@ public abstract class ResourceAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{resourceEventId}", resourceEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> resource.id().equals(message.path("resourceId").asText()))
                 .anySatisfy(message -> {
@@ -150,9 +135,7 @@ public abstract class ResourceAMQPMessageContract {
     }
 
     @Test
-    void shouldReceiveMessageFromEventResourceAcceptExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "resource:calendar:event:accepted", "");
-
+    void shouldReceiveMessageFromEventResourceAcceptExchange() {
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
         OpenPaasUser resourceAdmin = dockerExtension().newTestUser();
@@ -174,7 +157,7 @@ public abstract class ResourceAMQPMessageContract {
             resource.id());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
 
         String token = dockerExtension().twakeCalendarProvisioningService().generateToken();
 
@@ -189,7 +172,7 @@ public abstract class ResourceAMQPMessageContract {
             "30250411T110000",
             resource.id(),
             "ACCEPTED");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("resource:calendar:event:accepted", resource);
         calDavClient.upsertCalendarEvent(resource.id(), resourceEventId, updatedCalendarData, token);
 
         String expectedEventIcs = """
@@ -238,7 +221,7 @@ public abstract class ResourceAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{resourceEventId}", resourceEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> resource.id().equals(message.path("resourceId").asText()))
                 .anySatisfy(message -> {
@@ -254,9 +237,7 @@ public abstract class ResourceAMQPMessageContract {
     }
 
     @Test
-    void shouldReceiveMessageFromEventResourceDeclineExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "resource:calendar:event:declined", "");
-
+    void shouldReceiveMessageFromEventResourceDeclineExchange() {
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
         OpenPaasUser resourceAdmin = dockerExtension().newTestUser();
@@ -278,7 +259,7 @@ public abstract class ResourceAMQPMessageContract {
             resource.id());
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        String resourceEventId = awaitAtMost.until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
+        String resourceEventId = awaitAtMost().until(() -> calDavClient.findFirstEventId(resource.id(), testUser), Optional::isPresent).get();
 
         String token = dockerExtension().twakeCalendarProvisioningService().generateToken();
 
@@ -293,7 +274,7 @@ public abstract class ResourceAMQPMessageContract {
             "30250411T110000",
             resource.id(),
             "DECLINED");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = listenToQueue("resource:calendar:event:declined", resource);
         calDavClient.upsertCalendarEvent(resource.id(), resourceEventId, updatedCalendarData, token);
 
         String expectedEventIcs = """
@@ -342,7 +323,7 @@ public abstract class ResourceAMQPMessageContract {
             .replace("{eventUid}", eventUid)
             .replace("{resourceEventId}", resourceEventId);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .filteredOn(message -> resource.id().equals(message.path("resourceId").asText()))
                 .anySatisfy(message -> {
@@ -357,8 +338,8 @@ public abstract class ResourceAMQPMessageContract {
                 }));
     }
 
-    private BlockingQueue<JsonNode> listenToQueue() {
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
+    private BlockingQueue<JsonNode> listenToQueue(String exchange, OpenPaaSResource resource) {
+        return dockerExtension().subscribeToEvents(List.of(exchange), List.of(resource.id()));
     }
 
     private String generateCalendarData(String eventUid, String organizerEmail, String attendeeEmail,
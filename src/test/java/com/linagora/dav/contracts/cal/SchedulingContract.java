@@ -19,13 +19,15 @@
 package com.linagora.dav.contracts.cal;
 
 import static com.linagora.dav.CalendarAssert.assertThatCalendar;
+import static com.linagora.dav.TestUtil.CALENDAR_EVENT_EXCHANGES;
+import static com.linagora.dav.TestUtil.awaitAtMost;
+import static com.linagora.dav.TestUtil.awaitDuring;
 import static com.linagora.dav.TestUtil.executeNoContent;
 import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 import java.net.URI;
-import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,13 +41,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalendarURL;
 import com.linagora.dav.CalendarUtil;
 import com.linagora.dav.CalendarUtil.CalendarExtractor;
+import com.linagora.dav.DavAwait;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaasUser;
 
@@ -70,14 +71,6 @@ public abstract class SchedulingContract {
         Property.DTSTAMP
     };
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     public abstract DockerTwakeCalendarExtension extension();
 
     private CalDavClient calDavClient;
@@ -182,7 +175,7 @@ public abstract class SchedulingContract {
         assertThat(awaitFirstEventId(alice)).isEqualTo(organizerEventUid);
 
         // And scheduling is bypassed: Bob never receives a copy
-        calmlyAwait.during(5, TimeUnit.SECONDS)
+        awaitDuring(5, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(calDavClient.findFirstEventId(bob)).isEmpty());
     }
 
@@ -215,7 +208,7 @@ public abstract class SchedulingContract {
         // And Cedric already sees the initial summary
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("SUMMARY:Initial Meeting"));
 
         // When Bob updates the event
@@ -242,7 +235,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricCalendarEventIcs));
@@ -276,14 +269,14 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, organizerEventIcs);
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("SUMMARY:Meeting to be deleted"));
 
         // And Bob deletes that event
         calDavClient.deleteCalendarEvent(bob, organizerEventUid);
 
         // Then Cedric calendar marks the event as cancelled
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("STATUS:CANCELLED"));
     }
 
@@ -326,7 +319,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, cancelledOrganizerEventIcs);
 
         // Then every attendee calendar object is updated with the cancelled event data
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEventIcs = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             String cedricEventIcs = calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri);
 
@@ -375,7 +368,7 @@ public abstract class SchedulingContract {
             return CalendarUtil.getAttendeePartStat(bobCalendar, cedricEmail);
         };
 
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
             .isEqualTo(PartStat.NEEDS_ACTION));
 
         String cedricCalendarEventId = awaitFirstEventId(cedric);
@@ -387,7 +380,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricCalendarEventUri, cedricAcceptedCalendarEventIcs);
 
         // Then Bob calendar reflects Cedric acceptance
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
             .isEqualTo(PartStat.ACCEPTED));
     }
 
@@ -425,7 +418,7 @@ public abstract class SchedulingContract {
                 URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics"));
             return CalendarUtil.getAttendeePartStat(aliceCalendarEventIcs, cedric.email());
         };
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnAliceCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnAliceCalendar.get())
             .isEqualTo(PartStat.NEEDS_ACTION));
 
         // And Cedric accepts the event
@@ -436,7 +429,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricCalendarEventUri, cedricAcceptedCalendarEventIcs);
 
         // Then Alice calendar reflects Cedric acceptance
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnAliceCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnAliceCalendar.get())
             .isEqualTo(PartStat.ACCEPTED));
     }
 
@@ -478,7 +471,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .extractPropertyValue(Property.TRANSP))
                 .isEqualTo(TRANSP_OPAQUE);
@@ -497,13 +490,12 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects updated TRANSP
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(Property.TRANSP))
             .isEqualTo(TRANSP_TRANSPARENT));
 
         // And Bob and Cedric calendars keep original TRANSP value
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractPropertyValue(Property.TRANSP))
@@ -550,7 +542,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .doesNotContain("TRANSP:");
             assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
@@ -567,13 +559,12 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the added TRANSP
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(Property.TRANSP))
             .isEqualTo(TRANSP_TRANSPARENT));
 
         // And Bob and Cedric calendars keep no TRANSP
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .doesNotContain("TRANSP:");
@@ -620,7 +611,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .extractPropertyValue(Property.TRANSP))
                 .isEqualTo(TRANSP_OPAQUE);
@@ -639,12 +630,11 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the removed TRANSP
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .doesNotContain("TRANSP:"));
 
         // And Bob and Cedric calendars keep original TRANSP
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractPropertyValue(Property.TRANSP))
@@ -691,7 +681,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .doesNotContain("CLASS:");
             assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
@@ -708,13 +698,12 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the added CLASS
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(Property.CLASS))
             .isEqualTo(CLASS_PRIVATE));
 
         // And Bob and Cedric calendars keep no CLASS
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .doesNotContain("CLASS:");
@@ -761,7 +750,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .extractPropertyValue(Property.CLASS))
                 .isEqualTo(CLASS_PUBLIC);
@@ -780,12 +769,11 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Alice calendar reflects the removed CLASS
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .doesNotContain("CLASS:"));
 
         // And Bob and Cedric calendars keep original CLASS
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractPropertyValue(Property.CLASS))
@@ -834,7 +822,7 @@ public abstract class SchedulingContract {
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
         Supplier<CalendarExtractor> aliceCalendarEvent = () -> CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarExtractor aliceCalendarExtractor = aliceCalendarEvent.get();
             assertThat(aliceCalendarExtractor.extractPropertyValue(Property.TRANSP))
                 .isEqualTo(TRANSP_OPAQUE);
@@ -848,7 +836,7 @@ public abstract class SchedulingContract {
             .replace("TRANSP:" + TRANSP_OPAQUE, "TRANSP:" + TRANSP_TRANSPARENT);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.TRANSP))
+        awaitAtMost().untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.TRANSP))
             .isEqualTo(TRANSP_TRANSPARENT));
 
         // And Bob updates event summary
@@ -858,7 +846,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summary is synchronized, but Alice local TRANSP is not reset by Bob update
-        awaitAtMost.untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.SUMMARY))
+        awaitAtMost().untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.SUMMARY))
             .isEqualTo(updatedSummary));
 
         assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.TRANSP))
@@ -904,7 +892,7 @@ public abstract class SchedulingContract {
         Supplier<CalendarExtractor> aliceCalendarEvent = () -> CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri));
         Supplier<CalendarExtractor> bobCalendarEvent = () -> CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarExtractor aliceCalendarExtractor = aliceCalendarEvent.get();
             assertThat(aliceCalendarExtractor.extractPropertyValue(Property.CLASS))
                 .isEqualTo(CLASS_PUBLIC);
@@ -924,7 +912,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summary is synchronized, but Alice local CLASS is not reset by Bob update
-        awaitAtMost.untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.SUMMARY))
+        awaitAtMost().untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.SUMMARY))
             .isEqualTo(updatedSummary));
 
         assertThat(aliceCalendarEvent.get().extractPropertyValue(Property.CLASS))
@@ -971,7 +959,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         Supplier<CalendarExtractor> aliceCalendarEvent = () -> CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri));
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarExtractor aliceCalendarExtractor = aliceCalendarEvent.get();
             assertThat(aliceCalendarExtractor.extractPropertyValue(Property.TRANSP))
                 .isEqualTo(TRANSP_OPAQUE);
@@ -985,7 +973,7 @@ public abstract class SchedulingContract {
             .replace("TRANSP:" + TRANSP_OPAQUE, "TRANSP:" + TRANSP_TRANSPARENT);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(aliceCalendarEvent.get()
+        awaitAtMost().untilAsserted(() -> assertThat(aliceCalendarEvent.get()
             .extractPropertyValue(Property.TRANSP))
             .isEqualTo(TRANSP_TRANSPARENT));
 
@@ -995,7 +983,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricCalendarEventUri, cedricAcceptedCalendarEventIcs);
 
         // Then Cedric PARTSTAT is synchronized to Alice
-        awaitAtMost.untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractAttendeePartStat(cedric.email()))
+        awaitAtMost().untilAsserted(() -> assertThat(aliceCalendarEvent.get().extractAttendeePartStat(cedric.email()))
             .isEqualTo(PartStat.ACCEPTED));
 
         // And Alice local TRANSP is not reset by that attendee update
@@ -1051,7 +1039,7 @@ public abstract class SchedulingContract {
         URI aliceCalendarEventUri = URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
             assertThat(aliceEventExtractor.extractEventPropertyValue(Optional.empty(), Property.TRANSP))
@@ -1077,7 +1065,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summaries are synchronized, but each local TRANSP remains attached to its VEVENT
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
 
@@ -1140,7 +1128,7 @@ public abstract class SchedulingContract {
         URI aliceCalendarEventUri = URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
             assertThat(aliceEventExtractor.extractEventPropertyValue(Optional.empty(), Property.CLASS))
@@ -1158,7 +1146,7 @@ public abstract class SchedulingContract {
             .replace("CLASS:OVERRIDE_LOCAL_PUBLIC", "CLASS:" + CLASS_PUBLIC);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
             assertThat(aliceEventExtractor.extractEventPropertyValue(Optional.empty(), Property.CLASS))
@@ -1175,7 +1163,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobCalendarEventUri, bobUpdatedCalendarEventIcs);
 
         // Then summaries are synchronized, but each local CLASS remains attached to its VEVENT
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             String aliceEvent = calDavClient.getCalendarEvent(alice, aliceCalendarEventUri);
             CalendarExtractor aliceEventExtractor = CalendarUtil.toExtractor(aliceEvent);
 
@@ -1272,7 +1260,7 @@ public abstract class SchedulingContract {
         String originalLine = change.originalLine().replace("{bobEmail}", bob.email());
         String updatedLine = change.updatedLine();
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .contains(originalLine);
             assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
@@ -1292,8 +1280,7 @@ public abstract class SchedulingContract {
             .hasMessageContaining("Attendees are not allowed to change");
 
         // And calendars keep the organizer-controlled value unchanged
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                     .contains(originalLine)
@@ -1333,7 +1320,7 @@ public abstract class SchedulingContract {
 
         URI aliceCalendarEventUri = URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + eventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains("DTSTART:20351005T090000Z")
             .contains("DTEND:20351005T100000Z")
             .contains("SUMMARY:Owner local title")
@@ -1350,7 +1337,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then the organizer-less event is treated as a local object and the update is accepted
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains("DTSTART:20351005T093000Z")
             .contains("DTEND:20351005T110000Z")
             .contains("SUMMARY:Owner updated title")
@@ -1399,7 +1386,7 @@ public abstract class SchedulingContract {
         String originalPropertyValue = change.originalValue();
         String updatedPropertyValue = change.updatedValue();
 
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(changedPropertyName))
             .isEqualTo(originalPropertyValue));
 
@@ -1409,13 +1396,12 @@ public abstract class SchedulingContract {
             .replace(change.originalLine(), change.updatedLine());
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(changedPropertyName))
             .isEqualTo(updatedPropertyValue));
 
         // Then Bob and Cedric calendars keep organizer values unchanged
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractPropertyValue(changedPropertyName))
@@ -1471,7 +1457,7 @@ public abstract class SchedulingContract {
         String originalPropertyValue = change.originalValue();
         String updatedPropertyValue = change.updatedValue();
 
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(changedPropertyName))
             .isEqualTo(originalPropertyValue));
 
@@ -1481,13 +1467,12 @@ public abstract class SchedulingContract {
             .replace(change.originalLine(), change.updatedLine());
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .extractPropertyValue(changedPropertyName))
             .isEqualTo(updatedPropertyValue));
 
         // Then Bob and Cedric recurring master events keep organizer values unchanged
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractPropertyValue(changedPropertyName))
@@ -1551,7 +1536,7 @@ public abstract class SchedulingContract {
         String originalLine = change.originalLine();
         String updatedLine = change.updatedLine();
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains(overrideRecurrenceIdLine)
             .contains(originalLine));
 
@@ -1561,13 +1546,12 @@ public abstract class SchedulingContract {
             .replace(originalLine, updatedLine);
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains(overrideRecurrenceIdLine)
             .contains(updatedLine));
 
         // Then Bob and Cedric calendars keep organizer override unchanged
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .contains(overrideRecurrenceIdLine)
@@ -1617,7 +1601,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitDuring(2, TimeUnit.SECONDS).untilAsserted(() -> {
             assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .doesNotContain(overrideRecurrenceIdLine);
             assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
@@ -1650,13 +1634,12 @@ public abstract class SchedulingContract {
                 .replace("{cedricEmail}", cedric.email()));
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains(overrideRecurrenceIdLine)
             .contains(aliceLocalOverrideSummaryLine));
 
         // Then Bob and Cedric calendars keep no override occurrence
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .doesNotContain(overrideRecurrenceIdLine)
@@ -1717,7 +1700,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains(overrideRecurrenceIdLine)
             .contains("SUMMARY:Occurrence from organizer"));
 
@@ -1747,14 +1730,13 @@ public abstract class SchedulingContract {
             .replace("{cedricEmail}", cedric.email());
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceMasterOnlyIcs);
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .doesNotContain(overrideRecurrenceIdLine)
             .doesNotContain("SUMMARY:Occurrence from organizer")
             .contains("SUMMARY:" + masterSummary));
 
         // Then Bob and Cedric calendars keep organizer override unchanged
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .contains(overrideRecurrenceIdLine)
@@ -1798,7 +1780,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri), bob.email()))
                 .isEqualTo(PartStat.ACCEPTED);
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri), bob.email()))
@@ -1811,8 +1793,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Bob and Cedric calendars keep Bob participation untouched
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri), bob.email()))
                     .isEqualTo(PartStat.ACCEPTED);
@@ -1854,7 +1835,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                 .extractAttendeePartStat(cedric.email()))
                 .isEqualTo(PartStat.NEEDS_ACTION);
@@ -1869,8 +1850,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Bob and Cedric calendars keep Cedric participation untouched
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractAttendeePartStat(cedric.email()))
@@ -1914,7 +1894,7 @@ public abstract class SchedulingContract {
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .extractAttendeePartStat(cedric.email()))
                 .isEqualTo(PartStat.NEEDS_ACTION);
@@ -1937,8 +1917,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Bob and Cedric calendars keep Cedric attendee untouched
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .extractAttendeePartStat(cedric.email()))
@@ -1990,8 +1969,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(alice, aliceCalendarEventUri, aliceUpdatedCalendarEventIcs);
 
         // Then Bob and Cedric calendars are not updated with David, and David is not invited
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                     .doesNotContain("mailto:" + david.email());
@@ -2046,8 +2024,7 @@ public abstract class SchedulingContract {
             .hasMessageContaining("Attendees are not allowed to change ORGANIZER");
 
         // Then Alice, Bob and Cedric calendars still point to Bob as organizer
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                     .extractPropertyValue(Property.ORGANIZER))
@@ -2121,8 +2098,7 @@ public abstract class SchedulingContract {
             .hasMessageContaining("Attendees are not allowed to change ORGANIZER");
 
         // Then Alice, Bob and Cedric calendars still point to Bob as organizer on master and override
-        calmlyAwait
-            .during(2, TimeUnit.SECONDS)
+        awaitDuring(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(organizerEmails(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri)))
                     .containsExactly("mailto:" + bob.email());
@@ -2166,7 +2142,7 @@ public abstract class SchedulingContract {
             String bobCalendarEventIcs = calDavClient.getCalendarEvent(bob, bobCalendarEventUri);
             return CalendarUtil.getAttendeePartStat(bobCalendarEventIcs, cedric.email());
         };
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
             .isEqualTo(PartStat.NEEDS_ACTION));
 
         // And Cedric deletes the event from his calendar
@@ -2175,7 +2151,7 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(cedric, cedricCalendarEventUri);
 
         // Then Bob calendar reflects Cedric declined attendance
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOrganizerCalendar.get())
             .isEqualTo(PartStat.DECLINED));
     }
 
@@ -2213,7 +2189,7 @@ public abstract class SchedulingContract {
                 URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics"));
             return CalendarUtil.getAttendeePartStat(aliceCalendarEventIcs, cedric.email());
         };
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOtherAttendeeCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOtherAttendeeCalendar.get())
             .isEqualTo(PartStat.NEEDS_ACTION));
 
         // And Cedric deletes the event from his calendar
@@ -2222,7 +2198,7 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(cedric, cedricCalendarEventUri);
 
         // Then Alice calendar reflects Cedric declined attendance
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatOnOtherAttendeeCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatOnOtherAttendeeCalendar.get())
             .isEqualTo(PartStat.DECLINED));
     }
 
@@ -2261,7 +2237,7 @@ public abstract class SchedulingContract {
 
         // Then Bob's event must still exist and Alice must appear as DECLINED (not the event being deleted)
         URI bobEventUri = URI.create(CalendarURL.from(bob.id()).asUri() + "/" + organizerEventUid + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobEventUri), alice.email()))
                 .as("Alice should appear as DECLINED in Bob's calendar — event must not be deleted (issue-347)")
                 .isEqualTo(PartStat.DECLINED));
@@ -2302,7 +2278,7 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(alice, aliceEventUri);
 
         // Then Cedric's event must still exist and reflect Alice as DECLINED
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(cedric, cedricEventUri), alice.email()))
                 .as("Alice should appear as DECLINED in Cedric's calendar — Cedric's event must not be deleted (issue-347)")
                 .isEqualTo(PartStat.DECLINED));
@@ -2340,7 +2316,7 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(alice, aliceEventUri);
 
         // Then the event must no longer appear in Alice's calendar
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(calendarObjectUrisByEventUid(alice, CalendarURL.from(alice.id()), organizerEventUid))
                 .as("Alice's calendar must not contain the event after she deleted it")
                 .hasSize(0));
@@ -2375,7 +2351,7 @@ public abstract class SchedulingContract {
         // And Cedric already sees this event
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("SUMMARY:Meeting for removal test"));
 
         // When Bob removes Cedric from attendee list 
@@ -2400,7 +2376,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, organizerEventWithoutCedricIcs);
 
         // Then Cedric calendar marks the event as cancelled
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("STATUS:CANCELLED"));
     }
 
@@ -2479,7 +2455,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email())
             .replace("{aliceEmail}", alice.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedAliceIcs));
@@ -2545,7 +2521,7 @@ public abstract class SchedulingContract {
 
         String aliceCalendarEventId = awaitFirstEventId(alice);
         URI aliceCalendarEventUri = URI.create("/calendars/" + alice.id() + "/" + alice.id() + "/" + aliceCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedAliceEventIcs));
@@ -2610,7 +2586,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricIcs));
@@ -2666,7 +2642,7 @@ public abstract class SchedulingContract {
             .replace("{cedricEmail}", cedric.email());
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .ignoringParticipantScheduleStatus()
@@ -2730,7 +2706,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricIcs));
@@ -2776,7 +2752,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .ignoringParticipantScheduleStatus()
@@ -2834,7 +2810,7 @@ public abstract class SchedulingContract {
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricEventIcs));
@@ -2869,14 +2845,14 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, initialEventIcs);
         String cedricCalendarEventId = awaitFirstEventId(cedric);
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("SUMMARY:Recurring Meeting to Delete"));
 
         // And Bob deletes the whole recurring series
         calDavClient.deleteCalendarEvent(bob, organizerEventUid);
 
         // Then Cedric calendar marks the recurring event as cancelled
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
             .contains("STATUS:CANCELLED"));
     }
 
@@ -2965,7 +2941,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricEventIcs));
@@ -3047,7 +3023,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricEventIcs));
@@ -3127,7 +3103,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricEventIcs));
@@ -3228,7 +3204,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricEventIcs));
@@ -3310,7 +3286,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
         URI cedricCalendarEventUri = URI.create("/calendars/" + cedric.id() + "/" + cedric.id() + "/" + cedricCalendarEventId + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricRecurringSeriesEventIcs));
@@ -3382,7 +3358,7 @@ public abstract class SchedulingContract {
 
         // Then Bob calendar reflects Cedric's acceptance on occurrence 2 only
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             Calendar actualBobCalendar = CalendarUtil.parseIcsAndSanitize(
                 calDavClient.getCalendarEvent(bob, bobCalendarEventUri),
                 IGNORED_CALENDAR_PROPERTIES);
@@ -3449,7 +3425,7 @@ public abstract class SchedulingContract {
 
         // Then Bob calendar reflects Cedric's decline on occurrence 2
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             Calendar bobCalendar = CalendarUtil.parseIcsAndSanitize(
                 calDavClient.getCalendarEvent(bob, bobCalendarEventUri),
                 IGNORED_CALENDAR_PROPERTIES);
@@ -3497,7 +3473,7 @@ public abstract class SchedulingContract {
             return CalendarUtil.getRecurringAttendeePartStats(bobCalendar, cedric.email());
         };
 
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatsOnOrganizerCalendar.get()
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatsOnOrganizerCalendar.get()
             .get(CalendarUtil.MASTER_RECURRENCE_KEY))
             .isEqualTo(PartStat.NEEDS_ACTION));
 
@@ -3505,7 +3481,7 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(cedric, cedricCalendarEventUri);
 
         // Then Bob calendar reflects Cedric's decline on the whole series
-        awaitAtMost.untilAsserted(() -> assertThat(cedricPartStatsOnOrganizerCalendar.get())
+        awaitAtMost().untilAsserted(() -> assertThat(cedricPartStatsOnOrganizerCalendar.get())
             .containsOnly(entry(CalendarUtil.MASTER_RECURRENCE_KEY, PartStat.DECLINED)));
     }
 
@@ -3577,7 +3553,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, updatedWithCedricOnOccurrence2Ics);
 
         URI bobCalendarEventUri = URI.create("/calendars/" + bob.id() + "/" + bob.id() + "/" + organizerEventUid + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(bob, bobCalendarEventUri))
             .contains("RECURRENCE-ID:20351006T090000Z")
             .contains("mailto:" + cedric.email()));
 
@@ -3612,7 +3588,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{aliceEmail}", alice.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedAliceIcs));
@@ -3718,7 +3694,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{aliceEmail}", alice.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricIcs));
@@ -3787,7 +3763,7 @@ public abstract class SchedulingContract {
 
         calDavClient.upsertCalendarEvent(bob, organizerEventUid, removeAliceOnOccurrence2Ics);
 
-        awaitAtMost.untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
             .contains("EXDATE:20351006T090000Z"));
 
         // And Bob re-invites Alice to occurrence 2
@@ -3854,7 +3830,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{aliceEmail}", alice.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedAliceIcs));
@@ -3987,7 +3963,7 @@ public abstract class SchedulingContract {
             .replace("{organizerEventUid}", organizerEventUid)
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(cedric, cedricCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedCedricIcs));
@@ -4071,7 +4047,7 @@ public abstract class SchedulingContract {
             .replace("{bobEmail}", bob.email())
             .replace("{cedricEmail}", cedric.email())
             .replace("{aliceEmail}", alice.email());
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThatCalendar(calDavClient.getCalendarEvent(alice, aliceCalendarEventUri))
                 .ignoringProperties(IGNORED_CALENDAR_PROPERTIES)
                 .isEqualTo(expectedAliceIcs));
@@ -4122,7 +4098,7 @@ public abstract class SchedulingContract {
 
         // Then Alice organizer calendar reflects Bob acceptance
         URI aliceOrganizerEventUri = URI.create(CalendarURL.from(alice.id()).asUri() + "/" + eventUid + ".ics");
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
             calDavClient.getCalendarEvent(alice, aliceOrganizerEventUri), bob.email()))
             .as("Bob PARTSTAT update from the moved event should propagate to Alice organizer event")
             .isEqualTo(PartStat.ACCEPTED));
@@ -4172,7 +4148,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(bob, bobOrganizerEventUri, bobUpdatedEventIcs);
 
         // Then Alice's moved event is updated and no duplicate is created in her default calendar
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEventSummary(calDavClient.getCalendarEvent(alice, aliceOtherPersonalEventUri)))
                 .as("Organizer update should be applied to Alice moved event")
                 .isEqualTo("Project meeting updated");
@@ -4232,7 +4208,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricEventUri, cedricAcceptedEventIcs);
 
         // Then Alice's moved event reflects Cedric acceptance and no duplicate is created in her default calendar
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(alice, aliceOtherPersonalEventUri), cedric.email()))
                 .as("Cedric PARTSTAT update should propagate to Alice moved event")
@@ -4278,14 +4254,14 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(alice, aliceEventUri);
 
         // Alice's event is gone from her own calendar
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(calendarObjectUrisByEventUid(alice, CalendarURL.from(alice.id()), eventUid))
                 .as("Alice's event should be absent from her calendar right after deletion")
                 .hasSize(0));
 
         // And Alice appears as DECLINED in Bob's calendar
         URI bobEventUri = URI.create(CalendarURL.from(bob.id()).asUri() + "/" + eventUid + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobEventUri), alice.email()))
                 .as("Alice should appear as DECLINED in Bob's calendar after deleting")
                 .isEqualTo(PartStat.DECLINED));
@@ -4316,7 +4292,7 @@ public abstract class SchedulingContract {
 
         // Then Cedric sees the updated event (confirms propagation ran)
         URI cedricEventUri = awaitCalendarObjectUriByEventUid(cedric, CalendarURL.from(cedric.id()), eventUid);
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(readEventSummary(calDavClient.getCalendarEvent(cedric, cedricEventUri)))
                 .as("Cedric should receive the organizer update")
                 .isEqualTo("Team meeting rescheduled"));
@@ -4357,14 +4333,14 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(alice, aliceEventUri);
 
         // Alice's event is gone from her own calendar
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(calendarObjectUrisByEventUid(alice, CalendarURL.from(alice.id()), eventUid))
                 .as("Alice's event should be absent from her calendar right after deletion")
                 .hasSize(0));
 
         // And Alice appears as DECLINED in Bob's calendar
         URI bobEventUri = URI.create(CalendarURL.from(bob.id()).asUri() + "/" + eventUid + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobEventUri), alice.email()))
                 .as("Alice should appear as DECLINED in Bob's calendar after deleting")
                 .isEqualTo(PartStat.DECLINED));
@@ -4434,14 +4410,14 @@ public abstract class SchedulingContract {
         calDavClient.deleteCalendarEvent(alice, aliceEventUri);
 
         // Alice's event is gone from her own calendar
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(calendarObjectUrisByEventUid(alice, CalendarURL.from(alice.id()), eventUid))
                 .as("Alice's event should be absent from her calendar right after deletion")
                 .hasSize(0));
 
         // And Alice appears as DECLINED in Bob's calendar
         URI bobEventUri = URI.create(CalendarURL.from(bob.id()).asUri() + "/" + eventUid + ".ics");
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobEventUri), alice.email()))
                 .as("Alice should appear as DECLINED in Bob's calendar after deleting")
                 .isEqualTo(PartStat.DECLINED));
@@ -4453,7 +4429,7 @@ public abstract class SchedulingContract {
         calDavClient.upsertCalendarEvent(cedric, cedricEventUri, cedricAcceptedEventIcs);
 
         // Then Cedric's acceptance propagates to Bob (confirms propagation ran)
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bob, bobEventUri), cedric.email()))
                 .as("Cedric's acceptance should be reflected in Bob's calendar")
                 .isEqualTo(PartStat.ACCEPTED));
@@ -4465,15 +4441,17 @@ public abstract class SchedulingContract {
     }
 
     private String awaitFirstEventId(OpenPaasUser user) {
-        return awaitAtMost.until(() -> calDavClient.findFirstEventId(user),
-                Optional::isPresent)
-            .orElseThrow(() -> new AssertionError("Expected event id to be present"));
+        return DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT)
+            .wakingOn(extension().amqpEventBus(), CALENDAR_EVENT_EXCHANGES, List.of(user.id()))
+            .untilAsserted(() -> calDavClient.findFirstEventId(user)
+                .orElseThrow(() -> new AssertionError("Expected event id to be present")));
     }
 
     private URI awaitCalendarObjectUriByEventUid(OpenPaasUser user, CalendarURL calendarURL, String eventUid) {
-        return awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(user, calendarURL, eventUid),
-                Optional::isPresent)
-            .orElseThrow(() -> new AssertionError("Expected calendar object URI to be present for UID " + eventUid));
+        return DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT)
+            .wakingOn(extension().amqpEventBus(), CALENDAR_EVENT_EXCHANGES, List.of(user.id(), eventUid))
+            .untilAsserted(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(user, calendarURL, eventUid)
+                .orElseThrow(() -> new AssertionError("Expected calendar object URI to be present for UID " + eventUid)));
     }
 
     private List<URI> calendarObjectUrisByEventUid(OpenPaasUser user, CalendarURL calendarURL, String eventUid) {
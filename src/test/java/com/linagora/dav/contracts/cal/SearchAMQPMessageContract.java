@@ -18,43 +18,30 @@
 
 package com.linagora.dav.contracts.cal;
 
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.net.URI;
-import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.ITIPJsonBodyRequest;
 import com.linagora.dav.OpenPaasUser;
-import com.rabbitmq.client.GetResponse;
 
 import net.javacrumbs.jsonunit.core.Option;
 
 public abstract class SearchAMQPMessageContract {
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -66,8 +53,6 @@ public abstract class SearchAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventCreatedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:created", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -81,7 +66,7 @@ public abstract class SearchAMQPMessageContract {
             "This is a meeting to discuss the sprint planning for the next week.",
             "30250411T100000",
             "30250411T110000");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:event:created", testUser);
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
         String expected = """
@@ -232,7 +217,7 @@ public abstract class SearchAMQPMessageContract {
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -242,9 +227,6 @@ public abstract class SearchAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventUpdatedExchange() throws IOException {
-        dockerExtension().getChannel().queueDeclare(QUEUE_NAME, false, true, true, null);
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:updated", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -269,7 +251,7 @@ public abstract class SearchAMQPMessageContract {
             "This is a meeting to discuss the sprint planning for the next 2 weeks.",
             "30250411T150000",
             "30250411T160000");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:event:updated", testUser);
         calDavClient.upsertCalendarEvent(testUser, eventUid, updatedCalendarData);
 
         String expected = """
@@ -558,7 +540,7 @@ public abstract class SearchAMQPMessageContract {
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
@@ -568,8 +550,6 @@ public abstract class SearchAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromEventDeletedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:deleted", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
         OpenPaasUser testUser2 = dockerExtension().newTestUser();
 
@@ -585,7 +565,7 @@ public abstract class SearchAMQPMessageContract {
             "30250411T110000");
         calDavClient.upsertCalendarEvent(testUser, eventUid, calendarData);
 
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:event:deleted", testUser);
         calDavClient.deleteCalendarEvent(testUser, eventUid);
 
         String expected = """
@@ -736,24 +716,13 @@ public abstract class SearchAMQPMessageContract {
             .replace("{organizerId}", testUser.id())
             .replace("{eventUid}", eventUid);
 
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> assertThatJson(message.toString())
                     .when(Option.IGNORING_EXTRA_FIELDS)
                     .isEqualTo(expected)));
     }
 
-    private BlockingQueue<JsonNode> listenToQueue() {
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), QUEUE_NAME);
-    }
-
-    private BlockingQueue<JsonNode> listenToFreshQueue(String queuePrefix, String exchange) throws IOException {
-        String queueName = queuePrefix + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, exchange, "");
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
-    }
-
     private String generateCalendarData(String eventUid, String organizerEmail, String attendeeEmail,
                                         String summary,
                                         String location,
@@ -830,16 +799,14 @@ public abstract class SearchAMQPMessageContract {
             .method("REQUEST")
             .buildJson();
 
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:created", "");
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "calendar:event:updated", "");
-        BlockingQueue<JsonNode> messages = listenToQueue();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(List.of("calendar:event:created", "calendar:event:updated"), bob);
 
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), body).block();
 
         String expectedPrefix = "/calendars/" + bob.id() + "/" + bob.id() + "/";
 
         // THEN we have a search indexing message targeting Bob's default calendar.
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .anySatisfy(message -> {
                     String eventPath = message.path("eventPath").asText();
@@ -883,10 +850,7 @@ public abstract class SearchAMQPMessageContract {
             .buildJson();
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), requestBody).block();
 
-        String deletedQueue = "test-itip-deleted-" + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(deletedQueue, false, true, true, null);
-        dockerExtension().getChannel().queueBind(deletedQueue, "calendar:event:deleted", "");
-        BlockingQueue<JsonNode> deletedMessages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), deletedQueue);
+        BlockingQueue<JsonNode> deletedMessages = dockerExtension().subscribeToEvents("calendar:event:deleted", bob);
 
         String cancelIcs = """
             BEGIN:VCALENDAR
@@ -916,7 +880,7 @@ public abstract class SearchAMQPMessageContract {
             .buildJson();
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
-        awaitAtMost.untilAsserted(() -> assertThat(deletedMessages).hasSize(1));
+        awaitAtMost().untilAsserted(() -> assertThat(deletedMessages).hasSize(1));
     }
 
     @Test
@@ -955,8 +919,8 @@ public abstract class SearchAMQPMessageContract {
 
         // Sabre 4.7 emits both exchanges for the same delete intent from the search indexer perspective.
         // This test keeps that behavior visible for the request/cancel investigation.
-        BlockingQueue<JsonNode> cancelMessages = listenToFreshQueue("test-itip-cancel-", "calendar:event:cancel");
-        BlockingQueue<JsonNode> deletedMessages = listenToFreshQueue("test-itip-deleted-", "calendar:event:deleted");
+        BlockingQueue<JsonNode> cancelMessages = dockerExtension().subscribeToEvents("calendar:event:cancel", bob);
+        BlockingQueue<JsonNode> deletedMessages = dockerExtension().subscribeToEvents("calendar:event:deleted", bob);
 
         String cancelIcs = """
             BEGIN:VCALENDAR
@@ -986,7 +950,7 @@ public abstract class SearchAMQPMessageContract {
             .buildJson();
         calDavClient.sendITIPRequest(bob, URI.create(bobCalendarUri), cancelBody).block();
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(cancelMessages).hasSize(1);
             assertThat(deletedMessages).hasSize(1);
         });
@@ -1018,10 +982,7 @@ public abstract class SearchAMQPMessageContract {
             END:VCALENDAR
             """.formatted(eventUid, cedric.email(), bob.email());
 
-        String updatedQueue = "test-itip-updated-inbox-" + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(updatedQueue, false, true, true, null);
-        dockerExtension().getChannel().queueBind(updatedQueue, "calendar:event:updated", "");
-        BlockingQueue<JsonNode> updatedMessages = AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), updatedQueue);
+        BlockingQueue<JsonNode> updatedMessages = dockerExtension().subscribeToEvents("calendar:event:updated", bob);
 
         String body = ITIPJsonBodyRequest.builder()
             .ical(ics)
@@ -1033,7 +994,7 @@ public abstract class SearchAMQPMessageContract {
 
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), body).block();
 
-        awaitAtMost.untilAsserted(() -> assertThat(updatedMessages).hasSize(1));
+        awaitAtMost().untilAsserted(() -> assertThat(updatedMessages).hasSize(1));
     }
 
     @Test
@@ -1062,8 +1023,8 @@ public abstract class SearchAMQPMessageContract {
 
         // Sabre 4.7 emits both exchanges for the same index intent from the search indexer perspective.
         // This test keeps that behavior visible for the request/cancel investigation.
-        BlockingQueue<JsonNode> requestMessages = listenToFreshQueue("test-itip-request-", "calendar:event:request");
-        BlockingQueue<JsonNode> updatedMessages = listenToFreshQueue("test-itip-updated-", "calendar:event:updated");
+        BlockingQueue<JsonNode> requestMessages = dockerExtension().subscribeToEvents("calendar:event:request", bob);
+        BlockingQueue<JsonNode> updatedMessages = dockerExtension().subscribeToEvents("calendar:event:updated", bob);
 
         String body = ITIPJsonBodyRequest.builder()
             .ical(ics)
@@ -1075,7 +1036,7 @@ public abstract class SearchAMQPMessageContract {
 
         calDavClient.sendITIPRequest(bob, URI.create("/calendars/" + bob.id()), body).block();
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(requestMessages).hasSize(1);
             assertThat(updatedMessages).hasSize(1);
         });
@@ -1086,12 +1047,9 @@ public abstract class SearchAMQPMessageContract {
     @Test
     protected void shouldNotPublishEventRequestWhenOrganizerSelfInvitedWithoutMailto() throws Exception {
         // GIVEN
-        // Bind a fresh queue listening to calendar:event:request
-        String testQueue = "test-no-mailto-" + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(testQueue, false, true, true, null);
-        dockerExtension().getChannel().queueBind(testQueue, "calendar:event:request", "");
-
         OpenPaasUser bob = dockerExtension().newTestUser();
+        // Listen to calendar:event:request messages about Bob
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("calendar:event:request", bob);
 
         String eventUid = UUID.randomUUID().toString();
 
@@ -1125,12 +1083,9 @@ public abstract class SearchAMQPMessageContract {
 
         // THEN: There should be NO message published to calendar:event:request
         Thread.sleep(1000);
-        GetResponse response = dockerExtension()
-            .getChannel()
-            .basicGet(testQueue, true);
 
-        assertThat(response)
+        assertThat(messages)
             .as("No AMQP message must be published for self-invite when ATTENDEE lacks mailto")
-            .isNull();
+            .isEmpty();
     }
 }
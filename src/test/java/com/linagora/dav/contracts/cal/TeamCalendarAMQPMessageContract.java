@@ -18,23 +18,19 @@
 
 package com.linagora.dav.contracts.cal;
 
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
-import java.io.IOException;
-import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalDavClient.DelegationRight;
 import com.linagora.dav.CalendarURL;
@@ -46,14 +42,6 @@ import net.javacrumbs.jsonunit.core.Option;
 
 public abstract class TeamCalendarAMQPMessageContract {
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CalDavClient calDavClient;
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -64,15 +52,15 @@ public abstract class TeamCalendarAMQPMessageContract {
     }
 
     @Test
-    void teamCalendarEventCreationShouldPublishCreatedMessage() throws IOException {
-        // Given a write-enabled Team Calendar member and a fresh queue bound to created messages
+    void teamCalendarEventCreationShouldPublishCreatedMessage() {
+        // Given a write-enabled Team Calendar member subscribed to the created messages of the Team Calendar
         OpenPaaSTeamCalendar teamCalendar = newTeamCalendar("indexing", "Indexing Team");
         OpenPaasUser member = dockerExtension().newTestUser();
         CalendarURL delegatedCalendar = delegateTeamCalendarTo(teamCalendar, member, DelegationRight.READ_WRITE);
         String eventUid = UUID.randomUUID().toString();
         String summary = "Team calendar created event";
         String teamCalendarPath = CalendarURL.from(teamCalendar.id()).asUri().toString();
-        BlockingQueue<JsonNode> messages = listenToFreshQueue("team-calendar-created-", "calendar:event:created");
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(List.of("calendar:event:created"), List.of(teamCalendar.id()));
 
         // When the member creates an event through the delegated Team Calendar URL
         calDavClient.upsertCalendarEvent(member, delegatedCalendar, eventUid, calendarData(eventUid, member.email(), summary));
@@ -85,7 +73,7 @@ public abstract class TeamCalendarAMQPMessageContract {
               "event": "${json-unit.ignore}"
             }
             """;
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .as("Team Calendar created indexing message should be published")
                 .anySatisfy(message -> assertSoftly(softly -> {
@@ -103,8 +91,8 @@ public abstract class TeamCalendarAMQPMessageContract {
     }
 
     @Test
-    void teamCalendarEventUpdateShouldPublishUpdatedMessage() throws IOException {
-        // Given a Team Calendar event already exists and a fresh queue tracks only update messages
+    void teamCalendarEventUpdateShouldPublishUpdatedMessage() {
+        // Given a Team Calendar event already exists and only its update messages are tracked
         OpenPaaSTeamCalendar teamCalendar = newTeamCalendar("indexing", "Indexing Team");
         OpenPaasUser member = dockerExtension().newTestUser();
         CalendarURL delegatedCalendar = delegateTeamCalendarTo(teamCalendar, member, DelegationRight.READ_WRITE);
@@ -112,7 +100,7 @@ public abstract class TeamCalendarAMQPMessageContract {
         String initialSummary = "Team calendar event before update";
         calDavClient.upsertCalendarEvent(member, delegatedCalendar, eventUid,
             calendarData(eventUid, member.email(), initialSummary));
-        BlockingQueue<JsonNode> messages = listenToFreshQueue("team-calendar-updated-", "calendar:event:updated");
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(List.of("calendar:event:updated"), List.of(teamCalendar.id()));
         String updatedSummary = "Team calendar event after update";
         String teamCalendarPath = CalendarURL.from(teamCalendar.id()).asUri().toString();
 
@@ -128,7 +116,7 @@ public abstract class TeamCalendarAMQPMessageContract {
               "old_event": "${json-unit.ignore}"
             }
             """;
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .as("Team Calendar updated indexing message should be published")
                 .anySatisfy(message -> assertSoftly(softly -> {
@@ -148,8 +136,8 @@ public abstract class TeamCalendarAMQPMessageContract {
     }
 
     @Test
-    void teamCalendarEventDeletionShouldPublishDeletedMessage() throws IOException {
-        // Given a Team Calendar event exists and a fresh queue tracks only delete messages
+    void teamCalendarEventDeletionShouldPublishDeletedMessage() {
+        // Given a Team Calendar event exists and only its delete messages are tracked
         OpenPaaSTeamCalendar teamCalendar = newTeamCalendar("indexing", "Indexing Team");
         OpenPaasUser member = dockerExtension().newTestUser();
         CalendarURL delegatedCalendar = delegateTeamCalendarTo(teamCalendar, member, DelegationRight.READ_WRITE);
@@ -157,13 +145,13 @@ public abstract class TeamCalendarAMQPMessageContract {
         String summary = "Team calendar event to delete";
         calDavClient.upsertCalendarEvent(member, delegatedCalendar, eventUid, calendarData(eventUid, member.email(), summary));
         String teamCalendarPath = CalendarURL.from(teamCalendar.id()).asUri().toString();
-        BlockingQueue<JsonNode> messages = listenToFreshQueue("team-calendar-deleted-", "calendar:event:deleted");
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents(List.of("calendar:event:deleted"), List.of(teamCalendar.id()));
 
         // When the member deletes the event through the delegated Team Calendar URL
         calDavClient.deleteCalendarEvent(member, delegatedCalendar, eventUid);
 
         // Then the delete message still points search/indexing to the canonical Team Calendar event path
-        awaitAtMost.untilAsserted(() ->
+        awaitAtMost().untilAsserted(() ->
             assertThat(messages)
                 .as("Team Calendar deleted indexing message should be published")
                 .anySatisfy(message -> assertThat(message.path("eventPath").asText())
@@ -182,13 +170,6 @@ public abstract class TeamCalendarAMQPMessageContract {
         return calDavClient.findDelegatedCalendar(user, teamCalendar.id());
     }
 
-    private BlockingQueue<JsonNode> listenToFreshQueue(String queuePrefix, String exchange) throws IOException {
-        String queueName = queuePrefix + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, exchange, "");
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
-    }
-
     private String calendarData(String eventUid, String organizerEmail, String summary) {
         return """
             BEGIN:VCALENDAR
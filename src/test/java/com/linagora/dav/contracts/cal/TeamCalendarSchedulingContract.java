@@ -18,6 +18,8 @@
 
 package com.linagora.dav.contracts.cal;
 
+import static com.linagora.dav.TestUtil.CALENDAR_EVENT_EXCHANGES;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.containsString;
@@ -25,7 +27,6 @@ import static org.hamcrest.Matchers.is;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
-import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -37,21 +38,20 @@ import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.linagora.dav.AmqpTestHelper;
 import com.linagora.dav.CalDavClient;
 import com.linagora.dav.CalendarURL;
 import com.linagora.dav.CalendarUtil;
+import com.linagora.dav.DavAwait;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.DockerTwakeCalendarSetup.DockerService;
 import com.linagora.dav.ITIPJsonBodyRequest;
 import com.linagora.dav.OpenPaaSTeamCalendar;
 import com.linagora.dav.OpenPaasUser;
-import com.linagora.dav.TestUtil;
 import com.linagora.dav.TwakeCalendarProvisioningService.TeamCalendarRole;
 
 import io.restassured.RestAssured;
@@ -61,6 +61,7 @@ import net.fortuna.ical4j.model.ComponentContainer;
 import net.fortuna.ical4j.model.Property;
 import net.fortuna.ical4j.model.parameter.PartStat;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class TeamCalendarSchedulingContract {
     private static final String ALARM_TRIGGER_15M = "-PT15M";
     private static final String ALARM_TRIGGER_5M = "-PT5M";
@@ -70,8 +71,6 @@ public abstract class TeamCalendarSchedulingContract {
     private static final String ALARM_TRIGGER_10M = "-PT10M";
     private static final String ALARM_TRIGGER_10M_EXPLICIT = "-P0DT0H10M0S";
 
-    private final ConditionFactory awaitAtMost = TestUtil.awaitAtMost;
-
     private CalDavClient calDavClient;
     private OpenPaasUser bobMember;
     private OpenPaasUser aliceMember;
@@ -149,7 +148,7 @@ public abstract class TeamCalendarSchedulingContract {
             calendarData(eventUid, bobMember.email(), List.of(nonMember.email(), aliceMember.email()), "Updated Team Calendar meeting"));
 
         // Then both non-member and member attendee copies receive the update
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor nonMemberEvent = CalendarUtil.toExtractor(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri));
             assertSoftly(softly -> {
                 softly.assertThat(nonMemberEvent.extractPropertyValue(Property.UID)).isEqualTo(eventUid);
@@ -157,7 +156,7 @@ public abstract class TeamCalendarSchedulingContract {
                 softly.assertThat(nonMemberEvent.extractPropertyValue(Property.SUMMARY)).isEqualTo("Updated Team Calendar meeting");
             });
         });
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor aliceMemberEvent = CalendarUtil.toExtractor(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri));
             assertSoftly(softly -> {
                 softly.assertThat(aliceMemberEvent.extractPropertyValue(Property.UID)).isEqualTo(eventUid);
@@ -186,7 +185,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then delegated, canonical and attendee calendar copies store the new organizer
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor delegatedEvent = CalendarUtil.toExtractor(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)));
             CalendarUtil.CalendarExtractor canonicalEvent = CalendarUtil.toExtractor(
@@ -280,7 +279,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then delegated, canonical and attendee calendar copies store the new organizer
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor delegatedEvent = CalendarUtil.toExtractor(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)));
             CalendarUtil.CalendarExtractor canonicalEvent = CalendarUtil.toExtractor(
@@ -328,7 +327,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then both delegated and canonical Team Calendar copies expose the manager update
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor delegatedEvent = CalendarUtil.toExtractor(
                 calDavClient.getCalendarEvent(managerMember, managerTeamCalendarUrl.eventHref(eventUid)));
             CalendarUtil.CalendarExtractor canonicalEvent = CalendarUtil.toExtractor(
@@ -397,7 +396,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then both master and overridden occurrence store the new organizer
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor storedEvent = CalendarUtil.toExtractor(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)));
             assertSoftly(softly -> {
@@ -423,7 +422,7 @@ public abstract class TeamCalendarSchedulingContract {
             calendarData(eventUid, bobMember.email(), List.of(nonMember.email(), aliceMember.email()), updatedSummary));
 
         // Then both the delegated mirror and canonical Team Calendar event expose the updated data
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             CalendarUtil.CalendarExtractor delegatedMirrorEvent = CalendarUtil.toExtractor(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)));
             CalendarUtil.CalendarExtractor canonicalTeamCalendarEvent = CalendarUtil.toExtractor(
@@ -450,10 +449,10 @@ public abstract class TeamCalendarSchedulingContract {
         calDavClient.deleteCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid);
 
         // Then both non-member and member attendee copies are marked as cancelled
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri))
                 .extractPropertyValue(Property.STATUS))
             .isEqualTo("CANCELLED"));
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri))
                 .extractPropertyValue(Property.STATUS))
             .isEqualTo("CANCELLED"));
     }
@@ -481,13 +480,13 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then the Team Calendar event reflects nonMember participation status
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)), nonMember.email()))
             .as("Team Calendar event should reflect nonMember PARTSTAT %s".formatted(partStatValue))
             .isEqualTo(partStat));
 
         // And aliceMember attendee copy also reflects nonMember participation status
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri), nonMember.email()))
             .isEqualTo(partStat));
     }
@@ -517,7 +516,7 @@ public abstract class TeamCalendarSchedulingContract {
             .get(bobPersonalEventUri.toString())
         .then()
             .statusCode(404);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(bobMember, teamCalendarEventUri));
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri));
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri));
@@ -529,7 +528,7 @@ public abstract class TeamCalendarSchedulingContract {
                 aliceMember.email(), PartStat.ACCEPTED));
 
         // Then the organizer event and the other attendee copy reflect aliceMember acceptance
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bobMember, canonicalTeamCalendarEventUri), aliceMember.email()))
                 .isEqualTo(PartStat.ACCEPTED);
             assertThat(CalendarUtil.getAttendeePartStat(calDavClient.getCalendarEvent(bobMember,
@@ -611,7 +610,7 @@ public abstract class TeamCalendarSchedulingContract {
             .get(bobPersonalEventUri.toString())
         .then()
             .statusCode(404);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(bobMember, teamCalendarEventUri));
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri));
             assertTeamCalendarIdOnEveryEvent(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri));
@@ -625,7 +624,7 @@ public abstract class TeamCalendarSchedulingContract {
         calDavClient.upsertCalendarEvent(aliceMember, aliceMemberEventUri, acceptedOverride);
 
         // Then only the overridden instance is synchronized to the organizer event and other attendee copy
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertRecurringAttendeePartStats(calDavClient.getCalendarEvent(bobMember, canonicalTeamCalendarEventUri), overrideRecurrenceId);
             assertRecurringAttendeePartStats(calDavClient.getCalendarEvent(bobMember,
                 bobMemberDelegatedCalendar.eventHref(eventUid)), overrideRecurrenceId);
@@ -656,19 +655,19 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(anyOf(is(201), is(204)));
 
         // Then the Team Calendar event reflects aliceMember participation status
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, bobMemberDelegatedCalendar.eventHref(eventUid)), aliceMember.email()))
             .as("Team Calendar event should reflect aliceMember PARTSTAT %s".formatted(partStatValue))
             .isEqualTo(partStat));
 
         // And nonMember attendee copy also reflects aliceMember participation status
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(nonMember, nonMemberEventUri), aliceMember.email()))
             .isEqualTo(partStat));
     }
 
     @Test
-    void attendeeReplyShouldIgnoreForgedTeamCalendarIdWhenCalendarDoesNotContainEventUid() throws IOException {
+    void attendeeReplyShouldIgnoreForgedTeamCalendarIdWhenCalendarDoesNotContainEventUid() {
         // Given bobMember creates a Team Calendar event
         String eventUid = "team-event-" + UUID.randomUUID();
         calDavClient.upsertCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid,
@@ -679,7 +678,8 @@ public abstract class TeamCalendarSchedulingContract {
         OpenPaaSTeamCalendar forgedTargetTeamCalendar = dockerExtension().twakeCalendarProvisioningService()
             .createTeamCalendar("unrelated-" + UUID.randomUUID(), "Unrelated Team")
             .block();
-        BlockingQueue<JsonNode> localDeliveryMessages = listenToFreshQueue("forged-team-calendar-reply-", "calendar:itip:localDelivery");
+        BlockingQueue<JsonNode> localDeliveryMessages = dockerExtension()
+            .subscribeToEvents(List.of("calendar:itip:localDelivery"), List.of(eventUid));
 
         // When nonMember accepts from her attendee copy while forging the Team Calendar ID
         String acceptedAttendeeCopyWithForgedTeamCalendarId = withTeamCalendarId(
@@ -688,7 +688,7 @@ public abstract class TeamCalendarSchedulingContract {
         calDavClient.upsertCalendarEvent(nonMember, nonMemberEventUri, acceptedAttendeeCopyWithForgedTeamCalendarId);
 
         // Then Sabre still emits a REPLY, but it does not propagate the forged Team Calendar ID
-        awaitAtMost.untilAsserted(() -> assertThat(localDeliveryMessages)
+        awaitAtMost().untilAsserted(() -> assertThat(localDeliveryMessages)
             .as("A REPLY local-delivery message should be published for the organizer")
             .anySatisfy(message -> {
                 assertThat(message.path("method").asText()).isEqualTo("REPLY");
@@ -704,7 +704,7 @@ public abstract class TeamCalendarSchedulingContract {
         CalendarURL teamCalendarCanonicalUrl = CalendarURL.from(teamCalendar.id());
         calDavClient.upsertCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid,
             calendarData(eventUid, bobMember.email(), List.of(aliceMember.email()), "Team Calendar ITIP reply"));
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
             .isEqualTo(PartStat.NEEDS_ACTION));
 
@@ -722,7 +722,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(204);
 
         // Then the Team Calendar event reflects the attendee reply
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
             .isEqualTo(PartStat.ACCEPTED));
     }
@@ -734,7 +734,7 @@ public abstract class TeamCalendarSchedulingContract {
         CalendarURL teamCalendarCanonicalUrl = CalendarURL.from(teamCalendar.id());
         calDavClient.upsertCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid,
             calendarData(eventUid, bobMember.email(), List.of(nonMember.email()), "Team Calendar non-member ITIP reply"));
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, teamCalendarCanonicalUrl.eventHref(eventUid)), nonMember.email()))
             .isEqualTo(PartStat.NEEDS_ACTION));
 
@@ -752,7 +752,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(204);
 
         // Then the Team Calendar event reflects the nonMember reply
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(bobMember, teamCalendarCanonicalUrl.eventHref(eventUid)), nonMember.email()))
             .isEqualTo(PartStat.ACCEPTED));
     }
@@ -764,7 +764,7 @@ public abstract class TeamCalendarSchedulingContract {
         CalendarURL teamCalendarCanonicalUrl = CalendarURL.from(teamCalendar.id());
         calDavClient.upsertCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid,
             calendarData(eventUid, bobMember.email(), List.of(aliceMember.email()), "Team Calendar ACL bypass guard"));
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(aliceMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
             .isEqualTo(PartStat.NEEDS_ACTION));
 
@@ -792,7 +792,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(204);
 
         // Then the forged Team Calendar ID does not let bobMember update the Team Calendar
-        awaitAtMost.during(2, TimeUnit.SECONDS)
+        awaitAtMost().during(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                     calDavClient.getCalendarEvent(aliceMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
                 .isEqualTo(PartStat.NEEDS_ACTION));
@@ -805,7 +805,7 @@ public abstract class TeamCalendarSchedulingContract {
         CalendarURL teamCalendarCanonicalUrl = CalendarURL.from(teamCalendar.id());
         calDavClient.upsertCalendarEvent(bobMember, bobMemberDelegatedCalendar, eventUid,
             calendarData(eventUid, bobMember.email(), List.of(aliceMember.email()), "Team Calendar read-only ACL guard"));
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                 calDavClient.getCalendarEvent(aliceMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
             .isEqualTo(PartStat.NEEDS_ACTION));
 
@@ -813,7 +813,7 @@ public abstract class TeamCalendarSchedulingContract {
         String technicalToken = dockerExtension().twakeCalendarProvisioningService().generateToken();
         calDavClient.revokeDelegation(teamCalendar.id(), bobMember, technicalToken);
         calDavClient.updateTeamCalendarAcl(teamCalendar, "{DAV:}read");
-        awaitAtMost.untilAsserted(() -> given()
+        awaitAtMost().untilAsserted(() -> given()
             .header("Authorization", OpenPaasUser.impersonatedBasicAuth(bobMember.email()))
         .when()
             .get(teamCalendarCanonicalUrl.eventHref(eventUid).toString())
@@ -834,7 +834,7 @@ public abstract class TeamCalendarSchedulingContract {
             .statusCode(204);
 
         // Then the forged Team Calendar ID does not let bobMember update the Team Calendar
-        awaitAtMost.during(2, TimeUnit.SECONDS)
+        awaitAtMost().during(2, TimeUnit.SECONDS)
             .untilAsserted(() -> assertThat(CalendarUtil.getAttendeePartStat(
                     calDavClient.getCalendarEvent(aliceMember, teamCalendarCanonicalUrl.eventHref(eventUid)), aliceMember.email()))
                 .isEqualTo(PartStat.NEEDS_ACTION));
@@ -854,7 +854,7 @@ public abstract class TeamCalendarSchedulingContract {
         URI nonMemberEventUri = awaitCalendarObjectUriByEventUid(nonMember, CalendarURL.from(nonMember.id()), eventUid);
         URI aliceMemberEventUri = awaitCalendarObjectUriByEventUid(aliceMember, CalendarURL.from(aliceMember.id()), eventUid);
 
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri)))
@@ -872,7 +872,7 @@ public abstract class TeamCalendarSchedulingContract {
         URI nonMemberEventUri = awaitCalendarObjectUriByEventUid(nonMember, CalendarURL.from(nonMember.id()), eventUid);
         URI aliceMemberEventUri = awaitCalendarObjectUriByEventUid(aliceMember, CalendarURL.from(aliceMember.id()), eventUid);
         URI teamCalendarEventUri = bobMemberDelegatedCalendar.eventHref(eventUid);
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bobMember, teamCalendarEventUri)))
                 .isEqualTo(ALARM_TRIGGER_15M);
             assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri)))
@@ -887,11 +887,11 @@ public abstract class TeamCalendarSchedulingContract {
         calDavClient.upsertCalendarEvent(nonMember, nonMemberEventUri, nonMemberUpdatedEventIcs);
 
         // Then nonMember copy reflects the updated alarm
-        awaitAtMost.untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri)))
+        awaitAtMost().untilAsserted(() -> assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri)))
             .isEqualTo(ALARM_TRIGGER_5M));
 
         // And the Team Calendar event and aliceMember copy keep the original alarm trigger
-        awaitAtMost
+        awaitAtMost()
             .during(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(readFirstAlarmTrigger(calDavClient.getCalendarEvent(bobMember, teamCalendarEventUri)))
@@ -918,12 +918,12 @@ public abstract class TeamCalendarSchedulingContract {
             nonMemberEventIcs.replace("TRANSP:" + TRANSP_OPAQUE, "TRANSP:" + TRANSP_TRANSPARENT));
 
         // Then only nonMember attendee copy reflects the local personal setting
-        awaitAtMost.untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri))
+        awaitAtMost().untilAsserted(() -> assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri))
                 .extractPropertyValue(Property.TRANSP))
             .isEqualTo(TRANSP_TRANSPARENT));
 
         // And the Team Calendar event and other attendee copies keep the shared value
-        awaitAtMost.during(2, TimeUnit.SECONDS)
+        awaitAtMost().during(2, TimeUnit.SECONDS)
             .untilAsserted(() -> {
                 assertThat(CalendarUtil.toExtractor(calDavClient.getCalendarEvent(bobMember, teamCalendarCanonicalUrl.eventHref(eventUid)))
                         .extractPropertyValue(Property.TRANSP))
@@ -969,7 +969,7 @@ public abstract class TeamCalendarSchedulingContract {
         CalendarURL teamCalendarCanonicalUrl = CalendarURL.from(teamCalendar.id());
 
         // Then attendee copies keep only their own alarms while Team Calendar keeps every alarm
-        awaitAtMost.untilAsserted(() -> {
+        awaitAtMost().untilAsserted(() -> {
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(nonMember, nonMemberEventUri)))
                 .containsExactly(new EmailAlarm(ALARM_TRIGGER_5M, Set.of(nonMember.email())));
             assertThat(readEmailAlarms(calDavClient.getCalendarEvent(aliceMember, aliceMemberEventUri)))
@@ -986,9 +986,10 @@ public abstract class TeamCalendarSchedulingContract {
     }
 
     private URI awaitCalendarObjectUriByEventUid(OpenPaasUser user, CalendarURL calendarURL, String eventUid) {
-        return awaitAtMost.until(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(user, calendarURL, eventUid),
-                Optional::isPresent)
-            .orElseThrow(() -> new AssertionError("Expected calendar object URI to be present for UID " + eventUid));
+        return DavAwait.atMost(DavAwait.DEFAULT_TIMEOUT)
+            .wakingOn(dockerExtension().amqpEventBus(), CALENDAR_EVENT_EXCHANGES, List.of(user.id(), eventUid))
+            .untilAsserted(() -> calDavClient.findFirstUserCalendarObjectUriByEventUid(user, calendarURL, eventUid)
+                .orElseThrow(() -> new AssertionError("Expected calendar object URI to be present for UID " + eventUid)));
     }
 
     private String calendarData(String eventUid, String organizerEmail, List<String> attendeeEmails, String summary) {
@@ -1126,13 +1127,6 @@ public abstract class TeamCalendarSchedulingContract {
             .buildJson();
     }
 
-    private BlockingQueue<JsonNode> listenToFreshQueue(String queuePrefix, String exchange) throws IOException {
-        String queueName = queuePrefix + UUID.randomUUID();
-        dockerExtension().getChannel().queueDeclare(queueName, false, true, true, null);
-        dockerExtension().getChannel().queueBind(queueName, exchange, "");
-        return AmqpTestHelper.listenToQueue(dockerExtension().getChannel(), queueName);
-    }
-
     private record EmailAlarm(String trigger, Set<String> attendees) {
     }
 
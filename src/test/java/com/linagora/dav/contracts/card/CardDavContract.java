@@ -198,11 +198,7 @@ public abstract class CardDavContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + testUser.id()));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).containsExactlyInAnyOrder("/addressbooks/" + testUser.id() + "/",
             "/addressbooks/" + testUser.id() + "/collected/",
@@ -233,11 +229,7 @@ public abstract class CardDavContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + testUser.id()));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).contains("/addressbooks/" + testUser.id() + "/awesome/");
     }
@@ -299,11 +291,7 @@ public abstract class CardDavContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + testUser.id()));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).doesNotContain("/addressbooks/" + testUser.id() + "/awesome/");
     }
@@ -576,11 +564,7 @@ public abstract class CardDavContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + testUser.id() + "/contacts"));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).contains("/addressbooks/" + testUser.id() + "/contacts/abcdef.vcf");
     }
@@ -600,11 +584,7 @@ public abstract class CardDavContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + testUser.id()));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).doesNotContain("/addressbooks/" + testUser.id() + "/contacts/abcdef.vcf");
     }
@@ -806,8 +786,9 @@ public abstract class CardDavContract {
 
         return XMLUtil.extractByXPath(
             response.body(),
-            "//d:response[d:href='/addressbooks/" + testUser.id() + "/contacts/']/d:propstat/d:prop/d:displayname",
-            Map.of("d", "DAV:"));
+            "//d:response[d:href=concat('/addressbooks/', $userId, '/contacts/')]/d:propstat/d:prop/d:displayname",
+            Map.of("d", "DAV:"),
+            Map.of("userId", testUser.id()));
     }
 
     @Test
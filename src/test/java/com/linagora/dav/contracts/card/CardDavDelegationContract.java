@@ -30,11 +30,11 @@ import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 
 import org.assertj.core.api.AssertionsForInterfaceTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
@@ -55,6 +55,7 @@ import io.restassured.config.EncoderConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CardDavDelegationContract {
     public abstract DockerTwakeCalendarExtension dockerExtension();
 
@@ -592,11 +593,7 @@ public abstract class CardDavDelegationContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + alice.id()));
 
-        List<String> actual = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> actual = XMLUtil.extractResponseHrefs(response.body());
 
         AssertionsForInterfaceTypes.assertThat(actual).contains("/addressbooks/" + addressBookURL.serialize() + "/");
     }
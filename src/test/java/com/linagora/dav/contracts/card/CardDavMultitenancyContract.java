@@ -33,6 +33,7 @@ import java.util.UUID;
 import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -46,6 +47,7 @@ import com.linagora.dav.OpenPaasUser;
 
 import io.netty.handler.codec.http.HttpMethod;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CardDavMultitenancyContract {
 
     private static final String SECOND_DOMAIN = "second-domain.org";
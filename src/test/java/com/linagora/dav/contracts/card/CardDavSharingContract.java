@@ -26,10 +26,10 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.google.common.collect.ImmutableSet;
 import com.linagora.dav.AddressBookURL;
@@ -48,6 +48,7 @@ import io.restassured.config.EncoderConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 
+@ResourceLock(DockerTwakeCalendarExtension.REST_ASSURED)
 public abstract class CardDavSharingContract {
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -656,11 +657,7 @@ public abstract class CardDavSharingContract {
             .request(HttpMethod.valueOf("PROPFIND"))
             .uri("/addressbooks/" + alice.id()));
 
-        List<String> addressBookHrefs = XMLUtil.extractMultipleValueByXPath(
-            response.body(),
-            "//d:multistatus/d:response/d:href",
-            Map.of("d", "DAV:")
-        );
+        List<String> addressBookHrefs = XMLUtil.extractResponseHrefs(response.body());
 
         // Alice should have at least 3 addressbooks: collected, contacts, and the subscription
         assertThat(addressBookHrefs.size()).isGreaterThanOrEqualTo(3);
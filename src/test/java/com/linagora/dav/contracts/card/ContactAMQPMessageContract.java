@@ -18,21 +18,19 @@
 
 package com.linagora.dav.contracts.card;
 
-import static com.linagora.dav.DockerTwakeCalendarExtension.QUEUE_NAME;
+import static com.linagora.dav.TestUtil.awaitAtMost;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.BlockingQueue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.testcontainers.shaded.org.awaitility.Awaitility;
-import org.testcontainers.shaded.org.awaitility.core.ConditionFactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.linagora.dav.CardDavClient;
 import com.linagora.dav.DockerTwakeCalendarExtension;
 import com.linagora.dav.OpenPaasUser;
@@ -41,14 +39,6 @@ import net.javacrumbs.jsonunit.core.Option;
 
 public abstract class ContactAMQPMessageContract {
 
-    private final ConditionFactory calmlyAwait = Awaitility.with()
-        .pollInterval(Duration.ofMillis(500))
-        .and()
-        .with()
-        .pollDelay(Duration.ofMillis(500))
-        .await();
-    private final ConditionFactory awaitAtMost = calmlyAwait.atMost(30, TimeUnit.SECONDS);
-
     private CardDavClient cardDavClient;
 
     public abstract DockerTwakeCalendarExtension dockerExtension();
@@ -60,9 +50,8 @@ public abstract class ContactAMQPMessageContract {
 
     @Test
     void shouldReceiveMessageFromContactCreatedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "sabre:contact:created", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("sabre:contact:created", testUser);
 
         String addressBook = "collected";
         String vcardUid = UUID.randomUUID().toString();
@@ -78,8 +67,6 @@ public abstract class ContactAMQPMessageContract {
 
         cardDavClient.upsertContact(testUser, addressBook, vcardUid, vcard.getBytes(StandardCharsets.UTF_8));
 
-        String actual = new String(getMessageFromQueue(), StandardCharsets.UTF_8);
-
         String expected = """
             {
               "path" : "addressbooks/{userId}/collected/{vcardUid}.vcf",
@@ -89,14 +76,14 @@ public abstract class ContactAMQPMessageContract {
             """.replace("{userId}", testUser.id())
             .replace("{vcardUid}", vcardUid);
 
-        assertThatJson(actual).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected);
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
+            .anySatisfy(message -> assertThatJson(message.toString()).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected)));
     }
 
     @Test
     void shouldReceiveMessageFromContactUpdatedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "sabre:contact:updated", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("sabre:contact:updated", testUser);
 
         String addressBook = "collected";
         String vcardUid = UUID.randomUUID().toString();
@@ -124,8 +111,6 @@ public abstract class ContactAMQPMessageContract {
 
         cardDavClient.upsertContact(testUser, addressBook, vcardUid, updatedVcard.getBytes(StandardCharsets.UTF_8));
 
-        String actual = new String(getMessageFromQueue(), StandardCharsets.UTF_8);
-
         String expected = """
             {
               "path" : "addressbooks/{userId}/collected/{vcardUid}.vcf",
@@ -135,14 +120,14 @@ public abstract class ContactAMQPMessageContract {
             """.replace("{userId}", testUser.id())
             .replace("{vcardUid}", vcardUid);
 
-        assertThatJson(actual).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected);
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
+            .anySatisfy(message -> assertThatJson(message.toString()).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected)));
     }
 
     @Test
     void shouldReceiveMessageFromContactDeletedExchange() throws IOException {
-        dockerExtension().getChannel().queueBind(QUEUE_NAME, "sabre:contact:deleted", "");
-
         OpenPaasUser testUser = dockerExtension().newTestUser();
+        BlockingQueue<JsonNode> messages = dockerExtension().subscribeToEvents("sabre:contact:deleted", testUser);
 
         String addressBook = "collected";
         String vcardUid = UUID.randomUUID().toString();
@@ -160,8 +145,6 @@ public abstract class ContactAMQPMessageContract {
 
         cardDavClient.deleteContact(testUser, addressBook, vcardUid);
 
-        String actual = new String(getMessageFromQueue(), StandardCharsets.UTF_8);
-
         String expected = """
             {
               "path" : "addressbooks/{userId}/collected/{vcardUid}.vcf",
@@ -171,12 +154,7 @@ public abstract class ContactAMQPMessageContract {
             """.replace("{userId}", testUser.id())
             .replace("{vcardUid}", vcardUid);
 
-        assertThatJson(actual).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected);
-    }
-
-    private byte[] getMessageFromQueue() {
-        return awaitAtMost.atMost(Duration.ofSeconds(20))
-            .until(() -> dockerExtension().getChannel().basicGet(QUEUE_NAME, true), Objects::nonNull)
-            .getBody();
+        awaitAtMost().untilAsserted(() -> assertThat(messages)
+            .anySatisfy(message -> assertThatJson(message.toString()).when(Option.IGNORING_EXTRA_FIELDS).isEqualTo(expected)));
     }
 }
@@ -0,0 +1,83 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.linagora.dav.CalendarAssert;
+import com.linagora.dav.CalendarUtil;
+
+import net.fortuna.ical4j.model.Calendar;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarAssertBenchmark {
+    @Param
+    private IcsFixture fixture;
+
+    private String ics;
+    private Calendar actual;
+    private Calendar expected;
+
+    @Setup
+    public void setUp() {
+        ics = fixture.ics();
+        actual = CalendarUtil.parseIcsAndSanitize(ics);
+        expected = CalendarUtil.parseIcsAndSanitize(ics);
+    }
+
+    /**
+     * The way contracts use it: parsing of both sides plus normalisation.
+     */
+    @Benchmark
+    public CalendarAssert isEqualToIcs() {
+        return CalendarAssert.assertThatCalendar(ics).isEqualTo(ics);
+    }
+
+    /**
+     * Normalisation and comparison only.
+     */
+    @Benchmark
+    public CalendarAssert isEqualToParsedCalendar() {
+        return CalendarAssert.assertThatCalendar(actual).isEqualTo(expected);
+    }
+
+    @Benchmark
+    public CalendarAssert isEqualToIgnoringParticipantScheduleStatus() {
+        return CalendarAssert.assertThatCalendar(actual)
+            .ignoringParticipantScheduleStatus()
+            .isEqualTo(expected);
+    }
+}
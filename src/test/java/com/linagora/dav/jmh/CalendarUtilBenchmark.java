@@ -0,0 +1,73 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.linagora.dav.CalendarUtil;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.parameter.PartStat;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarUtilBenchmark {
+    @Param
+    private IcsFixture fixture;
+
+    private String ics;
+    private String attendee;
+
+    @Setup
+    public void setUp() {
+        ics = fixture.ics();
+        attendee = fixture.lastAttendee();
+    }
+
+    @Benchmark
+    public Calendar parseIcs() {
+        return CalendarUtil.parseIcs(ics);
+    }
+
+    @Benchmark
+    public Calendar parseIcsAndSanitize() {
+        return CalendarUtil.parseIcsAndSanitize(ics);
+    }
+
+    @Benchmark
+    public String withAttendeePartStat() {
+        return CalendarUtil.withAttendeePartStat(ics, attendee, PartStat.ACCEPTED);
+    }
+}
@@ -0,0 +1,94 @@
+/********************************************************************
+ *  As a subpart of Twake Mail, this file is edited by Linagora.    *
+ *                                                                  *
+ *  https://twake-mail.com/                                         *
+ *  https://linagora.com                                            *
+ *                                                                  *
+ *  This file is subject to The Affero Gnu Public License           *
+ *  version 3.                                                      *
+ *                                                                  *
+ *  https://www.gnu.org/licenses/agpl-3.0.en.html                   *
+ *                                                                  *
+ *  This program is distributed in the hope that it will be         *
+ *  useful, but WITHOUT ANY WARRANTY; without even the implied      *
+ *  warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR         *
+ *  PURPOSE. See the GNU Affero General Public License for          *
+ *  more details.                                                   *
+ ********************************************************************/
+
+package com.linagora.dav.jmh;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * ICS inputs for the micro benchmarks, from a single small VEVENT to recurring events with
+ * hundreds of overrides and attendees.
+ */
+public enum IcsFixture {
+    SINGLE_EVENT(0, 1),
+    RECURRING_10_OVERRIDES_10_ATTENDEES(10, 10),
+    RECURRING_300_OVERRIDES_100_ATTENDEES(300, 100);
+
+    public static final String ORGANIZER = "organizer@open-paas.org";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final LocalDate FIRST_OCCURRENCE = LocalDate.of(2030, 1, 1);
+
+    private final int overrides;
+    private final int attendees;
+
+    IcsFixture(int overrides, int attendees) {
+        this.overrides = overrides;
+        this.attendees = attendees;
+    }
+
+    public static String attendee(int index) {
+        return "attendee" + index + "@open-paas.org";
+    }
+
+    /**
+     * @return the attendee found last in every VEVENT, the worst case for lookups
+     */
+    public String lastAttendee() {
+        return attendee(attendees - 1);
+    }
+
+    public String ics() {
+        StringBuilder ics = new StringBuilder()
+            .append("BEGIN:VCALENDAR\r\n")
+            .append("VERSION:2.0\r\n")
+            .append("PRODID:-//Twake//Benchmark//EN\r\n")
+            .append("CALSCALE:GREGORIAN\r\n");
+        ics.append(vevent(FIRST_OCCURRENCE, false));
+        IntStream.range(1, overrides + 1)
+            .mapToObj(i -> vevent(FIRST_OCCURRENCE.plusDays(i), true))
+            .forEach(ics::append);
+        return ics.append("END:VCALENDAR\r\n").toString();
+    }
+
+    private String vevent(LocalDate day, boolean override) {
+        String date = DATE_FORMAT.format(day);
+        StringBuilder vevent = new StringBuilder()
+            .append("BEGIN:VEVENT\r\n")
+            .append("UID:benchmark-").append(name()).append("\r\n")
+            .append("DTSTAMP:20250101T000000Z\r\n")
+            .append("DTSTART;TZID=Asia/Ho_Chi_Minh:").append(date).append("T100000\r\n")
+            .append("DTEND;TZID=Asia/Ho_Chi_Minh:").append(date).append("T110000\r\n")
+            .append("SEQUENCE:0\r\n")
+            .append("SUMMARY:Benchmark event ").append(date).append("\r\n")
+            .append("ORGANIZER;CN=Organizer:mailto:").append(ORGANIZER).append("\r\n");
+        if (override) {
+            vevent.append("RECURRENCE-ID;TZID=Asia/Ho_Chi_Minh:").append(date).append("T100000\r\n");
+        } else if (overrides > 0) {
+            vevent.append("RRULE:FREQ=DAILY;COUNT=").append(overrides + 1).append("\r\n");
+        }
+        vevent.append(IntStream.range(0, attendees)
+            .mapToObj(i -> "ATTENDEE;PARTSTAT=NEEDS-ACTION;RSVP=TRUE;ROLE=REQ-PARTICIPANT;CUTYPE=INDIVIDUAL;CN=Attendee "
+                + i + ":mailto:" + attendee(i) + "\r\n")
+            .collect(Collectors.joining()));
+        return vevent.append("END:VEVENT\r\n").toString();
+    }
+}